@@ -21,6 +21,14 @@ android {
         viewBinding = true
     }
 
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            // Benchmarks need a large data set; they run through the benchmark task
+            all { it.exclude("**/*Benchmark.class") }
+        }
+    }
+
     buildTypes {
         release {
             isMinifyEnabled = false
@@ -37,6 +45,9 @@ android {
 }
 
 dependencies {
+    // Booking, pricing and password rules (plain Java)
+    implementation(project(":core"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -54,6 +65,71 @@ dependencies {
     implementation("androidx.core:core-splashscreen:1.0.1")
 
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    testImplementation(libs.core.testing)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
+
+// Builds the prepackaged seed database (AppDatabase.SEED_ASSET) from the app's own
+// Room classes and SeedData, so its schema always matches the build it ships in.
+// Release builds run it before merging assets; debug builds leave it out and seed
+// on first launch, because the generator runs on the debug unit-test classpath,
+// whose Robolectric config already packages the debug assets.
+//   ./gradlew :app:generateSeedDatabase
+abstract class GenerateSeedDatabase : Test() {
+    @get:OutputDirectory
+    abstract val assetsDir: DirectoryProperty
+}
+
+val generateSeedDatabase = tasks.register<GenerateSeedDatabase>("generateSeedDatabase") {
+    group = "build"
+    description = "Builds databases/louver_seed.db from SeedData for release assets."
+    val unitTests = tasks.named<Test>("testDebugUnitTest").get()
+    testClassesDirs = unitTests.testClassesDirs
+    classpath = unitTests.classpath
+    filter { includeTestsMatching("com.example.louver.data.seed.SeedDatabaseGenerator") }
+    assetsDir.set(layout.buildDirectory.dir("generated/seedAssets"))
+    val output = assetsDir.file("databases/louver_seed.db")
+    doFirst { systemProperty("louver.seedAsset", output.get().asFile.absolutePath) }
+}
+
+androidComponents {
+    onVariants(selector().withBuildType("release")) { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(generateSeedDatabase, GenerateSeedDatabase::assetsDir)
+    }
+}
+
+// Runs every *Benchmark class against the synthetic fleet (see SyntheticFleet) and
+// fails on a regression against src/test/resources/benchmarks/baseline.properties,
+// which is recorded at the default CI scale of 0.02.
+//   ./gradlew :app:benchmark                       CI scale: 2k cars, 20k bookings
+//   ./gradlew :app:benchmark -PrequireBaseline     also fail on results without a baseline (CI)
+//   ./gradlew :app:benchmark -PbenchScale=1.0      full size: 100k cars, 1M bookings
+//   ./gradlew :app:benchmark -PupdateBaseline      record the results as the new baseline
+//   ./gradlew :app:benchmark -PupdateBaseline=missing
+//                                                  record only results without an entry yet
+// The generated database is kept in build/benchmarks and reused while the schema
+// and fleet size stay the same.
+tasks.register<Test>("benchmark") {
+    group = "verification"
+    description = "Runs the DAO and in-memory index benchmarks on the JVM."
+    val unitTests = tasks.named<Test>("testDebugUnitTest").get()
+    testClassesDirs = unitTests.testClassesDirs
+    classpath = unitTests.classpath
+    filter { includeTestsMatching("*Benchmark") }
+    maxHeapSize = "4g"
+    systemProperty("louver.bench.scale", findProperty("benchScale") ?: "0.02")
+    systemProperty("louver.bench.dir", layout.buildDirectory.dir("benchmarks").get().asFile.absolutePath)
+    systemProperty(
+        "louver.bench.baseline",
+        file("src/test/resources/benchmarks/baseline.properties").absolutePath
+    )
+    if (hasProperty("updateBaseline")) {
+        systemProperty("louver.bench.updateBaseline", findProperty("updateBaseline").toString().ifEmpty { "true" })
+    }
+    if (hasProperty("requireBaseline")) systemProperty("louver.bench.requireBaseline", "true")
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
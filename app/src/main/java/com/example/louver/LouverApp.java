@@ -7,11 +7,13 @@ import androidx.appcompat.app.AppCompatDelegate;
 
 import com.example.louver.data.auth.LocaleHelper;
 import com.example.louver.data.auth.SessionManager;
+import com.example.louver.data.db.AppDatabase;
 
 /**
  * Custom Application class.
  * - Applies the saved locale in attachBaseContext (before any Activity).
  * - Applies the saved night mode in onCreate.
+ * - Opens the database in the background, so the first screen does not wait for it.
  */
 public class LouverApp extends Application {
 
@@ -24,6 +26,7 @@ public class LouverApp extends Application {
     public void onCreate() {
         super.onCreate();
         applyDarkModePreference();
+        AppDatabase.warmUp(this);
     }
 
     private void applyDarkModePreference() {
@@ -15,15 +15,12 @@ import com.example.louver.data.dao.UserDao;
 import com.example.louver.data.entity.UserEntity;
 
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class AuthRepository {
 
     private final AppDatabase db;
     private final UserDao userDao;
     private final SessionManager sessionManager;
-    private final ExecutorService io;
 
     private final MutableLiveData<Long> currentUserId = new MutableLiveData<>();
     private final LiveData<UserEntity> currentUserLive;
@@ -33,7 +30,6 @@ public class AuthRepository {
         this.db = db;
         this.userDao = db.userDao();
         this.sessionManager = sessionManager;
-        this.io = Executors.newSingleThreadExecutor();
 
         currentUserId.setValue(sessionManager.getUserId());
 
@@ -68,7 +64,8 @@ public class AuthRepository {
             @Nullable String phone
     ) {
         MutableLiveData<AuthResult> result = new MutableLiveData<>();
-        io.execute(() -> {
+        // Writer lane: the duplicate-email check and the insert must not interleave
+        AppDatabase.IO.write(() -> {
             String normEmail = normalizeEmail(email);
             if (normEmail.isEmpty()) {
                 wipe(password);
@@ -108,7 +105,7 @@ public class AuthRepository {
 
     public LiveData<AuthResult> login(@NonNull String email, @NonNull char[] password) {
         MutableLiveData<AuthResult> result = new MutableLiveData<>();
-        io.execute(() -> {
+        AppDatabase.IO.read(() -> {
             String normEmail = normalizeEmail(email);
             if (normEmail.isEmpty()) {
                 wipe(password);
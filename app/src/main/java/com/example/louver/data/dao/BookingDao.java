@@ -5,11 +5,16 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.UserEntity;
 import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.relation.BookingListRow;
 
 import java.util.List;
 
@@ -28,14 +33,37 @@ public interface BookingDao {
     @Query("SELECT * FROM bookings WHERE userId = :userId AND status = :status ORDER BY createdAt DESC")
     LiveData<List<BookingEntity>> getBookingsForUserByStatus(long userId, String status);
 
-    @Transaction
-    @Query("SELECT * FROM bookings WHERE userId = :userId ORDER BY createdAt DESC")
-    LiveData<List<BookingFullDetails>> getBookingsFullDetailsForUser(long userId);
+    /**
+     * Columns of {@link BookingListRow}, for queries over "bookings b" joined with
+     * "cars c" and "users u". Both joins are on primary keys.
+     */
+    String LIST_ROW_COLUMNS =
+            "b.id AS bookingId, b.userId, b.carId, b.pickupAt, b.returnAt, b.daysCount, " +
+            "b.totalPrice, b.status, b.createdAt, " +
+            "c.name AS carName, c.model AS carModel, c.mainImageUrl AS thumbnailUrl, " +
+            "u.fullName AS userName";
 
+    String LIST_ROW_FROM =
+            " FROM bookings b " +
+            "LEFT JOIN cars c ON c.id = b.carId " +
+            "LEFT JOIN users u ON u.id = b.userId";
 
-    @Transaction
-    @Query("SELECT * FROM bookings ORDER BY createdAt DESC")
-    LiveData<List<BookingFullDetails>> getAllBookingsFullDetails();
+    /**
+     * The user's bookings, newest first, as flat rows (one query, uses the
+     * (userId, createdAt) index).
+     */
+    @Query("SELECT " + LIST_ROW_COLUMNS + LIST_ROW_FROM +
+            " WHERE b.userId = :userId ORDER BY b.createdAt DESC, b.id DESC")
+    LiveData<List<BookingListRow>> getBookingListRowsForUser(long userId);
+
+    /**
+     * One page of the admin bookings console. The query is built by
+     * BookingRepository from {@link #LIST_ROW_COLUMNS} with only the active
+     * filters plus the keyset clause on (createdAt DESC, id DESC), so SQLite can
+     * use the matching composite index.
+     */
+    @RawQuery(observedEntities = {BookingEntity.class, CarEntity.class, UserEntity.class})
+    List<BookingListRow> getBookingListRowsPage(SupportSQLiteQuery query);
 
     @Query("SELECT CASE WHEN COUNT(*) > 0 THEN 1 ELSE 0 END FROM bookings WHERE carId = :carId")
     int hasBookingsForCarInternal(long carId);
@@ -70,6 +98,13 @@ public interface BookingDao {
     @Query("SELECT * FROM bookings WHERE id = :bookingId LIMIT 1")
     BookingEntity getBookingByIdNow(long bookingId);
 
+    /**
+     * Bookings that currently block a car (ACTIVE or OVERDUE).
+     * Used to load the car into BookingIntervalIndex.
+     */
+    @Query("SELECT * FROM bookings WHERE carId = :carId AND (status = 'ACTIVE' OR status = 'OVERDUE')")
+    List<BookingEntity> getBlockingBookingsForCarNow(long carId);
+
     @Query("SELECT COUNT(*) FROM bookings")
     LiveData<Integer> countAll();
 
@@ -87,7 +122,25 @@ public interface BookingDao {
     @Query("UPDATE bookings SET status = :status, updatedAt = :updatedAt WHERE id = :bookingId")
     void updateStatus(long bookingId, String status, long updatedAt);
 
+    /**
+     * Status-plus-timestamp write that skips bookings already in the target status.
+     *
+     * @return number of rows changed (0 or 1)
+     */
+    @Query("UPDATE bookings SET status = :status, updatedAt = :updatedAt " +
+            "WHERE id = :bookingId AND status != :status")
+    int updateStatusIfChanged(long bookingId, String status, long updatedAt);
+
     @Transaction
     @Query("SELECT * FROM bookings WHERE id = :bookingId LIMIT 1")
     LiveData<BookingFullDetails> getBookingFullDetailsById(long bookingId);
+
+    /** Bookings per car, any status; ranks search suggestions by popularity. */
+    @Query("SELECT carId, COUNT(*) AS bookings FROM bookings GROUP BY carId")
+    List<CarBookingCount> getBookingCountsNow();
+
+    class CarBookingCount {
+        public long carId;
+        public long bookings;
+    }
 }
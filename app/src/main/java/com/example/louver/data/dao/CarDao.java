@@ -6,10 +6,16 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
+import com.example.louver.data.entity.BookingEntity;
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarRatingStatsEntity;
+import com.example.louver.data.entity.CarStatusEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.data.relation.CarWithImages;
 import com.example.louver.data.relation.CarWithReviews;
 
@@ -18,6 +24,14 @@ import java.util.List;
 @Dao
 public interface CarDao {
 
+    /**
+     * Columns of {@link CarCard}. Every list query selects these instead of
+     * cars.*, so descriptions and other detail-only columns stay out of lists.
+     */
+    String CARD_COLUMNS =
+            "cars.id, cars.categoryId, cars.name, cars.model, cars.year, cars.dailyPrice, " +
+            "cars.transmission, cars.fuelType, cars.seats, cars.mainImageUrl, cars.createdAt";
+
     @Insert(onConflict = OnConflictStrategy.ABORT)
     long insert(CarEntity car);
 
@@ -30,14 +44,17 @@ public interface CarDao {
     @Delete
     void delete(CarEntity car);
 
+    @Query("DELETE FROM cars WHERE id = :carId")
+    int deleteById(long carId);
+
     @Query("SELECT COUNT(*) FROM cars")
     LiveData<Integer> countAll();
 
-    @Query("SELECT * FROM cars ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> getAllCars();
+    @Query("SELECT " + CARD_COLUMNS + " FROM cars ORDER BY createdAt DESC")
+    LiveData<List<CarCard>> getAllCars();
 
-    @Query("SELECT * FROM cars WHERE categoryId = :categoryId ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> getCarsByCategory(long categoryId);
+    @Query("SELECT " + CARD_COLUMNS + " FROM cars WHERE categoryId = :categoryId ORDER BY createdAt DESC")
+    LiveData<List<CarCard>> getCarsByCategory(long categoryId);
 
     @Transaction
     @Query("SELECT * FROM cars WHERE id = :carId LIMIT 1")
@@ -47,73 +64,46 @@ public interface CarDao {
     @Query("SELECT * FROM cars WHERE id = :carId LIMIT 1")
     LiveData<CarWithReviews> getCarWithReviews(long carId);
 
-    @Query("SELECT * FROM cars WHERE (name LIKE '%' || :query || '%') OR (model LIKE '%' || :query || '%') ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> searchCars(String query);
-
-    /**
-     * Advanced filter query.
-     * transmission param expects enum name string (e.g., "AUTOMATIC") or null.
-     * availableOnly can be null (ignored) or true/false.
-     */
-    @Query("SELECT * FROM cars WHERE " +
-            "(:categoryId IS NULL OR categoryId = :categoryId) AND " +
-            "(:minPrice IS NULL OR dailyPrice >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR dailyPrice <= :maxPrice) AND " +
-            "(:year IS NULL OR year = :year) AND " +
-            "(:transmission IS NULL OR transmission = :transmission) AND " +
-            "(:seats IS NULL OR seats = :seats) AND " +
-            "(:availableOnly IS NULL OR isAvailable = :availableOnly) " +
-            "ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> filterCars(
-            Long categoryId,
-            Double minPrice,
-            Double maxPrice,
-            Integer year,
-            String transmission,
-            Integer seats,
-            Boolean availableOnly
-    );
     /**
-     * Combined search and filter query.
-     * Supports:
-     * - Text search on name/model (if searchQuery is not empty)
-     * - Category filtering (if categoryId is not null)
-     * - Availability filtering (if availableOnly is not null)
-     * All filters are combined with AND; null filters are ignored.
+     * Full-text search over name/model/description via the cars_fts index.
+     * matchQuery must be an FTS MATCH expression (e.g. "toy* cam*"), never raw user input.
      */
-    @Query("SELECT * FROM cars WHERE " +
-            "(:searchQuery = '' OR name LIKE '%' || :searchQuery || '%' OR model LIKE '%' || :searchQuery || '%') AND " +
-            "(:categoryId IS NULL OR categoryId = :categoryId) AND " +
-            "(:availableOnly IS NULL OR isAvailable = :availableOnly) " +
-            "ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> searchAndFilter(String searchQuery, Long categoryId, Boolean availableOnly);
+    @Query("SELECT " + CARD_COLUMNS + " FROM cars " +
+            "JOIN cars_fts ON cars.id = cars_fts.rowid " +
+            "WHERE cars_fts MATCH :matchQuery " +
+            "ORDER BY cars.createdAt DESC")
+    LiveData<List<CarCard>> searchCars(String matchQuery);
 
     // For background-thread / synchronous example usage only
     @Query("SELECT * FROM cars WHERE id = :carId LIMIT 1")
     CarEntity getCarByIdNow(long carId);
 
+    // ── Compiled filters ──────────────────────────────────────────────────────
+    // Queries built by CarRepository's filter compiler, containing only the
+    // predicates that are set. Room cannot tell which tables a raw query reads,
+    // so there is one LiveData variant per set of tables a filter can touch.
+
+    /** Filters on catalog columns only; re-runs when cars change. */
+    @RawQuery(observedEntities = {CarEntity.class})
+    LiveData<List<CarCard>> observeCarCards(SupportSQLiteQuery query);
+
+    /** Filters that also read car_status (availability). */
+    @RawQuery(observedEntities = {CarEntity.class, CarStatusEntity.class})
+    LiveData<List<CarCard>> observeCarCardsWithStatus(SupportSQLiteQuery query);
+
     /**
-     * Full combined filter + name/model search.
-     * Used by FilteredCarsFragment when the user types in the search bar.
+     * Filters that also read bookings (the "available between dates" search, which
+     * may go through the booking_rtree virtual table that Room does not know about).
      */
-    @Query("SELECT * FROM cars WHERE " +
-            "(:searchQuery = '' OR name LIKE '%' || :searchQuery || '%' OR model LIKE '%' || :searchQuery || '%') AND " +
-            "(:categoryId IS NULL OR categoryId = :categoryId) AND " +
-            "(:minPrice IS NULL OR dailyPrice >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR dailyPrice <= :maxPrice) AND " +
-            "(:year IS NULL OR year = :year) AND " +
-            "(:transmission IS NULL OR transmission = :transmission) AND " +
-            "(:seats IS NULL OR seats = :seats) AND " +
-            "(:availableOnly IS NULL OR isAvailable = :availableOnly) " +
-            "ORDER BY createdAt DESC")
-    LiveData<List<CarEntity>> filterCarsWithSearch(
-            String searchQuery,
-            Long categoryId,
-            Double minPrice,
-            Double maxPrice,
-            Integer year,
-            String transmission,
-            Integer seats,
-            Boolean availableOnly
-    );
+    @RawQuery(observedEntities = {CarEntity.class, CarStatusEntity.class, BookingEntity.class})
+    LiveData<List<CarCard>> filterCarsRaw(SupportSQLiteQuery query);
+
+    /** Filters sorted by rating, which also read car_rating_stats. */
+    @RawQuery(observedEntities = {CarEntity.class, CarStatusEntity.class, BookingEntity.class,
+            CarRatingStatsEntity.class})
+    LiveData<List<CarCard>> filterCarsByRatingRaw(SupportSQLiteQuery query);
+
+    /** One keyset page of a compiled filter; see KeysetPagedList. */
+    @RawQuery
+    List<CarCard> loadCarCards(SupportSQLiteQuery query);
 }
@@ -14,11 +14,30 @@ import java.util.List;
 public interface CarImageDao {
 
     @Insert(onConflict = OnConflictStrategy.ABORT)
-    void insertAll(List<CarImageEntity> images);
+    List<Long> insertAll(List<CarImageEntity> images);
+
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    long insert(CarImageEntity image);
+
+    @Query("UPDATE car_images SET imageUrl = :imageUrl WHERE id = :id")
+    void setImageUrl(long id, String imageUrl);
+
+    /** Rows still showing imageUrl; its thumbnails can go once this is 0. */
+    @Query("SELECT COUNT(*) FROM car_images WHERE imageUrl = :imageUrl")
+    int countWithUrlNow(String imageUrl);
+
+    @Query("SELECT * FROM car_images WHERE carId = :carId AND position = :position LIMIT 1")
+    CarImageEntity getImageAtNow(long carId, int position);
+
+    @Query("DELETE FROM car_images WHERE carId = :carId AND position = :position")
+    void deleteImageAt(long carId, int position);
 
     @Query("SELECT * FROM car_images WHERE carId = :carId ORDER BY position ASC")
     LiveData<List<CarImageEntity>> getImagesForCar(long carId);
 
+    @Query("SELECT DISTINCT imageUrl FROM car_images WHERE carId = :carId AND imageUrl IS NOT NULL")
+    List<String> getImageUrlsForCarNow(long carId);
+
     // Useful for seed / background operations
     @Query("SELECT * FROM car_images WHERE carId = :carId ORDER BY position ASC")
     List<CarImageEntity> getImagesForCarNow(long carId);
@@ -0,0 +1,51 @@
+package com.example.louver.data.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.louver.data.entity.CarStatusEntity;
+
+import java.util.List;
+
+@Dao
+public interface CarStatusDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CarStatusEntity status);
+
+    @Query("SELECT * FROM car_status WHERE carId = :carId LIMIT 1")
+    CarStatusEntity getStatusNow(long carId);
+
+    @Query("SELECT isAvailable FROM car_status WHERE carId = :carId LIMIT 1")
+    LiveData<Boolean> observeAvailability(long carId);
+
+    /**
+     * Ids of cars that are currently not available. Car lists merge this into
+     * their visible rows instead of re-querying the catalog on every booking.
+     */
+    @Query("SELECT carId FROM car_status WHERE isAvailable = 0")
+    LiveData<List<Long>> observeUnavailableCarIds();
+
+    @Query("SELECT carId FROM car_status WHERE isAvailable = 0")
+    List<Long> getUnavailableCarIdsNow();
+
+    /**
+     * Set availability only. Matches no row when the value is unchanged.
+     *
+     * @return number of rows changed (0 or 1)
+     */
+    @Query("UPDATE car_status SET isAvailable = :available, updatedAt = :updatedAt " +
+            "WHERE carId = :carId AND isAvailable != :available")
+    int setAvailability(long carId, boolean available, long updatedAt);
+
+    @Query("UPDATE car_status SET isAvailable = 0, currentBookingId = :bookingId, updatedAt = :updatedAt " +
+            "WHERE carId = :carId")
+    void markBooked(long carId, long bookingId, long updatedAt);
+
+    @Query("UPDATE car_status SET isAvailable = 1, currentBookingId = NULL, updatedAt = :updatedAt " +
+            "WHERE carId = :carId AND (isAvailable = 0 OR currentBookingId IS NOT NULL)")
+    int markReleased(long carId, long updatedAt);
+}
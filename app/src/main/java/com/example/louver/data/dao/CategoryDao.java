@@ -25,6 +25,9 @@ public interface CategoryDao {
     @Query("SELECT * FROM categories WHERE id = :id LIMIT 1")
     LiveData<CategoryEntity> getById(long id);
 
+    @Query("SELECT * FROM categories ORDER BY name ASC")
+    List<CategoryEntity> getAllNow();
+
     // Useful for seed / background operations
     @Query("SELECT * FROM categories WHERE name = :name LIMIT 1")
     CategoryEntity getByNameNow(String name);
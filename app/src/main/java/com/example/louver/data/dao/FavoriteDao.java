@@ -6,7 +6,6 @@ import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.FavoriteEntity;
 
 import java.util.List;
@@ -23,9 +22,6 @@ public interface FavoriteDao {
     @Query("SELECT CASE WHEN COUNT(*) > 0 THEN 1 ELSE 0 END FROM favorites WHERE userId = :userId AND carId = :carId")
     LiveData<Boolean> isFavorite(long userId, long carId);
 
-    @Query("SELECT c.* FROM cars c " +
-            "INNER JOIN favorites f ON f.carId = c.id " +
-            "WHERE f.userId = :userId " +
-            "ORDER BY f.createdAt DESC")
-    LiveData<List<CarEntity>> getFavoriteCars(long userId);
+    @Query("SELECT carId FROM favorites WHERE userId = :userId ORDER BY createdAt DESC")
+    LiveData<List<Long>> getFavoriteCarIds(long userId);
 }
@@ -7,6 +7,7 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.example.louver.data.entity.CarRatingStatsEntity;
 import com.example.louver.data.entity.ReviewEntity;
 
 import java.util.List;
@@ -20,6 +21,23 @@ public interface ReviewDao {
     @Update
     void update(ReviewEntity review);
 
+    /**
+     * Insert or update the review of (userId, carId) in one statement.
+     * UPSERT needs SQLite 3.24 (API 30+); see {@link #insertReviewIfAbsent} for older devices.
+     */
+    @Query("INSERT INTO reviews (userId, carId, stars, comment, createdAt) " +
+            "VALUES (:userId, :carId, :stars, :comment, :createdAt) " +
+            "ON CONFLICT(userId, carId) DO UPDATE SET stars = excluded.stars, comment = excluded.comment")
+    void upsertReview(long userId, long carId, int stars, String comment, long createdAt);
+
+    @Query("INSERT OR IGNORE INTO reviews (userId, carId, stars, comment, createdAt) " +
+            "VALUES (:userId, :carId, :stars, :comment, :createdAt)")
+    long insertReviewIfAbsent(long userId, long carId, int stars, String comment, long createdAt);
+
+    @Query("UPDATE reviews SET stars = :stars, comment = :comment " +
+            "WHERE userId = :userId AND carId = :carId AND (stars != :stars OR comment IS NOT :comment)")
+    int updateReviewContent(long userId, long carId, int stars, String comment);
+
     @Query("SELECT * FROM reviews WHERE carId = :carId ORDER BY createdAt DESC")
     LiveData<List<ReviewEntity>> getReviewsForCar(long carId);
 
@@ -29,21 +47,41 @@ public interface ReviewDao {
     @Query("SELECT * FROM reviews WHERE userId = :userId AND carId = :carId LIMIT 1")
     ReviewEntity getReviewForUserAndCarNow(long userId, long carId);
 
-    @Query("SELECT AVG(stars) FROM reviews WHERE carId = :carId")
+    // Ratings below read car_rating_stats, which triggers on "reviews" keep current
+
+    @Query("SELECT CAST(starsSum AS REAL) / reviewCount FROM car_rating_stats WHERE carId = :carId AND reviewCount > 0")
     LiveData<Double> getAverageStarsForCar(long carId);
 
-    @Query("SELECT COUNT(*) FROM reviews WHERE carId = :carId")
+    @Query("SELECT COALESCE((SELECT reviewCount FROM car_rating_stats WHERE carId = :carId), 0)")
     LiveData<Integer> getReviewsCountForCar(long carId);
 
-    @Query("SELECT carId, COALESCE(AVG(stars), 0.0) as averageRating, COUNT(*) as reviewCount FROM reviews WHERE carId = :carId GROUP BY carId")
+    @Query("SELECT carId, CAST(starsSum AS REAL) / reviewCount as averageRating, reviewCount FROM car_rating_stats WHERE carId = :carId AND reviewCount > 0")
     LiveData<RatingSummary> getRatingSummaryForCar(long carId);
 
-    @Query("SELECT carId, COALESCE(AVG(stars), 0.0) as averageRating, COUNT(*) as reviewCount FROM reviews GROUP BY carId")
+    @Query("SELECT carId, CAST(starsSum AS REAL) / reviewCount as averageRating, reviewCount FROM car_rating_stats WHERE reviewCount > 0")
     LiveData<List<RatingSummary>> getRatingSummariesForAllCars();
 
+    @Query("SELECT * FROM car_rating_stats WHERE carId = :carId LIMIT 1")
+    LiveData<CarRatingStatsEntity> getRatingStatsForCar(long carId);
+
     class RatingSummary {
         public long carId;
         public double averageRating;
         public long reviewCount;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RatingSummary)) return false;
+            RatingSummary that = (RatingSummary) o;
+            return carId == that.carId
+                    && averageRating == that.averageRating
+                    && reviewCount == that.reviewCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(carId) * 31 + Long.hashCode(reviewCount);
+        }
     }
 }
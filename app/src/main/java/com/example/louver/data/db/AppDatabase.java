@@ -1,6 +1,8 @@
 package com.example.louver.data.db;
 
 import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.room.Database;
@@ -13,6 +15,7 @@ import com.example.louver.data.converter.AppTypeConverters;
 import com.example.louver.data.dao.BookingDao;
 import com.example.louver.data.dao.CarDao;
 import com.example.louver.data.dao.CarImageDao;
+import com.example.louver.data.dao.CarStatusDao;
 import com.example.louver.data.dao.CategoryDao;
 import com.example.louver.data.dao.FavoriteDao;
 import com.example.louver.data.dao.NotificationDao;
@@ -22,7 +25,10 @@ import com.example.louver.data.dao.UserDao;
 import com.example.louver.data.entity.AppSettingsEntity;
 import com.example.louver.data.entity.BookingEntity;
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarFtsEntity;
 import com.example.louver.data.entity.CarImageEntity;
+import com.example.louver.data.entity.CarRatingStatsEntity;
+import com.example.louver.data.entity.CarStatusEntity;
 import com.example.louver.data.entity.CategoryEntity;
 import com.example.louver.data.entity.FavoriteEntity;
 import com.example.louver.data.entity.NotificationEntity;
@@ -30,32 +36,50 @@ import com.example.louver.data.entity.ReviewEntity;
 import com.example.louver.data.entity.UserEntity;
 import com.example.louver.data.seed.SeedData;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.io.IOException;
+import java.io.InputStream;
 
 @Database(
         entities = {
                 UserEntity.class,
                 CategoryEntity.class,
                 CarEntity.class,
+                CarFtsEntity.class,
+                CarStatusEntity.class,
                 CarImageEntity.class,
                 BookingEntity.class,
                 FavoriteEntity.class,
                 ReviewEntity.class,
+                CarRatingStatsEntity.class,
                 AppSettingsEntity.class,
                 NotificationEntity.class
         },
-        version = 3,
+        version = 14,
         exportSchema = false
 )
 @TypeConverters({AppTypeConverters.class})
 public abstract class AppDatabase extends RoomDatabase {
 
+    public static final String DB_NAME = "louver_db";
+
+    /**
+     * Seeded catalog generated at build time by the app:generateSeedDatabase task,
+     * which release builds run before merging assets. When it is packaged, a first
+     * launch copies it instead of running SeedData.
+     */
+    public static final String SEED_ASSET = "databases/louver_seed.db";
+
     private static volatile AppDatabase INSTANCE;
 
+    // What the first open will do; see warmUp
+    private static volatile DatabaseStartup.Source openSource = DatabaseStartup.Source.EXISTING;
+    // The thread that ran onOpen, i.e. that performed the open; see warmUp
+    private static volatile Thread openedOn;
+
     public abstract UserDao userDao();
     public abstract CategoryDao categoryDao();
     public abstract CarDao carDao();
+    public abstract CarStatusDao carStatusDao();
     public abstract CarImageDao carImageDao();
     public abstract BookingDao bookingDao();
     public abstract FavoriteDao favoriteDao();
@@ -63,31 +87,94 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract SettingsDao settingsDao();
     public abstract NotificationDao notificationDao();
 
-    // Single-thread executor for DB operations & seeding
-    public static final ExecutorService DB_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Serialized writer + reader pool for DB operations & seeding (see DbExecutor)
+    public static final DbExecutor IO = new DbExecutor(
+            Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors() - 1)));
 
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                                    context.getApplicationContext(),
-                                    AppDatabase.class,
-                                    "louver_db"
-                            )
-                            .fallbackToDestructiveMigrationFrom(1, 2)
+                    Context app = context.getApplicationContext();
+                    boolean firstLaunch = !app.getDatabasePath(DB_NAME).exists();
+                    boolean prepackaged = hasAsset(app, SEED_ASSET);
+                    if (firstLaunch) {
+                        openSource = prepackaged
+                                ? DatabaseStartup.Source.PREPACKAGED
+                                : DatabaseStartup.Source.SEEDED;
+                    }
+                    Builder<AppDatabase> builder = Room.databaseBuilder(app, AppDatabase.class, DB_NAME)
+                            .fallbackToDestructiveMigrationFrom(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13)
+                            // WAL lets the reader pool run while the writer commits
+                            .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                            .setQueryExecutor(IO.readerExecutor(DbExecutor.Priority.USER))
                             .addCallback(new Callback() {
                                 @Override
                                 public void onCreate(@NonNull SupportSQLiteDatabase db) {
                                     super.onCreate(db);
-                                    // Seed on background thread after DB is created
-                                    DB_EXECUTOR.execute(() -> SeedData.seed(AppDatabase.getInstance(context)));
+                                    // Seed on background thread after DB is created. Room
+                                    // skips onCreate when it copies the prepackaged asset.
+                                    IO.write(DbExecutor.Priority.BACKGROUND,
+                                            () -> SeedData.seed(AppDatabase.getInstance(context)));
+                                }
+
+                                @Override
+                                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                                    super.onOpen(db);
+                                    openedOn = Thread.currentThread();
+                                    BookingRtreeIndex.install(db);
+                                    RatingStatsTriggers.install(db);
+                                    CarStatusRows.install(db);
+                                    CatalogChangeLog.install(db);
+                                }
+
+                                @Override
+                                public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
+                                    super.onDestructiveMigration(db);
+                                    BookingRtreeIndex.drop(db);
+                                    CatalogChangeLog.drop(db);
+                                    // Tables were dropped and recreated empty, so seed them again
+                                    IO.write(DbExecutor.Priority.BACKGROUND,
+                                            () -> SeedData.seed(AppDatabase.getInstance(context)));
                                 }
-                            })
-                            .build();
+                            });
+                    if (prepackaged) {
+                        builder.createFromAsset(SEED_ASSET);
+                    }
+                    INSTANCE = builder.build();
                 }
             }
         }
         return INSTANCE;
     }
+
+    /**
+     * Open the database on the writer now instead of on the first query, and
+     * report how long it took to DatabaseStartup. On a first launch this is the
+     * asset copy, or the empty create that queues SeedData behind it.
+     *
+     * The time is only reported when this call performed the open. If a query
+     * opened the database first, this call either found it open or waited on
+     * that open, and neither is the open's duration.
+     */
+    public static void warmUp(Context context) {
+        IO.write(DbExecutor.Priority.BACKGROUND, () -> {
+            AppDatabase db = getInstance(context);
+            boolean wasOpen = db.isOpen();
+            long start = SystemClock.elapsedRealtime();
+            db.getOpenHelper().getWritableDatabase();
+            long elapsed = SystemClock.elapsedRealtime() - start;
+            boolean performed = !wasOpen && openedOn == Thread.currentThread();
+            DatabaseStartup.opened(openSource, performed ? elapsed : -1L);
+        });
+    }
+
+    private static boolean hasAsset(Context context, String path) {
+        try (InputStream ignored = context.getAssets().open(path)) {
+            return true;
+        } catch (IOException e) {
+            Log.i("AppDatabase", "No " + path + " packaged, seeding on first launch");
+            return false;
+        }
+    }
 }
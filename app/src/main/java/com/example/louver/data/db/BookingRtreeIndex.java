@@ -0,0 +1,100 @@
+package com.example.louver.data.db;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * BookingRtreeIndex: SQLite R*Tree mirror of the time ranges of blocking bookings.
+ *
+ * booking_rtree holds one row per ACTIVE or OVERDUE booking: (id, startAt, endAt) =
+ * (bookings.id, pickupAt, returnAt). Triggers on "bookings" keep it in sync, so the
+ * "available between dates" search can find conflicting bookings with a range lookup
+ * instead of scanning the whole bookings table.
+ *
+ * R*Tree stores 32-bit floats and rounds ranges outward, so a lookup may return a few
+ * extra candidates. Queries must re-check the exact pickupAt/returnAt on "bookings".
+ *
+ * Room does not manage virtual tables, so this is created outside the Room schema
+ * and queried only through @RawQuery. If the SQLite build has no R*Tree module,
+ * {@link #isInstalled()} stays false and callers fall back to a plain bookings query.
+ */
+public final class BookingRtreeIndex {
+
+    private static final String TAG = "BookingRtreeIndex";
+
+    public static final String TABLE = "booking_rtree";
+
+    private static volatile boolean installed = false;
+
+    private BookingRtreeIndex() {}
+
+    /**
+     * True once the virtual table and its triggers exist in the open database.
+     */
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Create the virtual table and triggers if missing, backfilling from "bookings"
+     * when the table is new. Safe to call on every open.
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        try {
+            boolean exists;
+            try (Cursor c = db.query(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?",
+                    new Object[]{TABLE})) {
+                exists = c.moveToFirst();
+            }
+
+            db.beginTransaction();
+            try {
+                if (!exists) {
+                    db.execSQL("CREATE VIRTUAL TABLE " + TABLE + " USING rtree(id, startAt, endAt)");
+                    db.execSQL("INSERT INTO " + TABLE + "(id, startAt, endAt) " +
+                            "SELECT id, pickupAt, returnAt FROM bookings " +
+                            "WHERE status IN ('ACTIVE', 'OVERDUE')");
+                }
+                db.execSQL("CREATE TRIGGER IF NOT EXISTS booking_rtree_ai AFTER INSERT ON bookings " +
+                        "WHEN NEW.status IN ('ACTIVE', 'OVERDUE') BEGIN " +
+                        "INSERT INTO " + TABLE + "(id, startAt, endAt) VALUES (NEW.id, NEW.pickupAt, NEW.returnAt); " +
+                        "END");
+                db.execSQL("CREATE TRIGGER IF NOT EXISTS booking_rtree_au " +
+                        "AFTER UPDATE OF status, pickupAt, returnAt ON bookings BEGIN " +
+                        "DELETE FROM " + TABLE + " WHERE id = OLD.id; " +
+                        "INSERT INTO " + TABLE + "(id, startAt, endAt) " +
+                        "SELECT NEW.id, NEW.pickupAt, NEW.returnAt WHERE NEW.status IN ('ACTIVE', 'OVERDUE'); " +
+                        "END");
+                db.execSQL("CREATE TRIGGER IF NOT EXISTS booking_rtree_ad AFTER DELETE ON bookings BEGIN " +
+                        "DELETE FROM " + TABLE + " WHERE id = OLD.id; " +
+                        "END");
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            installed = true;
+        } catch (SQLException e) {
+            // No R*Tree module in this SQLite build; availability search uses the fallback query
+            Log.w(TAG, "R*Tree unavailable, falling back to bookings scan", e);
+            installed = false;
+        }
+    }
+
+    /**
+     * Drop the virtual table. Needed before Room recreates "bookings" during a
+     * destructive migration, because Room only drops the tables it knows about.
+     */
+    public static void drop(@NonNull SupportSQLiteDatabase db) {
+        try {
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        } catch (SQLException e) {
+            Log.w(TAG, "Could not drop " + TABLE, e);
+        }
+        installed = false;
+    }
+}
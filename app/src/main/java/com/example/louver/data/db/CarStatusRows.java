@@ -0,0 +1,54 @@
+package com.example.louver.data.db;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * CarStatusRows: guarantees that every car has its car_status row.
+ *
+ * A trigger on "cars" inserts the row, with the car's own isAvailable flag, in the
+ * same statement as the car, so a car written through any DAO call is covered and
+ * readers never see a car without one. A row that already exists (for example one
+ * upserted by the repository right after the insert) is left alone; deleting the
+ * car removes it through the foreign key.
+ *
+ * Room does not manage triggers, so it is created here on every open.
+ */
+public final class CarStatusRows {
+
+    private static final String TRIGGER = "car_status_ai";
+
+    /** Current time in epoch millis, the unit of car_status.updatedAt. */
+    private static final String NOW_MS = "CAST(strftime('%s', 'now') AS INTEGER) * 1000";
+
+    private CarStatusRows() {}
+
+    /**
+     * Create the trigger if missing. When it is new, add the rows of cars written
+     * before it existed.
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        boolean exists;
+        try (Cursor c = db.query(
+                "SELECT 1 FROM sqlite_master WHERE type = 'trigger' AND name = ?",
+                new Object[]{TRIGGER})) {
+            exists = c.moveToFirst();
+        }
+        if (exists) return;
+
+        db.beginTransaction();
+        try {
+            db.execSQL("INSERT OR IGNORE INTO car_status(carId, isAvailable, outOfService, updatedAt) " +
+                    "SELECT id, isAvailable, 0, " + NOW_MS + " FROM cars");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER + " AFTER INSERT ON cars BEGIN " +
+                    "INSERT OR IGNORE INTO car_status(carId, isAvailable, outOfService, updatedAt) " +
+                    "VALUES (NEW.id, NEW.isAvailable, 0, " + NOW_MS + "); " +
+                    "END");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.louver.data.db;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * CatalogChangeLog: append-only feed of the car ids written in "cars".
+ *
+ * Triggers on "cars" append one row (seq, carId) per inserted, updated or deleted
+ * car. A reader that remembers the last seq it applied can ask for everything
+ * after it and reload only those cars, instead of re-reading the whole table
+ * each time Room reports that "cars" changed. Consumed rows are pruned by the
+ * reader with {@link #prune}.
+ *
+ * Room does not manage this table or its triggers, so they are created here on
+ * every open, like the other helpers in this package.
+ */
+public final class CatalogChangeLog {
+
+    public static final String TABLE = "catalog_changes";
+
+    private CatalogChangeLog() {}
+
+    /**
+     * Car ids changed after a given seq. {@link #lastSeq} is the seq to pass next time.
+     */
+    public static final class Changes {
+        public final long lastSeq;
+        public final long[] carIds;
+
+        Changes(long lastSeq, long[] carIds) {
+            this.lastSeq = lastSeq;
+            this.carIds = carIds;
+        }
+    }
+
+    /**
+     * Create the log table and triggers if missing. Safe to call on every open.
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE +
+                    " (seq INTEGER PRIMARY KEY AUTOINCREMENT, carId INTEGER NOT NULL)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_changes_ai AFTER INSERT ON cars BEGIN " +
+                    "INSERT INTO " + TABLE + "(carId) VALUES (NEW.id); " +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_changes_au AFTER UPDATE ON cars BEGIN " +
+                    "INSERT INTO " + TABLE + "(carId) VALUES (NEW.id); " +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS catalog_changes_ad AFTER DELETE ON cars BEGIN " +
+                    "INSERT INTO " + TABLE + "(carId) VALUES (OLD.id); " +
+                    "END");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Drop the log table. Called on destructive migration, since Room only drops
+     * the tables it knows about.
+     */
+    public static void drop(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+    }
+
+    /**
+     * Highest seq written so far, or 0 if nothing was ever logged. Read from
+     * sqlite_sequence, which keeps the high-water mark after {@link #prune} has
+     * emptied the table and drops it only with the table itself.
+     */
+    public static long currentSeq(@NonNull SupportSQLiteDatabase db) {
+        try (Cursor c = db.query("SELECT seq FROM sqlite_sequence WHERE name = ?", new Object[]{TABLE})) {
+            return c.moveToFirst() && !c.isNull(0) ? c.getLong(0) : 0L;
+        }
+    }
+
+    /**
+     * Distinct car ids changed after afterSeq.
+     */
+    @NonNull
+    public static Changes readSince(@NonNull SupportSQLiteDatabase db, long afterSeq) {
+        try (Cursor c = db.query(
+                "SELECT carId, MAX(seq) FROM " + TABLE + " WHERE seq > ? GROUP BY carId",
+                new Object[]{afterSeq})) {
+            long[] ids = new long[c.getCount()];
+            long lastSeq = afterSeq;
+            int i = 0;
+            while (c.moveToNext()) {
+                ids[i++] = c.getLong(0);
+                lastSeq = Math.max(lastSeq, c.getLong(1));
+            }
+            return new Changes(lastSeq, ids);
+        }
+    }
+
+    /** Delete entries up to and including seq. */
+    public static void prune(@NonNull SupportSQLiteDatabase db, long uptoSeq) {
+        db.execSQL("DELETE FROM " + TABLE + " WHERE seq <= ?", new Object[]{uptoSeq});
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.louver.data.db;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * DatabaseStartup: how the database got its data on this launch and how long
+ * that took, so a first launch from the prepackaged asset can be compared with
+ * one that falls back to {@link com.example.louver.data.seed.SeedData}.
+ *
+ * AppDatabase reports the first open (which includes copying the asset), and
+ * SeedData reports the seeding transaction. Both are logged under the
+ * "DatabaseStartup" tag; the first-launch total is what the user waits for
+ * before the home screen has cars.
+ */
+public final class DatabaseStartup {
+
+    private static final String TAG = "DatabaseStartup";
+
+    public enum Source {
+        /** The database file was already on disk. */
+        EXISTING,
+        /** First launch: copied from the prepackaged asset. */
+        PREPACKAGED,
+        /** First launch without the asset: created empty, then seeded. */
+        SEEDED
+    }
+
+    private static volatile Source source = Source.EXISTING;
+    private static volatile long openMs = -1L;
+    private static volatile long seedMs = -1L;
+
+    private DatabaseStartup() {}
+
+    /** elapsedMs is -1 when the open was not timed (another caller performed it). */
+    static void opened(@NonNull Source how, long elapsedMs) {
+        source = how;
+        openMs = elapsedMs;
+        if (elapsedMs >= 0) {
+            Log.i(TAG, "Opened in " + elapsedMs + " ms (" + how + ")");
+        } else {
+            Log.i(TAG, "Opened by an earlier query (" + how + "), not timed");
+        }
+    }
+
+    /** Called by SeedData when the seeding transaction has committed. */
+    public static void seeded(long elapsedMs) {
+        seedMs = elapsedMs;
+        // Seeding also runs after a destructive migration, outside the first open
+        if (source == Source.SEEDED) {
+            Log.i(TAG, "Seeded in " + elapsedMs + " ms, first launch ready in "
+                    + (Math.max(openMs, 0L) + elapsedMs) + " ms");
+        } else {
+            Log.i(TAG, "Seeded in " + elapsedMs + " ms");
+        }
+    }
+
+    @NonNull
+    public static Snapshot snapshot() {
+        return new Snapshot(source, openMs, seedMs);
+    }
+
+    public static final class Snapshot {
+        @NonNull public final Source source;
+        /** First open including any asset copy, or -1 if not measured. */
+        public final long openMs;
+        /** Seeding transaction, or -1 if nothing was seeded. */
+        public final long seedMs;
+
+        Snapshot(@NonNull Source source, long openMs, long seedMs) {
+            this.source = source;
+            this.openMs = openMs;
+            this.seedMs = seedMs;
+        }
+
+        /** Time until the catalog was usable. */
+        public long readyMs() {
+            return Math.max(openMs, 0L) + Math.max(seedMs, 0L);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "startup: source=%s open=%dms seed=%dms ready=%dms",
+                    source, openMs, seedMs, readyMs());
+        }
+    }
+}
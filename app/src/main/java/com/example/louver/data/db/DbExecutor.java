@@ -0,0 +1,189 @@
+package com.example.louver.data.db;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DbExecutor: the one place database work is run off the main thread.
+ *
+ * - Writes go to a single writer thread, so they stay serialized in submission
+ *   order within a priority (SQLite allows one writer at a time anyway).
+ * - One-shot reads go to a small pool of reader threads. With WAL enabled on
+ *   AppDatabase, readers see the last committed state and are not blocked by a
+ *   write in progress.
+ * - Each lane orders its queue by {@link Priority}: USER tasks (something the
+ *   user is waiting for) run before BACKGROUND tasks (seeding, maintenance).
+ *
+ * Work that reads and then writes based on what it read (check-then-insert)
+ * must go to the writer, so the check and the write cannot interleave with
+ * another write.
+ */
+public final class DbExecutor {
+
+    public enum Priority {
+        USER,
+        BACKGROUND
+    }
+
+    private final Lane writer;
+    private final Lane readers;
+
+    public DbExecutor(int readerThreads) {
+        this.writer = new Lane("db-writer", 1);
+        this.readers = new Lane("db-reader", Math.max(1, readerThreads));
+    }
+
+    /** Run a write (or read-then-write) task for something the user is waiting on. */
+    public void write(@NonNull Runnable task) {
+        writer.execute(Priority.USER, task);
+    }
+
+    public void write(@NonNull Priority priority, @NonNull Runnable task) {
+        writer.execute(priority, task);
+    }
+
+    /** Run a read-only task for something the user is waiting on. */
+    public void read(@NonNull Runnable task) {
+        readers.execute(Priority.USER, task);
+    }
+
+    public void read(@NonNull Priority priority, @NonNull Runnable task) {
+        readers.execute(priority, task);
+    }
+
+    /**
+     * Plain Executor over the reader pool, for APIs such as Room's query executor
+     * that submit their own Runnables.
+     */
+    public Executor readerExecutor(@NonNull Priority priority) {
+        return task -> readers.execute(priority, task);
+    }
+
+    public Metrics writerMetrics() {
+        return writer.snapshot();
+    }
+
+    public Metrics readerMetrics() {
+        return readers.snapshot();
+    }
+
+    /**
+     * Point-in-time counters for one lane. Times are in milliseconds.
+     */
+    public static final class Metrics {
+        public final String lane;
+        /** Tasks waiting to start right now. */
+        public final int queueDepth;
+        public final long completed;
+        /** Mean time from submit to start. */
+        public final double avgWaitMs;
+        public final long maxWaitMs;
+        /** Mean time from start to finish. */
+        public final double avgRunMs;
+
+        Metrics(String lane, int queueDepth, long completed,
+                double avgWaitMs, long maxWaitMs, double avgRunMs) {
+            this.lane = lane;
+            this.queueDepth = queueDepth;
+            this.completed = completed;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.avgRunMs = avgRunMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: queued=%d completed=%d wait avg=%.1fms max=%dms run avg=%.1fms",
+                    lane, queueDepth, completed, avgWaitMs, maxWaitMs, avgRunMs);
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static final class Lane {
+        private final String name;
+        private final ThreadPoolExecutor pool;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong totalRunNanos = new AtomicLong();
+
+        Lane(String name, int threads) {
+            this.name = name;
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, name + "-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            // Unbounded priority queue: core == max threads, tasks never rejected
+            this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new PriorityBlockingQueue<>(), factory);
+        }
+
+        void execute(Priority priority, Runnable task) {
+            queued.incrementAndGet();
+            pool.execute(new Task(priority, sequence.getAndIncrement(), task));
+        }
+
+        Metrics snapshot() {
+            long done = completed.get();
+            return new Metrics(
+                    name,
+                    queued.get(),
+                    done,
+                    done == 0 ? 0.0 : totalWaitNanos.get() / 1e6 / done,
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                    done == 0 ? 0.0 : totalRunNanos.get() / 1e6 / done);
+        }
+
+        private final class Task implements Runnable, Comparable<Task> {
+            final Priority priority;
+            final long seq;
+            final Runnable body;
+            final long submittedAt = System.nanoTime();
+
+            Task(Priority priority, long seq, Runnable body) {
+                this.priority = priority;
+                this.seq = seq;
+                this.body = body;
+            }
+
+            @Override
+            public void run() {
+                long startedAt = System.nanoTime();
+                queued.decrementAndGet();
+                long wait = startedAt - submittedAt;
+                totalWaitNanos.addAndGet(wait);
+                maxWaitNanos.accumulateAndGet(wait, Math::max);
+                try {
+                    body.run();
+                } finally {
+                    totalRunNanos.addAndGet(System.nanoTime() - startedAt);
+                    completed.incrementAndGet();
+                }
+            }
+
+            @Override
+            public int compareTo(Task other) {
+                int byPriority = priority.compareTo(other.priority);
+                if (byPriority != 0) return byPriority;
+                // FIFO within a priority
+                return Long.compare(seq, other.seq);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.louver.data.db;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * RatingStatsTriggers: keeps car_rating_stats in step with "reviews".
+ *
+ * Each trigger applies its review as a delta (+1 / -1 on the count, +/- stars on the
+ * sum and on the matching histogram bucket) and recomputes the stored average, so a
+ * write costs one row update no matter how many reviews the car already has. Every
+ * car gets a stats row when it is inserted, carrying a copy of its createdAt, so the
+ * rating order is one index walk over this table; deleting the car removes the row
+ * through the foreign key.
+ *
+ * Room creates the table from CarRatingStatsEntity but does not manage triggers,
+ * so they are created here on every open.
+ */
+public final class RatingStatsTriggers {
+
+    private static final String TABLE = "car_rating_stats";
+
+    private RatingStatsTriggers() {}
+
+    /**
+     * Create the triggers if missing. When they are new, rebuild car_rating_stats
+     * from "cars" and "reviews" so rows written before the triggers existed are counted.
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        boolean exists;
+        try (Cursor c = db.query(
+                "SELECT 1 FROM sqlite_master WHERE type = 'trigger' AND name = ?",
+                new Object[]{"car_rating_stats_ai"})) {
+            exists = c.moveToFirst();
+        }
+        if (exists) return;
+
+        db.beginTransaction();
+        try {
+            db.execSQL("DELETE FROM " + TABLE);
+            db.execSQL("INSERT INTO " + TABLE +
+                    "(carId, carCreatedAt, starsSum, reviewCount, " +
+                    "stars1, stars2, stars3, stars4, stars5, avgRating) " +
+                    "SELECT c.id, c.createdAt, COALESCE(SUM(r.stars), 0), COUNT(r.stars), " +
+                    "COALESCE(SUM(r.stars = 1), 0), COALESCE(SUM(r.stars = 2), 0), " +
+                    "COALESCE(SUM(r.stars = 3), 0), COALESCE(SUM(r.stars = 4), 0), " +
+                    "COALESCE(SUM(r.stars = 5), 0), " +
+                    "CAST(SUM(r.stars) AS REAL) / NULLIF(COUNT(r.stars), 0) " +
+                    "FROM cars c LEFT JOIN reviews r ON r.carId = c.id GROUP BY c.id");
+
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS car_rating_stats_car_ai AFTER INSERT ON cars BEGIN " +
+                    "INSERT OR IGNORE INTO " + TABLE + "(carId, carCreatedAt) VALUES (NEW.id, NEW.createdAt); " +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS car_rating_stats_car_au " +
+                    "AFTER UPDATE OF createdAt ON cars BEGIN " +
+                    "UPDATE " + TABLE + " SET carCreatedAt = NEW.createdAt WHERE carId = NEW.id; " +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS car_rating_stats_ai AFTER INSERT ON reviews BEGIN " +
+                    ensureRow("NEW") +
+                    applyDelta("NEW", "+") +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS car_rating_stats_au " +
+                    "AFTER UPDATE OF stars, carId ON reviews BEGIN " +
+                    applyDelta("OLD", "-") +
+                    ensureRow("NEW") +
+                    applyDelta("NEW", "+") +
+                    "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS car_rating_stats_ad AFTER DELETE ON reviews BEGIN " +
+                    applyDelta("OLD", "-") +
+                    "END");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** The car's row, in case it predates the car trigger. */
+    private static String ensureRow(String row) {
+        return "INSERT OR IGNORE INTO " + TABLE + "(carId, carCreatedAt) " +
+                "SELECT id, createdAt FROM cars WHERE id = " + row + ".carId; ";
+    }
+
+    private static String applyDelta(String row, String op) {
+        // SET expressions read the row as it was before this UPDATE
+        return "UPDATE " + TABLE + " SET " +
+                "avgRating = CAST(starsSum " + op + " " + row + ".stars AS REAL) / " +
+                "NULLIF(reviewCount " + op + " 1, 0), " +
+                "starsSum = starsSum " + op + " " + row + ".stars, " +
+                "reviewCount = reviewCount " + op + " 1, " +
+                "stars1 = stars1 " + op + " (" + row + ".stars = 1), " +
+                "stars2 = stars2 " + op + " (" + row + ".stars = 2), " +
+                "stars3 = stars3 " + op + " (" + row + ".stars = 3), " +
+                "stars4 = stars4 " + op + " (" + row + ".stars = 4), " +
+                "stars5 = stars5 " + op + " (" + row + ".stars = 5) " +
+                "WHERE carId = " + row + ".carId; ";
+    }
+}
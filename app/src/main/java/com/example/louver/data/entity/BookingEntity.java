@@ -29,8 +29,10 @@ import static androidx.room.ForeignKey.RESTRICT;
                 )
         },
         indices = {
-                @Index(value = {"userId"}),
-                @Index(value = {"carId"})
+                @Index(value = {"userId", "createdAt"}),
+                @Index(value = {"carId", "pickupAt"}),
+                @Index(value = {"status", "createdAt"}),
+                @Index(value = {"createdAt"})
         }
 )
 public class BookingEntity {
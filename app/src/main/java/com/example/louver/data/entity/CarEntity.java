@@ -5,6 +5,7 @@ import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
+import androidx.room.Ignore;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.example.louver.data.converter.FuelType;
@@ -21,7 +22,15 @@ import static androidx.room.ForeignKey.RESTRICT;
                 )
         },
         indices = {
-                @Index(value = {"categoryId"})
+                // Leading categoryId also serves the foreign key
+                @Index(value = {"categoryId", "dailyPrice"}),
+                // Category lists, already in newest-first order
+                @Index(value = {"categoryId", "createdAt"}),
+                @Index(value = {"transmission", "seats"}),
+                @Index(value = {"createdAt", "id"}),
+                // Price and year sort orders
+                @Index(value = {"dailyPrice"}),
+                @Index(value = {"year", "createdAt"})
         }
 )
 public class CarEntity implements Parcelable {
@@ -37,7 +46,11 @@ public class CarEntity implements Parcelable {
     public int year;
     @ColumnInfo(name = "dailyPrice")
     public double dailyPrice;
-    @ColumnInfo(name = "isAvailable")
+    /**
+     * Not stored in "cars": availability lives in car_status (see CarStatusEntity).
+     * Set when inserting a car, and merged in by the UI when a row is shown.
+     */
+    @Ignore
     public boolean isAvailable;
     @ColumnInfo(name = "transmission")
     public TransmissionType transmission;
@@ -57,6 +70,7 @@ public class CarEntity implements Parcelable {
     @ColumnInfo(name = "createdAt")
     public long createdAt;
     public CarEntity() {}
+    @Ignore
     public CarEntity(long categoryId, String name, String model, int year, double dailyPrice,
                      boolean isAvailable, TransmissionType transmission, FuelType fuelType,
                      int seats, @Nullable Double fuelConsumption, @Nullable String description,
@@ -76,6 +90,7 @@ public class CarEntity implements Parcelable {
         this.createdAt = createdAt;
     }
     // ── Parcelable ────────────────────────────────────────────────────────────
+    @Ignore
     protected CarEntity(Parcel in) {
         id          = in.readLong();
         categoryId  = in.readLong();
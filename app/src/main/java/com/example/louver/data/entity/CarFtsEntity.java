@@ -0,0 +1,28 @@
+package com.example.louver.data.entity;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+/**
+ * Full-text shadow table over the searchable text columns of {@link CarEntity}.
+ *
+ * Declared as an external-content FTS4 table, so it stores only the index and
+ * Room generates the triggers that keep it in sync with every insert, update
+ * and delete on "cars". rowid of a row here equals the id of its car.
+ */
+@Fts4(contentEntity = CarEntity.class)
+@Entity(tableName = "cars_fts")
+public class CarFtsEntity {
+
+    @ColumnInfo(name = "name")
+    public String name;
+
+    @ColumnInfo(name = "model")
+    public String model;
+
+    @Nullable
+    @ColumnInfo(name = "description")
+    public String description;
+}
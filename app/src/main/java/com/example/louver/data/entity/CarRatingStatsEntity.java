@@ -0,0 +1,90 @@
+package com.example.louver.data.entity;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Running review totals for one car: star sum, review count and a per-star histogram.
+ *
+ * Rows are written only by the triggers in
+ * {@link com.example.louver.data.db.RatingStatsTriggers}, which create the row with
+ * the car and apply each insert, update and delete on "reviews" as a delta. Reading
+ * the rating of a car is then a primary-key lookup instead of an aggregate over its
+ * reviews, and the (avgRating, carCreatedAt, carId) index serves the rating order.
+ */
+@Entity(
+        tableName = "car_rating_stats",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CarEntity.class,
+                        parentColumns = "id",
+                        childColumns = "carId",
+                        onDelete = CASCADE
+                )
+        },
+        indices = {
+                @Index(value = {"avgRating", "carCreatedAt", "carId"})
+        }
+)
+public class CarRatingStatsEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "carId")
+    public long carId;
+
+    @ColumnInfo(name = "starsSum", defaultValue = "0")
+    public long starsSum;
+
+    @ColumnInfo(name = "reviewCount", defaultValue = "0")
+    public long reviewCount;
+
+    @ColumnInfo(name = "stars1", defaultValue = "0")
+    public long stars1;
+
+    @ColumnInfo(name = "stars2", defaultValue = "0")
+    public long stars2;
+
+    @ColumnInfo(name = "stars3", defaultValue = "0")
+    public long stars3;
+
+    @ColumnInfo(name = "stars4", defaultValue = "0")
+    public long stars4;
+
+    @ColumnInfo(name = "stars5", defaultValue = "0")
+    public long stars5;
+
+    /** starsSum / reviewCount, or null while the car has no reviews. */
+    @Nullable
+    @ColumnInfo(name = "avgRating")
+    public Double avgRating;
+
+    /** Copy of cars.createdAt: the rating order's tiebreaker, kept in the same index. */
+    @ColumnInfo(name = "carCreatedAt", defaultValue = "0")
+    public long carCreatedAt;
+
+    public CarRatingStatsEntity() {}
+
+    public double averageRating() {
+        return reviewCount == 0 ? 0.0 : (double) starsSum / reviewCount;
+    }
+
+    /**
+     * Number of reviews with exactly the given stars (1..5); 0 for other values.
+     */
+    public long countForStars(int stars) {
+        switch (stars) {
+            case 1: return stars1;
+            case 2: return stars2;
+            case 3: return stars3;
+            case 4: return stars4;
+            case 5: return stars5;
+            default: return 0;
+        }
+    }
+}
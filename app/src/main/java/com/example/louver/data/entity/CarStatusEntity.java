@@ -0,0 +1,66 @@
+package com.example.louver.data.entity;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+/**
+ * Operational state of a car, kept apart from the catalog row in "cars".
+ *
+ * Bookings and cancellations flip these columns often. Because they live in their
+ * own table, such writes only invalidate queries that read car_status; plain
+ * catalog lists, which read only "cars", are not re-run.
+ * Every car has exactly one row: CarStatusRows' trigger inserts it with the car.
+ * Readers still treat a missing row as available.
+ */
+@Entity(
+        tableName = "car_status",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CarEntity.class,
+                        parentColumns = "id",
+                        childColumns = "carId",
+                        onDelete = CASCADE
+                )
+        },
+        indices = {
+                @Index(value = {"isAvailable"})
+        }
+)
+public class CarStatusEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "carId")
+    public long carId;
+
+    @ColumnInfo(name = "isAvailable")
+    public boolean isAvailable;
+
+    /** Booking that currently holds the car, if any. */
+    @Nullable
+    @ColumnInfo(name = "currentBookingId")
+    public Long currentBookingId;
+
+    @Nullable
+    @ColumnInfo(name = "odometerKm")
+    public Integer odometerKm;
+
+    @ColumnInfo(name = "outOfService")
+    public boolean outOfService;
+
+    @ColumnInfo(name = "updatedAt")
+    public long updatedAt;
+
+    public CarStatusEntity() {}
+
+    public CarStatusEntity(long carId, boolean isAvailable, long updatedAt) {
+        this.carId = carId;
+        this.isAvailable = isAvailable;
+        this.updatedAt = updatedAt;
+    }
+}
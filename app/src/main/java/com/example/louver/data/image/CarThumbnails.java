@@ -0,0 +1,283 @@
+package com.example.louver.data.image;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.net.Uri;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CarThumbnails: fixed-size WebP renditions of admin-supplied car images.
+ *
+ * When a car image is saved, {@link #generate} reads the original once (a
+ * gallery content:// URI, a file, or an http(s) URL), center-crops it to each
+ * {@link Rendition} and writes the results to app storage.
+ *
+ * Files are named after the source URI, so the renditions of a URI can be found
+ * without a query: the image loader asks {@link #smallestFitting} for the
+ * smallest rendition that covers the view, and only decodes the original when
+ * no rendition is large enough or none was generated yet. CarRepository calls
+ * {@link #deleteAsync} once no car_images row refers to a URI any more.
+ */
+public final class CarThumbnails {
+
+    private static final String TAG = "CarThumbnails";
+    private static final int WEBP_QUALITY = 80;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    /** Output sizes in pixels, 16:9, smallest first. */
+    public enum Rendition {
+        /** List cells and small previews. */
+        LIST(480, 270),
+        /** Car details on most phones. */
+        DETAIL(960, 540),
+        /** Full-width header on large, dense screens. */
+        HERO(1920, 1080);
+
+        public final int width;
+        public final int height;
+
+        Rendition(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static volatile CarThumbnails instance;
+
+    public static CarThumbnails get(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (CarThumbnails.class) {
+                if (instance == null) {
+                    instance = new CarThumbnails(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final ContentResolver resolver;
+    private final File dir;
+    private final ExecutorService worker;
+
+    // Stats
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private CarThumbnails(Context app) {
+        this.resolver = app.getContentResolver();
+        this.dir = new File(app.getFilesDir(), "thumbnails");
+        // One at a time: decoding a full-size photo needs a lot of memory
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "thumbnail-worker");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    /**
+     * Generate the renditions of source on the thumbnail thread, unless they all
+     * exist already (renditions are named after the source, so an image that is
+     * saved again unchanged keeps its files).
+     */
+    public void generateAsync(@NonNull String source) {
+        worker.execute(() -> {
+            if (!hasAll(source)) generate(source);
+        });
+    }
+
+    /**
+     * Delete the renditions of source on the thumbnail thread, after any
+     * generation queued before it.
+     */
+    public void deleteAsync(@NonNull String source) {
+        worker.execute(() -> delete(source));
+    }
+
+    /**
+     * Write every rendition of source, replacing older files. Blocking; call off
+     * the main thread. False if source could not be read or decoded.
+     */
+    public boolean generate(@NonNull String source) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        File downloaded = null;
+        try {
+            ImageFiles.StreamOpener opener;
+            if (isRemote(source)) {
+                // Fetched once, then read twice (bounds, then pixels)
+                File file = downloaded = download(source);
+                opener = () -> new FileInputStream(file);
+            } else {
+                opener = localOpener(source);
+            }
+            Bitmap original = ImageFiles.decodeAtLeast(opener, Rendition.HERO.width, Rendition.HERO.height);
+            if (original == null) throw new IOException("Not an image");
+            try {
+                for (Rendition r : Rendition.values()) {
+                    write(cropTo(original, r.width, r.height), fileFor(source, r));
+                }
+            } finally {
+                original.recycle();
+            }
+            generated.incrementAndGet();
+            totalNanos.addAndGet(SystemClock.elapsedRealtimeNanos() - start);
+            return true;
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            failed.incrementAndGet();
+            Log.w(TAG, "Cannot create thumbnails for " + source + ": " + e);
+            return false;
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            if (downloaded != null) downloaded.delete();
+        }
+    }
+
+    /** Delete every rendition of source. Blocking; call off the main thread. */
+    public void delete(@NonNull String source) {
+        boolean any = false;
+        for (Rendition r : Rendition.values()) {
+            any |= fileFor(source, r).delete();
+        }
+        if (any) deleted.incrementAndGet();
+    }
+
+    /** True if every rendition of source has been generated. Touches the disk. */
+    public boolean hasAll(@NonNull String source) {
+        for (Rendition r : Rendition.values()) {
+            if (!fileFor(source, r).isFile()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The smallest generated rendition of source at least width x height, or null
+     * if there is none (the caller then decodes the original). Touches the disk.
+     */
+    @Nullable
+    public File smallestFitting(@NonNull String source, int width, int height) {
+        for (Rendition r : Rendition.values()) {
+            if (r.width < width || r.height < height) continue;
+            File file = fileFor(source, r);
+            if (file.isFile()) return file;
+        }
+        return null;
+    }
+
+    /** Sources generated, failed and deleted since start, and the average time per source. */
+    @NonNull
+    public String stats() {
+        long n = generated.get();
+        return String.format(Locale.US, "thumbnails: generated=%d failed=%d deleted=%d avg=%.1fms",
+                n, failed.get(), deleted.get(), n > 0 ? totalNanos.get() / 1e6 / n : 0.0);
+    }
+
+    // ── Decoding and encoding ─────────────────────────────────────────────────
+
+    private static boolean isRemote(String source) {
+        String scheme = Uri.parse(source).getScheme();
+        return scheme != null && (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"));
+    }
+
+    /** content://, file:// and android.resource:// URIs, or a bare file path. */
+    private ImageFiles.StreamOpener localOpener(String source) {
+        Uri uri = Uri.parse(source);
+        if (uri.getScheme() == null) {
+            return () -> new FileInputStream(source);
+        }
+        return () -> {
+            InputStream in = resolver.openInputStream(uri);
+            if (in == null) throw new IOException("No stream for " + source);
+            return in;
+        };
+    }
+
+    private File download(String url) throws IOException {
+        ensureDir();
+        File tmp = File.createTempFile("download", ".tmp", dir);
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        try {
+            int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) throw new IOException("HTTP " + code);
+            try (InputStream in = connection.getInputStream();
+                 OutputStream out = new FileOutputStream(tmp)) {
+                byte[] buffer = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) out.write(buffer, 0, n);
+            }
+            return tmp;
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw e;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /** Scale to cover width x height and cut off the overflow evenly on both sides. */
+    private static Bitmap cropTo(Bitmap src, int width, int height) {
+        float scale = Math.max((float) width / src.getWidth(), (float) height / src.getHeight());
+        int cropW = Math.round(width / scale);
+        int cropH = Math.round(height / scale);
+        int left = (src.getWidth() - cropW) / 2;
+        int top = (src.getHeight() - cropH) / 2;
+        Bitmap out = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        new Canvas(out).drawBitmap(src, new Rect(left, top, left + cropW, top + cropH),
+                new Rect(0, 0, width, height), new Paint(Paint.FILTER_BITMAP_FLAG));
+        return out;
+    }
+
+    @SuppressWarnings("deprecation")
+    private void write(Bitmap bitmap, File target) throws IOException {
+        ensureDir();
+        Bitmap.CompressFormat format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+        File tmp = new File(dir, target.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            if (!bitmap.compress(format, WEBP_QUALITY, out)) throw new IOException("Encode failed");
+        } finally {
+            bitmap.recycle();
+        }
+        if (!tmp.renameTo(target)) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw new IOException("Cannot write " + target);
+        }
+    }
+
+    private void ensureDir() throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+    }
+
+    private File fileFor(String source, Rendition rendition) {
+        return new File(dir, ImageFiles.sha1(source) + "-" + rendition.name().toLowerCase(Locale.ROOT) + ".webp");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.louver.data.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * ImageFiles: helpers shared by {@link CarThumbnails} and the UI's image loader
+ * and disk cache: naming files after their source, and decoding an image at
+ * the smallest size that still covers a target.
+ */
+public final class ImageFiles {
+
+    /** Opens a fresh stream over the same image; decoding reads it twice. */
+    public interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    private ImageFiles() {}
+
+    /** Lowercase hex SHA-1 of text; a file name that is stable for a URI or URL. */
+    @NonNull
+    public static String sha1(@NonNull String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) hex.append(String.format("%02x", b & 0xff));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android runtime ships SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Two passes over the stream: bounds only, then a decode with the largest
+     * power-of-two inSampleSize that keeps the image at least width x height.
+     * Null if the stream is not an image.
+     */
+    @Nullable
+    public static Bitmap decodeAtLeast(@NonNull StreamOpener opener, int width, int height) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = opener.open()) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, width, height);
+        options.inJustDecodeBounds = false;
+        try (InputStream in = opener.open()) {
+            return BitmapFactory.decodeStream(in, null, options);
+        }
+    }
+
+    public static int sampleSize(int imageWidth, int imageHeight, int width, int height) {
+        int sample = 1;
+        while (imageWidth / (sample * 2) >= width && imageHeight / (sample * 2) >= height) {
+            sample *= 2;
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.louver.data.relation;
+
+import androidx.annotation.Nullable;
+
+import com.example.louver.data.converter.BookingStatus;
+
+import java.util.Objects;
+
+/**
+ * BookingListRow: flat projection of one booking for the list screens.
+ *
+ * Filled by a single JOIN of bookings with cars and users, selecting only the
+ * columns the rows display. Unlike {@link BookingFullDetails} there are no
+ * @Relation sub-queries and no full CarEntity/UserEntity per row (description,
+ * passwordHash and the rest stay in the database).
+ *
+ * Car and user columns are null if the referenced row is missing.
+ */
+public class BookingListRow {
+
+    public long bookingId;
+    public long userId;
+    public long carId;
+    public long pickupAt;
+    public long returnAt;
+    public int daysCount;
+    public double totalPrice;
+    public BookingStatus status;
+    public long createdAt;
+
+    @Nullable
+    public String carName;
+    @Nullable
+    public String carModel;
+    @Nullable
+    public String thumbnailUrl;
+    @Nullable
+    public String userName;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingListRow)) return false;
+        BookingListRow that = (BookingListRow) o;
+        return bookingId == that.bookingId
+                && userId == that.userId
+                && carId == that.carId
+                && pickupAt == that.pickupAt
+                && returnAt == that.returnAt
+                && daysCount == that.daysCount
+                && Double.compare(totalPrice, that.totalPrice) == 0
+                && createdAt == that.createdAt
+                && status == that.status
+                && Objects.equals(carName, that.carName)
+                && Objects.equals(carModel, that.carModel)
+                && Objects.equals(thumbnailUrl, that.thumbnailUrl)
+                && Objects.equals(userName, that.userName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bookingId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.louver.data.relation;
+
+import androidx.annotation.Nullable;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+
+import java.util.Objects;
+
+/**
+ * CarCard: the columns of a car shown on list cards (Home, Categories, Search,
+ * Favorites, Admin cars).
+ *
+ * List queries select only these columns (see CarDao.CARD_COLUMNS), so the
+ * unbounded description and other detail-only fields are never loaded for a
+ * list. The full CarEntity is loaded by id on the details and edit screens.
+ */
+public class CarCard {
+
+    public long id;
+    public long categoryId;
+    public String name;
+    public String model;
+    public int year;
+    public double dailyPrice;
+    public TransmissionType transmission;
+    public FuelType fuelType;
+    public int seats;
+    @Nullable
+    public String mainImageUrl;
+    public long createdAt;
+
+    /**
+     * Compares the columns only. Availability is not part of the card: the adapters
+     * read it from the unavailable-car-ids list when binding.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CarCard)) return false;
+        CarCard that = (CarCard) o;
+        return id == that.id
+                && categoryId == that.categoryId
+                && year == that.year
+                && Double.compare(dailyPrice, that.dailyPrice) == 0
+                && seats == that.seats
+                && createdAt == that.createdAt
+                && Objects.equals(name, that.name)
+                && Objects.equals(model, that.model)
+                && transmission == that.transmission
+                && fuelType == that.fuelType
+                && Objects.equals(mainImageUrl, that.mainImageUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
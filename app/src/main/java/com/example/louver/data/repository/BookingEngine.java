@@ -0,0 +1,142 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.louver.data.calculator.BookingCalculationResult;
+import com.example.louver.data.calculator.BookingCalculator;
+import com.example.louver.data.converter.BookingStatus;
+import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+
+import java.util.concurrent.Callable;
+
+/**
+ * BookingEngine: the check-and-insert core of placing a booking.
+ *
+ * The car lookup, overlap check, booking insert and availability update run inside
+ * one database transaction, so no other write can land between the check and the
+ * insert. The engine takes no locks of its own: BookingRepository calls it on the
+ * single database writer (AppDatabase.IO.write), and the transaction serializes
+ * any other caller.
+ *
+ * Storage is behind {@link Store}, so the engine has no Room or Context dependency
+ * and can be exercised from plain JVM code.
+ */
+public final class BookingEngine {
+
+    /**
+     * Storage operations used by the engine. BookingRepository implements it on Room.
+     */
+    public interface Store {
+        @Nullable
+        CarEntity getCar(long carId);
+
+        /** Current availability from car_status. */
+        boolean isCarAvailable(long carId);
+
+        /**
+         * Whether an ACTIVE/OVERDUE booking of the car overlaps the range. Must see
+         * every booking committed before the current transaction.
+         */
+        boolean hasOverlappingActiveBooking(long carId, long pickupAt, long returnAt);
+
+        long insertBooking(@NonNull BookingEntity booking);
+
+        /** Mark the car unavailable and held by the booking (car_status only). */
+        void markCarBooked(long carId, long bookingId);
+
+        /** Run body in one transaction; roll back if it throws. */
+        <T> T runInTransaction(@NonNull Callable<T> body);
+    }
+
+    /**
+     * Outcome of {@link #place}. On success {@link #booking} holds the inserted row.
+     */
+    public static final class Outcome {
+        @NonNull
+        public final PlaceBookingResult result;
+        @Nullable
+        public final BookingEntity booking;
+        /** True when the request was rejected because of an overlapping booking. */
+        public final boolean conflict;
+
+        private Outcome(@NonNull PlaceBookingResult result, @Nullable BookingEntity booking, boolean conflict) {
+            this.result = result;
+            this.booking = booking;
+            this.conflict = conflict;
+        }
+
+        static Outcome placed(BookingEntity booking, BookingCalculationResult calc) {
+            return new Outcome(
+                    PlaceBookingResult.success(booking.id, calc.daysCount, calc.totalPrice), booking, false);
+        }
+
+        static Outcome rejected(String message) {
+            return new Outcome(PlaceBookingResult.error(message), null, false);
+        }
+
+        static Outcome conflicting(String message) {
+            return new Outcome(PlaceBookingResult.error(message), null, true);
+        }
+    }
+
+    private final Store store;
+
+    public BookingEngine(@NonNull Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Validate and place a booking atomically.
+     * Never throws; failures are reported in the returned outcome.
+     */
+    @NonNull
+    public Outcome place(long userId, long carId, long pickupAt, long returnAt, long now) {
+        try {
+            return store.runInTransaction(() -> placeInTransaction(userId, carId, pickupAt, returnAt, now));
+        } catch (RuntimeException e) {
+            return Outcome.rejected("Failed to place booking: " + e.getMessage());
+        }
+    }
+
+    private Outcome placeInTransaction(long userId, long carId, long pickupAt, long returnAt, long now) {
+        CarEntity car = store.getCar(carId);
+        if (car == null) {
+            return Outcome.rejected("Car not found");
+        }
+
+        // Checked before availability, so a conflict can still suggest other dates
+        if (store.hasOverlappingActiveBooking(carId, pickupAt, returnAt)) {
+            return Outcome.conflicting("Car already booked for selected time range");
+        }
+
+        if (!store.isCarAvailable(carId)) {
+            return Outcome.rejected("Car is currently unavailable");
+        }
+
+        BookingCalculationResult calc =
+                BookingCalculator.validateAndCalculate(pickupAt, returnAt, car.dailyPrice);
+        if (!calc.isValid) {
+            return Outcome.rejected(calc.errorMessage);
+        }
+
+        BookingEntity booking = new BookingEntity(
+                userId,
+                carId,
+                pickupAt,
+                returnAt,
+                (int) calc.daysCount,
+                car.dailyPrice,
+                calc.totalPrice,
+                BookingStatus.ACTIVE,
+                now,
+                null
+        );
+        booking.id = store.insertBooking(booking);
+
+        store.markCarBooked(carId, booking.id);
+
+        return Outcome.placed(booking, calc);
+    }
+}
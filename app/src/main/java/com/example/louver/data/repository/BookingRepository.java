@@ -3,27 +3,40 @@ package com.example.louver.data.repository;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
+import androidx.sqlite.db.SimpleSQLiteQuery;
 
-import com.example.louver.data.calculator.BookingCalculator;
-import com.example.louver.data.calculator.BookingCalculationResult;
 import com.example.louver.data.converter.BookingStatus;
+import com.example.louver.data.dao.BookingDao;
 import com.example.louver.data.db.AppDatabase;
 import com.example.louver.data.entity.AppSettingsEntity;
 import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarStatusEntity;
 import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.relation.BookingListRow;
 import com.example.louver.data.notification.NotificationScheduler;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class BookingRepository {
 
     private final AppDatabase db;
     private final Context appContext;
 
+    // Per-car index of ACTIVE/OVERDUE booking ranges, consulted for overlap checks
+    private final BookingIntervalIndex intervalIndex = new BookingIntervalIndex();
+
+    // Transactional check-and-insert for placeBooking
+    private final BookingEngine bookingEngine;
+
     public BookingRepository(AppDatabase db, Context context) {
         this.db = db;
         this.appContext = context.getApplicationContext();
+        this.bookingEngine = new BookingEngine(new RoomBookingStore());
     }
 
 
@@ -35,13 +48,57 @@ public class BookingRepository {
         return db.bookingDao().getBookingsForUserByStatus(userId, status);
     }
 
-    public LiveData<List<BookingFullDetails>> getBookingsFullDetailsForUser(long userId) {
-        return db.bookingDao().getBookingsFullDetailsForUser(userId);
+    public LiveData<List<BookingListRow>> getBookingListRowsForUser(long userId) {
+        return db.bookingDao().getBookingListRowsForUser(userId);
     }
 
 
-    public LiveData<List<BookingFullDetails>> getAllBookingsFullDetails() {
-        return db.bookingDao().getAllBookingsFullDetails();
+    /**
+     * Paged admin bookings feed, newest first. Null filters are left out of the
+     * SQL entirely, so each combination hits a composite index on "bookings":
+     * (status, createdAt), (carId, pickupAt), (userId, createdAt) or (createdAt).
+     *
+     * @param pickupFrom  only bookings picked up at or after this time
+     * @param pickupUntil only bookings picked up before this time
+     */
+    public KeysetPagedList<BookingListRow> pagedAdminBookings(
+            @Nullable BookingStatus status, @Nullable Long carId, @Nullable Long userId,
+            @Nullable Long pickupFrom, @Nullable Long pickupUntil) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> filterArgs = new ArrayList<>();
+        if (status != null)      { where.append(" AND b.status = ?");    filterArgs.add(status.name()); }
+        if (carId != null)       { where.append(" AND b.carId = ?");     filterArgs.add(carId); }
+        if (userId != null)      { where.append(" AND b.userId = ?");    filterArgs.add(userId); }
+        if (pickupFrom != null)  { where.append(" AND b.pickupAt >= ?"); filterArgs.add(pickupFrom); }
+        if (pickupUntil != null) { where.append(" AND b.pickupAt < ?");  filterArgs.add(pickupUntil); }
+
+        String pageSql = "SELECT " + BookingDao.LIST_ROW_COLUMNS + BookingDao.LIST_ROW_FROM + where +
+                " AND (b.createdAt < ? OR (b.createdAt = ? AND b.id < ?))" +
+                " ORDER BY b.createdAt DESC, b.id DESC LIMIT ?";
+
+        return new KeysetPagedList<>(db, new String[]{"bookings", "cars", "users"},
+                new KeysetPagedList.PageSource<BookingListRow>() {
+                    @Override
+                    public List<BookingListRow> loadPage(long afterCreatedAt, long afterId, int limit) {
+                        List<Object> args = new ArrayList<>(filterArgs);
+                        args.add(afterCreatedAt);
+                        args.add(afterCreatedAt);
+                        args.add(afterId);
+                        args.add(limit);
+                        return db.bookingDao().getBookingListRowsPage(
+                                new SimpleSQLiteQuery(pageSql, args.toArray()));
+                    }
+
+                    @Override
+                    public long createdAtOf(BookingListRow item) {
+                        return item.createdAt;
+                    }
+
+                    @Override
+                    public long idOf(BookingListRow item) {
+                        return item.bookingId;
+                    }
+                });
     }
 
     public LiveData<Integer> countAllBookings() {
@@ -53,16 +110,17 @@ public class BookingRepository {
     }
 
     public void hasActiveBookingsForCar(long carId, DbCallback<Boolean> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.read(() -> {
             boolean result = db.bookingDao().hasActiveBookingsForCar(carId);
             if (callback != null) callback.onComplete(result);
         });
     }
 
     public void updateBookingStatus(long bookingId, BookingStatus status) {
-        AppDatabase.DB_EXECUTOR.execute(() ->
-                db.bookingDao().updateStatus(bookingId, status.name(), System.currentTimeMillis())
-        );
+        AppDatabase.IO.write(() -> {
+            db.bookingDao().updateStatusIfChanged(bookingId, status.name(), System.currentTimeMillis());
+            syncIntervalIndex(db.bookingDao().getBookingByIdNow(bookingId));
+        });
     }
 
     public LiveData<BookingFullDetails> getBookingFullDetailsById(long bookingId) {
@@ -70,12 +128,17 @@ public class BookingRepository {
     }
 
     public void createBooking(BookingEntity booking) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.bookingDao().insert(booking));
+        AppDatabase.IO.write(() -> {
+            booking.id = db.bookingDao().insert(booking);
+            syncIntervalIndex(booking);
+        });
     }
 
     public void createBooking(BookingEntity booking, DbCallback<Long> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             long id = db.bookingDao().insert(booking);
+            booking.id = id;
+            syncIntervalIndex(booking);
             if (callback != null) callback.onComplete(id);
         });
     }
@@ -83,13 +146,15 @@ public class BookingRepository {
     /**
      * Place a booking: fetch car, validate, calculate, insert, and update availability.
      *
-     * This method handles the complete booking placement flow:
-     * 1. Fetch CarEntity by carId (synchronous) to get dailyPrice and isAvailable
-     * 2. Check if car exists and is available
-     * 3. Call BookingCalculator.validateAndCalculate() for time/price validation
-     * 4. Insert BookingEntity with computed daysCount and totalPrice
-     * 5. Update car availability to false (booked)
-     * 6. Return PlaceBookingResult with bookingId, daysCount, and totalPrice
+     * The check-and-insert runs atomically in {@link BookingEngine}: one transaction on
+     * the single DB writer, so every placement, for any car, runs after the previous one
+     * has committed:
+     * 1. Fetch CarEntity by carId to get dailyPrice (availability comes from car_status)
+     * 2. Reject if an ACTIVE/OVERDUE booking overlaps (with a suggested free window)
+     * 3. Reject if the car is unavailable
+     * 4. BookingCalculator.validateAndCalculate() for time/price validation
+     * 5. Insert BookingEntity and mark the car unavailable
+     * After commit, notifications are scheduled and the result is returned.
      *
      * @param userId              User placing the booking
      * @param carId               Car being booked
@@ -104,117 +169,86 @@ public class BookingRepository {
             long returnEpochMillis,
             @NonNull DbCallback<PlaceBookingResult> callback
     ) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            // Step 1: Fetch car by ID (synchronous DAO method)
-            com.example.louver.data.entity.CarEntity car = db.carDao().getCarByIdNow(carId);
-
-            if (car == null) {
-                if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.error("Car not found"));
-                }
-                return;
-            }
-
-            // Step 2: Check for overlapping active bookings (always, regardless of isAvailable)
-            boolean hasOverlap = db.bookingDao().hasOverlappingActiveBooking(
-                    carId,
-                    pickupEpochMillis,
-                    returnEpochMillis
-            );
-            if (hasOverlap) {
-                if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.error("Car already booked for selected time range"));
-                }
-                return;
-            }
-
-            // Step 3: Check car availability flag
-            if (!car.isAvailable) {
-                if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.error("Car is currently unavailable"));
-                }
-                return;
-            }
-
-            // Step 4: Validate time range and calculate days/price
-            BookingCalculationResult calc = BookingCalculator.validateAndCalculate(
-                    pickupEpochMillis,
-                    returnEpochMillis,
-                    car.dailyPrice
-            );
-
-            if (!calc.isValid) {
+        AppDatabase.IO.write(() -> {
+            BookingEngine.Outcome outcome = bookingEngine.place(
+                    userId, carId, pickupEpochMillis, returnEpochMillis, System.currentTimeMillis());
+
+            if (outcome.conflict) {
+                ensureIntervalIndexLoaded(carId);
+                BookingIntervalIndex.FreeWindow suggestion = intervalIndex.findNextFreeWindow(
+                        carId,
+                        pickupEpochMillis,
+                        returnEpochMillis - pickupEpochMillis
+                );
                 if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.error(calc.errorMessage));
+                    callback.onComplete(PlaceBookingResult.conflict(outcome.result.errorMessage, suggestion));
                 }
                 return;
             }
 
-            // Step 4: Create and insert booking entity with computed values
-            BookingEntity booking = new BookingEntity(
-                    userId,
-                    carId,
-                    pickupEpochMillis,
-                    returnEpochMillis,
-                    (int) calc.daysCount,
-                    car.dailyPrice,
-                    calc.totalPrice,
-                    BookingStatus.ACTIVE,
-                    System.currentTimeMillis(),
-                    null
-            );
-
-            try {
-                long bookingId = db.bookingDao().insert(booking);
-
-                // Step 5: Update car availability to false (booked)
-                car.isAvailable = false;
-                db.carDao().update(car);
-
-                // Step 6: Schedule notifications if enabled
+            BookingEntity booking = outcome.booking;
+            if (booking != null) {
+                syncIntervalIndex(booking);
                 if (isNotificationsEnabled()) {
                     NotificationScheduler.scheduleBookingNotifications(
                             appContext,
                             db,
-                            bookingId,
+                            booking.id,
                             returnEpochMillis
                     );
                 }
-
-                // Step 7: Return success with booking details
-                if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.success(bookingId, calc.daysCount, calc.totalPrice));
-                }
-            } catch (Exception e) {
-                if (callback != null) {
-                    callback.onComplete(PlaceBookingResult.error("Failed to place booking: " + e.getMessage()));
-                }
             }
+            if (callback != null) callback.onComplete(outcome.result);
         });
     }
 
     public void updateBooking(BookingEntity booking) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.bookingDao().update(booking));
+        AppDatabase.IO.write(() -> {
+            db.bookingDao().update(booking);
+            syncIntervalIndex(booking);
+        });
     }
 
     public void markCompleted(long bookingId, long updatedAt) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.bookingDao().markCompleted(bookingId, updatedAt));
+        AppDatabase.IO.write(() -> {
+            db.bookingDao().markCompleted(bookingId, updatedAt);
+            intervalIndex.remove(bookingId);
+        });
     }
 
     public void markCancelled(long bookingId, long updatedAt) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.bookingDao().markCancelled(bookingId, updatedAt));
+        AppDatabase.IO.write(() -> {
+            db.bookingDao().markCancelled(bookingId, updatedAt);
+            intervalIndex.remove(bookingId);
+        });
     }
 
     public void hasOverlappingActiveBooking(long carId, long pickupAt, long returnAt, DbCallback<Boolean> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            boolean overlap = db.bookingDao().hasOverlappingActiveBooking(carId, pickupAt, returnAt);
+        AppDatabase.IO.read(() -> {
+            ensureIntervalIndexLoaded(carId);
+            boolean overlap = intervalIndex.overlaps(carId, pickupAt, returnAt);
             if (callback != null) callback.onComplete(overlap);
         });
     }
 
+    /**
+     * Find the earliest window of durationMillis, starting at or after fromMillis,
+     * in which the car has no ACTIVE or OVERDUE booking.
+     * Used to suggest alternative dates when a requested range is taken.
+     */
+    public void findNextFreeWindow(long carId, long fromMillis, long durationMillis,
+                                   DbCallback<BookingIntervalIndex.FreeWindow> callback) {
+        AppDatabase.IO.read(() -> {
+            ensureIntervalIndexLoaded(carId);
+            BookingIntervalIndex.FreeWindow window =
+                    intervalIndex.findNextFreeWindow(carId, fromMillis, durationMillis);
+            if (callback != null) callback.onComplete(window);
+        });
+    }
+
 
     public void hasBookingsForCar(long carId, DbCallback<Boolean> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.read(() -> {
             boolean hasBookings = db.bookingDao().hasBookingsForCar(carId);
             if (callback != null) callback.onComplete(hasBookings);
         });
@@ -227,7 +261,7 @@ public class BookingRepository {
      * @param callback  Result callback with success/error
      */
     public void cancelBooking(long bookingId, DbCallback<CancellationResult> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             try {
                 // Step 1: Fetch booking by ID
                 BookingEntity booking = db.bookingDao().getBookingByIdNow(bookingId);
@@ -239,19 +273,14 @@ public class BookingRepository {
                     return;
                 }
 
-                // Step 2: Set booking status to CANCELLED
-                booking.status = BookingStatus.CANCELLED;
-                booking.updatedAt = System.currentTimeMillis();
-
-                // Step 3: Update booking in database
-                db.bookingDao().update(booking);
-
-                // Step 4: Restore car availability
-                com.example.louver.data.entity.CarEntity car = db.carDao().getCarByIdNow(booking.carId);
-                if (car != null) {
-                    car.isAvailable = true;
-                    db.carDao().update(car);
-                }
+                // Steps 2-4: Mark CANCELLED and restore car availability in one transaction,
+                // writing only the changed columns
+                long now = System.currentTimeMillis();
+                db.runInTransaction(() -> {
+                    db.bookingDao().updateStatusIfChanged(bookingId, BookingStatus.CANCELLED.name(), now);
+                    db.carStatusDao().markReleased(booking.carId, now);
+                });
+                intervalIndex.remove(bookingId);
 
                 // Step 5: Cancel all scheduled notifications
                 NotificationScheduler.cancelBookingNotifications(
@@ -271,6 +300,43 @@ public class BookingRepository {
         });
     }
 
+    /**
+     * Load a car's blocking bookings into the interval index the first time it is needed.
+     * Must run on a DB executor thread (reader or writer).
+     *
+     * The query and the load happen under the index lock, so a write that commits
+     * meanwhile either is in the rows read here or has its put() applied after the load.
+     */
+    private void ensureIntervalIndexLoaded(long carId) {
+        synchronized (intervalIndex) {
+            if (intervalIndex.isLoaded(carId)) return;
+            List<BookingEntity> blocking = db.bookingDao().getBlockingBookingsForCarNow(carId);
+            long[] ids = new long[blocking.size()];
+            long[] pickups = new long[blocking.size()];
+            long[] returns = new long[blocking.size()];
+            for (int i = 0; i < blocking.size(); i++) {
+                BookingEntity b = blocking.get(i);
+                ids[i] = b.id;
+                pickups[i] = b.pickupAt;
+                returns[i] = b.returnAt;
+            }
+            intervalIndex.load(carId, ids, pickups, returns);
+        }
+    }
+
+    /**
+     * Mirror a booking's current row into the interval index:
+     * ACTIVE/OVERDUE bookings block their car, anything else is dropped.
+     */
+    private void syncIntervalIndex(BookingEntity booking) {
+        if (booking == null) return;
+        if (booking.status == BookingStatus.ACTIVE || booking.status == BookingStatus.OVERDUE) {
+            intervalIndex.put(booking.id, booking.carId, booking.pickupAt, booking.returnAt);
+        } else {
+            intervalIndex.remove(booking.id);
+        }
+    }
+
     /**
      * Check if notifications are enabled.
      */
@@ -282,4 +348,45 @@ public class BookingRepository {
             return false;
         }
     }
+
+    /**
+     * BookingEngine.Store on top of Room. Overlaps are answered by the interval
+     * index: placements run on the writer, which syncs the index right after each
+     * commit, so the index already holds every committed booking of the car.
+     */
+    private final class RoomBookingStore implements BookingEngine.Store {
+
+        @Override
+        public CarEntity getCar(long carId) {
+            return db.carDao().getCarByIdNow(carId);
+        }
+
+        @Override
+        public boolean hasOverlappingActiveBooking(long carId, long pickupAt, long returnAt) {
+            ensureIntervalIndexLoaded(carId);
+            return intervalIndex.overlaps(carId, pickupAt, returnAt);
+        }
+
+        @Override
+        public long insertBooking(@NonNull BookingEntity booking) {
+            return db.bookingDao().insert(booking);
+        }
+
+        @Override
+        public boolean isCarAvailable(long carId) {
+            CarStatusEntity status = db.carStatusDao().getStatusNow(carId);
+            // Same rule as loadCar and CatalogStore: no row reads as available
+            return status == null || status.isAvailable;
+        }
+
+        @Override
+        public void markCarBooked(long carId, long bookingId) {
+            db.carStatusDao().markBooked(carId, bookingId, System.currentTimeMillis());
+        }
+
+        @Override
+        public <T> T runInTransaction(@NonNull Callable<T> body) {
+            return db.runInTransaction(body);
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * CarFilter: the state of a car search screen (search text plus catalog filters).
+ *
+ * Every field is optional; null means "not filtered". The availability window is
+ * applied only when both availableFrom and availableUntil are set. Results are
+ * ordered by {@link #sort}, newest first unless changed with {@link #withSort}.
+ * CarRepository compiles a filter into SQL that contains only the predicates
+ * that are actually set (see {@link CarFilterCompiler}).
+ */
+public final class CarFilter {
+
+    private static final CarFilter ALL =
+            new CarFilter(null, null, null, null, null, null, null, null, null, null);
+
+    @Nullable public final String searchQuery;
+    @Nullable public final Long categoryId;
+    @Nullable public final Double minPrice;
+    @Nullable public final Double maxPrice;
+    @Nullable public final Integer year;
+    /** TransmissionType name, e.g. "AUTOMATIC". */
+    @Nullable public final String transmission;
+    @Nullable public final Integer seats;
+    /** Matched against car_status.isAvailable. */
+    @Nullable public final Boolean availableOnly;
+    /** Only cars with no ACTIVE/OVERDUE booking overlapping [availableFrom, availableUntil). */
+    @Nullable public final Long availableFrom;
+    @Nullable public final Long availableUntil;
+    @NonNull public final CarSort sort;
+
+    public CarFilter(@Nullable String searchQuery, @Nullable Long categoryId,
+                     @Nullable Double minPrice, @Nullable Double maxPrice,
+                     @Nullable Integer year, @Nullable String transmission,
+                     @Nullable Integer seats, @Nullable Boolean availableOnly,
+                     @Nullable Long availableFrom, @Nullable Long availableUntil) {
+        this(searchQuery, categoryId, minPrice, maxPrice, year, transmission, seats,
+                availableOnly, availableFrom, availableUntil, CarSort.NEWEST);
+    }
+
+    private CarFilter(@Nullable String searchQuery, @Nullable Long categoryId,
+                      @Nullable Double minPrice, @Nullable Double maxPrice,
+                      @Nullable Integer year, @Nullable String transmission,
+                      @Nullable Integer seats, @Nullable Boolean availableOnly,
+                      @Nullable Long availableFrom, @Nullable Long availableUntil,
+                      @NonNull CarSort sort) {
+        this.searchQuery = searchQuery;
+        this.categoryId = categoryId;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.year = year;
+        this.transmission = transmission;
+        this.seats = seats;
+        this.availableOnly = availableOnly;
+        this.availableFrom = availableFrom;
+        this.availableUntil = availableUntil;
+        this.sort = sort;
+    }
+
+    /** The same filters in another order. */
+    public CarFilter withSort(@Nullable CarSort sort) {
+        CarSort next = sort != null ? sort : CarSort.NEWEST;
+        if (next == this.sort) return this;
+        return new CarFilter(searchQuery, categoryId, minPrice, maxPrice, year, transmission,
+                seats, availableOnly, availableFrom, availableUntil, next);
+    }
+
+    /** No filters: every car, newest first. */
+    public static CarFilter all() {
+        return ALL;
+    }
+
+    public static CarFilter forCategory(@Nullable Long categoryId) {
+        return new CarFilter(null, categoryId, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * The same search with equivalent inputs spelled one way: search text reduced
+     * to its lowercase words ("  Toyota  CAMRY" and "toyota camry" match the same
+     * cars) and a half-set date range dropped, since it is not applied. Equal
+     * normalized filters always return the same cars.
+     */
+    @NonNull
+    public CarFilter normalized() {
+        String query = null;
+        if (searchQuery != null) {
+            StringBuilder words = new StringBuilder();
+            for (String token : searchQuery.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (token.isEmpty()) continue;
+                if (words.length() > 0) words.append(' ');
+                words.append(token);
+            }
+            if (words.length() > 0) query = words.toString();
+        }
+        Long from = hasDateRange() ? availableFrom : null;
+        Long until = hasDateRange() ? availableUntil : null;
+        if (Objects.equals(query, searchQuery)
+                && Objects.equals(from, availableFrom) && Objects.equals(until, availableUntil)) {
+            return this;
+        }
+        return new CarFilter(query, categoryId, minPrice, maxPrice, year, transmission,
+                seats, availableOnly, from, until, sort);
+    }
+
+    public boolean hasDateRange() {
+        return availableFrom != null && availableUntil != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CarFilter)) return false;
+        CarFilter that = (CarFilter) o;
+        return Objects.equals(searchQuery, that.searchQuery)
+                && Objects.equals(categoryId, that.categoryId)
+                && Objects.equals(minPrice, that.minPrice)
+                && Objects.equals(maxPrice, that.maxPrice)
+                && Objects.equals(year, that.year)
+                && Objects.equals(transmission, that.transmission)
+                && Objects.equals(seats, that.seats)
+                && Objects.equals(availableOnly, that.availableOnly)
+                && Objects.equals(availableFrom, that.availableFrom)
+                && Objects.equals(availableUntil, that.availableUntil)
+                && sort == that.sort;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(searchQuery, categoryId, minPrice, maxPrice, year,
+                transmission, seats, availableOnly, availableFrom, availableUntil, sort);
+    }
+}
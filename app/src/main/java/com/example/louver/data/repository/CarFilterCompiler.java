@@ -0,0 +1,242 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.example.louver.data.dao.CarDao;
+import com.example.louver.data.db.BookingRtreeIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CarFilterCompiler: turns a {@link CarFilter} into SQL over "cars" with only the
+ * predicates that are set.
+ *
+ * The old catch-all form "(:x IS NULL OR col = :x)" keeps every predicate in
+ * the statement, so SQLite cannot use an index for any of them. Here an unset
+ * filter simply does not appear, and each set predicate is a plain comparison
+ * that can use the (categoryId, createdAt), (categoryId, dailyPrice), (dailyPrice),
+ * (year, createdAt), (transmission, seats) or (createdAt, id) indexes on cars.
+ *
+ * The SQL text depends only on which filters are set (the filter's "shape"),
+ * and the sort order, not on their values, which are bound as arguments. Statements are built once
+ * per shape and cached, so repeated searches reuse the same SQL string and hit
+ * SQLite's per-connection prepared statement cache instead of being re-parsed.
+ */
+final class CarFilterCompiler {
+
+    // Shape bits, in the order the predicates are emitted
+    static final int SEARCH = 1;
+    static final int CATEGORY = 1 << 1;
+    /** Either price bound; see {@link #compile}. */
+    static final int PRICE = 1 << 2;
+    static final int YEAR = 1 << 3;
+    static final int TRANSMISSION = 1 << 4;
+    static final int SEATS = 1 << 5;
+    static final int AVAILABILITY = 1 << 6;
+    static final int DATE_RANGE = 1 << 7;
+    /** Date range answered through booking_rtree rather than a bookings scan. */
+    static final int RTREE = 1 << 8;
+    /** CarSort ordinal, stored above the predicate bits. */
+    private static final int SORT_SHIFT = 9;
+
+    /**
+     * A filter compiled against its cached shape: the SQL plus this filter's arguments.
+     */
+    static final class Compiled {
+        final int shape;
+        final String[] observedTables;
+        private final Statements statements;
+        private final Object[] args;
+
+        Compiled(int shape, Statements statements, Object[] args) {
+            this.shape = shape;
+            this.statements = statements;
+            this.observedTables = statements.observedTables;
+            this.args = args;
+        }
+
+        boolean filtersOnStatus() {
+            return (shape & AVAILABILITY) != 0;
+        }
+
+        boolean filtersOnBookings() {
+            return (shape & DATE_RANGE) != 0;
+        }
+
+        boolean sortsOnRating() {
+            return sortOf(shape) == CarSort.RATING;
+        }
+
+        /** Keyset pages follow (createdAt, id), so only the NEWEST order can be paged. */
+        boolean pageable() {
+            return statements.pageSql != null;
+        }
+
+        /** All matching cars, newest first. */
+        SupportSQLiteQuery list() {
+            return new SimpleSQLiteQuery(statements.listSql, args);
+        }
+
+        /** One keyset page after (afterCreatedAt, afterId). */
+        SupportSQLiteQuery page(long afterCreatedAt, long afterId, int limit) {
+            if (!pageable()) throw new IllegalStateException("Only NEWEST order can be paged");
+            Object[] pageArgs = new Object[args.length + 4];
+            System.arraycopy(args, 0, pageArgs, 0, args.length);
+            pageArgs[args.length] = afterCreatedAt;
+            pageArgs[args.length + 1] = afterCreatedAt;
+            pageArgs[args.length + 2] = afterId;
+            pageArgs[args.length + 3] = limit;
+            return new SimpleSQLiteQuery(statements.pageSql, pageArgs);
+        }
+
+        String listSql() {
+            return statements.listSql;
+        }
+
+        String pageSql() {
+            return statements.pageSql;
+        }
+    }
+
+    /** SQL for one filter shape. */
+    static final class Statements {
+        final String listSql;
+        final String pageSql;
+        final String[] observedTables;
+
+        Statements(String listSql, String pageSql, String[] observedTables) {
+            this.listSql = listSql;
+            this.pageSql = pageSql;
+            this.observedTables = observedTables;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Statements> statementsByShape = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @NonNull
+    Compiled compile(@NonNull CarFilter filter) {
+        int shape = 0;
+        List<Object> args = new ArrayList<>();
+
+        String match = CarRepository.toFtsMatchQuery(filter.searchQuery);
+        if (match != null)                { shape |= SEARCH;       args.add(match); }
+        if (filter.categoryId != null)    { shape |= CATEGORY;     args.add(filter.categoryId); }
+        if (filter.minPrice != null || filter.maxPrice != null) {
+            // A one-sided bound is closed with the opposite extreme: SQLite guesses a
+            // two-sided range far more selective and walks the price index for it,
+            // where a lone ">=" or "<=" is planned as a scan in createdAt order
+            shape |= PRICE;
+            args.add(filter.minPrice != null ? filter.minPrice : -Double.MAX_VALUE);
+            args.add(filter.maxPrice != null ? filter.maxPrice : Double.MAX_VALUE);
+        }
+        if (filter.year != null)          { shape |= YEAR;         args.add(filter.year); }
+        if (filter.transmission != null)  { shape |= TRANSMISSION; args.add(filter.transmission); }
+        if (filter.seats != null)         { shape |= SEATS;        args.add(filter.seats); }
+        if (filter.availableOnly != null) { shape |= AVAILABILITY; args.add(filter.availableOnly ? 1 : 0); }
+        shape |= filter.sort.ordinal() << SORT_SHIFT;
+        if (filter.hasDateRange()) {
+            shape |= DATE_RANGE;
+            if (BookingRtreeIndex.isInstalled()) {
+                shape |= RTREE;
+                args.add(filter.availableUntil);
+                args.add(filter.availableFrom);
+            }
+            args.add(filter.availableUntil);
+            args.add(filter.availableFrom);
+        }
+
+        Statements statements = statementsByShape.get(shape);
+        if (statements != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            statements = statementsByShape.computeIfAbsent(shape, CarFilterCompiler::build);
+        }
+        return new Compiled(shape, statements, args.toArray());
+    }
+
+    long cacheHits() {
+        return hits.get();
+    }
+
+    long cacheMisses() {
+        return misses.get();
+    }
+
+    int cachedShapes() {
+        return statementsByShape.size();
+    }
+
+    private static CarSort sortOf(int shape) {
+        return CarSort.values()[shape >>> SORT_SHIFT];
+    }
+
+    private static Statements build(int shape) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if ((shape & SEARCH) != 0)       where.append(" AND id IN (SELECT rowid FROM cars_fts WHERE cars_fts MATCH ?)");
+        if ((shape & CATEGORY) != 0)     where.append(" AND categoryId = ?");
+        if ((shape & PRICE) != 0)        where.append(" AND dailyPrice >= ? AND dailyPrice <= ?");
+        if ((shape & YEAR) != 0)         where.append(" AND year = ?");
+        if ((shape & TRANSMISSION) != 0) where.append(" AND transmission = ?");
+        if ((shape & SEATS) != 0)        where.append(" AND seats = ?");
+        if ((shape & AVAILABILITY) != 0) where.append(" AND id IN (SELECT carId FROM car_status WHERE isAvailable = ?)");
+        if ((shape & RTREE) != 0) {
+            // R*Tree narrows candidates by range; exact bounds are re-checked on bookings
+            where.append(" AND id NOT IN (SELECT b.carId FROM " + BookingRtreeIndex.TABLE + " r " +
+                    "JOIN bookings b ON b.id = r.id " +
+                    "WHERE r.startAt < ? AND r.endAt > ? " +
+                    "AND b.status IN ('ACTIVE', 'OVERDUE') " +
+                    "AND b.pickupAt < ? AND b.returnAt > ?)");
+        } else if ((shape & DATE_RANGE) != 0) {
+            where.append(" AND id NOT IN (SELECT carId FROM bookings " +
+                    "WHERE status IN ('ACTIVE', 'OVERDUE') " +
+                    "AND pickupAt < ? AND returnAt > ?)");
+        }
+
+        CarSort sort = sortOf(shape);
+        String from = sort == CarSort.RATING
+                ? " FROM car_rating_stats s JOIN cars ON cars.id = s.carId"
+                : " FROM cars";
+        String select = "SELECT " + CarDao.CARD_COLUMNS + from + where;
+        String listSql = select + orderBy(sort);
+        String pageSql = sort != CarSort.NEWEST ? null : select +
+                " AND (createdAt < ? OR (createdAt = ? AND id < ?))" +
+                " ORDER BY createdAt DESC, id DESC LIMIT ?";
+
+        List<String> tables = new ArrayList<>();
+        tables.add("cars");
+        if (sort == CarSort.RATING) tables.add("car_rating_stats");
+        if ((shape & AVAILABILITY) != 0) tables.add("car_status");
+        if ((shape & DATE_RANGE) != 0) tables.add("bookings");
+        return new Statements(listSql, pageSql, tables.toArray(new String[0]));
+    }
+
+    /**
+     * ORDER BY for a sort. Price and year orders can walk the dailyPrice and
+     * (year, createdAt) indexes on cars. The rating order walks the
+     * (avgRating, carCreatedAt, carId) index on car_rating_stats, which has a row
+     * per car; cars without reviews have a null average and come last.
+     */
+    private static String orderBy(CarSort sort) {
+        switch (sort) {
+            case RATING:
+                return " ORDER BY s.avgRating DESC, s.carCreatedAt DESC, s.carId DESC";
+            case PRICE_ASC:
+                return " ORDER BY dailyPrice ASC, id ASC";
+            case PRICE_DESC:
+                return " ORDER BY dailyPrice DESC, id DESC";
+            case YEAR:
+                return " ORDER BY year DESC, createdAt DESC, id DESC";
+            case NEWEST:
+            default:
+                return " ORDER BY createdAt DESC, id DESC";
+        }
+    }
+}
@@ -1,74 +1,69 @@
 package com.example.louver.data.repository;
 
+import android.content.Context;
+
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.Transformations;
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SimpleSQLiteQuery;
 
+import com.example.louver.data.dao.BookingDao;
+import com.example.louver.data.dao.CarDao;
 import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.DbExecutor;
+import com.example.louver.data.image.CarThumbnails;
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarImageEntity;
+import com.example.louver.data.entity.CarStatusEntity;
+import com.example.louver.data.entity.CategoryEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.data.relation.CarWithImages;
 import com.example.louver.data.relation.CarWithReviews;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CarRepository {
 
-    /** Cache TTL: 5 minutes in milliseconds */
-    private static final long CACHE_TTL_MS = 5 * 60 * 1000L;
+    /** Most cars shown for a typo-tolerant search. */
+    public static final int FUZZY_RESULT_LIMIT = 50;
+
+    /** car_images position of the car's main image (cars.mainImageUrl). */
+    public static final int MAIN_IMAGE_POSITION = 0;
 
     private final AppDatabase db;
+    private final CarFilterCompiler filterCompiler = new CarFilterCompiler();
+    private final CatalogStore catalog;
+    private final FilterResultCache resultCache;
+    private final CarThumbnails thumbnails;
 
-    // In-memory cache for the full cars list
-    private List<CarEntity> cachedAllCars = null;
-    private long cacheTimestamp = 0L;
+    // Type-ahead terms; loaded once, then kept current by this repository's writes
+    private final SuggestionIndex suggestions = new SuggestionIndex();
+    private final AtomicBoolean suggestionsRequested = new AtomicBoolean(false);
 
-    // Backing LiveData so consumers can observe cached or fresh data
-    private final MutableLiveData<List<CarEntity>> allCarsLiveData = new MutableLiveData<>();
+    // Shared by every car list; car_status is small, so this stays cheap
+    private final LiveData<List<Long>> unavailableCarIds;
 
-    public CarRepository(AppDatabase db) {
+    public CarRepository(AppDatabase db, Context context) {
         this.db = db;
-        // Prime the live data from Room; subsequent calls use the cache when fresh
-        db.carDao().getAllCars().observeForever(cars -> {
-            cachedAllCars = cars;
-            cacheTimestamp = System.currentTimeMillis();
-            allCarsLiveData.postValue(cars);
-        });
-    }
-
-    /** Returns true if the in-memory cache is populated and still within the TTL. */
-    private boolean isCacheValid() {
-        return cachedAllCars != null
-                && !cachedAllCars.isEmpty()
-                && (System.currentTimeMillis() - cacheTimestamp) < CACHE_TTL_MS;
-    }
-
-    /**
-     * Invalidates the in-memory cache.
-     * Called after any write operation so the next getAllCars() re-queries Room.
-     */
-    public void invalidateCache() {
-        cachedAllCars = null;
-        cacheTimestamp = 0L;
-    }
-
-    /**
-     * Returns a LiveData of all cars.
-     * Serves from cache immediately if valid; otherwise the Room observer repopulates it.
-     */
-    public LiveData<List<CarEntity>> getAllCars() {
-        if (isCacheValid()) {
-            // Serve the already-populated LiveData immediately (no new Room query needed)
-            return allCarsLiveData;
-        }
-        // Cache is stale – Room's observeForever will push the fresh data when ready
-        return allCarsLiveData;
+        this.thumbnails = CarThumbnails.get(context);
+        this.unavailableCarIds = db.carStatusDao().observeUnavailableCarIds();
+        this.catalog = new CatalogStore(db);
+        this.resultCache = new FilterResultCache(db);
     }
 
     public LiveData<Integer> countAllCars() {
         return db.carDao().countAll();
     }
 
-    public LiveData<List<CarEntity>> getCarsByCategory(long categoryId) {
+    public LiveData<List<CarCard>> getCarsByCategory(long categoryId) {
         return db.carDao().getCarsByCategory(categoryId);
     }
 
@@ -80,6 +75,22 @@ public class CarRepository {
         return db.carDao().getCarWithReviews(carId);
     }
 
+    /**
+     * Load the full car (all columns plus availability from car_status) once, e.g.
+     * to open the edit form from a list card. The callback runs on a DB thread and
+     * receives null if the car no longer exists.
+     */
+    public void loadCar(long carId, DbCallback<CarEntity> callback) {
+        AppDatabase.IO.read(() -> {
+            CarEntity car = db.carDao().getCarByIdNow(carId);
+            if (car != null) {
+                CarStatusEntity status = db.carStatusDao().getStatusNow(carId);
+                car.isAvailable = status == null || status.isAvailable;
+            }
+            if (callback != null) callback.onComplete(car);
+        });
+    }
+
     /**
      * Get a single car by ID as observable LiveData.
      * Maps the CarWithImages result to extract just the car entity.
@@ -91,55 +102,321 @@ public class CarRepository {
         });
     }
 
-    public LiveData<List<CarEntity>> searchCars(String query) {
-        return db.carDao().searchCars(query);
+    public LiveData<List<CarCard>> searchCars(String query) {
+        String match = toFtsMatchQuery(query);
+        if (match == null) {
+            return db.carDao().getAllCars();
+        }
+        return db.carDao().searchCars(match);
     }
 
-    public LiveData<List<CarEntity>> filterCars(
-            Long categoryId, Double minPrice, Double maxPrice,
-            Integer year, String transmission, Integer seats, Boolean availableOnly) {
-        return db.carDao().filterCars(categoryId, minPrice, maxPrice, year, transmission, seats, availableOnly);
+    /**
+     * Cars matching the filter, newest first, as one LiveData list.
+     *
+     * Filters without search text or a date range are answered from the shared
+     * {@link CatalogStore}, so a catalog change costs one incremental read for all
+     * open screens. Otherwise the SQL holds only the predicates that are set (see
+     * {@link CarFilterCompiler}) and re-runs only when a table the filter reads changes.
+     *
+     * A date range excludes cars with an ACTIVE or OVERDUE booking overlapping
+     * [availableFrom, availableUntil), found through the booking_rtree R*Tree when
+     * it is installed, otherwise through a scan of active bookings.
+     *
+     * An SQL search run recently starts with its cached list (see
+     * {@link FilterResultCache}) while the query runs. Catalog views are not
+     * cached: the catalog already holds their rows in memory.
+     */
+    public LiveData<List<CarCard>> filterCars(CarFilter filter) {
+        CarFilter key = filter.normalized();
+        if (CatalogStore.canServe(key)) {
+            return catalog.view(key);
+        }
+        CarFilterCompiler.Compiled compiled = filterCompiler.compile(key);
+        return resultCache.wrap(key, compiled.observedTables, loadCars(compiled));
     }
 
-    public LiveData<List<CarEntity>> searchAndFilter(
-            String searchQuery, Long categoryId, Boolean availableOnly) {
-        String query = searchQuery != null ? searchQuery.trim() : "";
-        return db.carDao().searchAndFilter(query, categoryId, availableOnly);
+    private LiveData<List<CarCard>> loadCars(CarFilterCompiler.Compiled compiled) {
+        if (compiled.sortsOnRating()) {
+            return db.carDao().filterCarsByRatingRaw(compiled.list());
+        }
+        if (compiled.filtersOnBookings()) {
+            return db.carDao().filterCarsRaw(compiled.list());
+        }
+        if (compiled.filtersOnStatus()) {
+            return db.carDao().observeCarCardsWithStatus(compiled.list());
+        }
+        return db.carDao().observeCarCards(compiled.list());
     }
 
-    public LiveData<List<CarEntity>> filterCarsWithSearch(
-            String searchQuery, Long categoryId, Double minPrice, Double maxPrice,
-            Integer year, String transmission, Integer seats, Boolean availableOnly) {
-        String q = searchQuery != null ? searchQuery.trim() : "";
-        return db.carDao().filterCarsWithSearch(q, categoryId, minPrice, maxPrice, year, transmission, seats, availableOnly);
+    /**
+     * The given cars from the shared catalog, in the given order (e.g. favorite ids).
+     */
+    public LiveData<List<CarCard>> catalogCards(List<Long> carIds) {
+        return catalog.viewOfIds(carIds);
     }
 
-    public void insert(CarEntity car) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            db.carDao().insert(car);
-            invalidateCache();
+    /**
+     * Facet index over the shared catalog for the search screen's counts.
+     */
+    public LiveData<FacetIndex> facetIndex() {
+        return catalog.facetIndex();
+    }
+
+    // ── Suggestions ───────────────────────────────────────────────────────────
+
+    /**
+     * Load the suggestion index in the background if it is not loaded yet. Call
+     * when a screen with a search box opens, so it is ready before the first key.
+     */
+    public void warmUpSuggestions() {
+        if (!suggestionsRequested.compareAndSet(false, true)) return;
+        AppDatabase.IO.read(DbExecutor.Priority.BACKGROUND, () -> {
+            for (CarCard car : db.carDao().loadCarCards(new SimpleSQLiteQuery(
+                    "SELECT " + CarDao.CARD_COLUMNS + " FROM cars"))) {
+                suggestions.putCar(car.id, car.name, car.model, car.categoryId);
+            }
+            reloadSuggestionRanks();
+            // Booking counts and category names change outside this repository
+            db.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("bookings", "categories") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    AppDatabase.IO.read(DbExecutor.Priority.BACKGROUND, () -> reloadSuggestionRanks());
+                }
+            });
         });
     }
 
+    private void reloadSuggestionRanks() {
+        for (CategoryEntity category : db.categoryDao().getAllNow()) {
+            suggestions.putCategory(category.id, category.name);
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (BookingDao.CarBookingCount row : db.bookingDao().getBookingCountsNow()) {
+            counts.put(row.carId, row.bookings);
+        }
+        suggestions.setBookingCounts(counts);
+    }
+
+    /**
+     * Car names, models and category names with a word starting with prefix, most
+     * booked first. Served from memory only; safe to call on any thread. Empty
+     * until {@link #warmUpSuggestions} has finished loading.
+     */
+    public List<SuggestionIndex.Suggestion> suggest(String prefix, int limit) {
+        warmUpSuggestions();
+        return suggestions.suggest(prefix, limit);
+    }
+
+    public CatalogStore.Stats catalogStats() {
+        return catalog.stats();
+    }
+
+    /**
+     * The list a car screen should show for the filter, loaded the cheapest way:
+     * from the in-memory catalog when it can answer it, otherwise a
+     * {@link PagedCarList} for newest-first SQL searches, otherwise one SQL list
+     * (other sort orders cannot be keyset-paged). Callers that drive paging get
+     * the paged list with {@link #pagingOf}. Recent SQL searches start with their
+     * cached list, as in {@link #filterCars}.
+     */
+    public LiveData<List<CarCard>> queryCars(CarFilter filter) {
+        CarFilter key = filter.normalized();
+        if (!CatalogStore.canServe(key) && key.sort == CarSort.NEWEST) {
+            PagedCarList paged = pagedFilterCars(key);
+            return resultCache.wrap(key, filterCompiler.compile(key).observedTables, paged);
+        }
+        return filterCars(key);
+    }
+
+    /**
+     * The paged list behind a {@link #queryCars} result, or null if that result is
+     * not paged. The UI reports bound positions to it.
+     */
+    public static PagedCarList pagingOf(LiveData<List<CarCard>> cars) {
+        if (cars instanceof FilterResultCache.CachedList) {
+            cars = ((FilterResultCache.CachedList) cars).source;
+        }
+        return cars instanceof PagedCarList ? (PagedCarList) cars : null;
+    }
+
+    public FilterResultCache.Stats filterCacheStats() {
+        return resultCache.stats();
+    }
+
+    /**
+     * Cars whose name or model is close to the filter's search text ("camery",
+     * "acord"), best match first, from the catalog's trigram index. The filter's
+     * other criteria apply; its sort order and date range do not.
+     */
+    public LiveData<List<CarCard>> fuzzySearchCars(CarFilter filter) {
+        return catalog.fuzzyView(filter, FUZZY_RESULT_LIMIT);
+    }
+
+    /**
+     * exact, or the fuzzy matches for the same filter while exact is empty. Only
+     * filters with search text and no date range fall back; for anything else
+     * exact is returned as is. The fuzzy view is attached on the first empty
+     * result, so searches that find something never build the trigram index.
+     */
+    public LiveData<List<CarCard>> withFuzzyFallback(LiveData<List<CarCard>> exact, CarFilter filter) {
+        if (toFtsMatchQuery(filter.searchQuery) == null || filter.hasDateRange()) return exact;
+        MediatorLiveData<List<CarCard>> result = new MediatorLiveData<>();
+        LiveData<List<CarCard>> fuzzy = fuzzySearchCars(filter);
+        boolean[] fuzzyAttached = {false};
+        result.addSource(exact, list -> {
+            if (list != null && !list.isEmpty()) {
+                if (fuzzyAttached[0]) {
+                    result.removeSource(fuzzy);
+                    fuzzyAttached[0] = false;
+                }
+                result.setValue(list);
+            } else if (!fuzzyAttached[0]) {
+                fuzzyAttached[0] = true;
+                result.addSource(fuzzy, result::setValue);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Paged version of {@link #filterCars}: rows are loaded a page at a time as the
+     * list scrolls (see {@link PagedCarList}). The filter must use the NEWEST order.
+     */
+    public PagedCarList pagedFilterCars(CarFilter filter) {
+        CarFilterCompiler.Compiled compiled = filterCompiler.compile(filter);
+        if (!compiled.pageable()) {
+            throw new IllegalArgumentException("Only NEWEST order can be paged: " + filter.sort);
+        }
+        return new PagedCarList(db, compiled.observedTables, new PagedCarList.CarPageSource() {
+            @Override
+            public List<CarCard> loadPage(long afterCreatedAt, long afterId, int limit) {
+                return db.carDao().loadCarCards(compiled.page(afterCreatedAt, afterId, limit));
+            }
+        });
+    }
+
+    /**
+     * Turns free text typed by the user into an FTS prefix MATCH expression.
+     * Every word becomes a prefix term and all terms must match, so "toy cam"
+     * becomes "toy* cam*". Punctuation is dropped because the FTS tokenizer
+     * splits on it anyway and quotes or operators would break the expression.
+     *
+     * @return the MATCH expression, or null if the input has no searchable words
+     */
+    static String toFtsMatchQuery(String searchQuery) {
+        if (searchQuery == null) return null;
+        StringBuilder match = new StringBuilder();
+        for (String token : searchQuery.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append(token).append('*');
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    /**
+     * Ids of cars that are currently unavailable (from car_status). Car lists
+     * observe this next to their catalog query and merge it into visible rows.
+     */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return unavailableCarIds;
+    }
+
+    public LiveData<Boolean> observeAvailability(long carId) {
+        return db.carStatusDao().observeAvailability(carId);
+    }
+
+    public void insert(CarEntity car) {
+        insert(car, null);
+    }
+
+    /**
+     * Insert the catalog row and its car_status row in one transaction.
+     * Availability is taken from car.isAvailable.
+     */
     public void insert(CarEntity car, DbCallback<Long> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            long id = db.carDao().insert(car);
-            invalidateCache();
+        AppDatabase.IO.write(() -> {
+            long id = insertWithStatus(db, car);
+            suggestions.putCar(id, car.name, car.model, car.categoryId);
             if (callback != null) callback.onComplete(id);
         });
     }
 
+    /**
+     * Insert a car and its car_status row. Must run on a DB writer thread.
+     */
+    public static long insertWithStatus(AppDatabase db, CarEntity car) {
+        return db.runInTransaction(() -> {
+            long id = db.carDao().insert(car);
+            car.id = id;
+            db.carStatusDao().upsert(new CarStatusEntity(id, car.isAvailable, System.currentTimeMillis()));
+            return id;
+        });
+    }
+
     public void update(CarEntity car) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            db.carDao().update(car);
-            invalidateCache();
+        AppDatabase.IO.write(() -> {
+            db.runInTransaction(() -> {
+                db.carDao().update(car);
+                db.carStatusDao().setAvailability(car.id, car.isAvailable, System.currentTimeMillis());
+            });
+            suggestions.putCar(car.id, car.name, car.model, car.categoryId);
         });
     }
 
-    public void delete(CarEntity car) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            db.carDao().delete(car);
-            invalidateCache();
+    /** Delete the car; its car_images rows go with it, and so do their thumbnails. */
+    public void delete(long carId) {
+        AppDatabase.IO.write(() -> {
+            List<String> imageUrls = db.carImageDao().getImageUrlsForCarNow(carId);
+            db.carDao().deleteById(carId);
+            suggestions.removeCar(carId);
+            for (String url : imageUrls) pruneThumbnails(url);
         });
     }
+
+    // ── Images ────────────────────────────────────────────────────────────────
+
+    /**
+     * Make imageUrl the car's main image row in car_images and generate its
+     * thumbnails in the background; a null imageUrl removes the row. The
+     * thumbnails of a replaced or removed image are deleted unless another row
+     * still shows it. Call after saving the car with the same mainImageUrl.
+     */
+    public void ingestMainImage(long carId, String imageUrl) {
+        AppDatabase.IO.write(() -> {
+            String replaced = db.runInTransaction(() -> {
+                CarImageEntity main = db.carImageDao().getImageAtNow(carId, MAIN_IMAGE_POSITION);
+                if (imageUrl == null) {
+                    db.carImageDao().deleteImageAt(carId, MAIN_IMAGE_POSITION);
+                } else if (main == null) {
+                    db.carImageDao().insert(new CarImageEntity(carId, imageUrl, MAIN_IMAGE_POSITION));
+                } else if (!imageUrl.equals(main.imageUrl)) {
+                    db.carImageDao().setImageUrl(main.id, imageUrl);
+                }
+                return main != null && !Objects.equals(imageUrl, main.imageUrl) ? main.imageUrl : null;
+            });
+            if (replaced != null) pruneThumbnails(replaced);
+            if (imageUrl != null) thumbnails.generateAsync(imageUrl);
+        });
+    }
+
+    /**
+     * Insert gallery images and generate thumbnails for each one with a real
+     * source in the background. Rows are visible at once; the image loader uses
+     * the renditions as soon as they are written.
+     */
+    public void insertImages(List<CarImageEntity> images) {
+        AppDatabase.IO.write(() -> {
+            db.carImageDao().insertAll(images);
+            for (CarImageEntity image : images) {
+                String url = image.imageUrl;
+                if (url != null && !url.trim().isEmpty()) thumbnails.generateAsync(url);
+            }
+        });
+    }
+
+    /** Delete url's thumbnails if no car_images row shows it any more. Call on the writer. */
+    private void pruneThumbnails(String url) {
+        if (url != null && db.carImageDao().countWithUrlNow(url) == 0) thumbnails.deleteAsync(url);
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.louver.data.repository;
+
+/**
+ * Order of a car list. Every order ends with id as a tie-breaker, so paging and
+ * list diffs see a stable order.
+ */
+public enum CarSort {
+    /** createdAt DESC, id DESC. The only order the catalog store and keyset pages use. */
+    NEWEST,
+    /** Average stars DESC; cars without reviews last. */
+    RATING,
+    PRICE_ASC,
+    PRICE_DESC,
+    /** Model year DESC, then newest. */
+    YEAR
+}
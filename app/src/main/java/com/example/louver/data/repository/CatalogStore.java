@@ -0,0 +1,621 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+import com.example.louver.data.dao.CarDao;
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.CatalogChangeLog;
+import com.example.louver.data.db.DbExecutor;
+import com.example.louver.data.relation.CarCard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CatalogStore: one in-memory copy of the fleet shared by every car screen.
+ *
+ * - The catalog is loaded once into column arrays (one array per card column,
+ *   ordered newest first), plus the set of unavailable car ids from car_status.
+ * - After that, a write to "cars" only reloads the cars listed in
+ *   {@link CatalogChangeLog} since the last refresh, not the whole table.
+ * - Each screen gets a {@link LiveData} view (a filter or a list of ids) that is
+ *   computed from the arrays on a background worker thread. A catalog change
+ *   costs one small DB read no matter how many screens are open.
+ *
+ * Views that need full-text search or a booking date range cannot be answered
+ * from memory; see {@link #canServe}. CarRepository sends those to SQL.
+ */
+public final class CatalogStore {
+
+    private static final String ALL_CARDS_SQL =
+            "SELECT " + CarDao.CARD_COLUMNS + " FROM cars ORDER BY createdAt DESC, id DESC";
+
+    /** Stay well under SQLite's limit on bound variables per statement. */
+    private static final int IN_BATCH = 500;
+
+    private final AppDatabase db;
+    private final InvalidationTracker.Observer tableObserver;
+    private final ExecutorService worker;
+    private final List<View<?>> activeViews = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+    private volatile Set<Long> unavailableIds = Collections.emptySet();
+
+    // Guarded by refreshLock
+    private final Object refreshLock = new Object();
+    private long appliedSeq = 0L;
+
+    private final AtomicBoolean catalogDirty = new AtomicBoolean(true);
+    private final AtomicBoolean statusDirty = new AtomicBoolean(true);
+
+    // Stats
+    private final AtomicLong fullLoads = new AtomicLong();
+    private final AtomicLong incrementalLoads = new AtomicLong();
+    private final AtomicLong dbQueries = new AtomicLong();
+    private final AtomicLong rowsLoaded = new AtomicLong();
+    private final AtomicLong viewsComputed = new AtomicLong();
+    private final AtomicLong totalFilterNanos = new AtomicLong();
+    private final AtomicLong maxFilterNanos = new AtomicLong();
+
+    CatalogStore(@NonNull AppDatabase db) {
+        this.db = db;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "catalog-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.tableObserver = new InvalidationTracker.Observer("cars", "car_status") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                if (tables.contains("cars")) catalogDirty.set(true);
+                if (tables.contains("car_status")) statusDirty.set(true);
+                scheduleRefresh();
+            }
+        };
+    }
+
+    /**
+     * True if the filter can be answered from memory: no search text (needs the
+     * FTS index), no date range (needs bookings) and the default newest-first order
+     * (other orders are sorted by SQLite).
+     */
+    public static boolean canServe(@NonNull CarFilter filter) {
+        return CarRepository.toFtsMatchQuery(filter.searchQuery) == null && !filter.hasDateRange()
+                && filter.sort == CarSort.NEWEST;
+    }
+
+    /**
+     * Cars matching the filter, newest first. The filter must satisfy {@link #canServe}.
+     */
+    @NonNull
+    public LiveData<List<CarCard>> view(@NonNull CarFilter filter) {
+        Predicate predicate = new Predicate(filter);
+        return new View<List<CarCard>>(filter.availableOnly != null) {
+            @Override
+            List<CarCard> compute(Snapshot s, Set<Long> unavailable) {
+                List<CarCard> out = new ArrayList<>();
+                for (int row = 0; row < s.size; row++) {
+                    if (predicate.matches(s, row, unavailable)) out.add(s.card(row));
+                }
+                return out;
+            }
+        };
+    }
+
+    /**
+     * Cars whose name or model is close to the filter's search text, best match
+     * first, at most limit. Used when the exact FTS search finds nothing; the
+     * filter's other criteria apply as in {@link #view}, its date range does not.
+     */
+    @NonNull
+    public LiveData<List<CarCard>> fuzzyView(@NonNull CarFilter filter, int limit) {
+        Predicate predicate = new Predicate(filter);
+        String query = filter.searchQuery != null ? filter.searchQuery : "";
+        return new View<List<CarCard>>(filter.availableOnly != null) {
+            @Override
+            List<CarCard> compute(Snapshot s, Set<Long> unavailable) {
+                List<TrigramIndex.Match> matches = s.trigrams()
+                        .search(query, limit, row -> predicate.matches(s, row, unavailable));
+                List<CarCard> out = new ArrayList<>(matches.size());
+                for (TrigramIndex.Match m : matches) out.add(s.card(m.row));
+                return out;
+            }
+        };
+    }
+
+    /**
+     * The given cars in the given order (e.g. a user's favorites). Ids not in the
+     * catalog are skipped.
+     */
+    @NonNull
+    public LiveData<List<CarCard>> viewOfIds(@NonNull List<Long> carIds) {
+        List<Long> ids = new ArrayList<>(carIds);
+        return new View<List<CarCard>>(false) {
+            @Override
+            List<CarCard> compute(Snapshot s, Set<Long> unavailable) {
+                List<CarCard> out = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    Integer row = s.rowById.get(id);
+                    if (row != null) out.add(s.card(row));
+                }
+                return out;
+            }
+        };
+    }
+
+    /**
+     * Facet index over the whole catalog, rebuilt when the catalog or car_status changes.
+     */
+    @NonNull
+    public LiveData<FacetIndex> facetIndex() {
+        return new View<FacetIndex>(true) {
+            @Override
+            FacetIndex compute(Snapshot s, Set<Long> unavailable) {
+                boolean[] available = new boolean[s.size];
+                for (int row = 0; row < s.size; row++) available[row] = !unavailable.contains(s.ids[row]);
+                return FacetIndex.build(s.categoryIds, s.transmissions, s.fuelTypes,
+                        s.seats, s.years, s.prices, available);
+            }
+        };
+    }
+
+    // ── Refresh ───────────────────────────────────────────────────────────────
+
+    private void attach(View<?> view) {
+        activeViews.add(view);
+        if (activeViews.size() == 1) {
+            db.getInvalidationTracker().addObserver(tableObserver);
+            // Changes were not tracked while nobody watched; catch up from the log
+            catalogDirty.set(true);
+            statusDirty.set(true);
+            scheduleRefresh();
+        }
+        view.requestCompute();
+    }
+
+    private void detach(View<?> view) {
+        activeViews.remove(view);
+        if (activeViews.isEmpty()) {
+            db.getInvalidationTracker().removeObserver(tableObserver);
+        }
+    }
+
+    private void scheduleRefresh() {
+        AppDatabase.IO.read(this::refresh);
+    }
+
+    private void refresh() {
+        boolean catalogChanged = false;
+        boolean statusChanged = false;
+        synchronized (refreshLock) {
+            if (catalogDirty.getAndSet(false)) {
+                catalogChanged = loadCatalogChanges();
+            }
+            if (statusDirty.getAndSet(false)) {
+                unavailableIds = new HashSet<>(db.carStatusDao().getUnavailableCarIdsNow());
+                dbQueries.incrementAndGet();
+                statusChanged = true;
+            }
+        }
+        for (View<?> view : activeViews) {
+            if (catalogChanged || (statusChanged && view.usesStatus)) view.requestCompute();
+        }
+    }
+
+    /** @return true if the snapshot was replaced */
+    private boolean loadCatalogChanges() {
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getReadableDatabase();
+        long logSeq = CatalogChangeLog.currentSeq(sqlite);
+        dbQueries.incrementAndGet();
+
+        Snapshot current = snapshot;
+        if (current == null || logSeq < appliedSeq) {
+            // First load, or the log was recreated (destructive migration). The seq is
+            // read before the rows, so anything written in between is applied next time.
+            List<CarCard> rows = db.carDao().loadCarCards(new SimpleSQLiteQuery(ALL_CARDS_SQL));
+            dbQueries.incrementAndGet();
+            rowsLoaded.addAndGet(rows.size());
+            fullLoads.incrementAndGet();
+            snapshot = Snapshot.of(rows);
+            appliedSeq = logSeq;
+            return true;
+        }
+        if (logSeq == appliedSeq) return false;
+
+        CatalogChangeLog.Changes changes = CatalogChangeLog.readSince(sqlite, appliedSeq);
+        dbQueries.incrementAndGet();
+        List<CarCard> changedRows = new ArrayList<>();
+        for (int from = 0; from < changes.carIds.length; from += IN_BATCH) {
+            int to = Math.min(changes.carIds.length, from + IN_BATCH);
+            changedRows.addAll(db.carDao().loadCarCards(byIdsQuery(changes.carIds, from, to)));
+            dbQueries.incrementAndGet();
+        }
+        rowsLoaded.addAndGet(changedRows.size());
+        incrementalLoads.incrementAndGet();
+        snapshot = current.apply(changes.carIds, changedRows);
+        appliedSeq = changes.lastSeq;
+
+        long consumed = appliedSeq;
+        AppDatabase.IO.write(DbExecutor.Priority.BACKGROUND, () ->
+                CatalogChangeLog.prune(db.getOpenHelper().getWritableDatabase(), consumed));
+        return true;
+    }
+
+    private static SimpleSQLiteQuery byIdsQuery(long[] ids, int from, int to) {
+        StringBuilder sql = new StringBuilder("SELECT " + CarDao.CARD_COLUMNS + " FROM cars WHERE id IN (");
+        Object[] args = new Object[to - from];
+        for (int i = from; i < to; i++) {
+            if (i > from) sql.append(", ");
+            sql.append('?');
+            args[i - from] = ids[i];
+        }
+        sql.append(')');
+        return new SimpleSQLiteQuery(sql.toString(), args);
+    }
+
+    // ── Stats ─────────────────────────────────────────────────────────────────
+
+    public Stats stats() {
+        long computed = viewsComputed.get();
+        Snapshot s = snapshot;
+        return new Stats(
+                s == null ? 0 : s.size,
+                fullLoads.get(),
+                incrementalLoads.get(),
+                dbQueries.get(),
+                rowsLoaded.get(),
+                computed,
+                computed == 0 ? 0.0 : totalFilterNanos.get() / 1e6 / computed,
+                maxFilterNanos.get() / 1e6);
+    }
+
+    /**
+     * Point-in-time counters. Filter times are per view computation, in milliseconds.
+     */
+    public static final class Stats {
+        public final int cars;
+        public final long fullLoads;
+        public final long incrementalLoads;
+        /** Statements run against the database by the store. */
+        public final long dbQueries;
+        public final long rowsLoaded;
+        public final long viewsComputed;
+        public final double avgFilterMs;
+        public final double maxFilterMs;
+
+        Stats(int cars, long fullLoads, long incrementalLoads, long dbQueries, long rowsLoaded,
+              long viewsComputed, double avgFilterMs, double maxFilterMs) {
+            this.cars = cars;
+            this.fullLoads = fullLoads;
+            this.incrementalLoads = incrementalLoads;
+            this.dbQueries = dbQueries;
+            this.rowsLoaded = rowsLoaded;
+            this.viewsComputed = viewsComputed;
+            this.avgFilterMs = avgFilterMs;
+            this.maxFilterMs = maxFilterMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "catalog: cars=%d loads full=%d incremental=%d queries=%d rows=%d " +
+                            "views=%d filter avg=%.3fms max=%.3fms",
+                    cars, fullLoads, incrementalLoads, dbQueries, rowsLoaded,
+                    viewsComputed, avgFilterMs, maxFilterMs);
+        }
+    }
+
+    // ── Views ─────────────────────────────────────────────────────────────────
+
+    /**
+     * A value derived from the catalog (usually a screen's list), recomputed on the
+     * worker thread when the snapshot (or, for views that read availability, the
+     * unavailable set) it was computed from is replaced.
+     */
+    private abstract class View<T> extends LiveData<T> {
+        final boolean usesStatus;
+
+        // Only touched on the worker thread
+        private Snapshot computedFrom;
+        private Set<Long> computedStatus;
+
+        View(boolean usesStatus) {
+            this.usesStatus = usesStatus;
+        }
+
+        abstract T compute(Snapshot s, Set<Long> unavailable);
+
+        @Override
+        protected void onActive() {
+            attach(this);
+        }
+
+        @Override
+        protected void onInactive() {
+            detach(this);
+        }
+
+        void requestCompute() {
+            worker.execute(() -> {
+                Snapshot s = snapshot;
+                Set<Long> unavailable = unavailableIds;
+                if (s == null) return;
+                if (s == computedFrom && (!usesStatus || unavailable == computedStatus)) return;
+
+                long start = System.nanoTime();
+                T result = compute(s, unavailable);
+                long took = System.nanoTime() - start;
+                viewsComputed.incrementAndGet();
+                totalFilterNanos.addAndGet(took);
+                maxFilterNanos.accumulateAndGet(took, Math::max);
+
+                computedFrom = s;
+                computedStatus = unavailable;
+                postValue(result);
+            });
+        }
+    }
+
+    /** A CarFilter with its values resolved once, for evaluation against column arrays. */
+    private static final class Predicate {
+        final CarFilter filter;
+        final int transmission;
+        final boolean impossible;
+
+        Predicate(CarFilter filter) {
+            this.filter = filter;
+            int ordinal = -1;
+            boolean unknown = false;
+            if (filter.transmission != null) {
+                try {
+                    ordinal = TransmissionType.valueOf(filter.transmission).ordinal();
+                } catch (IllegalArgumentException e) {
+                    // Same as SQL: an unknown transmission matches nothing
+                    unknown = true;
+                }
+            }
+            this.transmission = ordinal;
+            this.impossible = unknown;
+        }
+
+        boolean matches(Snapshot s, int row, Set<Long> unavailable) {
+            if (impossible) return false;
+            if (filter.categoryId != null && s.categoryIds[row] != filter.categoryId) return false;
+            if (filter.minPrice != null && s.prices[row] < filter.minPrice) return false;
+            if (filter.maxPrice != null && s.prices[row] > filter.maxPrice) return false;
+            if (filter.year != null && s.years[row] != filter.year) return false;
+            if (transmission >= 0 && s.transmissions[row] != transmission) return false;
+            if (filter.seats != null && s.seats[row] != filter.seats) return false;
+            if (filter.availableOnly != null
+                    && unavailable.contains(s.ids[row]) == filter.availableOnly) return false;
+            return true;
+        }
+    }
+
+    // ── Snapshot ──────────────────────────────────────────────────────────────
+
+    /**
+     * Immutable column-oriented copy of the catalog, ordered (createdAt DESC, id DESC).
+     */
+    static final class Snapshot {
+        private static final Comparator<CarCard> NEWEST_FIRST = (a, b) -> {
+            if (a.createdAt != b.createdAt) return Long.compare(b.createdAt, a.createdAt);
+            return Long.compare(b.id, a.id);
+        };
+
+        final int size;
+        final long[] ids;
+        final long[] categoryIds;
+        final String[] names;
+        final String[] models;
+        final int[] years;
+        final double[] prices;
+        /** Enum ordinal, or -1 when null. */
+        final byte[] transmissions;
+        final byte[] fuelTypes;
+        final int[] seats;
+        final String[] imageUrls;
+        final long[] createdAts;
+        final Map<Long, Integer> rowById;
+
+        /**
+         * Card objects handed to the UI, created on first use and shared by all
+         * views of this snapshot. Concurrent first use may build the same card
+         * twice; both copies are equal, so the race is harmless.
+         */
+        private final CarCard[] cards;
+
+        /** Built on first fuzzy search (on the worker) and kept for this snapshot. */
+        private volatile TrigramIndex trigrams;
+
+        private Snapshot(int size) {
+            this(size, new HashMap<>(size * 2));
+        }
+
+        private Snapshot(int size, Map<Long, Integer> rowById) {
+            this.size = size;
+            ids = new long[size];
+            categoryIds = new long[size];
+            names = new String[size];
+            models = new String[size];
+            years = new int[size];
+            prices = new double[size];
+            transmissions = new byte[size];
+            fuelTypes = new byte[size];
+            seats = new int[size];
+            imageUrls = new String[size];
+            createdAts = new long[size];
+            this.rowById = rowById;
+            cards = new CarCard[size];
+        }
+
+        static Snapshot of(List<CarCard> rows) {
+            List<CarCard> sorted = new ArrayList<>(rows);
+            sorted.sort(NEWEST_FIRST);
+            Snapshot s = new Snapshot(sorted.size());
+            for (int row = 0; row < sorted.size(); row++) {
+                s.set(row, sorted.get(row));
+                s.rowById.put(s.ids[row], row);
+            }
+            return s;
+        }
+
+        /**
+         * New snapshot with the given cars replaced by changedRows. Ids that are in
+         * changedIds but not in changedRows were deleted.
+         *
+         * An edit that keeps every changed car in its place (same id, same createdAt)
+         * copies the columns and overwrites those rows only; rows and the id map are
+         * shared. Otherwise the kept rows are copied in runs and the changed cars are
+         * merged in at their sorted positions. Either way only the changed rows lose
+         * their cached card.
+         */
+        Snapshot apply(long[] changedIds, List<CarCard> changedRows) {
+            Set<Long> changed = new HashSet<>(changedIds.length * 2);
+            for (long id : changedIds) changed.add(id);
+
+            int removed = 0;
+            for (Long id : changed) {
+                if (rowById.containsKey(id)) removed++;
+            }
+            boolean inPlace = removed == changed.size() && changedRows.size() == removed;
+            for (int i = 0; inPlace && i < changedRows.size(); i++) {
+                CarCard c = changedRows.get(i);
+                Integer row = rowById.get(c.id);
+                inPlace = row != null && createdAts[row] == c.createdAt;
+            }
+            if (inPlace) {
+                Snapshot s = new Snapshot(size, rowById);
+                s.copyRows(this, 0, 0, size);
+                for (CarCard c : changedRows) s.set(rowById.get(c.id), c);
+                return s;
+            }
+
+            List<CarCard> added = new ArrayList<>(changedRows);
+            added.sort(NEWEST_FIRST);
+            Snapshot s = new Snapshot(size - removed + added.size());
+            int row = 0;
+            int out = 0;
+            for (CarCard c : added) {
+                int end = row;
+                while (end < size && (createdAts[end] > c.createdAt
+                        || (createdAts[end] == c.createdAt && ids[end] > c.id))) {
+                    end++;
+                }
+                out = s.copyKept(this, row, end, out, changed);
+                row = end;
+                s.set(out, c);
+                s.rowById.put(c.id, out++);
+            }
+            s.copyKept(this, row, size, out, changed);
+            return s;
+        }
+
+        /**
+         * Copy from's rows [fromRow, toRow) whose ids are not in changed, starting at
+         * row out, and index them.
+         *
+         * @return the next free row
+         */
+        private int copyKept(Snapshot from, int fromRow, int toRow, int out, Set<Long> changed) {
+            int run = fromRow;
+            for (int row = fromRow; row <= toRow; row++) {
+                if (row < toRow && !changed.contains(from.ids[row])) continue;
+                int n = row - run;
+                copyRows(from, run, out, n);
+                for (int i = 0; i < n; i++) rowById.put(ids[out + i], out + i);
+                out += n;
+                run = row + 1;
+            }
+            return out;
+        }
+
+        private void copyRows(Snapshot from, int fromRow, int toRow, int n) {
+            if (n == 0) return;
+            System.arraycopy(from.ids, fromRow, ids, toRow, n);
+            System.arraycopy(from.categoryIds, fromRow, categoryIds, toRow, n);
+            System.arraycopy(from.names, fromRow, names, toRow, n);
+            System.arraycopy(from.models, fromRow, models, toRow, n);
+            System.arraycopy(from.years, fromRow, years, toRow, n);
+            System.arraycopy(from.prices, fromRow, prices, toRow, n);
+            System.arraycopy(from.transmissions, fromRow, transmissions, toRow, n);
+            System.arraycopy(from.fuelTypes, fromRow, fuelTypes, toRow, n);
+            System.arraycopy(from.seats, fromRow, seats, toRow, n);
+            System.arraycopy(from.imageUrls, fromRow, imageUrls, toRow, n);
+            System.arraycopy(from.createdAts, fromRow, createdAts, toRow, n);
+            System.arraycopy(from.cards, fromRow, cards, toRow, n);
+        }
+
+        /** Write c's columns into row; its card is rebuilt from them on first use. */
+        private void set(int row, CarCard c) {
+            ids[row] = c.id;
+            categoryIds[row] = c.categoryId;
+            names[row] = c.name;
+            models[row] = c.model;
+            years[row] = c.year;
+            prices[row] = c.dailyPrice;
+            transmissions[row] = (byte) (c.transmission != null ? c.transmission.ordinal() : -1);
+            fuelTypes[row] = (byte) (c.fuelType != null ? c.fuelType.ordinal() : -1);
+            seats[row] = c.seats;
+            imageUrls[row] = c.mainImageUrl;
+            createdAts[row] = c.createdAt;
+            cards[row] = null;
+        }
+
+        CarCard card(int row) {
+            CarCard c = cards[row];
+            if (c == null) {
+                c = new CarCard();
+                c.id = ids[row];
+                c.categoryId = categoryIds[row];
+                c.name = names[row];
+                c.model = models[row];
+                c.year = years[row];
+                c.dailyPrice = prices[row];
+                c.transmission = transmissions[row] >= 0 ? TransmissionType.values()[transmissions[row]] : null;
+                c.fuelType = fuelTypes[row] >= 0 ? FuelType.values()[fuelTypes[row]] : null;
+                c.seats = seats[row];
+                c.mainImageUrl = imageUrls[row];
+                c.createdAt = createdAts[row];
+                cards[row] = c;
+            }
+            return c;
+        }
+
+        TrigramIndex trigrams() {
+            TrigramIndex t = trigrams;
+            if (t == null) trigrams = t = TrigramIndex.build(names, models);
+            return t;
+        }
+    }
+
+    /** Stop the worker thread; for tests and benchmarks. */
+    void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
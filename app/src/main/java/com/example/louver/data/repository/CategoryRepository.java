@@ -24,11 +24,11 @@ public class CategoryRepository {
     }
 
     public void insert(CategoryEntity category) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.categoryDao().insert(category));
+        AppDatabase.IO.write(() -> db.categoryDao().insert(category));
     }
 
     public void insert(CategoryEntity category, DbCallback<Long> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             long id = db.categoryDao().insert(category);
             if (callback != null) callback.onComplete(id);
         });
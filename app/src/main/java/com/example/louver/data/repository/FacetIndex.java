@@ -0,0 +1,342 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FacetIndex: bitset index over the catalog for the search screen's facet counts.
+ *
+ * Every facet value (each category, transmission, fuel type, seat count, year
+ * and availability state) has one bitset with a bit per car row. Prices are kept
+ * as a sorted array so a price range becomes a bitset by binary search.
+ *
+ * A filter is answered by ANDing the bitsets of the values it selects. For each
+ * facet, the count shown next to a value is the number of cars that match every
+ * other selected filter and have that value. The facet's own selection is left
+ * out so users can see what switching to another value would give. The price
+ * histogram follows the same rule: it counts matching cars without the price range.
+ *
+ * Search text and date ranges are not indexed here; see {@link CatalogStore#canServe}.
+ *
+ * The index is immutable and built off the main thread by {@link CatalogStore}
+ * whenever the catalog or car_status changes. Queries allocate only a few word
+ * arrays, so they are cheap enough to run on every slider move.
+ */
+public final class FacetIndex {
+
+    // Dimensions that a CarFilter can restrict, in mask order
+    private static final int CATEGORY = 0;
+    private static final int PRICE = 1;
+    private static final int YEAR = 2;
+    private static final int TRANSMISSION = 3;
+    private static final int SEATS = 4;
+    private static final int AVAILABILITY = 5;
+    private static final int DIMENSIONS = 6;
+
+    private final int size;
+    private final int words;
+    private final long[] allRows;
+
+    private final long[] categoryKeys;
+    private final long[][] categoryBits;
+    private final long[][] transmissionBits;
+    private final long[][] fuelTypeBits;
+    private final int[] seatKeys;
+    private final long[][] seatBits;
+    private final int[] yearKeys;
+    private final long[][] yearBits;
+    private final long[] availableBits;
+    private final long[] unavailableBits;
+
+    private final double[] prices;
+    private final double[] sortedPrices;
+    private final int[] rowsByPrice;
+
+    /**
+     * Build from catalog columns; index i of every array describes the same car.
+     * Transmission and fuel type are enum ordinals, -1 for none.
+     */
+    @NonNull
+    public static FacetIndex build(@NonNull long[] categoryIds, @NonNull byte[] transmissions,
+                                   @NonNull byte[] fuelTypes, @NonNull int[] seats,
+                                   @NonNull int[] years, @NonNull double[] prices,
+                                   @NonNull boolean[] available) {
+        return new FacetIndex(categoryIds, transmissions, fuelTypes, seats, years, prices, available);
+    }
+
+    private FacetIndex(long[] categoryIds, byte[] transmissions, byte[] fuelTypes, int[] seats,
+                       int[] years, double[] prices, boolean[] available) {
+        size = categoryIds.length;
+        words = (size + 63) >>> 6;
+
+        allRows = new long[words];
+        for (int row = 0; row < size; row++) set(allRows, row);
+
+        categoryKeys = distinct(categoryIds);
+        categoryBits = new long[categoryKeys.length][words];
+        for (int row = 0; row < size; row++) {
+            set(categoryBits[Arrays.binarySearch(categoryKeys, categoryIds[row])], row);
+        }
+
+        transmissionBits = new long[TransmissionType.values().length][words];
+        fuelTypeBits = new long[FuelType.values().length][words];
+        for (int row = 0; row < size; row++) {
+            if (transmissions[row] >= 0) set(transmissionBits[transmissions[row]], row);
+            if (fuelTypes[row] >= 0) set(fuelTypeBits[fuelTypes[row]], row);
+        }
+
+        seatKeys = distinct(seats);
+        seatBits = new long[seatKeys.length][words];
+        yearKeys = distinct(years);
+        yearBits = new long[yearKeys.length][words];
+        for (int row = 0; row < size; row++) {
+            set(seatBits[Arrays.binarySearch(seatKeys, seats[row])], row);
+            set(yearBits[Arrays.binarySearch(yearKeys, years[row])], row);
+        }
+
+        availableBits = new long[words];
+        unavailableBits = new long[words];
+        for (int row = 0; row < size; row++) {
+            set(available[row] ? availableBits : unavailableBits, row);
+        }
+
+        this.prices = prices.clone();
+        Integer[] order = new Integer[size];
+        for (int row = 0; row < size; row++) order[row] = row;
+        Arrays.sort(order, (a, b) -> Double.compare(prices[a], prices[b]));
+        sortedPrices = new double[size];
+        rowsByPrice = new int[size];
+        for (int i = 0; i < size; i++) {
+            rowsByPrice[i] = order[i];
+            sortedPrices[i] = prices[order[i]];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Match count, per-value facet counts and a price histogram for the filter.
+     * The histogram has {@code buckets} equal-width buckets over
+     * [histogramFrom, histogramTo]; prices outside it fall into the end buckets.
+     */
+    @NonNull
+    public Counts query(@NonNull CarFilter filter, double histogramFrom, double histogramTo, int buckets) {
+        long[][] masks = new long[DIMENSIONS][];
+        if (filter.categoryId != null) {
+            int k = Arrays.binarySearch(categoryKeys, filter.categoryId);
+            masks[CATEGORY] = k >= 0 ? categoryBits[k] : new long[words];
+        }
+        if (filter.minPrice != null || filter.maxPrice != null) {
+            masks[PRICE] = priceRange(filter.minPrice, filter.maxPrice);
+        }
+        if (filter.year != null) {
+            int k = Arrays.binarySearch(yearKeys, filter.year);
+            masks[YEAR] = k >= 0 ? yearBits[k] : new long[words];
+        }
+        if (filter.transmission != null) {
+            masks[TRANSMISSION] = new long[words];
+            for (TransmissionType t : TransmissionType.values()) {
+                if (t.name().equals(filter.transmission)) masks[TRANSMISSION] = transmissionBits[t.ordinal()];
+            }
+        }
+        if (filter.seats != null) {
+            int k = Arrays.binarySearch(seatKeys, filter.seats);
+            masks[SEATS] = k >= 0 ? seatBits[k] : new long[words];
+        }
+        if (filter.availableOnly != null) {
+            masks[AVAILABILITY] = filter.availableOnly ? availableBits : unavailableBits;
+        }
+
+        long[] scratch = new long[words];
+
+        Map<Long, Integer> categories = new LinkedHashMap<>();
+        long[] others = allExcept(masks, CATEGORY, scratch);
+        for (int k = 0; k < categoryKeys.length; k++) {
+            categories.put(categoryKeys[k], andCount(others, categoryBits[k]));
+        }
+
+        Map<TransmissionType, Integer> transmissions = new LinkedHashMap<>();
+        others = allExcept(masks, TRANSMISSION, scratch);
+        for (TransmissionType t : TransmissionType.values()) {
+            transmissions.put(t, andCount(others, transmissionBits[t.ordinal()]));
+        }
+
+        Map<Integer, Integer> seats = new LinkedHashMap<>();
+        others = allExcept(masks, SEATS, scratch);
+        for (int k = 0; k < seatKeys.length; k++) {
+            seats.put(seatKeys[k], andCount(others, seatBits[k]));
+        }
+
+        Map<Integer, Integer> years = new LinkedHashMap<>();
+        others = allExcept(masks, YEAR, scratch);
+        for (int k = 0; k < yearKeys.length; k++) {
+            years.put(yearKeys[k], andCount(others, yearBits[k]));
+        }
+
+        others = allExcept(masks, AVAILABILITY, scratch);
+        int available = andCount(others, availableBits);
+        int unavailable = andCount(others, unavailableBits);
+
+        others = allExcept(masks, PRICE, scratch);
+        int[] histogram = histogram(others, histogramFrom, histogramTo, buckets);
+
+        // Fuel type is not a filter yet, so its counts use every active filter
+        long[] matching = allExcept(masks, -1, scratch);
+        Map<FuelType, Integer> fuelTypes = new LinkedHashMap<>();
+        for (FuelType f : FuelType.values()) {
+            fuelTypes.put(f, andCount(matching, fuelTypeBits[f.ordinal()]));
+        }
+        int matchCount = count(matching);
+
+        return new Counts(matchCount, categories, transmissions, fuelTypes, seats, years,
+                available, unavailable, histogramFrom, histogramTo, histogram);
+    }
+
+    /**
+     * Facet counts for one filter. Maps list every value present in the catalog,
+     * in ascending order, including values with a count of zero.
+     */
+    public static final class Counts {
+        public final int matching;
+        public final Map<Long, Integer> categories;
+        public final Map<TransmissionType, Integer> transmissions;
+        public final Map<FuelType, Integer> fuelTypes;
+        public final Map<Integer, Integer> seats;
+        public final Map<Integer, Integer> years;
+        public final int available;
+        public final int unavailable;
+        public final double histogramFrom;
+        public final double histogramTo;
+        /** Cars per price bucket, ignoring the selected price range. */
+        public final int[] priceHistogram;
+
+        Counts(int matching, Map<Long, Integer> categories,
+               Map<TransmissionType, Integer> transmissions, Map<FuelType, Integer> fuelTypes,
+               Map<Integer, Integer> seats, Map<Integer, Integer> years,
+               int available, int unavailable,
+               double histogramFrom, double histogramTo, int[] priceHistogram) {
+            this.matching = matching;
+            this.categories = Collections.unmodifiableMap(categories);
+            this.transmissions = Collections.unmodifiableMap(transmissions);
+            this.fuelTypes = Collections.unmodifiableMap(fuelTypes);
+            this.seats = Collections.unmodifiableMap(seats);
+            this.years = Collections.unmodifiableMap(years);
+            this.available = available;
+            this.unavailable = unavailable;
+            this.histogramFrom = histogramFrom;
+            this.histogramTo = histogramTo;
+            this.priceHistogram = priceHistogram;
+        }
+
+        public int categoryCount(long categoryId) {
+            Integer n = categories.get(categoryId);
+            return n != null ? n : 0;
+        }
+
+        public int transmissionCount(TransmissionType type) {
+            Integer n = transmissions.get(type);
+            return n != null ? n : 0;
+        }
+    }
+
+    // ── Bitset helpers ────────────────────────────────────────────────────────
+
+    /** AND of every mask except the one at skip (-1 for none), written into out. */
+    private long[] allExcept(long[][] masks, int skip, long[] out) {
+        System.arraycopy(allRows, 0, out, 0, words);
+        for (int d = 0; d < DIMENSIONS; d++) {
+            if (d == skip || masks[d] == null) continue;
+            long[] m = masks[d];
+            for (int w = 0; w < words; w++) out[w] &= m[w];
+        }
+        return out;
+    }
+
+    private long[] priceRange(Double min, Double max) {
+        int from = min != null ? lowerBound(sortedPrices, min) : 0;
+        int to = max != null ? upperBound(sortedPrices, max) : size;
+        long[] bits = new long[words];
+        for (int i = from; i < to; i++) set(bits, rowsByPrice[i]);
+        return bits;
+    }
+
+    private int[] histogram(long[] mask, double from, double to, int buckets) {
+        int[] counts = new int[Math.max(1, buckets)];
+        double width = (to - from) / counts.length;
+        for (int w = 0; w < words; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int b = width > 0 ? (int) ((prices[row] - from) / width) : 0;
+                counts[Math.max(0, Math.min(counts.length - 1, b))]++;
+            }
+        }
+        return counts;
+    }
+
+    private int andCount(long[] a, long[] b) {
+        int n = 0;
+        for (int w = 0; w < words; w++) n += Long.bitCount(a[w] & b[w]);
+        return n;
+    }
+
+    private int count(long[] a) {
+        int n = 0;
+        for (int w = 0; w < words; w++) n += Long.bitCount(a[w]);
+        return n;
+    }
+
+    private static void set(long[] bits, int row) {
+        bits[row >>> 6] |= 1L << row;
+    }
+
+    /** First index with value >= key. */
+    private static int lowerBound(double[] sorted, double key) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First index with value > key. */
+    private static int upperBound(double[] sorted, double key) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static long[] distinct(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[n++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] distinct(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[n++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+}
@@ -3,7 +3,6 @@ package com.example.louver.data.repository;
 import androidx.lifecycle.LiveData;
 
 import com.example.louver.data.db.AppDatabase;
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.FavoriteEntity;
 
 import java.util.List;
@@ -16,8 +15,9 @@ public class FavoriteRepository {
         this.db = db;
     }
 
-    public LiveData<List<CarEntity>> getFavoriteCars(long userId) {
-        return db.favoriteDao().getFavoriteCars(userId);
+    /** Favorite car ids, most recently added first. */
+    public LiveData<List<Long>> getFavoriteCarIds(long userId) {
+        return db.favoriteDao().getFavoriteCarIds(userId);
     }
 
     public LiveData<Boolean> isFavorite(long userId, long carId) {
@@ -26,10 +26,10 @@ public class FavoriteRepository {
 
     public void add(long userId, long carId, long createdAt) {
         FavoriteEntity f = new FavoriteEntity(userId, carId, createdAt);
-        AppDatabase.DB_EXECUTOR.execute(() -> db.favoriteDao().add(f));
+        AppDatabase.IO.write(() -> db.favoriteDao().add(f));
     }
 
     public void remove(long userId, long carId) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.favoriteDao().remove(userId, carId));
+        AppDatabase.IO.write(() -> db.favoriteDao().remove(userId, carId));
     }
 }
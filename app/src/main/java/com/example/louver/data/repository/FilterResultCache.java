@@ -0,0 +1,255 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.relation.CarCard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * FilterResultCache: the last list shown for each recent car search, so a screen
+ * that is opened again (switching tabs, going back from a car's details) shows
+ * its cars at once while the query re-runs behind it.
+ *
+ * - Entries are keyed by {@link CarFilter#normalized()} and evicted least
+ *   recently used first, bounded by entry count and by total rows.
+ * - Every table a car search can read has a version counter, bumped by one
+ *   InvalidationTracker observer. An entry remembers the versions of the tables
+ *   its filter reads; if any has moved, the entry is dropped instead of shown.
+ *   A write to bookings therefore keeps every entry that does not filter on a
+ *   date range.
+ * - A cached list is only a first value: the query still runs and its result
+ *   replaces the cached one (and the entry).
+ * - Only loaded rows are stored. A paged list's trailing null placeholder stands
+ *   for a page that is not loaded yet, so it is cut off before the list is kept.
+ *
+ * Lookups and stores are synchronized; the lock is held for map operations only.
+ */
+public final class FilterResultCache {
+
+    static final int MAX_ENTRIES = 32;
+    /** Bound on cached cars across entries; a full catalog list may be large. */
+    static final int MAX_ROWS = 20_000;
+
+    /** Every table a compiled car filter can observe. */
+    private static final String[] TABLES = {"cars", "car_status", "bookings", "car_rating_stats"};
+
+    private static final class Entry {
+        final List<CarCard> cars;
+        final String[] tables;
+        final long[] versions;
+
+        Entry(List<CarCard> cars, String[] tables, long[] versions) {
+            this.cars = cars;
+            this.tables = tables;
+            this.versions = versions;
+        }
+    }
+
+    private final AppDatabase db;
+    private final AtomicLongArray versions = new AtomicLongArray(TABLES.length);
+    private final AtomicBoolean observing = new AtomicBoolean(false);
+
+    // Guarded by this; access-ordered, so iteration starts at the least recently used
+    private final LinkedHashMap<CarFilter, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int rows;
+
+    // Stats, guarded by this
+    private long hits;
+    private long misses;
+    private long invalidated;
+    private long evictions;
+
+    FilterResultCache(@NonNull AppDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * source with the cached list for filter (if still valid) as its first value.
+     * Every list source emits is stored for the next visit. filter must be normalized;
+     * tables are the ones its query reads.
+     */
+    @NonNull
+    LiveData<List<CarCard>> wrap(@NonNull CarFilter filter, @NonNull String[] tables,
+                                 @NonNull LiveData<List<CarCard>> source) {
+        startObserving();
+        return new CachedList(filter, tables, source);
+    }
+
+    private void startObserving() {
+        if (!observing.compareAndSet(false, true)) return;
+        db.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(TABLES) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                for (int i = 0; i < TABLES.length; i++) {
+                    if (tables.contains(TABLES[i])) versions.incrementAndGet(i);
+                }
+            }
+        });
+    }
+
+    private long[] versionsOf(String[] tables) {
+        long[] out = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            out[i] = versions.get(indexOf(tables[i]));
+        }
+        return out;
+    }
+
+    private static int indexOf(String table) {
+        for (int i = 0; i < TABLES.length; i++) {
+            if (TABLES[i].equals(table)) return i;
+        }
+        throw new IllegalArgumentException("Car searches do not read " + table);
+    }
+
+    @Nullable
+    private synchronized List<CarCard> get(CarFilter filter) {
+        Entry e = entries.get(filter);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (!Arrays.equals(e.versions, versionsOf(e.tables))) {
+            remove(filter);
+            invalidated++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.cars;
+    }
+
+    private synchronized void put(CarFilter filter, String[] tables, long[] versions, List<CarCard> cars) {
+        if (cars.size() > MAX_ROWS) {
+            remove(filter);
+            return;
+        }
+        Entry old = entries.put(filter, new Entry(cars, tables, versions));
+        if (old != null) rows -= old.cars.size();
+        rows += cars.size();
+        Iterator<Map.Entry<CarFilter, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > MAX_ENTRIES || rows > MAX_ROWS) && it.hasNext()) {
+            Map.Entry<CarFilter, Entry> eldest = it.next();
+            if (eldest.getKey().equals(filter)) continue;
+            rows -= eldest.getValue().cars.size();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private synchronized void remove(CarFilter filter) {
+        Entry old = entries.remove(filter);
+        if (old != null) rows -= old.cars.size();
+    }
+
+    /** Remove the entry for filter if it is still the one stored with these versions. */
+    private synchronized void removeStored(CarFilter filter, long[] versions) {
+        Entry e = entries.get(filter);
+        if (e != null && e.versions == versions) remove(filter);
+    }
+
+    /** cars up to its first placeholder; cars itself when every slot is loaded. */
+    private static List<CarCard> loadedRows(List<CarCard> cars) {
+        int loaded = cars.indexOf(null);
+        return loaded < 0 ? cars : Collections.unmodifiableList(new ArrayList<>(cars.subList(0, loaded)));
+    }
+
+    /** Drop every entry; for tests and benchmarks. */
+    synchronized void clear() {
+        entries.clear();
+        rows = 0;
+    }
+
+    @NonNull
+    synchronized Stats stats() {
+        return new Stats(entries.size(), rows, hits, misses, invalidated, evictions);
+    }
+
+    /** Counters since start. A miss is a lookup that found no valid entry. */
+    public static final class Stats {
+        public final int entries;
+        public final int rows;
+        public final long hits;
+        public final long misses;
+        /** Entries dropped because a table they read changed. */
+        public final long invalidated;
+        /** Entries dropped to stay within the size bounds. */
+        public final long evictions;
+
+        Stats(int entries, int rows, long hits, long misses, long invalidated, long evictions) {
+            this.entries = entries;
+            this.rows = rows;
+            this.hits = hits;
+            this.misses = misses;
+            this.invalidated = invalidated;
+            this.evictions = evictions;
+        }
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0.0;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "filter cache: entries=%d rows=%d hits=%d misses=%d (%.0f%% hit) " +
+                            "invalidated=%d evictions=%d",
+                    entries, rows, hits, misses, hitRate() * 100, invalidated, evictions);
+        }
+    }
+
+    /**
+     * A search's list: the cached value first, then whatever the query emits.
+     * Each emission is stored with the table versions current when it arrives.
+     * A change that lands between the query and its emission triggers another
+     * emission that overwrites the entry; if the list stops being observed before
+     * that, the entry is dropped.
+     */
+    final class CachedList extends MediatorLiveData<List<CarCard>> {
+        final LiveData<List<CarCard>> source;
+        private final CarFilter filter;
+        private final String[] tables;
+        private long[] storedVersions;
+
+        CachedList(CarFilter filter, String[] tables, LiveData<List<CarCard>> source) {
+            this.filter = filter;
+            this.tables = tables;
+            this.source = source;
+            List<CarCard> cached = get(filter);
+            if (cached != null) setValue(cached);
+            addSource(source, cars -> {
+                if (cars != null) {
+                    storedVersions = versionsOf(tables);
+                    put(filter, tables, storedVersions, loadedRows(cars));
+                }
+                setValue(cars);
+            });
+        }
+
+        @Override
+        protected void onInactive() {
+            super.onInactive();
+            if (storedVersions != null && !Arrays.equals(storedVersions, versionsOf(tables))) {
+                removeStored(filter, storedVersions);
+            }
+        }
+    }
+}
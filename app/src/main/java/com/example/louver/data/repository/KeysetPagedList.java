@@ -0,0 +1,148 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.louver.data.db.AppDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * KeysetPagedList: LiveData of a list that is loaded page by page with keyset
+ * pagination on (createdAt DESC, id DESC). Used for the car lists and the admin
+ * bookings console.
+ *
+ * - The first page is loaded when the LiveData becomes active.
+ * - Further pages are loaded when the UI reports (via {@link #loadAround}) a bound
+ *   position within {@link #PREFETCH_DISTANCE} of the last loaded row.
+ * - No total row count is kept, since counting costs a scan of every matching row
+ *   on each open and invalidation. Each page asks for one extra row instead: if it
+ *   comes back, more rows follow and the list ends with one null placeholder.
+ * - When an observed table changes, only the rows already loaded are re-read,
+ *   not the whole table.
+ *
+ * All loading runs on the reader pool of {@link AppDatabase#IO}. Loads of one
+ * list are serialized by a lock, since the pool may run two of them at once.
+ */
+public class KeysetPagedList<T> extends LiveData<List<T>> {
+
+    public static final int PAGE_SIZE = 20;
+    public static final int PREFETCH_DISTANCE = 10;
+
+    /**
+     * Queries behind a paged list, plus the keyset columns of a loaded row.
+     */
+    public interface PageSource<T> {
+        /** Up to limit rows strictly after the given key, in list order. */
+        List<T> loadPage(long afterCreatedAt, long afterId, int limit);
+
+        long createdAtOf(T item);
+
+        long idOf(T item);
+    }
+
+    private final AppDatabase db;
+    private final PageSource<T> source;
+    private final InvalidationTracker.Observer tableObserver;
+
+    // Guarded by loadLock
+    private final Object loadLock = new Object();
+    private final List<T> loaded = new ArrayList<>();
+    private boolean endReached = false;
+
+    private final AtomicBoolean invalid = new AtomicBoolean(true);
+    private final AtomicBoolean loadQueued = new AtomicBoolean(false);
+    private volatile int requestedPosition = 0;
+
+    KeysetPagedList(@NonNull AppDatabase db, @NonNull String[] observedTables,
+                    @NonNull PageSource<T> source) {
+        this.db = db;
+        this.source = source;
+        this.tableObserver = new InvalidationTracker.Observer(observedTables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalid.set(true);
+                refresh();
+            }
+        };
+    }
+
+    @Override
+    protected void onActive() {
+        db.getInvalidationTracker().addObserver(tableObserver);
+        refresh();
+    }
+
+    @Override
+    protected void onInactive() {
+        db.getInvalidationTracker().removeObserver(tableObserver);
+        // Changes are not tracked while inactive, so re-read on the next activation
+        invalid.set(true);
+    }
+
+    /**
+     * Report that the row at position is being shown; loads more pages when it is
+     * close to the end of what has been loaded.
+     */
+    public void loadAround(int position) {
+        if (position > requestedPosition) requestedPosition = position;
+        if (loadQueued.compareAndSet(false, true)) {
+            AppDatabase.IO.read(this::loadMore);
+        }
+    }
+
+    private void refresh() {
+        AppDatabase.IO.read(() -> {
+            synchronized (loadLock) {
+                // Several invalidations queued back to back collapse into one reload
+                if (!invalid.getAndSet(false)) return;
+                int keep = Math.max(PAGE_SIZE, loaded.size());
+                loaded.clear();
+                endReached = false;
+                appendPage(keep);
+                publish();
+            }
+        });
+    }
+
+    private void loadMore() {
+        loadQueued.set(false);
+        synchronized (loadLock) {
+            boolean changed = false;
+            while (!endReached && requestedPosition >= loaded.size() - PREFETCH_DISTANCE) {
+                appendPage(PAGE_SIZE);
+                changed = true;
+            }
+            if (changed) publish();
+        }
+    }
+
+    private void appendPage(int limit) {
+        long afterCreatedAt = Long.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        if (!loaded.isEmpty()) {
+            T last = loaded.get(loaded.size() - 1);
+            afterCreatedAt = source.createdAtOf(last);
+            afterId = source.idOf(last);
+        }
+        // The extra row only says whether another page follows
+        List<T> page = source.loadPage(afterCreatedAt, afterId, limit + 1);
+        if (page.size() > limit) {
+            loaded.addAll(page.subList(0, limit));
+        } else {
+            loaded.addAll(page);
+            endReached = true;
+        }
+    }
+
+    private void publish() {
+        List<T> snapshot = new ArrayList<>(loaded.size() + 1);
+        snapshot.addAll(loaded);
+        if (!endReached) snapshot.add(null);
+        postValue(snapshot);
+    }
+}
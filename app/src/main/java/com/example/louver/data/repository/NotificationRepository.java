@@ -24,14 +24,14 @@ public class NotificationRepository {
     }
 
     public void insert(NotificationEntity notification) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.notificationDao().insert(notification));
+        AppDatabase.IO.write(() -> db.notificationDao().insert(notification));
     }
 
     public void insertAll(List<NotificationEntity> list) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.notificationDao().insertAll(list));
+        AppDatabase.IO.write(() -> db.notificationDao().insertAll(list));
     }
 
     public void markFired(long id, long firedAt) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.notificationDao().markFired(id, firedAt));
+        AppDatabase.IO.write(() -> db.notificationDao().markFired(id, firedAt));
     }
 }
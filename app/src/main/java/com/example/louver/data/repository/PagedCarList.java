@@ -0,0 +1,42 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.relation.CarCard;
+
+import java.util.List;
+
+/**
+ * PagedCarList: keyset-paged list of cars, re-read when a table its filter reads
+ * changes: always "cars", plus car_status or bookings only when the filter uses
+ * availability or a date range. See {@link KeysetPagedList}.
+ */
+public class PagedCarList extends KeysetPagedList<CarCard> {
+
+    /**
+     * Page query for one car list.
+     */
+    interface CarPageSource {
+        List<CarCard> loadPage(long afterCreatedAt, long afterId, int limit);
+    }
+
+    PagedCarList(@NonNull AppDatabase db, @NonNull String[] observedTables, @NonNull CarPageSource source) {
+        super(db, observedTables, new PageSource<CarCard>() {
+            @Override
+            public List<CarCard> loadPage(long afterCreatedAt, long afterId, int limit) {
+                return source.loadPage(afterCreatedAt, afterId, limit);
+            }
+
+            @Override
+            public long createdAtOf(CarCard car) {
+                return car.createdAt;
+            }
+
+            @Override
+            public long idOf(CarCard car) {
+                return car.id;
+            }
+        });
+    }
+}
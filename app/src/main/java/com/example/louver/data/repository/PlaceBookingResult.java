@@ -42,6 +42,13 @@ public final class PlaceBookingResult {
     @Nullable
     public final String errorMessage;
 
+    /**
+     * Next free window for the same car and duration when the request hit a
+     * conflicting booking. null otherwise.
+     */
+    @Nullable
+    public final BookingIntervalIndex.FreeWindow suggestedWindow;
+
     /**
      * Private constructor (use factory methods instead).
      */
@@ -50,13 +57,15 @@ public final class PlaceBookingResult {
             long bookingId,
             long daysCount,
             double totalPrice,
-            @Nullable String errorMessage
+            @Nullable String errorMessage,
+            @Nullable BookingIntervalIndex.FreeWindow suggestedWindow
     ) {
         this.success = success;
         this.bookingId = bookingId;
         this.daysCount = daysCount;
         this.totalPrice = totalPrice;
         this.errorMessage = errorMessage;
+        this.suggestedWindow = suggestedWindow;
     }
 
     /**
@@ -69,7 +78,7 @@ public final class PlaceBookingResult {
      */
     @NonNull
     public static PlaceBookingResult success(long bookingId, long daysCount, double totalPrice) {
-        return new PlaceBookingResult(true, bookingId, daysCount, totalPrice, null);
+        return new PlaceBookingResult(true, bookingId, daysCount, totalPrice, null, null);
     }
 
     /**
@@ -80,7 +89,22 @@ public final class PlaceBookingResult {
      */
     @NonNull
     public static PlaceBookingResult error(@Nullable String errorMessage) {
-        return new PlaceBookingResult(false, 0, 0, 0.0, errorMessage);
+        return new PlaceBookingResult(false, 0, 0, 0.0, errorMessage, null);
+    }
+
+    /**
+     * Factory: Create an error result for a time-range conflict, carrying an alternative window.
+     *
+     * @param errorMessage    Description of the conflict
+     * @param suggestedWindow Next free window of the same length, or null if none is known
+     * @return PlaceBookingResult with success=false
+     */
+    @NonNull
+    public static PlaceBookingResult conflict(
+            @Nullable String errorMessage,
+            @Nullable BookingIntervalIndex.FreeWindow suggestedWindow
+    ) {
+        return new PlaceBookingResult(false, 0, 0, 0.0, errorMessage, suggestedWindow);
     }
 
     @NonNull
@@ -63,7 +63,7 @@ public final class RepositoryProvider {
         if (carRepository == null) {
             synchronized (RepositoryProvider.class) {
                 if (carRepository == null) {
-                    carRepository = new CarRepository(AppDatabase.getInstance(context));
+                    carRepository = new CarRepository(AppDatabase.getInstance(context), context);
                 }
             }
         }
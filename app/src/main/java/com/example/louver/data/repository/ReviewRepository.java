@@ -1,9 +1,12 @@
 package com.example.louver.data.repository;
 
+import android.os.Build;
+
 import androidx.lifecycle.LiveData;
 
 import com.example.louver.data.dao.ReviewDao;
 import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.entity.CarRatingStatsEntity;
 import com.example.louver.data.entity.ReviewEntity;
 
 import java.util.List;
@@ -40,36 +43,46 @@ public class ReviewRepository {
         return db.reviewDao().getRatingSummariesForAllCars();
     }
 
+    /**
+     * Star distribution of a car: review count per star value plus the totals.
+     * Emits null while the car has never been reviewed.
+     */
+    public LiveData<CarRatingStatsEntity> getStarDistributionForCar(long carId) {
+        return db.reviewDao().getRatingStatsForCar(carId);
+    }
+
     public void insert(ReviewEntity review) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.reviewDao().insert(review));
+        AppDatabase.IO.write(() -> db.reviewDao().insert(review));
     }
 
     public void insert(ReviewEntity review, DbCallback<Long> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             long id = db.reviewDao().insert(review);
             if (callback != null) callback.onComplete(id);
         });
     }
 
     public void update(ReviewEntity review) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.reviewDao().update(review));
+        AppDatabase.IO.write(() -> db.reviewDao().update(review));
     }
 
+    /**
+     * Create or replace the user's review of a car without reading it first.
+     * API 30+ uses a single UPSERT; older SQLite versions use insert-or-ignore
+     * followed by an update that only touches the row when something changed.
+     */
     public void upsertReview(long userId, long carId, int stars, String comment, DbCallback<Boolean> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
-            ReviewEntity existing = db.reviewDao().getReviewForUserAndCarNow(userId, carId);
-            if (existing != null) {
-                existing.stars = stars;
-                existing.comment = comment;
-                db.reviewDao().update(existing);
+        AppDatabase.IO.write(() -> {
+            long now = System.currentTimeMillis();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                db.reviewDao().upsertReview(userId, carId, stars, comment, now);
             } else {
-                ReviewEntity review = new ReviewEntity();
-                review.userId = userId;
-                review.carId = carId;
-                review.stars = stars;
-                review.comment = comment;
-                review.createdAt = System.currentTimeMillis();
-                db.reviewDao().insert(review);
+                db.runInTransaction(() -> {
+                    long rowId = db.reviewDao().insertReviewIfAbsent(userId, carId, stars, comment, now);
+                    if (rowId == -1) {
+                        db.reviewDao().updateReviewContent(userId, carId, stars, comment);
+                    }
+                });
             }
             if (callback != null) callback.onComplete(true);
         });
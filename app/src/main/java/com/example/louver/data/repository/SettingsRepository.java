@@ -18,6 +18,6 @@ public class SettingsRepository {
     }
 
     public void upsert(AppSettingsEntity settings) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.settingsDao().upsert(settings));
+        AppDatabase.IO.write(() -> db.settingsDao().upsert(settings));
     }
 }
@@ -0,0 +1,430 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * SuggestionIndex: in-memory type-ahead over car names, models and category names.
+ *
+ * Terms are kept in a sorted map keyed by their lowercased text, plus one extra
+ * key per later word ("toyota camry" is also found by "cam"). A prefix lookup is
+ * a range scan of that map, so no query touches SQLite.
+ *
+ * Each term is ranked by booking popularity: the number of bookings of the cars
+ * that carry it (for a category, of the cars in it). Weights are kept up to date
+ * as cars are added, changed or removed and as booking counts change.
+ *
+ * A one- or two-letter prefix matches a large share of all terms, so scanning its
+ * range would cost time in proportion to the catalog. Every such prefix instead
+ * keeps a list of its matching terms ({@link #SHORT_PREFIX}), sorted by rank when
+ * it is next read after a change, and a query reads the first entries. A longer
+ * prefix walks its key range only while it holds at most {@link #RANGE_SCAN_CAP}
+ * keys; a wider range walks the ranked list of its first letters instead and keeps
+ * the terms that match, which for a prefix that common come early.
+ *
+ * All methods are synchronized: a query may sort a ranked list in place, and never
+ * sees an update half applied.
+ */
+public final class SuggestionIndex {
+
+    public enum Kind { CAR, MODEL, CATEGORY }
+
+    /** One suggestion: the text to show and why it ranked where it did. */
+    public static final class Suggestion {
+        public final String text;
+        public final Kind kind;
+        public final long bookings;
+
+        Suggestion(String text, Kind kind, long bookings) {
+            this.text = text;
+            this.kind = kind;
+            this.bookings = bookings;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /** Separates a word-start key from the full key it points into. */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /** Prefixes up to this length are answered from a ranked list, not a range scan. */
+    static final int SHORT_PREFIX = 2;
+
+    /** Longest key range a longer prefix walks before it reads a ranked list instead. */
+    static final int RANGE_SCAN_CAP = 64;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final class Term {
+        final String display;
+        final String key;
+        final Kind kind;
+        /** Breaks ties between terms with the same text and kind. */
+        final long seq;
+        /** Cars carrying this name or model; unused for categories. */
+        int carCount;
+        /** Ranked lists holding this term, set when it is linked. */
+        final List<Ranked> lists = new ArrayList<>(4);
+        /** False once unlinked; ranked lists drop it when they are next sorted. */
+        boolean live = true;
+        long weight;
+
+        Term(String display, String key, Kind kind, long seq) {
+            this.display = display;
+            this.key = key;
+            this.kind = kind;
+            this.seq = seq;
+        }
+    }
+
+    /** Most booked first, then alphabetical: the order suggest() returns. */
+    private static final Comparator<Term> RANK = (a, b) -> {
+        if (a.weight != b.weight) return Long.compare(b.weight, a.weight);
+        int byKey = a.key.compareTo(b.key);
+        if (byKey != 0) return byKey;
+        if (a.kind != b.kind) return a.kind.compareTo(b.kind);
+        return Long.compare(a.seq, b.seq);
+    };
+
+    /**
+     * The terms of one short prefix. Changes only mark it unsorted, so a bulk
+     * update costs one sort per list rather than one reinsertion per change.
+     */
+    private static final class Ranked {
+        final ArrayList<Term> terms = new ArrayList<>();
+        int liveCount;
+        boolean sorted = true;
+
+        void add(Term term) {
+            if (sorted && !terms.isEmpty() && RANK.compare(terms.get(terms.size() - 1), term) > 0) {
+                sorted = false;
+            }
+            terms.add(term);
+            liveCount++;
+        }
+
+        /** Drop unlinked terms and restore RANK order. */
+        void sort() {
+            if (sorted) return;
+            if (liveCount < terms.size()) terms.removeIf(t -> !t.live);
+            // Mostly sorted after a few changes; TimSort then runs in about linear time
+            terms.sort(RANK);
+            sorted = true;
+        }
+    }
+
+    private static final class CarRef {
+        final String name;
+        final String model;
+        final long categoryId;
+
+        CarRef(String name, String model, long categoryId) {
+            this.name = name;
+            this.model = model;
+            this.categoryId = categoryId;
+        }
+    }
+
+    // Lookup keys (full or word-start) -> term
+    private final TreeMap<String, Term> keys = new TreeMap<>();
+
+    // Short prefix -> every term with a word starting with it
+    private final Map<String, Ranked> ranked = new HashMap<>();
+    private long nextSeq;
+
+    private final Map<String, Term> carTerms = new HashMap<>();
+    private final Map<String, Term> modelTerms = new HashMap<>();
+    private final Map<Long, Term> categoryTerms = new HashMap<>();
+
+    private final Map<Long, CarRef> cars = new HashMap<>();
+    private final Map<Long, Long> bookingsByCar = new HashMap<>();
+
+    // ── Updates ───────────────────────────────────────────────────────────────
+
+    /** Add or replace a car's name, model and category. */
+    public synchronized void putCar(long carId, @Nullable String name, @Nullable String model,
+                                    long categoryId) {
+        removeCar(carId);
+        CarRef ref = new CarRef(name, model, categoryId);
+        cars.put(carId, ref);
+        long bookings = bookingsOf(carId);
+        Term carTerm = termFor(carTerms, name, Kind.CAR);
+        if (carTerm != null) {
+            carTerm.carCount++;
+            reweigh(carTerm, bookings);
+        }
+        Term modelTerm = termFor(modelTerms, model, Kind.MODEL);
+        if (modelTerm != null) {
+            modelTerm.carCount++;
+            reweigh(modelTerm, bookings);
+        }
+        Term category = categoryTerms.get(categoryId);
+        if (category != null) reweigh(category, bookings);
+    }
+
+    public synchronized void removeCar(long carId) {
+        CarRef ref = cars.remove(carId);
+        if (ref == null) return;
+        long bookings = bookingsOf(carId);
+        release(carTerms, ref.name, bookings);
+        release(modelTerms, ref.model, bookings);
+        Term category = categoryTerms.get(ref.categoryId);
+        if (category != null) reweigh(category, -bookings);
+    }
+
+    /** Add or rename a category. */
+    public synchronized void putCategory(long categoryId, @Nullable String name) {
+        Term old = categoryTerms.remove(categoryId);
+        if (old != null) unlink(old);
+        String key = normalize(name);
+        if (key == null) return;
+        Term term = new Term(name.trim(), key, Kind.CATEGORY, nextSeq++);
+        for (Map.Entry<Long, CarRef> e : cars.entrySet()) {
+            if (e.getValue().categoryId == categoryId) term.weight += bookingsOf(e.getKey());
+        }
+        categoryTerms.put(categoryId, term);
+        link(term);
+    }
+
+    /**
+     * Replace all booking counts. Cars missing from the map have no bookings.
+     */
+    public synchronized void setBookingCounts(@NonNull Map<Long, Long> counts) {
+        Set<Long> carIds = new HashSet<>(bookingsByCar.keySet());
+        carIds.addAll(counts.keySet());
+        for (long carId : carIds) {
+            Long next = counts.get(carId);
+            setBookings(carId, next != null ? next : 0L);
+        }
+        // Sort now rather than on the first keystrokes that read each list
+        for (Ranked list : ranked.values()) list.sort();
+    }
+
+    private void setBookings(long carId, long bookings) {
+        long delta = bookings - bookingsOf(carId);
+        if (delta == 0) return;
+        if (bookings == 0) bookingsByCar.remove(carId); else bookingsByCar.put(carId, bookings);
+        CarRef ref = cars.get(carId);
+        if (ref == null) return;
+        adjust(carTerms, ref.name, delta);
+        adjust(modelTerms, ref.model, delta);
+        Term category = categoryTerms.get(ref.categoryId);
+        if (category != null) reweigh(category, delta);
+    }
+
+    public synchronized void clear() {
+        keys.clear();
+        ranked.clear();
+        carTerms.clear();
+        modelTerms.clear();
+        categoryTerms.clear();
+        cars.clear();
+        bookingsByCar.clear();
+    }
+
+    // ── Queries ───────────────────────────────────────────────────────────────
+
+    /**
+     * Up to limit terms with a word starting with prefix (case-insensitive), most
+     * booked first, then alphabetical.
+     */
+    @NonNull
+    public synchronized List<Suggestion> suggest(@Nullable String prefix, int limit) {
+        String p = normalize(prefix);
+        if (p == null || limit <= 0) return Collections.emptyList();
+
+        if (p.length() <= SHORT_PREFIX) return fromRanked(p, p, limit);
+
+        // A narrow range: rank its few terms directly. A term is listed once per
+        // key that matches, so duplicates are dropped by identity.
+        List<Term> found = new ArrayList<>();
+        for (Term term : keys.subMap(p, true, p + Character.MAX_VALUE, true).values()) {
+            if (found.size() == RANGE_SCAN_CAP) {
+                // A wide range: its terms are a large part of the first letters' list
+                String head = p.substring(0, SHORT_PREFIX);
+                if (head.endsWith(" ")) head = head.substring(0, 1);
+                return fromRanked(head, p, limit);
+            }
+            if (!containsIdentical(found, term)) found.add(term);
+        }
+        found.sort(RANK);
+        List<Suggestion> out = new ArrayList<>(Math.min(limit, found.size()));
+        for (Term t : found) {
+            if (out.size() == limit) break;
+            out.add(new Suggestion(t.display, t.kind, t.weight));
+        }
+        return out;
+    }
+
+    /** The first limit terms of head's ranked list that have a word starting with prefix. */
+    private List<Suggestion> fromRanked(String head, String prefix, int limit) {
+        Ranked list = ranked.get(head);
+        if (list == null) return Collections.emptyList();
+        list.sort();
+        List<Suggestion> out = new ArrayList<>(Math.min(limit, list.terms.size()));
+        for (Term t : list.terms) {
+            if (out.size() == limit) break;
+            if (prefix.length() == head.length() || hasWordStartingWith(t.key, prefix)) {
+                out.add(new Suggestion(t.display, t.kind, t.weight));
+            }
+        }
+        return out;
+    }
+
+    public synchronized int termCount() {
+        return carTerms.size() + modelTerms.size() + categoryTerms.size();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private long bookingsOf(long carId) {
+        Long n = bookingsByCar.get(carId);
+        return n != null ? n : 0L;
+    }
+
+    @Nullable
+    private Term termFor(Map<String, Term> terms, @Nullable String text, Kind kind) {
+        String key = normalize(text);
+        if (key == null) return null;
+        Term term = terms.get(key);
+        if (term == null) {
+            term = new Term(text.trim(), key, kind, nextSeq++);
+            terms.put(key, term);
+            link(term);
+        }
+        return term;
+    }
+
+    private void release(Map<String, Term> terms, @Nullable String text, long bookings) {
+        String key = normalize(text);
+        if (key == null) return;
+        Term term = terms.get(key);
+        if (term == null) return;
+        term.carCount--;
+        reweigh(term, -bookings);
+        if (term.carCount == 0) {
+            terms.remove(key);
+            unlink(term);
+        }
+    }
+
+    private void adjust(Map<String, Term> terms, @Nullable String text, long delta) {
+        String key = normalize(text);
+        if (key == null) return;
+        Term term = terms.get(key);
+        if (term != null) reweigh(term, delta);
+    }
+
+    /** Change a linked term's weight; its ranked lists are re-sorted when next read. */
+    private void reweigh(Term term, long delta) {
+        if (delta == 0) return;
+        term.weight += delta;
+        for (Ranked list : term.lists) list.sorted = false;
+    }
+
+    private void link(Term term) {
+        for (String k : lookupKeys(term)) keys.put(k, term);
+        for (String p : shortPrefixes(term)) {
+            Ranked list = ranked.get(p);
+            if (list == null) {
+                list = new Ranked();
+                ranked.put(p, list);
+            }
+            list.add(term);
+            term.lists.add(list);
+        }
+    }
+
+    private void unlink(Term term) {
+        for (String k : lookupKeys(term)) {
+            if (keys.get(k) == term) keys.remove(k);
+        }
+        term.live = false;
+        for (String p : shortPrefixes(term)) {
+            Ranked list = ranked.get(p);
+            list.sorted = false;
+            if (--list.liveCount == 0) ranked.remove(p);
+        }
+        term.lists.clear();
+    }
+
+    private static boolean containsIdentical(List<Term> terms, Term term) {
+        for (Term t : terms) {
+            if (t == term) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasWordStartingWith(String key, String prefix) {
+        for (int i = 0; i + prefix.length() <= key.length(); i++) {
+            if ((i == 0 || key.charAt(i - 1) == ' ') && key.startsWith(prefix, i)) return true;
+        }
+        return false;
+    }
+
+    /** Every prefix of up to SHORT_PREFIX letters of each word start of the term. */
+    private static Set<String> shortPrefixes(Term term) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i < term.key.length(); i++) {
+            if (term.key.charAt(i) == ' ' || (i > 0 && term.key.charAt(i - 1) != ' ')) continue;
+            for (int len = 1; len <= SHORT_PREFIX && i + len <= term.key.length(); len++) {
+                String p = term.key.substring(i, i + len);
+                // A normalized query never ends in a space
+                if (p.charAt(p.length() - 1) != ' ') out.add(p);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * The full key plus one key per later word start. Kinds are kept apart so a
+     * car and a category with the same text are both suggested.
+     */
+    private static List<String> lookupKeys(Term term) {
+        List<String> out = new ArrayList<>();
+        String suffix = KEY_SEPARATOR + term.kind.name();
+        out.add(term.key + suffix);
+        for (int i = 1; i < term.key.length(); i++) {
+            if (term.key.charAt(i - 1) == ' ' && term.key.charAt(i) != ' ') {
+                out.add(term.key.substring(i) + KEY_SEPARATOR + term.key + suffix);
+            }
+        }
+        return out;
+    }
+
+    /** Lowercase, trimmed, inner whitespace collapsed; null if nothing is left. */
+    @Nullable
+    static String normalize(@Nullable String text) {
+        if (text == null) return null;
+        String key = text.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) return null;
+        // Names rarely hold anything but single spaces; skip the regex for those
+        return hasWhitespaceRun(key) ? WHITESPACE.matcher(key).replaceAll(" ") : key;
+    }
+
+    /** True if text has whitespace other than single spaces. */
+    private static boolean hasWhitespaceRun(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') return true;
+            if (c == ' ' && i > 0 && text.charAt(i - 1) == ' ') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * TrigramIndex: typo-tolerant matching of search text against car names and models.
+ *
+ * Each word is padded ("  camry ") and cut into overlapping three-character
+ * grams; every gram has a posting list of the rows that contain it. A misspelt
+ * word still shares most of its grams with the right one ("camery" and "camry"
+ * share "  c", " ca", "cam"), so candidates are found by counting shared grams
+ * and kept if their Dice similarity is high enough. The best candidates are
+ * then re-ranked with the edit distance between each query word and the closest
+ * word of the car, which separates near-misses from cars that merely share a
+ * common fragment.
+ *
+ * The FTS search stays the primary search; this is the fallback when it finds
+ * nothing. The index is immutable and built by {@link CatalogStore} per
+ * catalog snapshot.
+ */
+public final class TrigramIndex {
+
+    /** Minimum Dice similarity between query and car grams to be a candidate. */
+    static final double MIN_DICE = 0.3;
+    /** Candidates re-ranked by edit distance, best Dice first. */
+    private static final int RERANK_LIMIT = 256;
+
+    /** A matching row and its combined score in (0, 1]. */
+    public static final class Match {
+        public final int row;
+        public final double score;
+
+        Match(int row, double score) {
+            this.row = row;
+            this.score = score;
+        }
+    }
+
+    private final int size;
+    private final Map<Long, int[]> postings;
+    private final int[] gramCounts;
+    private final String[][] words;
+
+    /**
+     * Build over name + model per row; index i of both arrays is the same car.
+     */
+    @NonNull
+    public static TrigramIndex build(@NonNull String[] names, @NonNull String[] models) {
+        return new TrigramIndex(names, models);
+    }
+
+    private TrigramIndex(String[] names, String[] models) {
+        size = names.length;
+        gramCounts = new int[size];
+        words = new String[size][];
+
+        Map<Long, IntList> lists = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            words[row] = tokenize(join(names[row], models[row]));
+            Set<Long> grams = grams(words[row]);
+            gramCounts[row] = grams.size();
+            for (long g : grams) {
+                IntList list = lists.get(g);
+                if (list == null) lists.put(g, list = new IntList());
+                list.add(row);
+            }
+        }
+        postings = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Long, IntList> e : lists.entrySet()) {
+            postings.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows matching the query, best first, at most limit. Rows rejected by
+     * rowFilter are skipped (e.g. the screen's other filters).
+     */
+    @NonNull
+    public List<Match> search(@NonNull String query, int limit, @NonNull IntPredicate rowFilter) {
+        String[] queryWords = tokenize(query);
+        Set<Long> queryGrams = grams(queryWords);
+        if (queryGrams.isEmpty() || limit <= 0) return new ArrayList<>();
+
+        // Count shared grams per row
+        int[] shared = new int[size];
+        IntList touched = new IntList();
+        for (long g : queryGrams) {
+            int[] rows = postings.get(g);
+            if (rows == null) continue;
+            for (int row : rows) {
+                if (shared[row]++ == 0) touched.add(row);
+            }
+        }
+
+        // Keep rows with enough overlap, best Dice first
+        List<Match> candidates = new ArrayList<>();
+        for (int i = 0; i < touched.size; i++) {
+            int row = touched.values[i];
+            double dice = 2.0 * shared[row] / (queryGrams.size() + gramCounts[row]);
+            if (dice >= MIN_DICE && rowFilter.test(row)) candidates.add(new Match(row, dice));
+        }
+        candidates.sort((a, b) -> Double.compare(b.score, a.score));
+        if (candidates.size() > RERANK_LIMIT) candidates = candidates.subList(0, RERANK_LIMIT);
+
+        // Re-rank by how close each query word is to some word of the car
+        List<Match> ranked = new ArrayList<>(candidates.size());
+        for (Match c : candidates) {
+            double wordSimilarity = 0;
+            for (String q : queryWords) {
+                double best = 0;
+                for (String w : words[c.row]) {
+                    int maxLen = Math.max(q.length(), w.length());
+                    // A query word that is a prefix of a car word is a full match
+                    int distance = w.startsWith(q) ? 0 : editDistance(q, w);
+                    best = Math.max(best, 1.0 - (double) distance / maxLen);
+                }
+                wordSimilarity += best;
+            }
+            wordSimilarity /= queryWords.length;
+            ranked.add(new Match(c.row, 0.5 * c.score + 0.5 * wordSimilarity));
+        }
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            return byScore != 0 ? byScore : Integer.compare(a.row, b.row);
+        });
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    // ── Text helpers ──────────────────────────────────────────────────────────
+
+    private static String join(String name, String model) {
+        if (name == null) return model != null ? model : "";
+        return model != null ? name + " " + model : name;
+    }
+
+    /** Lowercase letter/digit words. */
+    static String[] tokenize(String text) {
+        if (text == null) return new String[0];
+        List<String> out = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) out.add(token);
+        }
+        return out.toArray(new String[0]);
+    }
+
+    /** Distinct padded grams of the words, each packed as three 16-bit chars. */
+    static Set<Long> grams(String[] words) {
+        Set<Long> out = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                out.add(((long) padded.charAt(i) << 32)
+                        | ((long) padded.charAt(i + 1) << 16)
+                        | padded.charAt(i + 2));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Optimal string alignment distance: insertions, deletions, substitutions and
+     * swaps of adjacent characters ("acord" -> "accord" is 1, "camyr" -> "camry" is 1).
+     */
+    static int editDistance(String a, String b) {
+        int n = a.length(), m = b.length();
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prev2[j - 2] + 1);
+                }
+                cur[j] = d;
+            }
+            int[] t = prev2; prev2 = prev; prev = cur; cur = t;
+        }
+        return prev[m];
+    }
+
+    /** Growable int array, to keep posting lists unboxed. */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
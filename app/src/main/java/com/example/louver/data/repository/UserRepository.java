@@ -32,17 +32,17 @@ public class UserRepository {
     }
 
     public void insert(UserEntity user) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.userDao().insert(user));
+        AppDatabase.IO.write(() -> db.userDao().insert(user));
     }
 
     public void insert(UserEntity user, DbCallback<Long> callback) {
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             long id = db.userDao().insert(user);
             if (callback != null) callback.onComplete(id);
         });
     }
 
     public void update(UserEntity user) {
-        AppDatabase.DB_EXECUTOR.execute(() -> db.userDao().update(user));
+        AppDatabase.IO.write(() -> db.userDao().update(user));
     }
 }
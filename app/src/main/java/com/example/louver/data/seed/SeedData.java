@@ -1,16 +1,18 @@
 package com.example.louver.data.seed;
 
-import android.util.Log;
+import android.os.SystemClock;
 
 import com.example.louver.data.auth.PasswordHasher;
 import com.example.louver.data.converter.FuelType;
 import com.example.louver.data.converter.TransmissionType;
 import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.DatabaseStartup;
 import com.example.louver.data.entity.AppSettingsEntity;
 import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.CarImageEntity;
 import com.example.louver.data.entity.CategoryEntity;
 import com.example.louver.data.entity.UserEntity;
+import com.example.louver.data.repository.CarRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,9 +21,21 @@ public final class SeedData {
 
     private SeedData() {}
 
+    /**
+     * Fill an empty database with the demo users and catalog. Used on a first
+     * launch without the prepackaged asset, after a destructive migration, and by
+     * the build-time task that generates that asset.
+     *
+     * Everything is written in one transaction: one commit (one fsync) instead of
+     * one per row, and observers see the whole catalog appear at once. The PBKDF2
+     * hashes are computed before the transaction, so the write lock is not held
+     * while they run.
+     */
     public static void seed(AppDatabase db) {
+        long start = SystemClock.elapsedRealtime();
 
         // 0) Users — seeded independently of other data, always checked
+        List<UserEntity> users = new ArrayList<>();
         if (db.userDao().countUsers() == 0) {
             long userNow = System.currentTimeMillis();
 
@@ -31,17 +45,9 @@ public final class SeedData {
             admin.phone = "0000000000";
             admin.role = "ADMIN";
             admin.profileImageUri = null;
-            Log.d("SEED_DEBUG", "Hashing password: [Admin123!]");
             admin.passwordHash = PasswordHasher.hashPassword("Admin123!".toCharArray());
-            Log.d("SEED_DEBUG", "Admin hash: " + admin.passwordHash);
             admin.createdAt = userNow;
-            db.userDao().insert(admin);
-
-            UserEntity insertedAdmin = db.userDao().getByEmail("admin@louver.com");
-            if (insertedAdmin != null) {
-                insertedAdmin.role = "ADMIN";
-                db.userDao().update(insertedAdmin);
-            }
+            users.add(admin);
 
             UserEntity demo = new UserEntity();
             demo.fullName = "Demo User";
@@ -51,19 +57,26 @@ public final class SeedData {
             demo.profileImageUri = null;
             demo.passwordHash = PasswordHasher.hashPassword("Demo123!".toCharArray());
             demo.createdAt = userNow;
-            db.userDao().insert(demo);
+            users.add(demo);
+        }
 
-            UserEntity insertedDemo = db.userDao().getByEmail("demo@louver.com");
-            if (insertedDemo != null) {
-                insertedDemo.role = "CUSTOMER";
-                db.userDao().update(insertedDemo);
+        boolean seeded = db.runInTransaction(() -> {
+            for (UserEntity user : users) {
+                db.userDao().insert(user);
             }
-        }
+            // Avoid reseeding cars/categories/settings if already seeded
+            AppSettingsEntity existing = db.settingsDao().getSettingsNow();
+            if (existing != null) return !users.isEmpty();
+            seedCatalog(db);
+            return true;
+        });
 
-        // Avoid reseeding cars/categories/settings if already seeded
-        AppSettingsEntity existing = db.settingsDao().getSettingsNow();
-        if (existing != null) return;
+        if (seeded) {
+            DatabaseStartup.seeded(SystemClock.elapsedRealtime() - start);
+        }
+    }
 
+    private static void seedCatalog(AppDatabase db) {
         // 1) Categories (exactly 6)
         long familyId = db.categoryDao().insert(new CategoryEntity("Family", null));
         long suvId = db.categoryDao().insert(new CategoryEntity("SUV", null));
@@ -77,7 +90,7 @@ public final class SeedData {
         // 2) Cars (exactly 10) - at least 1 per category
         List<Long> carIds = new ArrayList<>();
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 familyId,
                 "Toyota Camry",
                 "Camry SE",
@@ -93,7 +106,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 familyId,
                 "Honda Accord",
                 "Accord EX",
@@ -109,7 +122,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 suvId,
                 "Toyota RAV4",
                 "RAV4 XLE",
@@ -125,7 +138,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 suvId,
                 "Nissan X-Trail",
                 "X-Trail SV",
@@ -141,7 +154,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 economyId,
                 "Hyundai i10",
                 "i10 Comfort",
@@ -157,7 +170,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 economyId,
                 "Kia Picanto",
                 "Picanto LX",
@@ -173,7 +186,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 luxuryId,
                 "Mercedes-Benz E-Class",
                 "E 300",
@@ -189,7 +202,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 luxuryId,
                 "BMW 5 Series",
                 "520i",
@@ -205,7 +218,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 sportId,
                 "Ford Mustang",
                 "Mustang GT",
@@ -221,7 +234,7 @@ public final class SeedData {
                 now
         )));
 
-        carIds.add(db.carDao().insert(new CarEntity(
+        carIds.add(CarRepository.insertWithStatus(db, new CarEntity(
                 electricId,
                 "Tesla Model 3",
                 "Model 3 Long Range",
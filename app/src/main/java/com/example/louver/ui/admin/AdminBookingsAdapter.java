@@ -12,27 +12,36 @@ import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.louver.data.converter.BookingStatus;
-import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.relation.BookingListRow;
 import com.example.louver.databinding.ItemAdminBookingBinding;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class AdminBookingsAdapter
-        extends ListAdapter<BookingFullDetails, AdminBookingsAdapter.VH> {
+        extends ListAdapter<BookingListRow, AdminBookingsAdapter.VH> {
 
     private static final SimpleDateFormat DATE_FORMAT =
             new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.US);
 
-    private final Consumer<BookingFullDetails> onItemClick;
+    private final Consumer<BookingListRow> onItemClick;
+    private IntConsumer onItemBound;
 
-    public AdminBookingsAdapter(Consumer<BookingFullDetails> onItemClick) {
+    public AdminBookingsAdapter(Consumer<BookingListRow> onItemClick) {
         super(DIFF);
         this.onItemClick = onItemClick;
     }
 
+    /**
+     * Called with the adapter position of every bound row; used to page in more rows.
+     */
+    public void setOnItemBoundListener(IntConsumer listener) {
+        this.onItemBound = listener;
+    }
+
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -42,16 +51,23 @@ public class AdminBookingsAdapter
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        holder.bind(getItem(position));
+        if (onItemBound != null) onItemBound.accept(position);
+        BookingListRow item = getItem(position);
+        if (item == null) {
+            // Placeholder for a row whose page has not loaded yet
+            holder.bindPlaceholder();
+            return;
+        }
+        holder.bind(item);
     }
 
     // ── ViewHolder ────────────────────────────────────────────────────────────
 
     static class VH extends RecyclerView.ViewHolder {
         private final ItemAdminBookingBinding b;
-        private BookingFullDetails current;
+        private BookingListRow current;
 
-        VH(ItemAdminBookingBinding binding, Consumer<BookingFullDetails> onItemClick) {
+        VH(ItemAdminBookingBinding binding, Consumer<BookingListRow> onItemClick) {
             super(binding.getRoot());
             this.b = binding;
             binding.getRoot().setOnClickListener(v -> {
@@ -59,21 +75,31 @@ public class AdminBookingsAdapter
             });
         }
 
-        void bind(BookingFullDetails item) {
+        void bind(BookingListRow item) {
             current = item;
-            String userName = item.user != null ? item.user.fullName : "Unknown User";
-            String carName  = item.car  != null
-                    ? item.car.name + " " + item.car.model : "Unknown Car";
+            String userName = item.userName != null ? item.userName : "Unknown User";
+            String carName  = item.carName  != null
+                    ? item.carName + " " + item.carModel : "Unknown Car";
 
             b.tvBookingUser.setText(userName);
             b.tvBookingCar.setText(carName);
             b.tvBookingDates.setText(
-                    "Pickup: " + DATE_FORMAT.format(new Date(item.booking.pickupAt))
-                    + "\nReturn: " + DATE_FORMAT.format(new Date(item.booking.returnAt)));
+                    "Pickup: " + DATE_FORMAT.format(new Date(item.pickupAt))
+                    + "\nReturn: " + DATE_FORMAT.format(new Date(item.returnAt)));
             b.tvBookingPrice.setText(
-                    String.format(Locale.US, "Total: $%.2f", item.booking.totalPrice));
+                    String.format(Locale.US, "Total: $%.2f", item.totalPrice));
+
+            applyStatusChip(item.status);
+        }
 
-            applyStatusChip(item.booking.status);
+        void bindPlaceholder() {
+            current = null;
+            b.tvBookingUser.setText("");
+            b.tvBookingCar.setText("");
+            b.tvBookingDates.setText("");
+            b.tvBookingPrice.setText("");
+            b.chipStatus.setText("");
+            b.chipStatus.setChipBackgroundColor(ColorStateList.valueOf(Color.TRANSPARENT));
         }
 
         private void applyStatusChip(BookingStatus status) {
@@ -115,20 +141,18 @@ public class AdminBookingsAdapter
 
     // ── DiffCallback ──────────────────────────────────────────────────────────
 
-    private static final DiffUtil.ItemCallback<BookingFullDetails> DIFF =
-            new DiffUtil.ItemCallback<BookingFullDetails>() {
+    private static final DiffUtil.ItemCallback<BookingListRow> DIFF =
+            new DiffUtil.ItemCallback<BookingListRow>() {
                 @Override
-                public boolean areItemsTheSame(@NonNull BookingFullDetails o,
-                                               @NonNull BookingFullDetails n) {
-                    return o.booking.id == n.booking.id;
+                public boolean areItemsTheSame(@NonNull BookingListRow o,
+                                               @NonNull BookingListRow n) {
+                    return o.bookingId == n.bookingId;
                 }
                 @SuppressLint("DiffUtilEquals")
                 @Override
-                public boolean areContentsTheSame(@NonNull BookingFullDetails o,
-                                                  @NonNull BookingFullDetails n) {
-                    return o.booking.id == n.booking.id
-                            && o.booking.status == n.booking.status
-                            && o.booking.totalPrice == n.booking.totalPrice;
+                public boolean areContentsTheSame(@NonNull BookingListRow o,
+                                                  @NonNull BookingListRow n) {
+                    return o.equals(n);
                 }
             };
 }
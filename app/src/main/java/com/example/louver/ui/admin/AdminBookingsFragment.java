@@ -8,16 +8,26 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.Pair;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.louver.R;
 import com.example.louver.data.auth.SessionManager;
+import com.example.louver.data.converter.BookingStatus;
 import com.example.louver.data.repository.RepositoryProvider;
 import com.example.louver.databinding.FragmentAdminBookingsBinding;
+import com.google.android.material.datepicker.MaterialDatePicker;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
 
 public class AdminBookingsFragment extends Fragment {
 
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
     private FragmentAdminBookingsBinding binding;
     private AdminBookingsViewModel viewModel;
     private AdminBookingsAdapter adapter;
@@ -44,18 +54,75 @@ public class AdminBookingsFragment extends Fragment {
 
         viewModel = new AdminBookingsViewModel(RepositoryProvider.bookings(requireContext()));
 
-        adapter = new AdminBookingsAdapter(item -> openDetail(item.booking.id));
+        adapter = new AdminBookingsAdapter(item -> openDetail(item.bookingId));
+        adapter.setOnItemBoundListener(viewModel::loadBookingsAround);
 
         binding.recyclerBookings.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerBookings.setAdapter(adapter);
 
-        viewModel.getAllBookings().observe(getViewLifecycleOwner(), bookings -> {
+        setupStatusChips();
+        setupPickupDates();
+
+        viewModel.getBookings().observe(getViewLifecycleOwner(), bookings -> {
             adapter.submitList(bookings);
             binding.emptyBookings.setVisibility(
                     bookings == null || bookings.isEmpty() ? View.VISIBLE : View.GONE);
         });
     }
 
+    private void setupStatusChips() {
+        binding.chipGroupBookingStatus.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            int chipId = checkedIds.isEmpty() ? R.id.chipStatusAll : checkedIds.get(0);
+            BookingStatus status = null;
+            if (chipId == R.id.chipStatusPending) {
+                status = BookingStatus.PENDING;
+            } else if (chipId == R.id.chipStatusActive) {
+                status = BookingStatus.ACTIVE;
+            } else if (chipId == R.id.chipStatusOverdue) {
+                status = BookingStatus.OVERDUE;
+            } else if (chipId == R.id.chipStatusCompleted) {
+                status = BookingStatus.COMPLETED;
+            } else if (chipId == R.id.chipStatusCancelled) {
+                status = BookingStatus.CANCELLED;
+            }
+            viewModel.setStatusFilter(status);
+        });
+    }
+
+    private void setupPickupDates() {
+        binding.btnPickupDates.setOnClickListener(v -> {
+            MaterialDatePicker<Pair<Long, Long>> picker = MaterialDatePicker.Builder.dateRangePicker()
+                    .setTitleText(R.string.admin_bookings_pickup_between)
+                    .build();
+            picker.addOnPositiveButtonClickListener(selection -> {
+                if (selection == null || selection.first == null || selection.second == null) return;
+                // Picker returns UTC midnights; the range covers the whole last day
+                long from = selection.first;
+                long until = selection.second + MILLIS_PER_DAY;
+                viewModel.setPickupBetween(from, until);
+                updatePickupDatesLabel(from, until);
+            });
+            picker.show(getChildFragmentManager(), "pickup_dates");
+        });
+        // Long-press clears the date range
+        binding.btnPickupDates.setOnLongClickListener(v -> {
+            viewModel.setPickupBetween(null, null);
+            updatePickupDatesLabel(null, null);
+            return true;
+        });
+    }
+
+    private void updatePickupDatesLabel(Long from, Long until) {
+        if (from == null || until == null) {
+            binding.btnPickupDates.setText(R.string.admin_bookings_any_dates);
+            return;
+        }
+        SimpleDateFormat fmt = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        fmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+        binding.btnPickupDates.setText(
+                fmt.format(new Date(from)) + " – " + fmt.format(new Date(until - MILLIS_PER_DAY)));
+    }
+
     private void openDetail(long bookingId) {
         AdminBookingDetailFragment detail = AdminBookingDetailFragment.newInstance(bookingId);
         getParentFragmentManager()
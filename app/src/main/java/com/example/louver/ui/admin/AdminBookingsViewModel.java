@@ -1,28 +1,82 @@
 package com.example.louver.ui.admin;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
 
 import com.example.louver.data.converter.BookingStatus;
-import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.relation.BookingListRow;
 import com.example.louver.data.repository.BookingRepository;
+import com.example.louver.data.repository.KeysetPagedList;
 
 import java.util.List;
 
 public class AdminBookingsViewModel extends ViewModel {
 
     private final BookingRepository bookingRepository;
-    private final LiveData<List<BookingFullDetails>> allBookings;
+
+    private BookingStatus status = null;
+    private Long carId = null;
+    private Long userId = null;
+    private Long pickupFrom = null;
+    private Long pickupUntil = null;
+
+    // Bumped whenever a filter changes; switchMap swaps in a new paged list
+    private final MutableLiveData<Integer> filterVersion = new MutableLiveData<>(0);
+    private KeysetPagedList<BookingListRow> currentPage;
+    private final LiveData<List<BookingListRow>> bookings;
 
     public AdminBookingsViewModel(@NonNull BookingRepository bookingRepository) {
         this.bookingRepository = bookingRepository;
-        this.allBookings = bookingRepository.getAllBookingsFullDetails();
+        this.bookings = Transformations.switchMap(filterVersion, v -> {
+            currentPage = bookingRepository.pagedAdminBookings(
+                    status, carId, userId, pickupFrom, pickupUntil);
+            return currentPage;
+        });
+    }
+
+    public LiveData<List<BookingListRow>> getBookings() { return bookings; }
+
+    /**
+     * Called by the adapter for each bound row so further pages load while scrolling.
+     */
+    public void loadBookingsAround(int position) {
+        if (currentPage != null) currentPage.loadAround(position);
+    }
+
+    public void setStatusFilter(@Nullable BookingStatus status) {
+        this.status = status;
+        reload();
     }
 
-    public LiveData<List<BookingFullDetails>> getAllBookings() { return allBookings; }
+    public void setCarFilter(@Nullable Long carId) {
+        this.carId = carId;
+        reload();
+    }
+
+    public void setUserFilter(@Nullable Long userId) {
+        this.userId = userId;
+        reload();
+    }
+
+    /**
+     * Limit to bookings picked up in [from, until). Pass nulls to clear.
+     */
+    public void setPickupBetween(@Nullable Long from, @Nullable Long until) {
+        this.pickupFrom = from;
+        this.pickupUntil = until;
+        reload();
+    }
 
     public void updateStatus(long bookingId, BookingStatus status) {
         bookingRepository.updateBookingStatus(bookingId, status);
     }
+
+    private void reload() {
+        Integer v = filterVersion.getValue();
+        filterVersion.setValue(v == null ? 1 : v + 1);
+    }
 }
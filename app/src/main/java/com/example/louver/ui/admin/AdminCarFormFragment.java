@@ -20,6 +20,7 @@ import com.example.louver.data.converter.TransmissionType;
 import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.repository.RepositoryProvider;
 import com.example.louver.databinding.FragmentAdminCarFormBinding;
+import com.example.louver.ui.home.CarImageUtils;
 
 public class AdminCarFormFragment extends Fragment {
 
@@ -37,6 +38,8 @@ public class AdminCarFormFragment extends Fragment {
     private static final String ARG_CAR_IMAGE = "arg_car_image";
     private static final String ARG_CAR_AVAILABLE = "arg_car_available";
     private static final long NO_ID = -1L;
+    /** Pause in typing before the image URL preview is fetched. */
+    private static final long PREVIEW_DELAY_MS = 400L;
 
     private FragmentAdminCarFormBinding binding;
     private AdminCarsViewModel viewModel;
@@ -194,7 +197,9 @@ public class AdminCarFormFragment extends Fragment {
         binding.inputMainImage.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                updateImagePreview(s != null ? s.toString() : "");
+                // Wait for a pause in typing, so partial URLs are not fetched
+                binding.ivImagePreview.removeCallbacks(refreshPreview);
+                binding.ivImagePreview.postDelayed(refreshPreview, PREVIEW_DELAY_MS);
             }
             @Override public void afterTextChanged(Editable s) {}
         });
@@ -217,22 +222,17 @@ public class AdminCarFormFragment extends Fragment {
     }
 
     /**
-     * Show placeholder preview when no real URL is provided; otherwise keep placeholder
-     * (no image loading library — just signals that a real URL is stored).
+     * Preview the entered image URL; the placeholder shows while it loads and when
+     * no real URL is entered.
      */
     private void updateImagePreview(String url) {
-        // Always show placeholder drawable (no Glide yet).
-        // If a real URL is entered, tag it for future use.
-        binding.ivImagePreview.setImageResource(R.drawable.ic_car_placeholder);
-        if (url != null && !url.trim().isEmpty()
-                && !url.trim().equalsIgnoreCase("placeholder")
-                && !url.trim().startsWith("https://example.com/")) {
-            binding.ivImagePreview.setTag(url.trim());
-        } else {
-            binding.ivImagePreview.setTag(null);
-        }
+        CarImageUtils.load(binding.ivImagePreview, url);
     }
 
+    private final Runnable refreshPreview = () -> {
+        if (binding != null) updateImagePreview(text(binding.inputMainImage));
+    };
+
     private void observeViewModel() {
         viewModel.getMessage().observe(getViewLifecycleOwner(), message -> {
             if (message != null && !message.trim().isEmpty()) {
@@ -255,6 +255,8 @@ public class AdminCarFormFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        binding.ivImagePreview.removeCallbacks(refreshPreview);
+        CarImageUtils.cancel(binding.ivImagePreview);
         binding = null;
     }
 }
@@ -9,26 +9,55 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.louver.R;
-import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.databinding.ItemCarBinding;
 import com.example.louver.ui.home.CarImageUtils;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
-public class AdminCarsAdapter extends ListAdapter<CarEntity, AdminCarsAdapter.VH> {
+public class AdminCarsAdapter extends ListAdapter<CarCard, AdminCarsAdapter.VH> {
 
-    private final Consumer<CarEntity> onEdit;
-    private final Consumer<CarEntity> onDelete;
+    private final Consumer<CarCard> onEdit;
+    private final Consumer<CarCard> onDelete;
+    private IntConsumer onItemBound;
+    private final Set<Long> unavailableCarIds = new HashSet<>();
 
-    public AdminCarsAdapter(Consumer<CarEntity> onEdit, Consumer<CarEntity> onDelete) {
+    public AdminCarsAdapter(Consumer<CarCard> onEdit, Consumer<CarCard> onDelete) {
         super(DIFF);
         this.onEdit = onEdit;
         this.onDelete = onDelete;
     }
 
+    /**
+     * Called with each bound position, so a paged list can load ahead.
+     */
+    public void setOnItemBoundListener(IntConsumer listener) {
+        this.onItemBound = listener;
+    }
+
+    /**
+     * Replace the set of unavailable cars (from car_status). Availability is passed
+     * to each row as it is bound, and only rows whose availability changed are rebound.
+     */
+    public void setUnavailableCarIds(List<Long> carIds) {
+        Set<Long> previous = new HashSet<>(unavailableCarIds);
+        unavailableCarIds.clear();
+        if (carIds != null) unavailableCarIds.addAll(carIds);
+        List<CarCard> current = getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            CarCard car = current.get(i);
+            if (car != null && previous.contains(car.id) != unavailableCarIds.contains(car.id)) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -42,14 +71,26 @@ public class AdminCarsAdapter extends ListAdapter<CarEntity, AdminCarsAdapter.VH
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        holder.bind(getItem(position));
+        if (onItemBound != null) onItemBound.accept(position);
+        CarCard car = getItem(position);
+        if (car == null) {
+            holder.bindPlaceholder();
+            return;
+        }
+        holder.bind(car, !unavailableCarIds.contains(car.id));
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull VH holder) {
+        super.onViewRecycled(holder);
+        CarImageUtils.cancel(holder.binding.carImage);
     }
 
     static class VH extends RecyclerView.ViewHolder {
         private final ItemCarBinding binding;
-        private CarEntity currentCar;
+        private CarCard currentCar;
 
-        VH(ItemCarBinding binding, Consumer<CarEntity> onEdit, Consumer<CarEntity> onDelete) {
+        VH(ItemCarBinding binding, Consumer<CarCard> onEdit, Consumer<CarCard> onDelete) {
             super(binding.getRoot());
             this.binding = binding;
 
@@ -66,40 +107,45 @@ public class AdminCarsAdapter extends ListAdapter<CarEntity, AdminCarsAdapter.VH
             });
         }
 
-        void bind(CarEntity car) {
+        /** Row whose page has not been loaded yet. */
+        void bindPlaceholder() {
+            this.currentCar = null;
+            binding.carName.setText("");
+            binding.carModel.setText("");
+            binding.carPrice.setText("");
+            binding.carMeta.setText("");
+            binding.availability.setText("");
+            binding.carRating.setText("");
+            CarImageUtils.load(binding.carImage, null);
+        }
+
+        void bind(CarCard car, boolean available) {
             this.currentCar = car;
             binding.carName.setText(car.name);
             binding.carModel.setText(String.format(Locale.US, "%s • %d", car.model, car.year));
             binding.carPrice.setText(String.format(Locale.US, "$%.2f / day", car.dailyPrice));
             binding.carMeta.setText(String.format(Locale.US, "%d seats • %s • %s",
                     car.seats, car.transmission, car.fuelType));
-            binding.availability.setText(car.isAvailable ? "Available" : "Not available");
+            binding.availability.setText(available ? "Available" : "Not available");
             binding.carRating.setText(String.format(Locale.US, "ID: %d", car.id));
 
-            // Placeholder image logic
-            if (CarImageUtils.isPlaceholder(car.mainImageUrl)) {
-                binding.carImage.setImageResource(R.drawable.ic_car_placeholder);
-            } else {
-                binding.carImage.setImageResource(R.drawable.ic_car_placeholder);
-                binding.carImage.setTag(car.mainImageUrl);
-            }
+            CarImageUtils.load(binding.carImage, car.mainImageUrl);
         }
     }
 
-    private static final DiffUtil.ItemCallback<CarEntity> DIFF = new DiffUtil.ItemCallback<CarEntity>() {
+    private static final DiffUtil.ItemCallback<CarCard> DIFF = new DiffUtil.ItemCallback<CarCard>() {
         @Override
-        public boolean areItemsTheSame(@NonNull CarEntity oldItem, @NonNull CarEntity newItem) {
+        public boolean areItemsTheSame(@NonNull CarCard oldItem, @NonNull CarCard newItem) {
             return oldItem.id == newItem.id;
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull CarEntity oldItem, @NonNull CarEntity newItem) {
+        public boolean areContentsTheSame(@NonNull CarCard oldItem, @NonNull CarCard newItem) {
             return oldItem.categoryId == newItem.categoryId
                     && Objects.equals(oldItem.name, newItem.name)
                     && Objects.equals(oldItem.model, newItem.model)
                     && oldItem.year == newItem.year
                     && oldItem.dailyPrice == newItem.dailyPrice
-                    && oldItem.isAvailable == newItem.isAvailable
                     && Objects.equals(oldItem.transmission, newItem.transmission)
                     && Objects.equals(oldItem.fuelType, newItem.fuelType)
                     && oldItem.seats == newItem.seats;
@@ -16,6 +16,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.example.louver.R;
 import com.example.louver.data.auth.SessionManager;
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.data.repository.RepositoryProvider;
 import com.example.louver.databinding.FragmentAdminCarsBinding;
 
@@ -53,7 +54,7 @@ public class AdminCarsFragment extends Fragment {
     }
 
     private void setupRecycler() {
-        adapter = new AdminCarsAdapter(car -> openFormFragment(car), car -> showDeleteConfirmation(car));
+        adapter = new AdminCarsAdapter(this::openEditForm, this::showDeleteConfirmation);
         binding.recyclerCars.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerCars.setAdapter(adapter);
     }
@@ -68,6 +69,9 @@ public class AdminCarsFragment extends Fragment {
             binding.emptyCars.setVisibility((cars == null || cars.isEmpty()) ? View.VISIBLE : View.GONE);
         });
 
+        viewModel.getUnavailableCarIds().observe(getViewLifecycleOwner(),
+                ids -> adapter.setUnavailableCarIds(ids));
+
         viewModel.getMessage().observe(getViewLifecycleOwner(), message -> {
             if (message != null && !message.trim().isEmpty()) {
                 Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
@@ -75,12 +79,23 @@ public class AdminCarsFragment extends Fragment {
         });
     }
 
+    /** List rows are CarCard projections; the form needs the full car, so load it first. */
+    private void openEditForm(CarCard card) {
+        viewModel.loadCarForEdit(card, car -> {
+            if (getActivity() == null || !isAdded()) return;
+            requireActivity().runOnUiThread(() -> {
+                if (car == null || binding == null) return;
+                openFormFragment(car);
+            });
+        });
+    }
+
     private void openFormFragment(@Nullable CarEntity car) {
         AdminCarFormFragment fragment = AdminCarFormFragment.newInstance(car);
         getParentFragmentManager().beginTransaction().replace(R.id.fragmentContainer, fragment).addToBackStack(null).commit();
     }
 
-    private void showDeleteConfirmation(CarEntity car) {
+    private void showDeleteConfirmation(CarCard car) {
         // Check for active/approved bookings first, then show the right dialog
         viewModel.checkActiveBookingsBeforeDelete(car, hasActive -> {
             if (getActivity() == null || !isAdded()) return;
@@ -8,8 +8,11 @@ import androidx.lifecycle.ViewModel;
 import com.example.louver.data.converter.FuelType;
 import com.example.louver.data.converter.TransmissionType;
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.data.repository.BookingRepository;
+import com.example.louver.data.repository.CarFilter;
 import com.example.louver.data.repository.CarRepository;
+import com.example.louver.ui.home.CarImageUtils;
 
 import java.util.List;
 
@@ -17,7 +20,7 @@ public class AdminCarsViewModel extends ViewModel {
 
     private final CarRepository carRepository;
     private final BookingRepository bookingRepository;
-    private final LiveData<List<CarEntity>> cars;
+    private final LiveData<List<CarCard>> cars;
 
     private final MutableLiveData<String> messageLD = new MutableLiveData<>();
     private final MutableLiveData<CarEntity> editingCarLD = new MutableLiveData<>();
@@ -26,16 +29,30 @@ public class AdminCarsViewModel extends ViewModel {
     public AdminCarsViewModel(@NonNull CarRepository carRepository, @NonNull BookingRepository bookingRepository) {
         this.carRepository = carRepository;
         this.bookingRepository = bookingRepository;
-        this.cars = carRepository.getAllCars();
+        this.cars = carRepository.filterCars(CarFilter.all());
     }
 
-    public LiveData<List<CarEntity>> getCars() { return cars; }
+    public LiveData<List<CarCard>> getCars() { return cars; }
+
+    /** Unavailable car ids, merged into the visible rows by the adapter. */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return carRepository.getUnavailableCarIds();
+    }
     public LiveData<String> getMessage() { return messageLD; }
     public LiveData<CarEntity> getEditingCar() { return editingCarLD; }
     public LiveData<Boolean> getSaveSuccess() { return saveSuccessLD; }
 
     public void startEdit(CarEntity carEntity) { editingCarLD.setValue(carEntity); }
     public void resetEditing() { editingCarLD.setValue(null); }
+
+    /**
+     * Load the full car behind a list card for the edit form. The callback runs
+     * on a DB thread with null if the car was deleted meanwhile.
+     */
+    public void loadCarForEdit(CarCard card,
+                               com.example.louver.data.repository.DbCallback<CarEntity> callback) {
+        carRepository.loadCar(card.id, callback);
+    }
     public void clearSaveSuccess() { saveSuccessLD.setValue(null); }
 
     public void saveCar(
@@ -74,12 +91,15 @@ public class AdminCarsViewModel extends ViewModel {
         car.description = trimToNull(description);
         car.mainImageUrl = trimToNull(imageUrl);
 
+        // Thumbnails are generated for real images only, never for placeholder URLs
+        String mainImage = CarImageUtils.isPlaceholder(car.mainImageUrl) ? null : car.mainImageUrl;
         if (existing == null) {
             car.createdAt = System.currentTimeMillis();
-            carRepository.insert(car);
+            carRepository.insert(car, id -> carRepository.ingestMainImage(id, mainImage));
             messageLD.setValue("Car created successfully");
         } else {
             carRepository.update(car);
+            carRepository.ingestMainImage(car.id, mainImage);
             messageLD.setValue("Car updated successfully");
         }
 
@@ -87,13 +107,13 @@ public class AdminCarsViewModel extends ViewModel {
         saveSuccessLD.setValue(true);
     }
 
-    public void deleteCar(CarEntity carEntity) {
-        bookingRepository.hasBookingsForCar(carEntity.id, hasBookings -> {
+    public void deleteCar(CarCard car) {
+        bookingRepository.hasBookingsForCar(car.id, hasBookings -> {
             if (hasBookings) {
                 messageLD.postValue("Cannot delete this car because it has bookings");
                 return;
             }
-            carRepository.delete(carEntity);
+            carRepository.delete(car.id);
             messageLD.postValue("Car deleted successfully");
             resetEditing();
         });
@@ -103,7 +123,7 @@ public class AdminCarsViewModel extends ViewModel {
      * Checks whether the car has any ACTIVE or APPROVED bookings,
      * then posts the result to the provided callback on the main thread.
      */
-    public void checkActiveBookingsBeforeDelete(CarEntity car,
+    public void checkActiveBookingsBeforeDelete(CarCard car,
                                                 DbCallback callback) {
         bookingRepository.hasActiveBookingsForCar(car.id, callback::onResult);
     }
@@ -111,7 +111,14 @@ public class BookingConfirmFragment extends Fragment {
                 getParentFragmentManager().popBackStack();
                 getParentFragmentManager().popBackStack();
             } else {
-                binding.tvStatusConfirm.setText("Error: " + result.errorMessage);
+                String message = "Error: " + result.errorMessage;
+                if (result.suggestedWindow != null) {
+                    message += "\nNext available: "
+                            + DATE_TIME_FORMAT.format(new Date(result.suggestedWindow.startAt))
+                            + " – "
+                            + DATE_TIME_FORMAT.format(new Date(result.suggestedWindow.endAt));
+                }
+                binding.tvStatusConfirm.setText(message);
                 binding.tvStatusConfirm.setTextColor(ContextCompat.getColor(requireContext(), R.color.color_louver_error));
             }
         });
@@ -94,7 +94,6 @@ public class CategoriesFragment extends Fragment {
                     CarDetailsFragment detail = new CarDetailsFragment();
                     Bundle args = new Bundle();
                     args.putLong("carId", car.id);
-                    args.putParcelable("car", car);
                     detail.setArguments(args);
                     // Use activity's navigateTo so the tab is properly hidden/restored
                     if (getActivity() instanceof MainActivity) {
@@ -136,6 +135,10 @@ public class CategoriesFragment extends Fragment {
             binding.tvEmptyCars.setVisibility(
                     (cars == null || cars.isEmpty()) ? View.VISIBLE : View.GONE);
         });
+
+        viewModel.getUnavailableCarIds().observe(getViewLifecycleOwner(), ids -> {
+            if (carAdapter != null) carAdapter.setUnavailableCarIds(ids);
+        });
     }
 
     @Override
@@ -8,8 +8,9 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.CategoryEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.repository.CarFilter;
 import com.example.louver.data.repository.CarRepository;
 import com.example.louver.data.repository.CategoryRepository;
 import com.example.louver.data.repository.RepositoryProvider;
@@ -27,7 +28,7 @@ public class CategoriesViewModel extends AndroidViewModel {
     private final MutableLiveData<Long> selectedCategoryId = new MutableLiveData<>(null);
 
     // Cars filtered by selected category
-    private final LiveData<List<CarEntity>> filteredCars;
+    private final LiveData<List<CarCard>> filteredCars;
 
     public CategoriesViewModel(@NonNull Application application) {
         super(application);
@@ -37,20 +38,20 @@ public class CategoriesViewModel extends AndroidViewModel {
         categories = categoryRepository.getAll();
 
         // When selectedCategoryId changes, switch to the appropriate cars query
-        filteredCars = Transformations.switchMap(selectedCategoryId, catId -> {
-            if (catId == null) {
-                return carRepository.getAllCars();
-            } else {
-                return carRepository.getCarsByCategory(catId);
-            }
-        });
+        filteredCars = Transformations.switchMap(selectedCategoryId,
+                catId -> carRepository.filterCars(CarFilter.forCategory(catId)));
     }
 
     public LiveData<List<CategoryEntity>> getCategories() {
         return categories;
     }
 
-    public LiveData<List<CarEntity>> getFilteredCars() {
+    /** Unavailable car ids, merged into the visible rows by the adapter. */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return carRepository.getUnavailableCarIds();
+    }
+
+    public LiveData<List<CarCard>> getFilteredCars() {
         return filteredCars;
     }
 
@@ -72,6 +72,9 @@ public class FavoritesFragment extends Fragment {
                 binding.favoritesRecycler.setVisibility(View.VISIBLE);
             }
         });
+
+        viewModel.getUnavailableCarIds().observe(getViewLifecycleOwner(),
+                ids -> carAdapter.setUnavailableCarIds(ids));
     }
 
     private void navigateToCarDetails(long carId) {
@@ -8,8 +8,9 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.louver.data.auth.AuthRepository;
-import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.data.repository.FavoriteRepository;
+import com.example.louver.data.repository.CarRepository;
 import com.example.louver.data.repository.RepositoryProvider;
 
 import java.util.Collections;
@@ -23,22 +24,30 @@ public class FavoritesViewModel extends AndroidViewModel {
 
     private final AuthRepository authRepository;
     private final FavoriteRepository favoriteRepository;
+    private final CarRepository carRepository;
 
     public FavoritesViewModel(@NonNull Application application) {
         super(application);
         this.authRepository = RepositoryProvider.auth(application);
         this.favoriteRepository = RepositoryProvider.favorites(application);
+        this.carRepository = RepositoryProvider.cars(application);
+    }
+
+    /** Unavailable car ids, merged into the visible rows by the adapter. */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return carRepository.getUnavailableCarIds();
     }
 
     /**
-     * Get all favorite cars for the current user.
+     * Get all favorite cars for the current user, served from the shared catalog.
      */
-    public LiveData<List<CarEntity>> getFavoriteCars() {
+    public LiveData<List<CarCard>> getFavoriteCars() {
         return androidx.lifecycle.Transformations.switchMap(authRepository.currentUser(), user -> {
             if (user == null) {
                 return new MutableLiveData<>(Collections.emptyList());
             }
-            return favoriteRepository.getFavoriteCars(user.id);
+            return androidx.lifecycle.Transformations.switchMap(
+                    favoriteRepository.getFavoriteCarIds(user.id), carRepository::catalogCards);
         });
     }
 
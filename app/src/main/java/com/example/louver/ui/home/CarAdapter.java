@@ -8,39 +8,82 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.louver.data.dao.ReviewDao;
-import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.databinding.ItemCarBinding;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
-public class CarAdapter extends ListAdapter<CarEntity, CarAdapter.VH> {
+public class CarAdapter extends ListAdapter<CarCard, CarAdapter.VH> {
 
-    private final Consumer<CarEntity> onCarClick;
+    private final Consumer<CarCard> onCarClick;
     private final Consumer<Long> onBookClick;
     private final Map<Long, ReviewDao.RatingSummary> ratingSummaries = new HashMap<>();
+    private final Set<Long> unavailableCarIds = new HashSet<>();
+    private IntConsumer onItemBound;
 
-    public CarAdapter(Consumer<CarEntity> onCarClick) {
+    public CarAdapter(Consumer<CarCard> onCarClick) {
         this(onCarClick, null);
     }
 
-    public CarAdapter(Consumer<CarEntity> onCarClick, Consumer<Long> onBookClick) {
+    public CarAdapter(Consumer<CarCard> onCarClick, Consumer<Long> onBookClick) {
         super(DIFF);
         this.onCarClick = onCarClick;
         this.onBookClick = onBookClick;
     }
 
+    /**
+     * Called with each bound position, so a paged list can load the next page
+     * before the user reaches the end.
+     */
+    public void setOnItemBoundListener(IntConsumer listener) {
+        this.onItemBound = listener;
+    }
+
+    /**
+     * Replace the ratings shown on the cards. Only rows whose rating actually
+     * changed are rebound.
+     */
     public void setRatingSummaries(List<ReviewDao.RatingSummary> summaries) {
-        ratingSummaries.clear();
+        Map<Long, ReviewDao.RatingSummary> next = new HashMap<>();
         if (summaries != null) {
             for (ReviewDao.RatingSummary summary : summaries) {
-                ratingSummaries.put(summary.carId, summary);
+                next.put(summary.carId, summary);
+            }
+        }
+        Map<Long, ReviewDao.RatingSummary> previous = new HashMap<>(ratingSummaries);
+        ratingSummaries.clear();
+        ratingSummaries.putAll(next);
+        List<CarCard> current = getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            CarCard car = current.get(i);
+            if (car != null && !Objects.equals(previous.get(car.id), next.get(car.id))) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    /**
+     * Replace the set of unavailable cars (from car_status). Availability is passed
+     * to each row as it is bound, and only rows whose availability changed are rebound.
+     */
+    public void setUnavailableCarIds(List<Long> carIds) {
+        Set<Long> previous = new HashSet<>(unavailableCarIds);
+        unavailableCarIds.clear();
+        if (carIds != null) unavailableCarIds.addAll(carIds);
+        List<CarCard> current = getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            CarCard car = current.get(i);
+            if (car != null && previous.contains(car.id) != unavailableCarIds.contains(car.id)) {
+                notifyItemChanged(i);
             }
         }
-        notifyDataSetChanged();
     }
 
     @NonNull
@@ -56,47 +99,63 @@ public class CarAdapter extends ListAdapter<CarEntity, CarAdapter.VH> {
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        holder.bind(getItem(position), ratingSummaries.get(getItem(position).id));
+        if (onItemBound != null) onItemBound.accept(position);
+        CarCard car = getItem(position);
+        if (car == null) {
+            holder.bindPlaceholder();
+            return;
+        }
+        holder.bind(car, !unavailableCarIds.contains(car.id), ratingSummaries.get(car.id));
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull VH holder) {
+        super.onViewRecycled(holder);
+        CarImageUtils.cancel(holder.binding.carImage);
     }
 
     class VH extends RecyclerView.ViewHolder {
         private final ItemCarBinding binding;
 
-        VH(ItemCarBinding binding, Consumer<CarEntity> click, Consumer<Long> bookClick) {
+        VH(ItemCarBinding binding, Consumer<CarCard> click, Consumer<Long> bookClick) {
             super(binding.getRoot());
             this.binding = binding;
             binding.getRoot().setOnClickListener(v -> {
                 int pos = getBindingAdapterPosition();
-                if (pos != RecyclerView.NO_POSITION && click != null) {
+                if (pos != RecyclerView.NO_POSITION && click != null && getItem(pos) != null) {
                     click.accept(getItem(pos));
                 }
             });
 
             binding.btnBook.setOnClickListener(v -> {
                 int pos = getBindingAdapterPosition();
-                if (pos != RecyclerView.NO_POSITION && bookClick != null) {
+                if (pos != RecyclerView.NO_POSITION && bookClick != null && getItem(pos) != null) {
                     bookClick.accept(getItem(pos).id);
                 }
             });
         }
 
-        void bind(CarEntity car, ReviewDao.RatingSummary rating) {
+        /** Row whose page has not been loaded yet. */
+        void bindPlaceholder() {
+            binding.carName.setText("");
+            binding.carModel.setText("");
+            binding.carPrice.setText("");
+            binding.carMeta.setText("");
+            binding.availability.setText("");
+            binding.carRating.setText("");
+            CarImageUtils.load(binding.carImage, null);
+        }
+
+        void bind(CarCard car, boolean available, ReviewDao.RatingSummary rating) {
             binding.carName.setText(car.name);
             binding.carModel.setText(String.format("%s • %d", car.model, car.year));
             binding.carPrice.setText(String.format("$%.2f / day", car.dailyPrice));
             binding.carMeta.setText(String.format("%d seats • %s • %s",
                     car.seats, car.transmission, car.fuelType));
-            binding.availability.setText(car.isAvailable ? "Available" : "Not available");
+            binding.availability.setText(available ? "Available" : "Not available");
             binding.carRating.setText(formatRating(rating));
 
-            // Show placeholder when no real image URL is available
-            if (CarImageUtils.isPlaceholder(car.mainImageUrl)) {
-                binding.carImage.setImageResource(com.example.louver.R.drawable.ic_car_placeholder);
-            } else {
-                // Real URL present — set as tag for future Glide integration
-                binding.carImage.setImageResource(com.example.louver.R.drawable.ic_car_placeholder);
-                binding.carImage.setTag(car.mainImageUrl);
-            }
+            CarImageUtils.load(binding.carImage, car.mainImageUrl);
         }
 
         private String formatRating(ReviewDao.RatingSummary rating) {
@@ -107,28 +166,16 @@ public class CarAdapter extends ListAdapter<CarEntity, CarAdapter.VH> {
         }
     }
 
-    private static final DiffUtil.ItemCallback<CarEntity> DIFF =
-            new DiffUtil.ItemCallback<CarEntity>() {
+    private static final DiffUtil.ItemCallback<CarCard> DIFF =
+            new DiffUtil.ItemCallback<CarCard>() {
                 @Override
-                public boolean areItemsTheSame(@NonNull CarEntity oldItem, @NonNull CarEntity newItem) {
+                public boolean areItemsTheSame(@NonNull CarCard oldItem, @NonNull CarCard newItem) {
                     return oldItem.id == newItem.id;
                 }
 
                 @Override
-                public boolean areContentsTheSame(@NonNull CarEntity oldItem, @NonNull CarEntity newItem) {
-                    return oldItem.categoryId == newItem.categoryId
-                            && Objects.equals(oldItem.name, newItem.name)
-                            && Objects.equals(oldItem.model, newItem.model)
-                            && oldItem.year == newItem.year
-                            && oldItem.dailyPrice == newItem.dailyPrice
-                            && oldItem.isAvailable == newItem.isAvailable
-                            && Objects.equals(oldItem.transmission, newItem.transmission)
-                            && Objects.equals(oldItem.fuelType, newItem.fuelType)
-                            && oldItem.seats == newItem.seats
-                            && Objects.equals(oldItem.fuelConsumption, newItem.fuelConsumption)
-                            && Objects.equals(oldItem.description, newItem.description)
-                            && Objects.equals(oldItem.mainImageUrl, newItem.mainImageUrl)
-                            && oldItem.createdAt == newItem.createdAt;
+                public boolean areContentsTheSame(@NonNull CarCard oldItem, @NonNull CarCard newItem) {
+                    return oldItem.equals(newItem);
                 }
             };
 }
@@ -12,11 +12,12 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.louver.databinding.FragmentCarDetailsBinding;
-import com.example.louver.R;
 import com.example.louver.ui.booking.BookingFragment;
 import com.example.louver.ui.favorites.FavoritesViewModel;
 import com.example.louver.ui.review.AddReviewFragment;
 
+import java.util.Locale;
+
 public class CarDetailsFragment extends Fragment {
 
     private FragmentCarDetailsBinding binding;
@@ -57,12 +58,8 @@ public class CarDetailsFragment extends Fragment {
         setupButtons();
 
         if (carId >= 0) {
-            // Try to use the pre-fetched CarEntity passed by the caller to avoid an extra Room query
-            com.example.louver.data.entity.CarEntity passedCar = null;
-            if (getArguments() != null) {
-                passedCar = getArguments().getParcelable("car");
-            }
-            viewModel.loadCar(carId, passedCar);
+            // Lists only hold CarCard projections; the full car is loaded here
+            viewModel.loadCar(carId);
         }
 
         observeData();
@@ -108,7 +105,6 @@ public class CarDetailsFragment extends Fragment {
             binding.carTitle.setText(String.format("%s %s", car.name, car.model));
             binding.carYear.setText(String.valueOf(car.year));
             binding.carPrice.setText(String.format("$%.2f / day", car.dailyPrice));
-            binding.carAvailability.setText(car.isAvailable ? "Available" : "Not available");
             binding.carSeats.setText(String.format("Seats: %d", car.seats));
             binding.carTransmission.setText(String.format("Transmission: %s", car.transmission));
             binding.carFuelType.setText(String.format("Fuel: %s", car.fuelType));
@@ -122,33 +118,27 @@ public class CarDetailsFragment extends Fragment {
 
         viewModel.getCarWithImages().observe(getViewLifecycleOwner(), carWithImages -> {
             if (carWithImages == null) {
-                binding.carImage.setImageResource(R.drawable.ic_car_placeholder);
+                CarImageUtils.load(binding.carImage, null);
                 return;
             }
 
             // Check car_images table entries first
-            boolean hasRealImage = false;
+            String imageUrl = null;
             if (carWithImages.images != null) {
                 for (com.example.louver.data.entity.CarImageEntity img : carWithImages.images) {
                     if (!CarImageUtils.isPlaceholder(img.imageUrl)) {
-                        hasRealImage = true;
-                        // Real URL found — tag for future Glide integration
-                        binding.carImage.setTag(img.imageUrl);
+                        imageUrl = img.imageUrl;
                         break;
                     }
                 }
             }
 
             // Also check mainImageUrl on the car itself
-            if (!hasRealImage && carWithImages.car != null) {
-                hasRealImage = !CarImageUtils.isPlaceholder(carWithImages.car.mainImageUrl);
-                if (hasRealImage) {
-                    binding.carImage.setTag(carWithImages.car.mainImageUrl);
-                }
+            if (imageUrl == null && carWithImages.car != null) {
+                imageUrl = carWithImages.car.mainImageUrl;
             }
 
-            // Always show placeholder for now (no image-loading library yet)
-            binding.carImage.setImageResource(R.drawable.ic_car_placeholder);
+            CarImageUtils.load(binding.carImage, imageUrl);
         });
 
         viewModel.getReviews().observe(getViewLifecycleOwner(), reviews -> {
@@ -162,6 +152,25 @@ public class CarDetailsFragment extends Fragment {
             }
         });
 
+        // Availability comes from car_status, so bookings do not re-emit the whole car
+        viewModel.getAvailability().observe(getViewLifecycleOwner(), available ->
+                binding.carAvailability.setText(
+                        available != null && available ? "Available" : "Not available"));
+
+        viewModel.getRatingStats().observe(getViewLifecycleOwner(), stats -> {
+            if (stats == null || stats.reviewCount == 0) {
+                binding.tvRatingSummary.setVisibility(View.GONE);
+                return;
+            }
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                    "%.1f/5 from %d reviews", stats.averageRating(), stats.reviewCount));
+            for (int stars = 5; stars >= 1; stars--) {
+                text.append(String.format(Locale.US, "\n%d★  %d", stars, stats.countForStars(stars)));
+            }
+            binding.tvRatingSummary.setText(text);
+            binding.tvRatingSummary.setVisibility(View.VISIBLE);
+        });
+
         favoritesViewModel.isFavorite(carId).observe(getViewLifecycleOwner(), isFavorite -> {
             if (isFavorite != null && isFavorite != currentIsFavorite) {
                 currentIsFavorite = isFavorite;
@@ -173,6 +182,7 @@ public class CarDetailsFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        CarImageUtils.cancel(binding.carImage);
         binding = null;
     }
 }
@@ -3,13 +3,13 @@ package com.example.louver.ui.home;
 import android.app.Application;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 
 import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarRatingStatsEntity;
 import com.example.louver.data.entity.ReviewEntity;
 import com.example.louver.data.relation.CarWithImages;
 import com.example.louver.data.repository.CarRepository;
@@ -30,6 +30,8 @@ public class CarDetailsViewModel extends AndroidViewModel {
     private LiveData<CarWithImages> carWithImages;
     private final MutableLiveData<Long> currentCarId = new MutableLiveData<>();
     private LiveData<List<ReviewEntity>> reviews;
+    private final LiveData<CarRatingStatsEntity> ratingStats;
+    private final LiveData<Boolean> availability;
 
     public CarDetailsViewModel(@NonNull Application application) {
         super(application);
@@ -44,35 +46,36 @@ public class CarDetailsViewModel extends AndroidViewModel {
             }
             return reviewRepository.getReviewsForCar(carId);
         });
+
+        this.availability = Transformations.switchMap(currentCarId, carId -> {
+            if (carId == null || carId <= 0) {
+                return new MutableLiveData<>(null);
+            }
+            return carRepository.observeAvailability(carId);
+        });
+
+        this.ratingStats = Transformations.switchMap(currentCarId, carId -> {
+            if (carId == null || carId <= 0) {
+                return new MutableLiveData<>(null);
+            }
+            return reviewRepository.getStarDistributionForCar(carId);
+        });
     }
 
     /**
-     * Initialize with a carId and load the car data.
-     * If {@code preloadedCar} is non-null (passed via Bundle), use it immediately
-     * to avoid an extra Room query just for basic car info display.
+     * Initialize with a carId and load the full car. This is the only screen that
+     * reads the whole CarEntity; lists work on CarCard projections.
      */
-    public void loadCar(long carId, @Nullable com.example.louver.data.entity.CarEntity preloadedCar) {
+    public void loadCar(long carId) {
         currentCarId.setValue(carId);
         if (car == null) {
-            if (preloadedCar != null) {
-                // Seed from the object we already have — no extra Room query needed
-                MutableLiveData<com.example.louver.data.entity.CarEntity> seeded = new MutableLiveData<>();
-                seeded.setValue(preloadedCar);
-                car = seeded;
-            } else {
-                car = carRepository.getCarById(carId);
-            }
+            car = carRepository.getCarById(carId);
         }
         if (carWithImages == null) {
             carWithImages = carRepository.getCarWithImages(carId);
         }
     }
 
-    /** Convenience overload for callers that only have a carId (no preloaded entity). */
-    public void loadCar(long carId) {
-        loadCar(carId, null);
-    }
-
     public LiveData<CarEntity> getCar() {
         return car;
     }
@@ -84,5 +87,13 @@ public class CarDetailsViewModel extends AndroidViewModel {
     public LiveData<List<ReviewEntity>> getReviews() {
         return reviews;
     }
+
+    public LiveData<Boolean> getAvailability() {
+        return availability;
+    }
+
+    public LiveData<CarRatingStatsEntity> getRatingStats() {
+        return ratingStats;
+    }
 }
 
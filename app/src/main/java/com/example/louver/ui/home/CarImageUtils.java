@@ -1,5 +1,10 @@
 package com.example.louver.ui.home;
 
+import android.widget.ImageView;
+
+import com.example.louver.R;
+import com.example.louver.ui.image.ImageLoader;
+
 /**
  * Utility for deciding whether a car image URL is a real URL or a placeholder sentinel.
  * A URL is considered a placeholder if it is null, empty, equals "placeholder",
@@ -18,7 +23,18 @@ public final class CarImageUtils {
         if (trimmed.equalsIgnoreCase("placeholder")) return true;
         return trimmed.startsWith("https://example.com/");
     }
-}
-
 
+    /**
+     * Show the car image at url in view, or ic_car_placeholder while it loads and
+     * when url is a placeholder.
+     */
+    public static void load(ImageView view, String url) {
+        ImageLoader.get(view.getContext())
+                .load(isPlaceholder(url) ? null : url, view, R.drawable.ic_car_placeholder);
+    }
 
+    /** Stop loading into view; call from onViewRecycled. */
+    public static void cancel(ImageView view) {
+        ImageLoader.get(view.getContext()).cancel(view);
+    }
+}
@@ -16,8 +16,8 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.louver.databinding.FragmentHomeBinding;
+import com.example.louver.ui.search.SuggestionAdapter;
 
-import java.util.List;
 
 public class HomeFragment extends Fragment {
 
@@ -89,21 +89,15 @@ public class HomeFragment extends Fragment {
                     Fragment detailsFragment = new CarDetailsFragment();
                     Bundle args = new Bundle();
                     args.putLong("carId", car.id);
-                    args.putParcelable("car", car);
                     detailsFragment.setArguments(args);
                     if (getActivity() instanceof com.example.louver.MainActivity) {
                         ((com.example.louver.MainActivity) getActivity()).navigateTo(detailsFragment);
                     }
                 },
                 carId -> {
-                    List<com.example.louver.data.entity.CarEntity> currentList = carAdapter.getCurrentList();
-                    com.example.louver.data.entity.CarEntity carToBook = null;
-                    for (com.example.louver.data.entity.CarEntity c : currentList) {
-                        if (c.id == carId) { carToBook = c; break; }
-                    }
+                    // Cards carry no full car; BookingFragment loads it by id
                     Bundle args = new Bundle();
                     args.putLong("carId", carId);
-                    if (carToBook != null) args.putParcelable("car", carToBook);
                     com.example.louver.ui.booking.BookingFragment bookingFragment =
                             new com.example.louver.ui.booking.BookingFragment();
                     bookingFragment.setArguments(args);
@@ -112,15 +106,21 @@ public class HomeFragment extends Fragment {
                     }
                 }
         );
+        carAdapter.setOnItemBoundListener(position -> viewModel.loadCarsAround(position));
         binding.carsRecycler.setAdapter(carAdapter);
     }
 
     private void setupActions() {
+        // Type-ahead from the in-memory suggestion index; picking one searches for it
+        binding.searchInput.setAdapter(new SuggestionAdapter(requireContext(), viewModel::suggest));
+        binding.searchInput.setOnItemClickListener((parent, v, position, id) ->
+                viewModel.searchNow((String) parent.getItemAtPosition(position)));
+
         // Trigger search via end icon tap
         binding.searchRow.setEndIconOnClickListener(v -> {
             String q = binding.searchInput.getText() != null
                     ? binding.searchInput.getText().toString().trim() : "";
-            viewModel.setSearchQuery(q);
+            viewModel.searchNow(q);
         });
 
         // Trigger search via IME action (keyboard search button)
@@ -128,13 +128,13 @@ public class HomeFragment extends Fragment {
             if (actionId == EditorInfo.IME_ACTION_SEARCH) {
                 String q = binding.searchInput.getText() != null
                         ? binding.searchInput.getText().toString().trim() : "";
-                viewModel.setSearchQuery(q);
+                viewModel.searchNow(q);
                 return true;
             }
             return false;
         });
 
-        // Live search as user types; empty text reloads full list
+        // Live search as user types (debounced); empty text reloads full list
         binding.searchInput.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
@@ -152,6 +152,12 @@ public class HomeFragment extends Fragment {
         viewModel.getCars().observe(getViewLifecycleOwner(), cars -> {
             carAdapter.submitList(cars);
         });
+
+        viewModel.getRatingSummaries().observe(getViewLifecycleOwner(),
+                summaries -> carAdapter.setRatingSummaries(summaries));
+
+        viewModel.getUnavailableCarIds().observe(getViewLifecycleOwner(),
+                ids -> carAdapter.setUnavailableCarIds(ids));
     }
 
     @Override
@@ -12,19 +12,23 @@ import androidx.lifecycle.Transformations;
 import com.example.louver.data.auth.AuthRepository;
 import com.example.louver.data.auth.SessionManager;
 import com.example.louver.data.dao.ReviewDao;
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.CategoryEntity;
 import com.example.louver.data.entity.UserEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.repository.CarFilter;
 import com.example.louver.data.repository.CarRepository;
+import com.example.louver.data.repository.CarSort;
 import com.example.louver.data.repository.CategoryRepository;
+import com.example.louver.data.repository.PagedCarList;
 import com.example.louver.data.repository.RepositoryProvider;
 import com.example.louver.data.repository.ReviewRepository;
+import com.example.louver.data.repository.SuggestionIndex;
 import com.example.louver.data.repository.UserRepository;
+import com.example.louver.ui.search.SearchPipeline;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * ViewModel for Home screen:
@@ -35,12 +39,16 @@ import java.util.Map;
  * - searchQuery (empty string = no search)
  * - selectedCategoryId (null = no category filter)
  * - showOnlyAvailable (null = show all)
- * - sortByRating (false = normal order, true = by rating desc)
+ * - sort (newest, rating, price or year; sorted by SQLite)
  *
- * Updates to any of these automatically trigger a new filtered/sorted cars query.
+ * Updates to any of these go through a {@link SearchPipeline}: typing is
+ * debounced, changes made in the same frame are coalesced into one query, and a
+ * result from a superseded query is never shown.
  */
 public class HomeViewModel extends AndroidViewModel {
 
+    private static final int SUGGESTION_LIMIT = 8;
+
     private final AuthRepository authRepository;
     private final CategoryRepository categoryRepository;
     private final CarRepository carRepository;
@@ -53,15 +61,15 @@ public class HomeViewModel extends AndroidViewModel {
     private final MediatorLiveData<String> searchQuery;
     private final MediatorLiveData<Long> selectedCategoryId;
     private final MediatorLiveData<Boolean> showOnlyAvailable;
-    private final MutableLiveData<Boolean> sortByRating;
+    private final MutableLiveData<CarSort> sort;
 
-    // Intermediate: combine all filter states
-    private final MediatorLiveData<FilterState> filterState;
+    // Debounced query stage: filter state in, cars out
+    private final SearchPipeline<FilterState, List<CarCard>> cars;
 
-    // Combined cars result (computed via switchMap from filter state)
-    private final LiveData<List<CarEntity>> cars;
+    // Paged source behind "cars" for newest-first text searches (null otherwise)
+    private PagedCarList pagedCars;
 
-    // Rating summaries
+    // Rating summaries, shown on the car cards
     private LiveData<List<ReviewDao.RatingSummary>> ratingSummaries;
 
     // Welcome greeting to display on Home screen
@@ -82,35 +90,24 @@ public class HomeViewModel extends AndroidViewModel {
         searchQuery = new MediatorLiveData<>();
         selectedCategoryId = new MediatorLiveData<>();
         showOnlyAvailable = new MediatorLiveData<>();
-        sortByRating = new MutableLiveData<>(false);
+        sort = new MutableLiveData<>(CarSort.NEWEST);
 
         // Initialize with defaults
         searchQuery.setValue("");
         selectedCategoryId.setValue(null);
         showOnlyAvailable.setValue(null);
 
-        // Combine all filter states into a single FilterState object
-        filterState = new MediatorLiveData<>();
-        filterState.setValue(new FilterState("", null, null, false));
-
-        filterState.addSource(searchQuery, query -> updateFilterState());
-        filterState.addSource(selectedCategoryId, catId -> updateFilterState());
-        filterState.addSource(showOnlyAvailable, avail -> updateFilterState());
-        filterState.addSource(sortByRating, sort -> updateFilterState());
-
-        // Switch to new repository query whenever filter state changes, then sort if needed
-        cars = Transformations.switchMap(filterState, state ->
-            Transformations.map(
-                Transformations.switchMap(
-                    ratingSummaries,
-                    ratings -> Transformations.map(
-                        carRepository.searchAndFilter(state.searchQuery, state.categoryId, state.availableOnly),
-                        carList -> sortCarsIfNeeded(carList, ratings, state.sortByRating)
-                    )
-                ),
-                result -> result
-            )
-        );
+        // Newest-first text searches are paged from SQL, other orders are sorted by
+        // SQLite, and everything else comes from the in-memory catalog. A text search
+        // that finds nothing shows typo-tolerant matches instead
+        cars = SearchPipeline.onMainThread(state -> {
+            CarFilter filter = state.toCarFilter();
+            LiveData<List<CarCard>> source = carRepository.queryCars(filter);
+            pagedCars = CarRepository.pagingOf(source);
+            return carRepository.withFuzzyFallback(source, filter);
+        });
+        cars.submit(currentFilterState(), 0L);
+        carRepository.warmUpSuggestions();
 
         // Map current user to a welcome greeting string.
         // Sources directly from UserRepository (Room LiveData) so any update
@@ -129,49 +126,20 @@ public class HomeViewModel extends AndroidViewModel {
         });
     }
 
-    /**
-     * Update the combined filterState from current individual filter values.
-     */
-    private void updateFilterState() {
+    private FilterState currentFilterState() {
         String q = searchQuery.getValue() != null ? searchQuery.getValue() : "";
         Long catId = selectedCategoryId.getValue();
         Boolean avail = showOnlyAvailable.getValue();
-        Boolean sort = sortByRating.getValue() != null ? sortByRating.getValue() : false;
-        filterState.setValue(new FilterState(q, catId, avail, sort));
+        CarSort order = sort.getValue() != null ? sort.getValue() : CarSort.NEWEST;
+        return new FilterState(q, catId, avail, order);
     }
 
     /**
-     * Sort cars by rating descending if sortByRating is true.
-     * Cars with no reviews appear at the bottom.
+     * Submit the current filter values to the query pipeline after delayMs
+     * (0 = end of this frame).
      */
-    private List<CarEntity> sortCarsIfNeeded(List<CarEntity> carList, List<ReviewDao.RatingSummary> ratings, boolean sortByRating) {
-        if (!sortByRating || carList == null || carList.isEmpty()) {
-            return carList;
-        }
-
-        Map<Long, ReviewDao.RatingSummary> ratingMap = new HashMap<>();
-        if (ratings != null) {
-            for (ReviewDao.RatingSummary summary : ratings) {
-                ratingMap.put(summary.carId, summary);
-            }
-        }
-
-        List<CarEntity> sorted = new ArrayList<>(carList);
-        sorted.sort((car1, car2) -> {
-            ReviewDao.RatingSummary r1 = ratingMap.get(car1.id);
-            ReviewDao.RatingSummary r2 = ratingMap.get(car2.id);
-
-            boolean has1 = r1 != null && r1.reviewCount > 0;
-            boolean has2 = r2 != null && r2.reviewCount > 0;
-
-            if (!has1 && !has2) return 0;
-            if (!has1) return 1;
-            if (!has2) return -1;
-
-            return Double.compare(r2.averageRating, r1.averageRating);
-        });
-
-        return sorted;
+    private void updateFilterState(long delayMs) {
+        cars.submit(currentFilterState(), delayMs);
     }
 
     /**
@@ -181,23 +149,54 @@ public class HomeViewModel extends AndroidViewModel {
         final String searchQuery;
         final Long categoryId;
         final Boolean availableOnly;
-        final Boolean sortByRating;
+        final CarSort sort;
 
-        FilterState(String searchQuery, Long categoryId, Boolean availableOnly, Boolean sortByRating) {
+        FilterState(String searchQuery, Long categoryId, Boolean availableOnly, CarSort sort) {
             this.searchQuery = searchQuery;
             this.categoryId = categoryId;
             this.availableOnly = availableOnly;
-            this.sortByRating = sortByRating;
+            this.sort = sort;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FilterState)) return false;
+            FilterState that = (FilterState) o;
+            return Objects.equals(searchQuery, that.searchQuery)
+                    && Objects.equals(categoryId, that.categoryId)
+                    && Objects.equals(availableOnly, that.availableOnly)
+                    && sort == that.sort;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(searchQuery, categoryId, availableOnly, sort);
+        }
+
+        CarFilter toCarFilter() {
+            return new CarFilter(searchQuery, categoryId, null, null, null, null, null,
+                    availableOnly, null, null).withSort(sort);
         }
     }
 
     // Public setters for filters
 
     /**
-     * Set search query. Empty string disables search.
+     * Set search query as the user types. Empty string disables search.
+     * The query runs once typing pauses for {@link SearchPipeline#TYPING_DEBOUNCE_MS}.
      */
     public void setSearchQuery(String query) {
         searchQuery.setValue(query != null ? query.trim() : "");
+        updateFilterState(SearchPipeline.TYPING_DEBOUNCE_MS);
+    }
+
+    /**
+     * Set search query and run it now (search key or search icon).
+     */
+    public void searchNow(String query) {
+        setSearchQuery(query);
+        cars.flush();
     }
 
     /**
@@ -205,6 +204,7 @@ public class HomeViewModel extends AndroidViewModel {
      */
     public void setCategory(Long categoryId) {
         selectedCategoryId.setValue(categoryId);
+        updateFilterState(0L);
     }
 
     /**
@@ -212,13 +212,15 @@ public class HomeViewModel extends AndroidViewModel {
      */
     public void setShowOnlyAvailable(Boolean availableOnly) {
         showOnlyAvailable.setValue(availableOnly);
+        updateFilterState(0L);
     }
 
     /**
-     * Toggle sort by rating.
+     * Set the list order. Null restores newest first.
      */
-    public void setSortByRating(boolean sort) {
-        sortByRating.setValue(sort);
+    public void setSort(CarSort order) {
+        sort.setValue(order != null ? order : CarSort.NEWEST);
+        updateFilterState(0L);
     }
 
     /**
@@ -228,7 +230,25 @@ public class HomeViewModel extends AndroidViewModel {
         searchQuery.setValue("");
         selectedCategoryId.setValue(null);
         showOnlyAvailable.setValue(null);
-        sortByRating.setValue(false);
+        sort.setValue(CarSort.NEWEST);
+        updateFilterState(0L);
+    }
+
+    /**
+     * Type-ahead for the search box, from the in-memory suggestion index.
+     * Safe to call off the main thread.
+     */
+    public List<String> suggest(String prefix) {
+        List<String> out = new ArrayList<>();
+        for (SuggestionIndex.Suggestion s : carRepository.suggest(prefix, SUGGESTION_LIMIT)) {
+            out.add(s.text);
+        }
+        return out;
+    }
+
+    /** Queries submitted, issued and rendered by the cars pipeline. */
+    public SearchPipeline.Metrics getSearchMetrics() {
+        return cars.metrics();
     }
 
     public LiveData<UserEntity> currentUser() {
@@ -247,11 +267,28 @@ public class HomeViewModel extends AndroidViewModel {
         return categories;
     }
 
-    public LiveData<List<CarEntity>> getCars() {
+    public LiveData<List<CarCard>> getCars() {
         return cars;
     }
 
-    public LiveData<Boolean> getSortByRating() {
-        return sortByRating;
+    /**
+     * Called by the cars list as rows are bound, to load further pages.
+     */
+    public void loadCarsAround(int position) {
+        PagedCarList paged = pagedCars;
+        if (paged != null) paged.loadAround(position);
+    }
+
+    /** Unavailable car ids, merged into the visible rows by the adapter. */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return carRepository.getUnavailableCarIds();
+    }
+
+    public LiveData<List<ReviewDao.RatingSummary>> getRatingSummaries() {
+        return ratingSummaries;
+    }
+
+    public LiveData<CarSort> getSort() {
+        return sort;
     }
 }
@@ -0,0 +1,108 @@
+package com.example.louver.ui.image;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.louver.data.image.ImageFiles;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * DiskImageCache: downloaded image files in the app's cache directory, one file
+ * per URL, named by the URL's SHA-1. Reading a file marks it recently used;
+ * when the total size passes maxBytes, the least recently used files are deleted.
+ *
+ * Files are written to a temporary name and renamed, so a reader never sees a
+ * partial download.
+ */
+final class DiskImageCache {
+
+    private final File dir;
+    private final long maxBytes;
+
+    // Guarded by this; -1 until the directory has been measured
+    private long totalBytes = -1L;
+
+    DiskImageCache(@NonNull File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** The cached file for url, or null. */
+    @Nullable
+    synchronized File get(@NonNull String url) {
+        File file = fileFor(url);
+        if (!file.isFile()) return null;
+        //noinspection ResultOfMethodCallIgnored
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /** Copy in to the cache as url's file and return it. The stream is not closed. */
+    @NonNull
+    File put(@NonNull String url, @NonNull InputStream in) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = fileFor(url);
+        File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            byte[] buffer = new byte[16 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) throw new IOException("Cancelled");
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            throw e;
+        }
+        synchronized (this) {
+            measure();
+            if (file.isFile()) totalBytes -= file.length();
+            if (!tmp.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                tmp.delete();
+                throw new IOException("Cannot store " + file);
+            }
+            totalBytes += file.length();
+            trim();
+        }
+        return file;
+    }
+
+    synchronized long sizeBytes() {
+        measure();
+        return totalBytes;
+    }
+
+    private void measure() {
+        if (totalBytes >= 0) return;
+        totalBytes = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File f : files) totalBytes += f.length();
+    }
+
+    private void trim() {
+        if (totalBytes <= maxBytes) return;
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (totalBytes <= maxBytes) break;
+            long length = f.length();
+            if (f.delete()) totalBytes -= length;
+        }
+    }
+
+    private File fileFor(String url) {
+        return new File(dir, ImageFiles.sha1(url));
+    }
+}
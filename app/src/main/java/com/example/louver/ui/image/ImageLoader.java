@@ -0,0 +1,402 @@
+package com.example.louver.ui.image;
+
+import android.content.ComponentCallbacks2;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.louver.data.image.CarThumbnails;
+import com.example.louver.data.image.ImageFiles;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ImageLoader: loads car and profile images into ImageViews.
+ *
+ * - Decoded bitmaps are kept in a memory LRU sized to 1/8 of the heap, keyed by
+ *   URI and target size; a hit is shown synchronously, without a placeholder.
+ * - A car image that has {@link CarThumbnails} is read from the smallest
+ *   rendition that covers the view instead of from its original.
+ * - http(s) images are downloaded once into a {@link DiskImageCache};
+ *   content://, file:// and android.resource:// URIs are read where they are.
+ * - Images are decoded on a small background pool, downsampled with
+ *   inSampleSize to the size of the view they go into, never at full
+ *   resolution (a 12 MP gallery photo for a 96dp avatar costs ~50 KB, not 48 MB).
+ * - Identical requests (same URI and size) in flight at once share one decode.
+ * - {@link #load} into a view cancels that view's previous request, so a
+ *   recycled RecyclerView row never shows the image of the car it held before;
+ *   adapters also call {@link #cancel} from onViewRecycled. A decode is
+ *   interrupted once no view waits for it any more.
+ *
+ * load and cancel must be called on the main thread. Failures leave the
+ * placeholder in place and are counted in {@link #stats()}.
+ */
+public final class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+
+    /** Memory cache gets this fraction of the heap. */
+    private static final int MEMORY_CACHE_DIVISOR = 8;
+    private static final long DISK_CACHE_BYTES = 50L * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 15_000;
+
+    private static volatile ImageLoader instance;
+
+    public static ImageLoader get(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (ImageLoader.class) {
+                if (instance == null) {
+                    instance = new ImageLoader(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final ContentResolver resolver;
+    private final CarThumbnails thumbnails;
+    private final int screenWidth;
+    private final LruCache<String, Bitmap> memory;
+    private final DiskImageCache disk;
+    private final ExecutorService pool;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private final Map<String, Job> inFlight = new HashMap<>();
+    private final Map<ImageView, Request> requestsByView = new WeakHashMap<>();
+
+    // Stats
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong thumbnailHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong localReads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+    private final AtomicLong totalDecodeNanos = new AtomicLong();
+    private final AtomicLong maxDecodeNanos = new AtomicLong();
+
+    private ImageLoader(Context app) {
+        this.resolver = app.getContentResolver();
+        this.thumbnails = CarThumbnails.get(app);
+        this.screenWidth = app.getResources().getDisplayMetrics().widthPixels;
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / MEMORY_CACHE_DIVISOR);
+        this.memory = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(@NonNull String key, @NonNull Bitmap bitmap) {
+                return Math.max(1, bitmap.getAllocationByteCount() / 1024);
+            }
+        };
+        this.disk = new DiskImageCache(new File(app.getCacheDir(), "images"), DISK_CACHE_BYTES);
+
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "image-decoder-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+
+        app.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_MODERATE) {
+                    memory.evictAll();
+                } else if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    memory.trimToSize(memory.maxSize() / 2);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                memory.evictAll();
+            }
+        });
+    }
+
+    // ── Requests ──────────────────────────────────────────────────────────────
+
+    /**
+     * Show uri in view, downsampled to the view's size. The placeholder is shown
+     * while loading and stays if uri is null or cannot be loaded. Replaces any
+     * earlier request for the same view.
+     */
+    @MainThread
+    public void load(@Nullable String uri, @NonNull ImageView view, @DrawableRes int placeholder) {
+        cancel(view);
+        if (uri == null || uri.trim().isEmpty()) {
+            view.setImageResource(placeholder);
+            return;
+        }
+        requests.incrementAndGet();
+        String source = uri.trim();
+        int width = targetWidth(view);
+        int height = targetHeight(view, width);
+        String key = source + '@' + width + 'x' + height;
+
+        Bitmap cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageResource(placeholder);
+        Job job = inFlight.get(key);
+        if (job != null) {
+            coalesced.incrementAndGet();
+        } else {
+            job = new Job(key, source, width, height);
+            inFlight.put(key, job);
+            job.future = pool.submit(job);
+        }
+        Request request = new Request(view, job);
+        job.waiting.add(request);
+        requestsByView.put(view, request);
+    }
+
+    /** Stop loading into view, e.g. when its RecyclerView row is recycled. */
+    @MainThread
+    public void cancel(@NonNull ImageView view) {
+        Request request = requestsByView.remove(view);
+        if (request == null) return;
+        Job job = request.job;
+        job.waiting.remove(request);
+        if (job.waiting.isEmpty() && inFlight.get(job.key) == job) {
+            inFlight.remove(job.key);
+            job.future.cancel(true);
+            cancelled.incrementAndGet();
+        }
+    }
+
+    private void deliver(Job job, @Nullable Bitmap bitmap) {
+        if (inFlight.get(job.key) != job) return; // cancelled while decoding
+        inFlight.remove(job.key);
+        if (bitmap != null) memory.put(job.key, bitmap);
+        for (Request request : job.waiting) {
+            if (requestsByView.get(request.view) != request) continue;
+            requestsByView.remove(request.view);
+            // On failure the placeholder stays
+            if (bitmap != null) request.view.setImageBitmap(bitmap);
+        }
+    }
+
+    /** Width the view will be laid out at; before layout, its fixed width or the screen's. */
+    private int targetWidth(ImageView view) {
+        if (view.getWidth() > 0) return view.getWidth();
+        ViewGroup.LayoutParams lp = view.getLayoutParams();
+        if (lp != null && lp.width > 0) return lp.width;
+        return screenWidth;
+    }
+
+    private int targetHeight(ImageView view, int width) {
+        if (view.getHeight() > 0) return view.getHeight();
+        ViewGroup.LayoutParams lp = view.getLayoutParams();
+        if (lp != null && lp.height > 0) return lp.height;
+        return width;
+    }
+
+    private static final class Request {
+        final ImageView view;
+        final Job job;
+
+        Request(ImageView view, Job job) {
+            this.view = view;
+            this.job = job;
+        }
+    }
+
+    /** One fetch + decode, shared by every request with the same key. */
+    private final class Job implements Runnable {
+        final String key;
+        final String uri;
+        final int width;
+        final int height;
+        // Main thread only
+        final List<Request> waiting = new ArrayList<>(1);
+        Future<?> future;
+
+        Job(String key, String uri, int width, int height) {
+            this.key = key;
+            this.uri = uri;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void run() {
+            Bitmap bitmap = null;
+            try {
+                bitmap = fetchAndDecode(uri, width, height);
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                if (!Thread.currentThread().isInterrupted()) {
+                    failures.incrementAndGet();
+                    Log.w(TAG, "Cannot load " + uri + ": " + e);
+                }
+            }
+            Bitmap result = bitmap;
+            mainHandler.post(() -> deliver(this, result));
+        }
+    }
+
+    // ── Fetch and decode (pool threads) ───────────────────────────────────────
+
+    private Bitmap fetchAndDecode(String uri, int width, int height) throws IOException {
+        Uri parsed = Uri.parse(uri);
+        String scheme = parsed.getScheme() != null ? parsed.getScheme().toLowerCase(Locale.ROOT) : "";
+        ImageFiles.StreamOpener opener;
+        File thumbnail = thumbnails.smallestFitting(uri, width, height);
+        if (thumbnail != null) {
+            thumbnailHits.incrementAndGet();
+            opener = () -> new FileInputStream(thumbnail);
+        } else if (scheme.equals("http") || scheme.equals("https")) {
+            File file = disk.get(uri);
+            if (file != null) {
+                diskHits.incrementAndGet();
+            } else {
+                file = download(uri);
+                downloads.incrementAndGet();
+            }
+            File cachedFile = file;
+            opener = () -> new FileInputStream(cachedFile);
+        } else if (scheme.isEmpty()) {
+            localReads.incrementAndGet();
+            opener = () -> new FileInputStream(uri);
+        } else {
+            // content://, file:// and android.resource://
+            localReads.incrementAndGet();
+            opener = () -> {
+                InputStream in = resolver.openInputStream(parsed);
+                if (in == null) throw new IOException("No stream for " + uri);
+                return in;
+            };
+        }
+        if (Thread.currentThread().isInterrupted()) return null;
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        Bitmap bitmap = ImageFiles.decodeAtLeast(opener, width, height);
+        long took = SystemClock.elapsedRealtimeNanos() - start;
+        decodes.incrementAndGet();
+        totalDecodeNanos.addAndGet(took);
+        maxDecodeNanos.accumulateAndGet(took, Math::max);
+        if (bitmap == null) throw new IOException("Not an image: " + uri);
+        return bitmap;
+    }
+
+    private File download(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        try {
+            int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + code + " for " + url);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return disk.put(url, in);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // ── Stats ─────────────────────────────────────────────────────────────────
+
+    @NonNull
+    public Stats stats() {
+        long n = decodes.get();
+        return new Stats(requests.get(), memoryHits.get(), thumbnailHits.get(), diskHits.get(), downloads.get(),
+                localReads.get(), coalesced.get(), cancelled.get(), failures.get(), n,
+                n > 0 ? totalDecodeNanos.get() / 1e6 / n : 0.0, maxDecodeNanos.get() / 1e6,
+                memory.size(), disk.sizeBytes() / 1024);
+    }
+
+    /** Counters since start. Requests that hit memory never reach the pool. */
+    public static final class Stats {
+        public final long requests;
+        public final long memoryHits;
+        /** Decoded from a generated rendition instead of the original. */
+        public final long thumbnailHits;
+        public final long diskHits;
+        public final long downloads;
+        public final long localReads;
+        /** Requests that joined a decode already in flight. */
+        public final long coalesced;
+        public final long cancelled;
+        public final long failures;
+        public final long decodes;
+        public final double avgDecodeMs;
+        public final double maxDecodeMs;
+        public final int memoryKb;
+        public final long diskKb;
+
+        Stats(long requests, long memoryHits, long thumbnailHits, long diskHits, long downloads, long localReads,
+              long coalesced, long cancelled, long failures, long decodes,
+              double avgDecodeMs, double maxDecodeMs, int memoryKb, long diskKb) {
+            this.requests = requests;
+            this.memoryHits = memoryHits;
+            this.thumbnailHits = thumbnailHits;
+            this.diskHits = diskHits;
+            this.downloads = downloads;
+            this.localReads = localReads;
+            this.coalesced = coalesced;
+            this.cancelled = cancelled;
+            this.failures = failures;
+            this.decodes = decodes;
+            this.avgDecodeMs = avgDecodeMs;
+            this.maxDecodeMs = maxDecodeMs;
+            this.memoryKb = memoryKb;
+            this.diskKb = diskKb;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "images: requests=%d memoryHits=%d thumbnails=%d diskHits=%d downloads=%d local=%d " +
+                            "coalesced=%d cancelled=%d failures=%d decodes=%d " +
+                            "decode avg=%.1fms max=%.1fms memory=%dKB disk=%dKB",
+                    requests, memoryHits, thumbnailHits, diskHits, downloads, localReads, coalesced,
+                    cancelled, failures, decodes, avgDecodeMs, maxDecodeMs, memoryKb, diskKb);
+        }
+    }
+}
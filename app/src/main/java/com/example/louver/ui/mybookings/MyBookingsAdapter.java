@@ -8,19 +8,17 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.louver.R;
 import com.example.louver.databinding.ItemBookingBinding;
 import com.example.louver.data.converter.BookingStatus;
-import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.relation.BookingListRow;
 import com.example.louver.ui.home.CarImageUtils;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.Objects;
 import java.util.function.Consumer;
 
-public class MyBookingsAdapter extends ListAdapter<BookingFullDetails, MyBookingsAdapter.VH> {
+public class MyBookingsAdapter extends ListAdapter<BookingListRow, MyBookingsAdapter.VH> {
 
     private static final SimpleDateFormat DATE_TIME_FORMAT =
             new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.US);
@@ -47,6 +45,12 @@ public class MyBookingsAdapter extends ListAdapter<BookingFullDetails, MyBooking
         holder.bind(getItem(position));
     }
 
+    @Override
+    public void onViewRecycled(@NonNull VH holder) {
+        super.onViewRecycled(holder);
+        CarImageUtils.cancel(holder.binding.ivCarImage);
+    }
+
     static class VH extends RecyclerView.ViewHolder {
         private final ItemBookingBinding binding;
         private final Consumer<Long> onCancelClick;
@@ -57,33 +61,25 @@ public class MyBookingsAdapter extends ListAdapter<BookingFullDetails, MyBooking
             this.onCancelClick = onCancelClick;
         }
 
-        void bind(BookingFullDetails details) {
+        void bind(BookingListRow row) {
             // Car name (falls back to "Car" if null)
-            String carName = (details.car != null && details.car.name != null)
-                    ? details.car.name : "Car";
+            String carName = row.carName != null ? row.carName : "Car";
             binding.tvCarName.setText(carName);
 
-            // Car image — placeholder logic
-            String imageUrl = details.car != null ? details.car.mainImageUrl : null;
-            if (CarImageUtils.isPlaceholder(imageUrl)) {
-                binding.ivCarImage.setImageResource(R.drawable.ic_car_placeholder);
-            } else {
-                binding.ivCarImage.setImageResource(R.drawable.ic_car_placeholder);
-                binding.ivCarImage.setTag(imageUrl);
-            }
+            CarImageUtils.load(binding.ivCarImage, row.thumbnailUrl);
 
-            binding.tvPickup.setText("Pickup: " + DATE_TIME_FORMAT.format(new Date(details.booking.pickupAt)));
-            binding.tvReturn.setText("Return: " + DATE_TIME_FORMAT.format(new Date(details.booking.returnAt)));
-            binding.tvDays.setText("Days: " + details.booking.daysCount);
-            binding.tvTotal.setText(String.format(Locale.US, "Total: $%.2f", details.booking.totalPrice));
-            binding.tvStatus.setText("Status: " + details.booking.status.name());
+            binding.tvPickup.setText("Pickup: " + DATE_TIME_FORMAT.format(new Date(row.pickupAt)));
+            binding.tvReturn.setText("Return: " + DATE_TIME_FORMAT.format(new Date(row.returnAt)));
+            binding.tvDays.setText("Days: " + row.daysCount);
+            binding.tvTotal.setText(String.format(Locale.US, "Total: $%.2f", row.totalPrice));
+            binding.tvStatus.setText("Status: " + row.status.name());
 
             // Show cancel button only for ACTIVE bookings
-            if (details.booking.status == BookingStatus.ACTIVE) {
+            if (row.status == BookingStatus.ACTIVE) {
                 binding.btnCancel.setVisibility(android.view.View.VISIBLE);
                 binding.btnCancel.setOnClickListener(v -> {
                     if (onCancelClick != null) {
-                        onCancelClick.accept(details.booking.id);
+                        onCancelClick.accept(row.bookingId);
                     }
                 });
             } else {
@@ -92,27 +88,18 @@ public class MyBookingsAdapter extends ListAdapter<BookingFullDetails, MyBooking
         }
     }
 
-    private static final DiffUtil.ItemCallback<BookingFullDetails> DIFF =
-            new DiffUtil.ItemCallback<BookingFullDetails>() {
+    private static final DiffUtil.ItemCallback<BookingListRow> DIFF =
+            new DiffUtil.ItemCallback<BookingListRow>() {
                 @Override
-                public boolean areItemsTheSame(@NonNull BookingFullDetails oldItem,
-                                               @NonNull BookingFullDetails newItem) {
-                    return oldItem.booking.id == newItem.booking.id;
+                public boolean areItemsTheSame(@NonNull BookingListRow oldItem,
+                                               @NonNull BookingListRow newItem) {
+                    return oldItem.bookingId == newItem.bookingId;
                 }
 
                 @Override
-                public boolean areContentsTheSame(@NonNull BookingFullDetails oldItem,
-                                                  @NonNull BookingFullDetails newItem) {
-                    return oldItem.booking.id == newItem.booking.id
-                            && oldItem.booking.carId == newItem.booking.carId
-                            && oldItem.booking.pickupAt == newItem.booking.pickupAt
-                            && oldItem.booking.returnAt == newItem.booking.returnAt
-                            && oldItem.booking.daysCount == newItem.booking.daysCount
-                            && oldItem.booking.totalPrice == newItem.booking.totalPrice
-                            && Objects.equals(oldItem.booking.status, newItem.booking.status)
-                            && Objects.equals(
-                                    oldItem.car != null ? oldItem.car.name : null,
-                                    newItem.car != null ? newItem.car.name : null);
+                public boolean areContentsTheSame(@NonNull BookingListRow oldItem,
+                                                  @NonNull BookingListRow newItem) {
+                    return oldItem.equals(newItem);
                 }
             };
 }
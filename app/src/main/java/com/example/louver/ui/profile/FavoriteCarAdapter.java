@@ -8,7 +8,7 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
 import com.example.louver.databinding.ItemFavoriteCarBinding;
 import com.example.louver.ui.home.CarImageUtils;
 
@@ -19,7 +19,7 @@ import java.util.function.Consumer;
  * Adapter for the "My Favorites" grid shown inside ProfileViewFragment.
  * Displays car image, name, daily price and a remove button.
  */
-public class FavoriteCarAdapter extends ListAdapter<CarEntity, FavoriteCarAdapter.VH> {
+public class FavoriteCarAdapter extends ListAdapter<CarCard, FavoriteCarAdapter.VH> {
 
     private final Consumer<Long> onCarClick;
     private final Consumer<Long> onRemove;
@@ -43,6 +43,12 @@ public class FavoriteCarAdapter extends ListAdapter<CarEntity, FavoriteCarAdapte
         holder.bind(getItem(position), onCarClick, onRemove);
     }
 
+    @Override
+    public void onViewRecycled(@NonNull VH holder) {
+        super.onViewRecycled(holder);
+        CarImageUtils.cancel(holder.binding.ivFavCarImage);
+    }
+
     static final class VH extends RecyclerView.ViewHolder {
         private final ItemFavoriteCarBinding binding;
 
@@ -51,17 +57,12 @@ public class FavoriteCarAdapter extends ListAdapter<CarEntity, FavoriteCarAdapte
             this.binding = binding;
         }
 
-        void bind(CarEntity car, Consumer<Long> onCarClick, Consumer<Long> onRemove) {
+        void bind(CarCard car, Consumer<Long> onCarClick, Consumer<Long> onRemove) {
             binding.tvFavCarName.setText(car.name);
             binding.tvFavCarPrice.setText(
                     String.format(Locale.getDefault(), "$%.2f / day", car.dailyPrice));
 
-            if (CarImageUtils.isPlaceholder(car.mainImageUrl)) {
-                binding.ivFavCarImage.setImageResource(com.example.louver.R.drawable.ic_car_placeholder);
-            } else {
-                binding.ivFavCarImage.setImageResource(com.example.louver.R.drawable.ic_car_placeholder);
-                binding.ivFavCarImage.setTag(car.mainImageUrl);
-            }
+            CarImageUtils.load(binding.ivFavCarImage, car.mainImageUrl);
 
             binding.getRoot().setOnClickListener(v -> {
                 if (onCarClick != null) onCarClick.accept(car.id);
@@ -73,15 +74,15 @@ public class FavoriteCarAdapter extends ListAdapter<CarEntity, FavoriteCarAdapte
         }
     }
 
-    private static final DiffUtil.ItemCallback<CarEntity> DIFF =
+    private static final DiffUtil.ItemCallback<CarCard> DIFF =
             new DiffUtil.ItemCallback<>() {
                 @Override
-                public boolean areItemsTheSame(@NonNull CarEntity a, @NonNull CarEntity b) {
+                public boolean areItemsTheSame(@NonNull CarCard a, @NonNull CarCard b) {
                     return a.id == b.id;
                 }
 
                 @Override
-                public boolean areContentsTheSame(@NonNull CarEntity a, @NonNull CarEntity b) {
+                public boolean areContentsTheSame(@NonNull CarCard a, @NonNull CarCard b) {
                     return a.id == b.id
                             && java.util.Objects.equals(a.name, b.name)
                             && a.dailyPrice == b.dailyPrice
@@ -1,7 +1,6 @@
 package com.example.louver.ui.profile;
 
 import android.content.Intent;
-import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -16,6 +15,7 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.louver.databinding.FragmentProfileBinding;
+import com.example.louver.ui.image.ImageLoader;
 
 public class ProfileFragment extends Fragment {
 
@@ -29,7 +29,7 @@ public class ProfileFragment extends Fragment {
                 // Persist read permission across reboots
                 requireContext().getContentResolver().takePersistableUriPermission(
                         uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
-                binding.ivProfileImage.setImageURI(uri);
+                loadProfileImage(uri.toString());
                 viewModel.updateProfileImage(uri.toString());
             });
 
@@ -73,9 +73,7 @@ public class ProfileFragment extends Fragment {
 
             // Load profile image if persisted
             if (user.profileImageUri != null) {
-                try {
-                    binding.ivProfileImage.setImageURI(Uri.parse(user.profileImageUri));
-                } catch (Exception ignored) {}
+                loadProfileImage(user.profileImageUri);
             }
 
             // Pre-fill editable fields only on first load
@@ -107,9 +105,16 @@ public class ProfileFragment extends Fragment {
         });
     }
 
+    /** Decoded off the main thread, downsampled to the avatar size. */
+    private void loadProfileImage(String uri) {
+        ImageLoader.get(requireContext()).load(uri, binding.ivProfileImage,
+                android.R.drawable.ic_menu_my_calendar);
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        ImageLoader.get(requireContext()).cancel(binding.ivProfileImage);
         binding = null;
     }
 }
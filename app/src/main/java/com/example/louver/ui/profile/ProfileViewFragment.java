@@ -1,6 +1,5 @@
 package com.example.louver.ui.profile;
 
-import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -14,6 +13,7 @@ import androidx.recyclerview.widget.GridLayoutManager;
 
 import com.example.louver.databinding.FragmentProfileViewBinding;
 import com.example.louver.ui.home.CarDetailsFragment;
+import com.example.louver.ui.image.ImageLoader;
 
 /**
  * Read-only profile screen.
@@ -93,9 +93,9 @@ public class ProfileViewFragment extends Fragment {
 
             // Profile image
             if (user.profileImageUri != null) {
-                try {
-                    binding.ivProfilePhoto.setImageURI(Uri.parse(user.profileImageUri));
-                } catch (Exception ignored) {}
+                // Decoded off the main thread, downsampled to the avatar size
+                ImageLoader.get(requireContext()).load(user.profileImageUri,
+                        binding.ivProfilePhoto, android.R.drawable.ic_menu_my_calendar);
             }
 
             binding.tvFullName.setText(user.fullName != null ? user.fullName : "—");
@@ -130,6 +130,7 @@ public class ProfileViewFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        ImageLoader.get(requireContext()).cancel(binding.ivProfilePhoto);
         binding = null;
     }
 }
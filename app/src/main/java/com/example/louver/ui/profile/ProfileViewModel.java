@@ -64,7 +64,7 @@ public class ProfileViewModel extends AndroidViewModel {
         }
 
         // Fetch fresh copy on background thread, update, then notify via postValue
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             UserEntity fresh = AppDatabase.getInstance(getApplication()).userDao().getUserByIdNow(userId);
             if (fresh == null) {
                 saveResult.postValue("error:User not found");
@@ -79,7 +79,7 @@ public class ProfileViewModel extends AndroidViewModel {
 
     public void updateProfileImage(String uri) {
         if (userId <= 0) return;
-        AppDatabase.DB_EXECUTOR.execute(() -> {
+        AppDatabase.IO.write(() -> {
             UserEntity fresh = AppDatabase.getInstance(getApplication()).userDao().getUserByIdNow(userId);
             if (fresh == null) return;
             fresh.profileImageUri = uri;
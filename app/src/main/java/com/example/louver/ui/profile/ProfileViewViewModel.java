@@ -6,10 +6,12 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.example.louver.data.auth.SessionManager;
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.UserEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.repository.CarRepository;
 import com.example.louver.data.repository.FavoriteRepository;
 import com.example.louver.data.repository.RepositoryProvider;
 import com.example.louver.data.repository.UserRepository;
@@ -24,7 +26,7 @@ import java.util.List;
 public class ProfileViewViewModel extends AndroidViewModel {
 
     private final LiveData<UserEntity> user;
-    private final LiveData<List<CarEntity>> favoriteCars;
+    private final LiveData<List<CarCard>> favoriteCars;
     private final FavoriteRepository favoriteRepository;
     private final long userId;
 
@@ -34,12 +36,14 @@ public class ProfileViewViewModel extends AndroidViewModel {
         SessionManager sessionManager = new SessionManager(application);
         UserRepository userRepository = RepositoryProvider.user(application);
         favoriteRepository = RepositoryProvider.favorites(application);
+        CarRepository carRepository = RepositoryProvider.cars(application);
 
         userId = sessionManager.getUserId();
 
         if (userId > 0) {
             user = userRepository.getById(userId);
-            favoriteCars = favoriteRepository.getFavoriteCars(userId);
+            favoriteCars = Transformations.switchMap(
+                    favoriteRepository.getFavoriteCarIds(userId), carRepository::catalogCards);
         } else {
             user = new MutableLiveData<>(null);
             favoriteCars = new MutableLiveData<>(Collections.emptyList());
@@ -50,7 +54,7 @@ public class ProfileViewViewModel extends AndroidViewModel {
         return user;
     }
 
-    public LiveData<List<CarEntity>> getFavoriteCars() {
+    public LiveData<List<CarCard>> getFavoriteCars() {
         return favoriteCars;
     }
 
@@ -14,6 +14,8 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.example.louver.R;
+import com.example.louver.data.repository.CarSort;
 import com.example.louver.databinding.FragmentFilteredCarsBinding;
 import com.example.louver.ui.booking.BookingFragment;
 import com.example.louver.ui.home.CarAdapter;
@@ -36,6 +38,8 @@ public class FilteredCarsFragment extends Fragment {
     public static final String ARG_TRANSMISSION  = "arg_transmission";
     public static final String ARG_SEATS         = "arg_seats";
     public static final String ARG_AVAILABLE     = "arg_available";   // -1 = any, 0 = unavail, 1 = avail
+    public static final String ARG_AVAILABLE_FROM  = "arg_available_from";  // epoch millis, 0 = no date range
+    public static final String ARG_AVAILABLE_UNTIL = "arg_available_until"; // epoch millis, 0 = no date range
 
     private FragmentFilteredCarsBinding binding;
     private FilteredCarsViewModel viewModel;
@@ -73,11 +77,17 @@ public class FilteredCarsFragment extends Fragment {
                 viewModel.setSeats(seats > 0 ? seats : null);
                 int avail = args.getInt(ARG_AVAILABLE, -1);
                 viewModel.setAvailableOnly(avail == 1 ? Boolean.TRUE : avail == 0 ? Boolean.FALSE : null);
+                long from = args.getLong(ARG_AVAILABLE_FROM, 0L);
+                long until = args.getLong(ARG_AVAILABLE_UNTIL, 0L);
+                if (from > 0 && until > from) {
+                    viewModel.setAvailableBetween(from, until);
+                }
             }
         }
 
         setupRecycler();
         setupSearch();
+        setupSort();
         observeData();
 
         binding.btnBack.setOnClickListener(v ->
@@ -93,7 +103,6 @@ public class FilteredCarsFragment extends Fragment {
                     CarDetailsFragment details = new CarDetailsFragment();
                     Bundle args = new Bundle();
                     args.putLong("carId", car.id);
-                    args.putParcelable("car", car);
                     details.setArguments(args);
                     if (getActivity() instanceof com.example.louver.MainActivity) {
                         ((com.example.louver.MainActivity) getActivity()).navigateTo(details);
@@ -109,10 +118,16 @@ public class FilteredCarsFragment extends Fragment {
                     }
                 }
         );
+        carAdapter.setOnItemBoundListener(position -> viewModel.loadCarsAround(position));
         binding.carsRecycler.setAdapter(carAdapter);
     }
 
     private void setupSearch() {
+        // Type-ahead from the in-memory suggestion index; picking one searches for it
+        binding.searchInput.setAdapter(new SuggestionAdapter(requireContext(), viewModel::suggest));
+        binding.searchInput.setOnItemClickListener((parent, v, position, id) ->
+                viewModel.searchNow((String) parent.getItemAtPosition(position)));
+
         // End-icon tap
         binding.searchRow.setEndIconOnClickListener(v -> applySearch());
 
@@ -135,10 +150,40 @@ public class FilteredCarsFragment extends Fragment {
         });
     }
 
+    private void setupSort() {
+        binding.chipGroupSort.check(chipForSort(viewModel.getSort().getValue()));
+        binding.chipGroupSort.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) return;
+            int chipId = checkedIds.get(0);
+            if (chipId == R.id.chipSortRating) {
+                viewModel.setSort(CarSort.RATING);
+            } else if (chipId == R.id.chipSortPriceAsc) {
+                viewModel.setSort(CarSort.PRICE_ASC);
+            } else if (chipId == R.id.chipSortPriceDesc) {
+                viewModel.setSort(CarSort.PRICE_DESC);
+            } else if (chipId == R.id.chipSortYear) {
+                viewModel.setSort(CarSort.YEAR);
+            } else {
+                viewModel.setSort(CarSort.NEWEST);
+            }
+        });
+    }
+
+    private static int chipForSort(CarSort sort) {
+        if (sort == null) return R.id.chipSortNewest;
+        switch (sort) {
+            case RATING:     return R.id.chipSortRating;
+            case PRICE_ASC:  return R.id.chipSortPriceAsc;
+            case PRICE_DESC: return R.id.chipSortPriceDesc;
+            case YEAR:       return R.id.chipSortYear;
+            default:         return R.id.chipSortNewest;
+        }
+    }
+
     private void applySearch() {
         String q = binding.searchInput.getText() != null
                 ? binding.searchInput.getText().toString().trim() : "";
-        viewModel.setSearchQuery(q);
+        viewModel.searchNow(q);
     }
 
     private void observeData() {
@@ -150,6 +195,9 @@ public class FilteredCarsFragment extends Fragment {
             binding.tvEmpty.setVisibility(count == 0 ? View.VISIBLE : View.GONE);
             binding.carsRecycler.setVisibility(count == 0 ? View.GONE : View.VISIBLE);
         });
+
+        viewModel.getUnavailableCarIds().observe(getViewLifecycleOwner(),
+                ids -> carAdapter.setUnavailableCarIds(ids));
     }
 
     @Override
@@ -5,13 +5,17 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.repository.CarFilter;
 import com.example.louver.data.repository.CarRepository;
+import com.example.louver.data.repository.CarSort;
+import com.example.louver.data.repository.PagedCarList;
 import com.example.louver.data.repository.RepositoryProvider;
+import com.example.louver.data.repository.SuggestionIndex;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,6 +25,8 @@ import java.util.List;
  */
 public class FilteredCarsViewModel extends AndroidViewModel {
 
+    private static final int SUGGESTION_LIMIT = 8;
+
     private final CarRepository carRepository;
 
     // Fixed filter values (set from Bundle args once)
@@ -31,60 +37,115 @@ public class FilteredCarsViewModel extends AndroidViewModel {
     private final MutableLiveData<String>  transmission = new MutableLiveData<>(null);
     private final MutableLiveData<Integer> seats        = new MutableLiveData<>(null);
     private final MutableLiveData<Boolean> availableOnly= new MutableLiveData<>(null);
+    private final MutableLiveData<Long>    availableFrom = new MutableLiveData<>(null);
+    private final MutableLiveData<Long>    availableUntil= new MutableLiveData<>(null);
 
     // Live search query typed by user
     private final MutableLiveData<String>  searchQuery  = new MutableLiveData<>("");
 
-    private final MediatorLiveData<List<CarEntity>> cars = new MediatorLiveData<>();
+    private final MutableLiveData<CarSort> sort = new MutableLiveData<>(CarSort.NEWEST);
+
+    // Debounced query stage; a result from a superseded filter is never shown
+    private final SearchPipeline<CarFilter, List<CarCard>> cars;
 
-    @SuppressWarnings("unchecked")
-    private final LiveData<List<CarEntity>>[] currentSource = new LiveData[]{null};
+    // Paged source currently behind cars
+    private PagedCarList pagedCars;
 
     public FilteredCarsViewModel(@NonNull Application application) {
         super(application);
         carRepository = RepositoryProvider.cars(application);
 
-        Runnable requery = () -> {
-            Long   cat   = categoryId.getValue();
-            Double minP  = minPrice.getValue() != null  ? (double) minPrice.getValue()  : null;
-            Double maxP  = maxPrice.getValue() != null  ? (double) maxPrice.getValue()  : null;
-            Integer yr   = year.getValue();
-            String  tr   = transmission.getValue();
-            Integer s    = seats.getValue();
-            Boolean av   = availableOnly.getValue();
-            String  q    = searchQuery.getValue() != null ? searchQuery.getValue().trim() : "";
-
-            LiveData<List<CarEntity>> newSource = q.isEmpty()
-                    ? carRepository.filterCars(cat, minP, maxP, yr, tr, s, av)
-                    : carRepository.filterCarsWithSearch(q, cat, minP, maxP, yr, tr, s, av);
-
-            if (currentSource[0] != null) cars.removeSource(currentSource[0]);
-            currentSource[0] = newSource;
-            cars.addSource(newSource, cars::setValue);
-        };
-
-        cars.addSource(categoryId,    v -> requery.run());
-        cars.addSource(minPrice,      v -> requery.run());
-        cars.addSource(maxPrice,      v -> requery.run());
-        cars.addSource(year,          v -> requery.run());
-        cars.addSource(transmission,  v -> requery.run());
-        cars.addSource(seats,         v -> requery.run());
-        cars.addSource(availableOnly, v -> requery.run());
-        cars.addSource(searchQuery,   v -> requery.run());
-
-        requery.run();
+        // Newest-first text and date-range searches are paged from SQL; other orders
+        // are sorted by SQLite; the rest is served from the in-memory catalog. A text
+        // search that finds nothing shows typo-tolerant matches instead
+        cars = SearchPipeline.onMainThread(filter -> {
+            LiveData<List<CarCard>> source = carRepository.queryCars(filter);
+            pagedCars = CarRepository.pagingOf(source);
+            return carRepository.withFuzzyFallback(source, filter);
+        });
+        requery(0L);
+        carRepository.warmUpSuggestions();
+    }
+
+    /**
+     * Submit the current filter values after delayMs. The fragment sets every
+     * argument in one frame, so they are coalesced into a single query.
+     */
+    private void requery(long delayMs) {
+        Long   cat   = categoryId.getValue();
+        Double minP  = minPrice.getValue() != null  ? (double) minPrice.getValue()  : null;
+        Double maxP  = maxPrice.getValue() != null  ? (double) maxPrice.getValue()  : null;
+        Integer yr   = year.getValue();
+        String  tr   = transmission.getValue();
+        Integer s    = seats.getValue();
+        Boolean av   = availableOnly.getValue();
+        Long    from = availableFrom.getValue();
+        Long    until= availableUntil.getValue();
+        String  q    = searchQuery.getValue() != null ? searchQuery.getValue().trim() : "";
+
+        cars.submit(new CarFilter(q, cat, minP, maxP, yr, tr, s, av, from, until)
+                .withSort(sort.getValue()), delayMs);
+    }
+
+    public LiveData<List<CarCard>> getCars() { return cars; }
+
+    /** Unavailable car ids, merged into the visible rows by the adapter. */
+    public LiveData<List<Long>> getUnavailableCarIds() {
+        return carRepository.getUnavailableCarIds();
+    }
+
+    /**
+     * Called by the cars list as rows are bound, to load further pages.
+     */
+    public void loadCarsAround(int position) {
+        PagedCarList paged = pagedCars;
+        if (paged != null) paged.loadAround(position);
     }
 
-    public LiveData<List<CarEntity>> getCars() { return cars; }
+    public void setCategoryId(Long id)       { categoryId.setValue(id); requery(0L); }
+    public void setMinPrice(float min)        { minPrice.setValue(min); requery(0L); }
+    public void setMaxPrice(float max)        { maxPrice.setValue(max); requery(0L); }
+    public void setYear(Integer y)            { year.setValue(y); requery(0L); }
+    public void setTransmission(String t)     { transmission.setValue(t); requery(0L); }
+    public void setSeats(Integer s)           { seats.setValue(s); requery(0L); }
+    public void setAvailableOnly(Boolean a)   { availableOnly.setValue(a); requery(0L); }
+    public void setAvailableBetween(Long from, Long until) {
+        availableFrom.setValue(from);
+        availableUntil.setValue(until);
+        requery(0L);
+    }
+
+    public LiveData<CarSort> getSort()       { return sort; }
+    public void setSort(CarSort order)        { sort.setValue(order); requery(0L); }
 
-    public void setCategoryId(Long id)       { categoryId.setValue(id); }
-    public void setMinPrice(float min)        { minPrice.setValue(min); }
-    public void setMaxPrice(float max)        { maxPrice.setValue(max); }
-    public void setYear(Integer y)            { year.setValue(y); }
-    public void setTransmission(String t)     { transmission.setValue(t); }
-    public void setSeats(Integer s)           { seats.setValue(s); }
-    public void setAvailableOnly(Boolean a)   { availableOnly.setValue(a); }
-    public void setSearchQuery(String q)      { searchQuery.setValue(q != null ? q : ""); }
+    /** Search text as the user types; runs once typing pauses. */
+    public void setSearchQuery(String q) {
+        searchQuery.setValue(q != null ? q : "");
+        requery(SearchPipeline.TYPING_DEBOUNCE_MS);
+    }
+
+    /** Search text from the search key; runs now. */
+    public void searchNow(String q) {
+        setSearchQuery(q);
+        cars.flush();
+    }
+
+    /**
+     * Type-ahead for the search box, from the in-memory suggestion index.
+     * Safe to call off the main thread.
+     */
+    public List<String> suggest(String prefix) {
+        List<String> out = new ArrayList<>();
+        for (SuggestionIndex.Suggestion s : carRepository.suggest(prefix, SUGGESTION_LIMIT)) {
+            out.add(s.text);
+        }
+        return out;
+    }
+
+    /** Queries submitted, issued and rendered by the cars pipeline. */
+    public SearchPipeline.Metrics getSearchMetrics() {
+        return cars.metrics();
+    }
 }
 
 
@@ -0,0 +1,82 @@
+package com.example.louver.ui.search;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.louver.R;
+
+/**
+ * Bar chart drawn above the price RangeSlider: one bar per price bucket, with
+ * bars inside the selected range highlighted.
+ */
+public class PriceHistogramView extends View {
+
+    private final Paint inRangePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint outOfRangePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private int[] counts = new int[0];
+    private float valueFrom = 0f;
+    private float valueTo = 1f;
+    private float selectedMin = 0f;
+    private float selectedMax = 1f;
+
+    public PriceHistogramView(Context context) {
+        this(context, null);
+    }
+
+    public PriceHistogramView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        inRangePaint.setColor(ContextCompat.getColor(context, R.color.color_louver_accent));
+        outOfRangePaint.setColor(ContextCompat.getColor(context, R.color.color_louver_surface_variant));
+    }
+
+    /** Bucket counts spread evenly over [from, to]. */
+    public void setHistogram(@NonNull int[] counts, float from, float to) {
+        this.counts = counts;
+        this.valueFrom = from;
+        this.valueTo = to;
+        invalidate();
+    }
+
+    public void setSelectedRange(float min, float max) {
+        this.selectedMin = min;
+        this.selectedMax = max;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (counts.length == 0) return;
+
+        int max = 0;
+        for (int c : counts) max = Math.max(max, c);
+        if (max == 0) return;
+
+        float left = getPaddingLeft();
+        float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        float bottom = getHeight() - getPaddingBottom();
+        float height = bottom - getPaddingTop();
+        float barWidth = width / counts.length;
+        float gap = Math.min(2f * getResources().getDisplayMetrics().density, barWidth / 4f);
+        float bucketSpan = (valueTo - valueFrom) / counts.length;
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            float bucketStart = valueFrom + i * bucketSpan;
+            float bucketEnd = bucketStart + bucketSpan;
+            boolean inRange = bucketEnd > selectedMin && bucketStart < selectedMax;
+            float x = left + i * barWidth;
+            float top = bottom - height * counts[i] / max;
+            canvas.drawRect(x + gap / 2f, top, x + barWidth - gap / 2f, bottom,
+                    inRange ? inRangePaint : outOfRangePaint);
+        }
+    }
+}
@@ -10,16 +10,24 @@ import android.widget.ArrayAdapter;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.Pair;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.louver.R;
+import com.example.louver.data.converter.TransmissionType;
 import com.example.louver.data.entity.CategoryEntity;
+import com.example.louver.data.repository.FacetIndex;
 import com.example.louver.databinding.FragmentSearchFilterBinding;
+import com.google.android.material.datepicker.MaterialDatePicker;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * Advanced Search & Filter fragment.
@@ -28,12 +36,15 @@ import java.util.Locale;
  */
 public class SearchFilterFragment extends Fragment {
 
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
     private FragmentSearchFilterBinding binding;
     private SearchFilterViewModel viewModel;
 
     private final List<CategoryEntity> categoryList = new ArrayList<>();
     private ArrayAdapter<String> categorySpinnerAdapter;
     private final List<String> categoryNames = new ArrayList<>();
+    private FacetIndex.Counts facetCounts;
 
     public SearchFilterFragment() {}
 
@@ -57,8 +68,10 @@ public class SearchFilterFragment extends Fragment {
         setupSeatsInput();
         setupYearInput();
         setupAvailabilityToggle();
+        setupAvailableDates();
         setupButtons();
         observeCategories();
+        observeFacetCounts();
     }
 
     // ------------------------------------------------------------------ category
@@ -94,11 +107,12 @@ public class SearchFilterFragment extends Fragment {
     // ------------------------------------------------------------------ price range
 
     private void setupPriceRangeSlider() {
-        binding.priceRangeSlider.setValueFrom(0f);
-        binding.priceRangeSlider.setValueTo(500f);
+        binding.priceRangeSlider.setValueFrom(SearchFilterViewModel.PRICE_SLIDER_MIN);
+        binding.priceRangeSlider.setValueTo(SearchFilterViewModel.PRICE_SLIDER_MAX);
         binding.priceRangeSlider.setStepSize(10f);
-        binding.priceRangeSlider.setValues(0f, 500f);
-        updatePriceLabel(0f, 500f);
+        binding.priceRangeSlider.setValues(
+                SearchFilterViewModel.PRICE_SLIDER_MIN, SearchFilterViewModel.PRICE_SLIDER_MAX);
+        updatePriceLabel(SearchFilterViewModel.PRICE_SLIDER_MIN, SearchFilterViewModel.PRICE_SLIDER_MAX);
 
         binding.priceRangeSlider.addOnChangeListener((slider, value, fromUser) -> {
             List<Float> values = slider.getValues();
@@ -112,6 +126,7 @@ public class SearchFilterFragment extends Fragment {
     private void updatePriceLabel(float min, float max) {
         binding.tvPriceRange.setText(
                 String.format(Locale.getDefault(), "$%.0f – $%.0f / day", min, max));
+        binding.priceHistogram.setSelectedRange(min, max);
     }
 
     // ------------------------------------------------------------------ transmission
@@ -192,6 +207,42 @@ public class SearchFilterFragment extends Fragment {
         });
     }
 
+    // ------------------------------------------------------------------ available dates
+
+    private void setupAvailableDates() {
+        binding.btnAvailableDates.setOnClickListener(v -> {
+            MaterialDatePicker<Pair<Long, Long>> picker = MaterialDatePicker.Builder.dateRangePicker()
+                    .setTitleText("Available between")
+                    .build();
+            picker.addOnPositiveButtonClickListener(selection -> {
+                if (selection == null || selection.first == null || selection.second == null) return;
+                // Picker returns UTC midnights; the range covers the whole last day
+                long from = selection.first;
+                long until = selection.second + MILLIS_PER_DAY;
+                viewModel.setAvailableBetween(from, until);
+                updateAvailableDatesLabel(from, until);
+            });
+            picker.show(getChildFragmentManager(), "available_dates");
+        });
+        // Long-press clears the date range
+        binding.btnAvailableDates.setOnLongClickListener(v -> {
+            viewModel.setAvailableBetween(null, null);
+            updateAvailableDatesLabel(null, null);
+            return true;
+        });
+    }
+
+    private void updateAvailableDatesLabel(Long from, Long until) {
+        if (from == null || until == null) {
+            binding.btnAvailableDates.setText("Any dates");
+            return;
+        }
+        SimpleDateFormat fmt = new SimpleDateFormat("MMM dd", Locale.getDefault());
+        fmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+        binding.btnAvailableDates.setText(
+                fmt.format(new Date(from)) + " – " + fmt.format(new Date(until - MILLIS_PER_DAY)));
+    }
+
     // ------------------------------------------------------------------ buttons
 
     private void setupButtons() {
@@ -207,12 +258,14 @@ public class SearchFilterFragment extends Fragment {
 
     private void resetUi() {
         binding.spinnerCategory.setSelection(0);
-        binding.priceRangeSlider.setValues(0f, 500f);
-        updatePriceLabel(0f, 500f);
+        binding.priceRangeSlider.setValues(
+                SearchFilterViewModel.PRICE_SLIDER_MIN, SearchFilterViewModel.PRICE_SLIDER_MAX);
+        updatePriceLabel(SearchFilterViewModel.PRICE_SLIDER_MIN, SearchFilterViewModel.PRICE_SLIDER_MAX);
         binding.chipGroupTransmission.clearCheck();
         binding.etSeats.setText("");
         binding.etYear.setText("");
         binding.chipGroupAvailability.clearCheck();
+        updateAvailableDatesLabel(null, null);
     }
 
     private void openFilteredCars() {
@@ -221,10 +274,10 @@ public class SearchFilterFragment extends Fragment {
         Long catId = viewModel.getSelectedCategoryId().getValue();
         args.putLong(FilteredCarsFragment.ARG_CATEGORY_ID, catId != null ? catId : 0L);
 
-        Float minP = viewModel.getMinPrice().getValue();
-        Float maxP = viewModel.getMaxPrice().getValue();
-        args.putFloat(FilteredCarsFragment.ARG_MIN_PRICE, minP != null ? minP : 0f);
-        args.putFloat(FilteredCarsFragment.ARG_MAX_PRICE, maxP != null ? maxP : 500f);
+        SearchFilterViewModel.PriceRange price = viewModel.getPriceRange().getValue();
+        args.putFloat(FilteredCarsFragment.ARG_MIN_PRICE, price != null ? price.min : 0f);
+        args.putFloat(FilteredCarsFragment.ARG_MAX_PRICE,
+                price != null ? price.max : SearchFilterViewModel.PRICE_SLIDER_MAX);
 
         Integer yr = viewModel.getManufacturingYear().getValue();
         args.putInt(FilteredCarsFragment.ARG_YEAR, yr != null ? yr : 0);
@@ -239,6 +292,11 @@ public class SearchFilterFragment extends Fragment {
         args.putInt(FilteredCarsFragment.ARG_AVAILABLE,
                 avail == null ? -1 : (avail ? 1 : 0));
 
+        Long from = viewModel.getAvailableFrom().getValue();
+        Long until = viewModel.getAvailableUntil().getValue();
+        args.putLong(FilteredCarsFragment.ARG_AVAILABLE_FROM, from != null ? from : 0L);
+        args.putLong(FilteredCarsFragment.ARG_AVAILABLE_UNTIL, until != null ? until : 0L);
+
         FilteredCarsFragment resultFragment = new FilteredCarsFragment();
         resultFragment.setArguments(args);
 
@@ -258,19 +316,66 @@ public class SearchFilterFragment extends Fragment {
 
     private void observeCategories() {
         viewModel.getCategories().observe(getViewLifecycleOwner(), categories -> {
-            categoryNames.clear();
-            categoryNames.add("All Categories");
             categoryList.clear();
-            if (categories != null) {
-                for (CategoryEntity c : categories) {
-                    categoryNames.add(c.name);
-                    categoryList.add(c);
-                }
+            if (categories != null) categoryList.addAll(categories);
+            updateCategoryNames();
+        });
+    }
+
+    /**
+     * Show how many cars each choice would give, so users can avoid empty results.
+     * The date range is not part of these counts; it is applied on the results screen.
+     */
+    private void observeFacetCounts() {
+        viewModel.getFacetCounts().observe(getViewLifecycleOwner(), counts -> {
+            if (counts == null) return;
+            facetCounts = counts;
+            updateCategoryNames();
+
+            binding.chipAutomatic.setText(String.format(Locale.getDefault(), "Automatic (%d)",
+                    counts.transmissionCount(TransmissionType.AUTOMATIC)));
+            binding.chipManual.setText(String.format(Locale.getDefault(), "Manual (%d)",
+                    counts.transmissionCount(TransmissionType.MANUAL)));
+            binding.chipAvailable.setText(String.format(Locale.getDefault(),
+                    "Available (%d)", counts.available));
+            binding.chipUnavailable.setText(String.format(Locale.getDefault(),
+                    "Not Available (%d)", counts.unavailable));
+
+            StringBuilder seats = new StringBuilder();
+            for (Map.Entry<Integer, Integer> e : counts.seats.entrySet()) {
+                if (e.getValue() == 0) continue;
+                if (seats.length() > 0) seats.append(", ");
+                seats.append(e.getKey()).append(" (").append(e.getValue()).append(')');
             }
-            categorySpinnerAdapter.notifyDataSetChanged();
+            binding.tilSeats.setHelperText(seats.length() > 0 ? "Seats: " + seats : null);
+
+            binding.priceHistogram.setHistogram(counts.priceHistogram,
+                    (float) counts.histogramFrom, (float) counts.histogramTo);
+            binding.btnApplyFilters.setText(counts.matching == 1
+                    ? "Show 1 Car"
+                    : String.format(Locale.getDefault(), "Show %d Cars", counts.matching));
         });
     }
 
+    private void updateCategoryNames() {
+        categoryNames.clear();
+        categoryNames.add(facetCounts != null
+                ? String.format(Locale.getDefault(), "All Categories (%d)", totalForAllCategories())
+                : "All Categories");
+        for (CategoryEntity c : categoryList) {
+            categoryNames.add(facetCounts != null
+                    ? String.format(Locale.getDefault(), "%s (%d)", c.name, facetCounts.categoryCount(c.id))
+                    : c.name);
+        }
+        categorySpinnerAdapter.notifyDataSetChanged();
+    }
+
+    private int totalForAllCategories() {
+        int total = 0;
+        for (int n : facetCounts.categories.values()) total += n;
+        return total;
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -8,32 +8,72 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.example.louver.data.entity.CarEntity;
 import com.example.louver.data.entity.CategoryEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.repository.CarFilter;
 import com.example.louver.data.repository.CarRepository;
 import com.example.louver.data.repository.CategoryRepository;
+import com.example.louver.data.repository.FacetIndex;
 import com.example.louver.data.repository.RepositoryProvider;
 
 import java.util.List;
 
 public class SearchFilterViewModel extends AndroidViewModel {
 
+    public static final float PRICE_SLIDER_MIN = 0f;
+    public static final float PRICE_SLIDER_MAX = 500f;
+    /** One histogram bar per $20 of the price slider. */
+    public static final int PRICE_HISTOGRAM_BUCKETS = 25;
+
     private final CategoryRepository categoryRepository;
     private final CarRepository carRepository;
 
     private final LiveData<List<CategoryEntity>> categories;
 
+    /**
+     * Both ends of the price slider, set together so one slider move is one
+     * filter change rather than two.
+     */
+    public static final class PriceRange {
+        public final float min;
+        public final float max;
+
+        public PriceRange(float min, float max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PriceRange)) return false;
+            PriceRange that = (PriceRange) o;
+            return Float.compare(min, that.min) == 0 && Float.compare(max, that.max) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Float.hashCode(min) + Float.hashCode(max);
+        }
+    }
+
     // Filter state
     private final MutableLiveData<Long>    selectedCategoryId  = new MutableLiveData<>(null);
-    private final MutableLiveData<Float>   minPrice            = new MutableLiveData<>(0f);
-    private final MutableLiveData<Float>   maxPrice            = new MutableLiveData<>(500f);
+    private final MutableLiveData<PriceRange> priceRange       =
+            new MutableLiveData<>(new PriceRange(PRICE_SLIDER_MIN, PRICE_SLIDER_MAX));
     private final MutableLiveData<Integer> manufacturingYear   = new MutableLiveData<>(null);
     private final MutableLiveData<String>  transmission        = new MutableLiveData<>(null);
     private final MutableLiveData<Integer> seats               = new MutableLiveData<>(null);
     private final MutableLiveData<Boolean> availableOnly       = new MutableLiveData<>(null);
+    private final MutableLiveData<Long>    availableFrom       = new MutableLiveData<>(null);
+    private final MutableLiveData<Long>    availableUntil      = new MutableLiveData<>(null);
+
+    // Filtered cars; changes made in the same frame are coalesced into one query
+    private final SearchPipeline<CarFilter, List<CarCard>> filteredCars;
 
-    // Combined filtered cars result
-    private final MediatorLiveData<List<CarEntity>> filteredCars = new MediatorLiveData<>();
+    // Facet counts for the current filters, from the in-memory facet index
+    private final LiveData<FacetIndex> facetIndex;
+    private final MediatorLiveData<FacetIndex.Counts> facetCounts = new MediatorLiveData<>();
 
     public SearchFilterViewModel(@NonNull Application application) {
         super(application);
@@ -41,71 +81,94 @@ public class SearchFilterViewModel extends AndroidViewModel {
         carRepository      = RepositoryProvider.cars(application);
         categories = categoryRepository.getAll();
 
-        // We hold the live query source here so we can swap it when filters change
-        @SuppressWarnings("unchecked")
-        LiveData<List<CarEntity>>[] currentSource = new LiveData[]{null};
-
-        Runnable applyFilters = () -> {
-            Long   catId  = selectedCategoryId.getValue();
-            Double minP   = minPrice.getValue() != null ? (double) minPrice.getValue() : null;
-            Double maxP   = maxPrice.getValue() != null ? (double) maxPrice.getValue() : null;
-            Integer year  = manufacturingYear.getValue();
-            String  trans = transmission.getValue();
-            Integer s     = seats.getValue();
-            Boolean avail = availableOnly.getValue();
-
-            LiveData<List<CarEntity>> newSource =
-                    carRepository.filterCars(catId, minP, maxP, year, trans, s, avail);
-
-            if (currentSource[0] != null) {
-                filteredCars.removeSource(currentSource[0]);
-            }
-            currentSource[0] = newSource;
-            filteredCars.addSource(newSource, filteredCars::setValue);
+        filteredCars = SearchPipeline.onMainThread(carRepository::filterCars);
+        // Trigger initial load
+        requery();
+
+        // Counts are recomputed on every filter change; a bitset query is cheap
+        // enough to run on the main thread, even while the price slider moves
+        facetIndex = carRepository.facetIndex();
+        Runnable updateCounts = () -> {
+            FacetIndex index = facetIndex.getValue();
+            if (index == null) return;
+            facetCounts.setValue(index.query(currentFilter(null, null),
+                    PRICE_SLIDER_MIN, PRICE_SLIDER_MAX, PRICE_HISTOGRAM_BUCKETS));
         };
+        facetCounts.addSource(facetIndex,           v -> updateCounts.run());
+        facetCounts.addSource(selectedCategoryId,   v -> updateCounts.run());
+        facetCounts.addSource(priceRange,           v -> updateCounts.run());
+        facetCounts.addSource(manufacturingYear,    v -> updateCounts.run());
+        facetCounts.addSource(transmission,         v -> updateCounts.run());
+        facetCounts.addSource(seats,                v -> updateCounts.run());
+        facetCounts.addSource(availableOnly,        v -> updateCounts.run());
+    }
 
-        filteredCars.addSource(selectedCategoryId,  v -> applyFilters.run());
-        filteredCars.addSource(minPrice,             v -> applyFilters.run());
-        filteredCars.addSource(maxPrice,             v -> applyFilters.run());
-        filteredCars.addSource(manufacturingYear,    v -> applyFilters.run());
-        filteredCars.addSource(transmission,         v -> applyFilters.run());
-        filteredCars.addSource(seats,                v -> applyFilters.run());
-        filteredCars.addSource(availableOnly,        v -> applyFilters.run());
+    /** Submit the current filters to the cars query. */
+    private void requery() {
+        filteredCars.submit(currentFilter(availableFrom.getValue(), availableUntil.getValue()), 0L);
+    }
 
-        // Trigger initial load
-        applyFilters.run();
+    /**
+     * The filters currently selected. The facet counts pass a null date range,
+     * since the facet index has no booking data.
+     */
+    private CarFilter currentFilter(Long from, Long until) {
+        PriceRange price = priceRange.getValue();
+        return new CarFilter(null, selectedCategoryId.getValue(),
+                price != null ? (double) price.min : null,
+                price != null ? (double) price.max : null,
+                manufacturingYear.getValue(), transmission.getValue(), seats.getValue(),
+                availableOnly.getValue(), from, until);
     }
 
     // ---- Getters ----
 
     public LiveData<List<CategoryEntity>> getCategories()      { return categories; }
-    public LiveData<List<CarEntity>>      getFilteredCars()    { return filteredCars; }
+    public LiveData<List<CarCard>>      getFilteredCars()    { return filteredCars; }
+    public LiveData<FacetIndex.Counts>    getFacetCounts()     { return facetCounts; }
     public LiveData<Long>                 getSelectedCategoryId() { return selectedCategoryId; }
-    public LiveData<Float>                getMinPrice()        { return minPrice; }
-    public LiveData<Float>                getMaxPrice()        { return maxPrice; }
+    public LiveData<PriceRange>           getPriceRange()      { return priceRange; }
     public LiveData<Integer>              getManufacturingYear(){ return manufacturingYear; }
     public LiveData<String>               getTransmission()    { return transmission; }
     public LiveData<Integer>              getSeats()           { return seats; }
     public LiveData<Boolean>              getAvailableOnly()   { return availableOnly; }
+    public LiveData<Long>                 getAvailableFrom()   { return availableFrom; }
+    public LiveData<Long>                 getAvailableUntil()  { return availableUntil; }
 
     // ---- Setters ----
 
-    public void setSelectedCategoryId(Long id)    { selectedCategoryId.setValue(id); }
-    public void setPriceRange(float min, float max){ minPrice.setValue(min); maxPrice.setValue(max); }
-    public void setManufacturingYear(Integer year) { manufacturingYear.setValue(year); }
-    public void setTransmission(String t)          { transmission.setValue(t); }
-    public void setSeats(Integer s)                { seats.setValue(s); }
-    public void setAvailableOnly(Boolean a)        { availableOnly.setValue(a); }
+    public void setSelectedCategoryId(Long id)    { selectedCategoryId.setValue(id); requery(); }
+    public void setManufacturingYear(Integer year) { manufacturingYear.setValue(year); requery(); }
+    public void setTransmission(String t)          { transmission.setValue(t); requery(); }
+    public void setSeats(Integer s)                { seats.setValue(s); requery(); }
+    public void setAvailableOnly(Boolean a)        { availableOnly.setValue(a); requery(); }
+
+    /** Both slider ends at once; a repeat of the current range is ignored. */
+    public void setPriceRange(float min, float max) {
+        PriceRange next = new PriceRange(min, max);
+        if (next.equals(priceRange.getValue())) return;
+        priceRange.setValue(next);
+        requery();
+    }
+
+    /**
+     * Only show cars with no booking overlapping [from, until). Pass nulls to clear.
+     */
+    public void setAvailableBetween(Long from, Long until) {
+        availableFrom.setValue(from);
+        availableUntil.setValue(until);
+        requery();
+    }
 
     public void clearAllFilters() {
         selectedCategoryId.setValue(null);
-        minPrice.setValue(0f);
-        maxPrice.setValue(500f);
+        priceRange.setValue(new PriceRange(PRICE_SLIDER_MIN, PRICE_SLIDER_MAX));
         manufacturingYear.setValue(null);
         transmission.setValue(null);
         seats.setValue(null);
         availableOnly.setValue(null);
+        availableFrom.setValue(null);
+        availableUntil.setValue(null);
+        requery();
     }
 }
-
-
@@ -0,0 +1,262 @@
+package com.example.louver.ui.search;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * SearchPipeline: the stage between a screen's filter inputs and its list query.
+ *
+ * - {@link #submit} with a delay debounces: each new submit within the delay
+ *   replaces the pending one, so typing "camry" issues one query, not five.
+ * - A delay of 0 still goes through the scheduler, so several filter changes
+ *   made in the same frame (e.g. restoring every argument of a screen) are
+ *   coalesced into one query.
+ * - When a new query is issued, the previous query's LiveData is detached, so
+ *   a stale result that arrives later is dropped instead of rendered.
+ * - A query equal to the one already showing is not issued again.
+ *
+ * Must be used from one thread (the main thread in the app). Time comes from a
+ * {@link Scheduler}; tests pass a {@link ManualScheduler} and advance it by hand.
+ *
+ * @param <Q> query (filter state); compared with equals() to skip repeats
+ * @param <R> result emitted by the query's LiveData
+ */
+public class SearchPipeline<Q, R> extends MediatorLiveData<R> {
+
+    /** Delay used for text typed into a search box. */
+    public static final long TYPING_DEBOUNCE_MS = 250L;
+
+    private final Scheduler scheduler;
+    private final Function<Q, LiveData<R>> source;
+
+    private Q pendingQuery;
+    private long pendingSince;
+    private Scheduler.Cancellable pendingTask;
+
+    private Q issuedQuery;
+    private boolean hasIssued;
+    private LiveData<R> issuedSource;
+    private long issuedAt;
+    private boolean issuedRendered;
+
+    // Metrics
+    private long submitted;
+    private long issued;
+    private long rendered;
+    private long cancelled;
+    private long firstRenders;
+    private long totalLatencyMs;
+    private long maxLatencyMs;
+
+    public SearchPipeline(@NonNull Scheduler scheduler, @NonNull Function<Q, LiveData<R>> source) {
+        this.scheduler = scheduler;
+        this.source = source;
+    }
+
+    /** Pipeline on the main thread, timed with the system uptime clock. */
+    public static <Q, R> SearchPipeline<Q, R> onMainThread(@NonNull Function<Q, LiveData<R>> source) {
+        return new SearchPipeline<>(new MainThreadScheduler(), source);
+    }
+
+    /**
+     * Issue the query after delayMs unless another submit arrives first. Latency
+     * is measured from the first submit of a burst to the first rendered result.
+     */
+    public void submit(Q query, long delayMs) {
+        submitted++;
+        if (pendingTask != null) {
+            pendingTask.cancel();
+        } else {
+            pendingSince = scheduler.now();
+        }
+        pendingQuery = query;
+        pendingTask = scheduler.schedule(this::issuePending, Math.max(0L, delayMs));
+    }
+
+    /** Issue any pending query now, e.g. when the user presses the search key. */
+    public void flush() {
+        if (pendingTask == null) return;
+        pendingTask.cancel();
+        issuePending();
+    }
+
+    /** The last query issued, or the pending one if nothing was issued yet. */
+    public Q currentQuery() {
+        return hasIssued ? issuedQuery : pendingQuery;
+    }
+
+    private void issuePending() {
+        Q query = pendingQuery;
+        long since = pendingSince;
+        pendingTask = null;
+        pendingQuery = null;
+        if (hasIssued && Objects.equals(query, issuedQuery)) return;
+
+        if (issuedSource != null) {
+            removeSource(issuedSource);
+            if (!issuedRendered) cancelled++;
+        }
+        LiveData<R> next = source.apply(query);
+        issuedQuery = query;
+        hasIssued = true;
+        issuedSource = next;
+        issuedAt = since;
+        issuedRendered = false;
+        issued++;
+        addSource(next, value -> {
+            // Only the current source is attached, so this is never a stale result
+            if (!issuedRendered) {
+                issuedRendered = true;
+                firstRenders++;
+                long latency = scheduler.now() - issuedAt;
+                totalLatencyMs += latency;
+                maxLatencyMs = Math.max(maxLatencyMs, latency);
+            }
+            rendered++;
+            setValue(value);
+        });
+    }
+
+    @NonNull
+    public Metrics metrics() {
+        return new Metrics(submitted, issued, rendered, cancelled,
+                firstRenders > 0 ? (double) totalLatencyMs / firstRenders : 0.0, maxLatencyMs);
+    }
+
+    /**
+     * Counters since creation. {@code submitted - issued} inputs were absorbed by
+     * debouncing, coalescing or repeat detection; {@code cancelled} queries were
+     * replaced before any result was rendered.
+     */
+    public static final class Metrics {
+        public final long submitted;
+        public final long issued;
+        /** Results delivered to the UI, including re-emissions after data changes. */
+        public final long rendered;
+        public final long cancelled;
+        /** From first submit of a burst to its first rendered result. */
+        public final double avgLatencyMs;
+        public final long maxLatencyMs;
+
+        Metrics(long submitted, long issued, long rendered, long cancelled,
+                double avgLatencyMs, long maxLatencyMs) {
+            this.submitted = submitted;
+            this.issued = issued;
+            this.rendered = rendered;
+            this.cancelled = cancelled;
+            this.avgLatencyMs = avgLatencyMs;
+            this.maxLatencyMs = maxLatencyMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "search: submitted=%d issued=%d rendered=%d cancelled=%d latency avg=%.1fms max=%dms",
+                    submitted, issued, rendered, cancelled, avgLatencyMs, maxLatencyMs);
+        }
+    }
+
+    // ── Scheduling ────────────────────────────────────────────────────────────
+
+    /** Clock plus delayed execution on the pipeline's thread. */
+    public interface Scheduler {
+        long now();
+
+        Cancellable schedule(@NonNull Runnable task, long delayMs);
+
+        interface Cancellable {
+            void cancel();
+        }
+    }
+
+    /** Runs tasks on the main looper; time is {@link SystemClock#uptimeMillis()}. */
+    public static final class MainThreadScheduler implements Scheduler {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public long now() {
+            return SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public Cancellable schedule(@NonNull Runnable task, long delayMs) {
+            handler.postDelayed(task, delayMs);
+            return () -> handler.removeCallbacks(task);
+        }
+    }
+
+    /**
+     * Deterministic clock for tests: nothing runs until {@link #advanceBy} moves
+     * time past a task's due time. Tasks due at the same time run in the order
+     * they were scheduled.
+     */
+    public static final class ManualScheduler implements Scheduler {
+        private final List<Task> tasks = new ArrayList<>();
+        private long now;
+        private long sequence;
+
+        @Override
+        public long now() {
+            return now;
+        }
+
+        @Override
+        public Cancellable schedule(@NonNull Runnable task, long delayMs) {
+            Task t = new Task(now + delayMs, sequence++, task);
+            tasks.add(t);
+            return () -> tasks.remove(t);
+        }
+
+        /** Move time forward, running every task that falls due on the way. */
+        public void advanceBy(long ms) {
+            long target = now + ms;
+            while (true) {
+                Task next = null;
+                for (Task t : tasks) {
+                    if (t.dueAt <= target && (next == null || t.dueAt < next.dueAt
+                            || (t.dueAt == next.dueAt && t.sequence < next.sequence))) {
+                        next = t;
+                    }
+                }
+                if (next == null) break;
+                tasks.remove(next);
+                now = Math.max(now, next.dueAt);
+                next.runnable.run();
+            }
+            now = target;
+        }
+
+        /** Run tasks due now (delay 0), as the end of a frame would. */
+        public void runPending() {
+            advanceBy(0);
+        }
+
+        public int pendingTasks() {
+            return tasks.size();
+        }
+
+        private static final class Task {
+            final long dueAt;
+            final long sequence;
+            final Runnable runnable;
+
+            Task(long dueAt, long sequence, Runnable runnable) {
+                this.dueAt = dueAt;
+                this.sequence = sequence;
+                this.runnable = runnable;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.louver.ui.search;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Drop-down adapter for a search box's type-ahead. Filtering runs on the
+ * widget's filter thread and calls the given in-memory lookup; it never
+ * queries the database.
+ */
+public class SuggestionAdapter extends ArrayAdapter<String> {
+
+    private final Function<String, List<String>> lookup;
+    private final List<String> items = new ArrayList<>();
+
+    public SuggestionAdapter(@NonNull Context context, @NonNull Function<String, List<String>> lookup) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+        this.lookup = lookup;
+    }
+
+    @Override
+    public int getCount() {
+        return items.size();
+    }
+
+    @Override
+    public String getItem(int position) {
+        return items.get(position);
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            List<String> found = constraint != null
+                    ? lookup.apply(constraint.toString())
+                    : Collections.emptyList();
+            FilterResults results = new FilterResults();
+            results.values = found;
+            results.count = found.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            items.clear();
+            if (results != null && results.values != null) {
+                items.addAll((List<String>) results.values);
+            }
+            if (items.isEmpty()) notifyDataSetInvalidated(); else notifyDataSetChanged();
+        }
+    };
+}
@@ -0,0 +1,160 @@
+package com.example.louver.data.dao;
+
+import static com.example.louver.testing.LiveDataTestUtil.await;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.converter.BookingStatus;
+import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.relation.BookingFullDetails;
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+import com.example.louver.testing.FleetDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Every {@link BookingDao} query against the synthetic fleet's bookings. Writes
+ * run in a rolled-back transaction.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BookingDaoBenchmark {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /** Same shape as BookingRepository.pagedAdminBookings with a status filter. */
+    private static final String PAGE_BY_STATUS_SQL =
+            "SELECT " + BookingDao.LIST_ROW_COLUMNS + BookingDao.LIST_ROW_FROM +
+            " WHERE 1 = 1 AND b.status = ?" +
+            " AND (b.createdAt < ? OR (b.createdAt = ? AND b.id < ?))" +
+            " ORDER BY b.createdAt DESC, b.id DESC LIMIT ?";
+    private static final String PAGE_ALL_SQL =
+            "SELECT " + BookingDao.LIST_ROW_COLUMNS + BookingDao.LIST_ROW_FROM +
+            " WHERE 1 = 1" +
+            " AND (b.createdAt < ? OR (b.createdAt = ? AND b.id < ?))" +
+            " ORDER BY b.createdAt DESC, b.id DESC LIMIT ?";
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private FleetDatabase fleet;
+    private BookingDao dao;
+    private long maxBookingId;
+
+    @Before
+    public void setUp() {
+        fleet = FleetDatabase.open(ApplicationProvider.getApplicationContext());
+        dao = fleet.db.bookingDao();
+        maxBookingId = Math.max(1, fleet.config.bookings);
+    }
+
+    @After
+    public void tearDown() {
+        fleet.close();
+    }
+
+    private long randomBookingId() {
+        return 1 + (long) (fleet.random.nextDouble() * maxBookingId);
+    }
+
+    @Test
+    public void writes() {
+        Benchmark.run("BookingDao.insert", 20, 300, () -> fleet.rolledBack(() -> {
+            long pickup = SyntheticFleet.BASE_TIME + 400 * DAY;
+            dao.insert(new BookingEntity(fleet.randomUserId(), fleet.randomCarId(), pickup, pickup + 2 * DAY,
+                    2, 50.0, 100.0, BookingStatus.ACTIVE, SyntheticFleet.BASE_TIME, null));
+            return 1;
+        }));
+        Benchmark.run("BookingDao.update", 20, 300, () -> fleet.rolledBack(() -> {
+            BookingEntity booking = dao.getBookingByIdNow(randomBookingId());
+            if (booking == null) return 0;
+            booking.updatedAt = SyntheticFleet.BASE_TIME;
+            dao.update(booking);
+            return 1;
+        }));
+        Benchmark.run("BookingDao.markCompleted", 20, 300, () -> fleet.rolledBack(() -> {
+            dao.markCompleted(randomBookingId(), SyntheticFleet.BASE_TIME);
+            return 1;
+        }));
+        Benchmark.run("BookingDao.markCancelled", 20, 300, () -> fleet.rolledBack(() -> {
+            dao.markCancelled(randomBookingId(), SyntheticFleet.BASE_TIME);
+            return 1;
+        }));
+        Benchmark.run("BookingDao.updateStatus", 20, 300, () -> fleet.rolledBack(() -> {
+            dao.updateStatus(randomBookingId(), BookingStatus.OVERDUE.name(), SyntheticFleet.BASE_TIME);
+            return 1;
+        }));
+        Benchmark.run("BookingDao.updateStatusIfChanged", 20, 300, () -> fleet.rolledBack(() ->
+                dao.updateStatusIfChanged(randomBookingId(), BookingStatus.COMPLETED.name(),
+                        SyntheticFleet.BASE_TIME)));
+    }
+
+    @Test
+    public void perUser() {
+        Benchmark.run("BookingDao.getBookingsForUser", 20, 200,
+                () -> await(dao.getBookingsForUser(fleet.randomUserId())).size());
+        Benchmark.run("BookingDao.getBookingsForUserByStatus", 20, 200,
+                () -> await(dao.getBookingsForUserByStatus(fleet.randomUserId(),
+                        BookingStatus.COMPLETED.name())).size());
+        Benchmark.run("BookingDao.getBookingListRowsForUser", 20, 200,
+                () -> await(dao.getBookingListRowsForUser(fleet.randomUserId())).size());
+    }
+
+    @Test
+    public void adminPages() {
+        Benchmark.run("BookingDao.getBookingListRowsPage(all)", 20, 300, () ->
+                dao.getBookingListRowsPage(new SimpleSQLiteQuery(PAGE_ALL_SQL,
+                        new Object[]{Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 21})).size());
+        Benchmark.run("BookingDao.getBookingListRowsPage(status)", 20, 300, () ->
+                dao.getBookingListRowsPage(new SimpleSQLiteQuery(PAGE_BY_STATUS_SQL,
+                        new Object[]{BookingStatus.ACTIVE.name(), Long.MAX_VALUE, Long.MAX_VALUE,
+                                Long.MAX_VALUE, 21})).size());
+        Benchmark.run("BookingDao.countAll", 5, 50, () -> {
+            await(dao.countAll());
+            return 1;
+        });
+        Benchmark.run("BookingDao.countByStatus", 5, 50, () -> {
+            await(dao.countByStatus(BookingStatus.COMPLETED.name()));
+            return 1;
+        });
+    }
+
+    @Test
+    public void perCar() {
+        Benchmark.run("BookingDao.hasBookingsForCar", 50, 1000, () -> {
+            dao.hasBookingsForCar(fleet.randomCarId());
+            return 1;
+        });
+        Benchmark.run("BookingDao.hasOverlappingActiveBooking", 50, 1000, () -> {
+            long pickup = SyntheticFleet.BASE_TIME + fleet.random.nextInt(10) * DAY;
+            dao.hasOverlappingActiveBooking(fleet.randomCarId(), pickup, pickup + 3 * DAY);
+            return 1;
+        });
+        Benchmark.run("BookingDao.hasActiveBookingsForCar", 50, 1000, () -> {
+            dao.hasActiveBookingsForCar(fleet.randomCarId());
+            return 1;
+        });
+        Benchmark.run("BookingDao.getBlockingBookingsForCarNow", 50, 1000,
+                () -> dao.getBlockingBookingsForCarNow(fleet.randomCarId()).size());
+        Benchmark.run("BookingDao.getBookingByIdNow", 50, 1000, () -> {
+            dao.getBookingByIdNow(randomBookingId());
+            return 1;
+        });
+        Benchmark.run("BookingDao.getBookingFullDetailsById", 20, 300, () -> {
+            BookingFullDetails details = await(dao.getBookingFullDetailsById(randomBookingId()));
+            return details != null ? 1 : 0;
+        });
+    }
+
+    @Test
+    public void aggregates() {
+        Benchmark.run("BookingDao.getBookingCountsNow", 2, 10, () -> dao.getBookingCountsNow().size());
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.louver.data.dao;
+
+import static com.example.louver.testing.LiveDataTestUtil.await;
+
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarStatusEntity;
+import com.example.louver.data.relation.CarWithImages;
+import com.example.louver.data.relation.CarWithReviews;
+import com.example.louver.data.repository.CarFilter;
+import com.example.louver.data.repository.CarSort;
+import com.example.louver.data.repository.CompiledFilters;
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+import com.example.louver.testing.FleetDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Every {@link CarDao} query against the synthetic fleet. Writes run in a
+ * rolled-back transaction, except deletes, which remove cars made for them.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CarDaoBenchmark {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private FleetDatabase fleet;
+    private CarDao dao;
+
+    @Before
+    public void setUp() {
+        fleet = FleetDatabase.open(ApplicationProvider.getApplicationContext());
+        dao = fleet.db.carDao();
+    }
+
+    @After
+    public void tearDown() {
+        fleet.close();
+    }
+
+    @Test
+    public void writes() {
+        Benchmark.run("CarDao.insert", 20, 200, () -> fleet.rolledBack(() -> {
+            dao.insert(newCar());
+            return 1;
+        }));
+        Benchmark.run("CarDao.insertAll(100)", 5, 50, () -> fleet.rolledBack(() -> {
+            List<CarEntity> cars = new ArrayList<>(100);
+            for (int i = 0; i < 100; i++) cars.add(newCar());
+            dao.insertAll(cars);
+            return cars.size();
+        }));
+        Benchmark.run("CarDao.update", 20, 200, () -> fleet.rolledBack(() -> {
+            CarEntity car = dao.getCarByIdNow(fleet.randomCarId());
+            car.dailyPrice += 1;
+            dao.update(car);
+            return 1;
+        }));
+
+        // Cars with bookings cannot be deleted (RESTRICT), so delete fresh ones
+        List<CarEntity> doomed = insertCommitted(220);
+        int[] next = {0};
+        Benchmark.run("CarDao.deleteById", 10, 100, () -> dao.deleteById(doomed.get(next[0]++).id));
+        Benchmark.run("CarDao.delete", 10, 100, () -> {
+            dao.delete(doomed.get(next[0]++));
+            return 1;
+        });
+        // Leave the fleet as it was
+        while (next[0] < doomed.size()) dao.deleteById(doomed.get(next[0]++).id);
+    }
+
+    @Test
+    public void lists() {
+        Benchmark.run("CarDao.countAll", 20, 200, () -> {
+            await(dao.countAll());
+            return 1;
+        });
+        Benchmark.run("CarDao.getAllCars", 2, 10, () -> await(dao.getAllCars()).size());
+        Benchmark.run("CarDao.getCarsByCategory", 5, 50,
+                () -> await(dao.getCarsByCategory(fleet.randomCategoryId())).size());
+    }
+
+    @Test
+    public void details() {
+        Benchmark.run("CarDao.getCarByIdNow", 50, 1000, () -> {
+            dao.getCarByIdNow(fleet.randomCarId());
+            return 1;
+        });
+        Benchmark.run("CarDao.getCarWithImages", 20, 300, () -> {
+            CarWithImages car = await(dao.getCarWithImages(fleet.randomCarId()));
+            return 1 + car.images.size();
+        });
+        Benchmark.run("CarDao.getCarWithReviews", 20, 300, () -> {
+            CarWithReviews car = await(dao.getCarWithReviews(fleet.randomCarId()));
+            return 1 + car.reviews.size();
+        });
+    }
+
+    @Test
+    public void search() {
+        String[] queries = {"toyota", "camry", "model 3", "mercedes benz", "sport"};
+        int[] i = {0};
+        Benchmark.run("CarDao.searchCars", 2, 20, () ->
+                await(dao.searchCars(CompiledFilters.ftsMatch(queries[i[0]++ % queries.length]))).size());
+    }
+
+    /**
+     * The search query before cars_fts (a LIKE '%q%' scan of name and model)
+     * next to the FTS join, on a 50k-car catalog. Both run as raw cursors with
+     * the same projection and order, so only the lookup differs.
+     */
+    @Test
+    public void likeVersusFts() {
+        SyntheticFleet.Config catalog = new SyntheticFleet.Config(42L, 24, 50_000, 10, 0, 0, 0);
+        try (FleetDatabase cars50k = FleetDatabase.open(ApplicationProvider.getApplicationContext(), catalog)) {
+            String[] queries = {"toyota", "camry", "bmw", "sport", "civic"};
+            int[] i = {0};
+            Benchmark.Result like = Benchmark.run("CarDao.search(LIKE, 50k cars)", 2, 20, () -> {
+                String q = queries[i[0]++ % queries.length];
+                return count(cars50k, new SimpleSQLiteQuery("SELECT * FROM cars "
+                        + "WHERE (name LIKE '%' || ? || '%') OR (model LIKE '%' || ? || '%') "
+                        + "ORDER BY createdAt DESC", new Object[]{q, q}));
+            });
+            Benchmark.Result fts = Benchmark.run("CarDao.search(FTS, 50k cars)", 2, 20, () -> {
+                String match = CompiledFilters.ftsMatch(queries[i[0]++ % queries.length]);
+                return count(cars50k, new SimpleSQLiteQuery("SELECT cars.* FROM cars "
+                        + "JOIN cars_fts ON cars.id = cars_fts.rowid "
+                        + "WHERE cars_fts MATCH ? ORDER BY cars.createdAt DESC", new Object[]{match}));
+            });
+            System.out.printf(Locale.US, "LIKE/FTS p50 ratio at 50k cars: %.1fx%n", like.p50Ms / fts.p50Ms);
+        }
+    }
+
+    @Test
+    public void compiledFilters() {
+        CarFilter byCategoryAndPrice = new CarFilter(null, fleet.randomCategoryId(), 50.0, 150.0,
+                null, null, null, null, null, null);
+        CarFilter available = new CarFilter(null, null, null, null, null,
+                TransmissionType.AUTOMATIC.name(), 5, true, null, null);
+        CarFilter freeNextWeek = new CarFilter(null, null, null, null, null, null, null, null,
+                SyntheticFleet.BASE_TIME, SyntheticFleet.BASE_TIME + 7 * DAY);
+        CarFilter byRating = CarFilter.forCategory(fleet.randomCategoryId()).withSort(CarSort.RATING);
+
+        Benchmark.run("CarDao.observeCarCards(category+price)", 5, 50,
+                () -> await(dao.observeCarCards(CompiledFilters.list(byCategoryAndPrice))).size());
+        Benchmark.run("CarDao.observeCarCardsWithStatus(transmission+seats+available)", 3, 20,
+                () -> await(dao.observeCarCardsWithStatus(CompiledFilters.list(available))).size());
+        Benchmark.run("CarDao.filterCarsRaw(dateRange)", 2, 10,
+                () -> await(dao.filterCarsRaw(CompiledFilters.list(freeNextWeek))).size());
+        Benchmark.run("CarDao.filterCarsByRatingRaw(category)", 5, 50,
+                () -> await(dao.filterCarsByRatingRaw(CompiledFilters.list(byRating))).size());
+
+        Benchmark.run("CarDao.loadCarCards(firstPage)", 50, 500,
+                () -> dao.loadCarCards(CompiledFilters.firstPage(CarFilter.all(), 21)).size());
+        Benchmark.run("CarDao.loadCarCards(firstPage, available)", 50, 500,
+                () -> dao.loadCarCards(CompiledFilters.firstPage(available, 21)).size());
+    }
+
+    private static long count(FleetDatabase fleet, SimpleSQLiteQuery query) {
+        long rows = 0;
+        try (Cursor cursor = fleet.db.query(query)) {
+            while (cursor.moveToNext()) rows++;
+        }
+        return rows;
+    }
+
+    private CarEntity newCar() {
+        return new CarEntity(fleet.randomCategoryId(), "Bench Car", "Bench Model", 2024, 99.0, true,
+                TransmissionType.AUTOMATIC, FuelType.HYBRID, 5, 5.0, "Benchmark row", "",
+                SyntheticFleet.BASE_TIME + DAY);
+    }
+
+    private List<CarEntity> insertCommitted(int count) {
+        List<CarEntity> cars = new ArrayList<>(count);
+        fleet.db.runInTransaction(() -> {
+            for (int i = 0; i < count; i++) {
+                CarEntity car = newCar();
+                car.id = dao.insert(car);
+                fleet.db.carStatusDao().upsert(new CarStatusEntity(car.id, true, car.createdAt));
+                cars.add(car);
+            }
+        });
+        return cars;
+    }
+}
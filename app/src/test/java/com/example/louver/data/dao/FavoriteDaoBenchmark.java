@@ -0,0 +1,65 @@
+package com.example.louver.data.dao;
+
+import static com.example.louver.testing.LiveDataTestUtil.await;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.entity.FavoriteEntity;
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+import com.example.louver.testing.FleetDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Every {@link FavoriteDao} query against the synthetic fleet's favorites.
+ * Writes run in a rolled-back transaction.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FavoriteDaoBenchmark {
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private FleetDatabase fleet;
+    private FavoriteDao dao;
+
+    @Before
+    public void setUp() {
+        fleet = FleetDatabase.open(ApplicationProvider.getApplicationContext());
+        dao = fleet.db.favoriteDao();
+    }
+
+    @After
+    public void tearDown() {
+        fleet.close();
+    }
+
+    @Test
+    public void writes() {
+        Benchmark.run("FavoriteDao.add", 50, 1000, () -> fleet.rolledBack(() -> {
+            dao.add(new FavoriteEntity(fleet.randomUserId(), fleet.randomCarId(), SyntheticFleet.BASE_TIME));
+            return 1;
+        }));
+        Benchmark.run("FavoriteDao.remove", 50, 1000, () -> fleet.rolledBack(() -> {
+            dao.remove(fleet.randomUserId(), fleet.randomCarId());
+            return 1;
+        }));
+    }
+
+    @Test
+    public void reads() {
+        Benchmark.run("FavoriteDao.isFavorite", 50, 1000, () -> {
+            await(dao.isFavorite(fleet.randomUserId(), fleet.randomCarId()));
+            return 1;
+        });
+        Benchmark.run("FavoriteDao.getFavoriteCarIds", 50, 1000,
+                () -> await(dao.getFavoriteCarIds(fleet.randomUserId())).size());
+    }
+}
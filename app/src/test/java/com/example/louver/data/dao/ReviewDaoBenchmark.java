@@ -0,0 +1,103 @@
+package com.example.louver.data.dao;
+
+import static com.example.louver.testing.LiveDataTestUtil.await;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.entity.ReviewEntity;
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+import com.example.louver.testing.FleetDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Every {@link ReviewDao} query against the synthetic fleet's reviews. Writes
+ * run in a rolled-back transaction and include the car_rating_stats triggers.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReviewDaoBenchmark {
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private FleetDatabase fleet;
+    private ReviewDao dao;
+
+    @Before
+    public void setUp() {
+        fleet = FleetDatabase.open(ApplicationProvider.getApplicationContext());
+        dao = fleet.db.reviewDao();
+    }
+
+    @After
+    public void tearDown() {
+        fleet.close();
+    }
+
+    @Test
+    public void writes() {
+        Benchmark.run("ReviewDao.insert", 20, 300, () -> fleet.rolledBack(() -> {
+            long userId = fleet.randomUserId();
+            long carId = fleet.randomCarId();
+            // (userId, carId) is unique; skip pairs the fleet already reviewed
+            if (dao.getReviewForUserAndCarNow(userId, carId) != null) return 0;
+            dao.insert(new ReviewEntity(userId, carId, 4, "Benchmark", SyntheticFleet.BASE_TIME));
+            return 1;
+        }));
+        Benchmark.run("ReviewDao.upsertReview", 20, 300, () -> fleet.rolledBack(() -> {
+            dao.upsertReview(fleet.randomUserId(), fleet.randomCarId(), 5, "Benchmark",
+                    SyntheticFleet.BASE_TIME);
+            return 1;
+        }));
+        Benchmark.run("ReviewDao.insertReviewIfAbsent", 20, 300, () -> fleet.rolledBack(() -> {
+            dao.insertReviewIfAbsent(fleet.randomUserId(), fleet.randomCarId(), 3, null,
+                    SyntheticFleet.BASE_TIME);
+            return 1;
+        }));
+        Benchmark.run("ReviewDao.updateReviewContent", 20, 300, () -> fleet.rolledBack(() ->
+                dao.updateReviewContent(fleet.randomUserId(), fleet.randomCarId(), 2, "Changed")));
+    }
+
+    @Test
+    public void perCar() {
+        Benchmark.run("ReviewDao.getReviewsForCar", 20, 300,
+                () -> await(dao.getReviewsForCar(fleet.randomCarId())).size());
+        Benchmark.run("ReviewDao.getReviewForUserAndCar", 50, 1000, () -> {
+            await(dao.getReviewForUserAndCar(fleet.randomUserId(), fleet.randomCarId()));
+            return 1;
+        });
+        Benchmark.run("ReviewDao.getReviewForUserAndCarNow", 50, 1000, () -> {
+            dao.getReviewForUserAndCarNow(fleet.randomUserId(), fleet.randomCarId());
+            return 1;
+        });
+        Benchmark.run("ReviewDao.getAverageStarsForCar", 50, 1000, () -> {
+            await(dao.getAverageStarsForCar(fleet.randomCarId()));
+            return 1;
+        });
+        Benchmark.run("ReviewDao.getReviewsCountForCar", 50, 1000, () -> {
+            await(dao.getReviewsCountForCar(fleet.randomCarId()));
+            return 1;
+        });
+        Benchmark.run("ReviewDao.getRatingSummaryForCar", 50, 1000, () -> {
+            await(dao.getRatingSummaryForCar(fleet.randomCarId()));
+            return 1;
+        });
+        Benchmark.run("ReviewDao.getRatingStatsForCar", 50, 1000, () -> {
+            await(dao.getRatingStatsForCar(fleet.randomCarId()));
+            return 1;
+        });
+    }
+
+    @Test
+    public void allCars() {
+        Benchmark.run("ReviewDao.getRatingSummariesForAllCars", 2, 20,
+                () -> await(dao.getRatingSummariesForAllCars()).size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.louver.data.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarStatusEntity;
+import com.example.louver.data.seed.SeedData;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Every car gets its car_status row, whichever path wrote the car.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CarStatusRowsTest {
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        SeedData.seed(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void plainDaoInsertGetsStatusRow() {
+        CarEntity car = db.carDao().getCarByIdNow(firstCarId());
+        car.id = 0;
+        car.isAvailable = false;
+        long id = db.carDao().insert(car);
+
+        CarStatusEntity status = db.carStatusDao().getStatusNow(id);
+        assertNotNull(status);
+        assertFalse(status.isAvailable);
+    }
+
+    @Test
+    public void installBackfillsCarsWrittenBeforeTrigger() {
+        db.getOpenHelper().getWritableDatabase().execSQL("DROP TRIGGER car_status_ai");
+        long id = firstCarId();
+        db.getOpenHelper().getWritableDatabase().execSQL("DELETE FROM car_status WHERE carId = " + id);
+
+        CarStatusRows.install(db.getOpenHelper().getWritableDatabase());
+
+        CarStatusEntity status = db.carStatusDao().getStatusNow(id);
+        assertNotNull(status);
+        assertEquals(db.carDao().getCarByIdNow(id).isAvailable, status.isAvailable);
+    }
+
+    private long firstCarId() {
+        try (Cursor c = db.query("SELECT id FROM cars ORDER BY id LIMIT 1", null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.louver.data.db;
+
+import static org.junit.Assert.assertEquals;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.converter.BookingStatus;
+import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.seed.SeedData;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts Room invalidations per table for the write paths narrowed by the
+ * column-targeted writes and the car_status split. Catalog LiveData observes
+ * "cars" only, so every write below that leaves "cars" alone no longer reruns
+ * the car lists.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InvalidationCountTest {
+
+    private static final String[] TABLES = {"cars", "car_status", "bookings", "reviews", "car_rating_stats"};
+
+    private AppDatabase db;
+    private final Map<String, Integer> invalidations = new HashMap<>();
+    private long carId;
+    private long userId;
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        SeedData.seed(db);
+        carId = queryLong("SELECT carId FROM car_status WHERE isAvailable = 1 ORDER BY carId LIMIT 1");
+        userId = queryLong("SELECT id FROM users ORDER BY id LIMIT 1");
+
+        for (String table : TABLES) {
+            db.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(table) {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    invalidations.merge(table, 1, Integer::sum);
+                }
+            });
+        }
+        flush();
+        invalidations.clear();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void placingBookingLeavesCatalogAlone() {
+        db.runInTransaction(() -> {
+            long bookingId = db.bookingDao().insert(new BookingEntity(userId, carId,
+                    1_000L, 2_000L, 1, 50.0, 50.0, BookingStatus.ACTIVE, 1_000L, null));
+            db.carStatusDao().markBooked(carId, bookingId, 1_000L);
+        });
+        flush();
+
+        assertEquals(0, count("cars"));
+        assertEquals(1, count("car_status"));
+        assertEquals(1, count("bookings"));
+    }
+
+    @Test
+    public void unchangedAvailabilityInvalidatesNothing() {
+        assertEquals(0, db.carStatusDao().setAvailability(carId, true, 1_000L));
+        assertEquals(0, db.carStatusDao().markReleased(carId, 1_000L));
+        flush();
+
+        assertEquals(0, count("cars"));
+        assertEquals(0, count("car_status"));
+    }
+
+    @Test
+    public void changedAvailabilityInvalidatesStatusOnly() {
+        assertEquals(1, db.carStatusDao().setAvailability(carId, false, 1_000L));
+        flush();
+
+        assertEquals(0, count("cars"));
+        assertEquals(1, count("car_status"));
+    }
+
+    @Test
+    public void unchangedBookingStatusInvalidatesNothing() {
+        long bookingId = db.bookingDao().insert(new BookingEntity(userId, carId,
+                1_000L, 2_000L, 1, 50.0, 50.0, BookingStatus.CANCELLED, 1_000L, null));
+        flush();
+        invalidations.clear();
+
+        assertEquals(0, db.bookingDao().updateStatusIfChanged(bookingId, BookingStatus.CANCELLED.name(), 2_000L));
+        flush();
+        assertEquals(0, count("bookings"));
+
+        assertEquals(1, db.bookingDao().updateStatusIfChanged(bookingId, BookingStatus.COMPLETED.name(), 2_000L));
+        flush();
+        assertEquals(1, count("bookings"));
+        assertEquals(0, count("cars"));
+    }
+
+    @Test
+    public void reviewUpsertLeavesCatalogAlone() {
+        db.reviewDao().upsertReview(userId, carId, 4, "Good", 1_000L);
+        flush();
+        db.reviewDao().upsertReview(userId, carId, 5, "Better", 2_000L);
+        flush();
+
+        assertEquals(0, count("cars"));
+        assertEquals(2, count("reviews"));
+        assertEquals(2, count("car_rating_stats"));
+    }
+
+    @Test
+    public void unchangedReviewInvalidatesNothing() {
+        db.reviewDao().upsertReview(userId, carId, 4, "Good", 1_000L);
+        flush();
+        invalidations.clear();
+
+        assertEquals(0, db.reviewDao().updateReviewContent(userId, carId, 4, "Good"));
+        flush();
+        assertEquals(0, count("reviews"));
+        assertEquals(0, count("car_rating_stats"));
+    }
+
+    /** The full-row rewrite the narrow writes replaced: one flag change reran every catalog query. */
+    @Test
+    public void fullRowCarUpdateInvalidatesCatalog() {
+        CarEntity car = db.carDao().getCarByIdNow(carId);
+        db.carDao().update(car);
+        flush();
+
+        assertEquals(1, count("cars"));
+    }
+
+    private int count(String table) {
+        Integer n = invalidations.get(table);
+        return n != null ? n : 0;
+    }
+
+    /** Deliver pending invalidations now instead of on Room's next refresh. */
+    private void flush() {
+        db.getInvalidationTracker().refreshVersionsSync();
+    }
+
+    private long queryLong(String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+}
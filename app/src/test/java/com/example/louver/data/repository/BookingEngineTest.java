@@ -0,0 +1,114 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingEngine against an in-memory store. Concurrent placements on a real
+ * database are covered by {@link BookingRepositoryStressTest}.
+ */
+public class BookingEngineTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void failedTransactionLeavesNoBooking() {
+        FakeStore store = new FakeStore(1);
+        store.failOnMark = true;
+        BookingEngine engine = new BookingEngine(store);
+        long pickup = System.currentTimeMillis() + DAY;
+
+        BookingEngine.Outcome outcome = engine.place(100, 1, pickup, pickup + DAY, System.currentTimeMillis());
+
+        assertFalse(outcome.result.success);
+        assertTrue(store.bookings.isEmpty());
+        assertTrue(store.booked.isEmpty());
+    }
+
+    /**
+     * In-memory Store. runInTransaction runs one body at a time and undoes a
+     * failed body's bookings. Cars are always available.
+     */
+    private static final class FakeStore implements BookingEngine.Store {
+        final Map<Long, BookingEntity> bookings = new ConcurrentHashMap<>();
+        /** carId to the booking that last marked it booked. */
+        final Map<Long, Long> booked = new ConcurrentHashMap<>();
+        private final Map<Long, CarEntity> cars = new ConcurrentHashMap<>();
+        private final AtomicLong nextId = new AtomicLong(1);
+        private final Object writeLock = new Object();
+        private final ThreadLocal<List<Long>> inserted = new ThreadLocal<>();
+        volatile boolean failOnMark;
+
+        FakeStore(int carCount) {
+            for (long id = 1; id <= carCount; id++) {
+                CarEntity car = new CarEntity();
+                car.id = id;
+                car.dailyPrice = 40.0 + id;
+                cars.put(id, car);
+            }
+        }
+
+        @Override
+        public CarEntity getCar(long carId) {
+            return cars.get(carId);
+        }
+
+        @Override
+        public boolean isCarAvailable(long carId) {
+            return true;
+        }
+
+        @Override
+        public boolean hasOverlappingActiveBooking(long carId, long pickupAt, long returnAt) {
+            for (BookingEntity b : bookings.values()) {
+                if (b.carId == carId && b.pickupAt < returnAt && pickupAt < b.returnAt) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long insertBooking(@NonNull BookingEntity booking) {
+            long id = nextId.getAndIncrement();
+            booking.id = id;
+            bookings.put(id, booking);
+            inserted.get().add(id);
+            return id;
+        }
+
+        @Override
+        public void markCarBooked(long carId, long bookingId) {
+            if (failOnMark) throw new IllegalStateException("disk full");
+            booked.put(carId, bookingId);
+        }
+
+        @Override
+        public <T> T runInTransaction(@NonNull Callable<T> body) {
+            synchronized (writeLock) {
+                inserted.set(new ArrayList<>());
+                try {
+                    return body.call();
+                } catch (Exception e) {
+                    for (Long id : inserted.get()) bookings.remove(id);
+                    if (e instanceof RuntimeException) throw (RuntimeException) e;
+                    throw new RuntimeException(e);
+                } finally {
+                    inserted.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.seed.SeedData;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many threads placing overlapping bookings through {@link BookingRepository#placeBooking}
+ * on an on-disk Room database, the way the booking screen does. A car is handed
+ * back as soon as it is booked, and some bookings are cancelled meanwhile, so each
+ * car collects many ACTIVE bookings and only the overlap check decides. The result
+ * is checked in SQL: no two ACTIVE/OVERDUE bookings of a car may overlap.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BookingRepositoryStressTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 250;
+
+    private Context context;
+    private File file;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        file = new File(context.getCacheDir(), "booking-stress.db");
+        context.deleteDatabase(file.getAbsolutePath());
+        db = TestDatabases.onDisk(context, file);
+        SeedData.seed(db);
+        // Every car starts free, and no notifications are scheduled
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE car_status SET isAvailable = 1, currentBookingId = NULL");
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE app_settings SET notificationsEnabled = 0");
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(file.getAbsolutePath());
+    }
+
+    @Test
+    public void concurrentPlacementsNeverDoubleBook() throws Exception {
+        BookingRepository repository = new BookingRepository(db, context);
+        long[] carIds = queryLongs("SELECT id FROM cars ORDER BY id");
+        long[] userIds = queryLongs("SELECT id FROM users ORDER BY id");
+        long base = System.currentTimeMillis() + DAY;
+
+        int total = THREADS * REQUESTS_PER_THREAD;
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    long carId = carIds[random.nextInt(carIds.length)];
+                    long pickup = base + random.nextInt(30) * DAY;
+                    long returnAt = pickup + (1 + random.nextInt(5)) * DAY;
+                    boolean cancel = random.nextInt(10) == 0;
+                    repository.placeBooking(userIds[random.nextInt(userIds.length)], carId,
+                            pickup, returnAt, result -> {
+                                if (result.success) {
+                                    placed.incrementAndGet();
+                                    // Runs on the writer: hand the car back for other dates
+                                    db.carStatusDao().markReleased(carId, System.currentTimeMillis());
+                                    if (cancel) {
+                                        cancelled.incrementAndGet();
+                                        repository.markCancelled(result.bookingId, System.currentTimeMillis());
+                                    }
+                                } else if ("Car already booked for selected time range"
+                                        .equals(result.errorMessage)) {
+                                    conflicts.incrementAndGet();
+                                }
+                                done.countDown();
+                            });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+        assertTrue("placements did not finish", done.await(120, TimeUnit.SECONDS));
+        // markCancelled was queued behind the last placements
+        CountDownLatch drained = new CountDownLatch(1);
+        AppDatabase.IO.write(drained::countDown);
+        assertTrue(drained.await(60, TimeUnit.SECONDS));
+
+        assertEquals(total, placed.get() + conflicts.get());
+        assertTrue(conflicts.get() > 0);
+        assertEquals(placed.get() - cancelled.get(),
+                queryLong("SELECT COUNT(*) FROM bookings WHERE status IN ('ACTIVE', 'OVERDUE')"));
+        assertTrue(queryLong("SELECT MIN(n) FROM (SELECT COUNT(*) AS n FROM bookings " +
+                "WHERE status = 'ACTIVE' GROUP BY carId)") > 1);
+        assertEquals(carIds.length, queryLong("SELECT COUNT(DISTINCT carId) FROM bookings " +
+                "WHERE status = 'ACTIVE'"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                "ON b.carId = a.carId AND b.id > a.id " +
+                "WHERE a.status IN ('ACTIVE', 'OVERDUE') AND b.status IN ('ACTIVE', 'OVERDUE') " +
+                "AND a.pickupAt < b.returnAt AND b.pickupAt < a.returnAt"));
+    }
+
+    private long queryLong(String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+
+    private long[] queryLongs(String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            long[] out = new long[c.getCount()];
+            for (int i = 0; c.moveToNext(); i++) out[i] = c.getLong(0);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.louver.data.repository;
+
+import static com.example.louver.testing.LiveDataTestUtil.awaitMatching;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.seed.SeedData;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogStore's incremental refresh from the change log, and Snapshot patching.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CatalogStoreTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private AppDatabase db;
+    private CatalogStore store;
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        SeedData.seed(db);
+        store = new CatalogStore(db);
+    }
+
+    @After
+    public void tearDown() {
+        store.shutdown();
+        db.close();
+    }
+
+    /** Once the log is pruned, re-attaching must not mistake it for a recreated log. */
+    @Test
+    public void reattachAfterPruneStaysIncremental() throws Exception {
+        LiveData<List<CarCard>> view = store.view(CarFilter.all());
+        Observer<List<CarCard>> first = cars -> { };
+        view.observeForever(first);
+        awaitMatching(view, cars -> cars != null && !cars.isEmpty());
+        assertEquals(1, store.stats().fullLoads);
+
+        long carId = queryLong("SELECT id FROM cars ORDER BY id LIMIT 1");
+        editPrice(carId, 123.5);
+        awaitMatching(view, cars -> priceOf(cars, carId) == 123.5);
+        assertEquals(1, store.stats().incrementalLoads);
+
+        drainWriter();
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM catalog_changes"));
+
+        view.removeObserver(first);
+        long queriesBefore = store.stats().dbQueries;
+        Observer<List<CarCard>> second = cars -> { };
+        view.observeForever(second);
+        try {
+            // The re-attach refresh: the log's seq and car_status
+            awaitQueries(queriesBefore + 2);
+
+            editPrice(carId, 99.0);
+            awaitMatching(view, cars -> priceOf(cars, carId) == 99.0);
+            assertEquals(1, store.stats().fullLoads);
+            assertEquals(2, store.stats().incrementalLoads);
+        } finally {
+            view.removeObserver(second);
+        }
+    }
+
+    @Test
+    public void applyPatchesEditedRowInPlace() {
+        CatalogStore.Snapshot s = CatalogStore.Snapshot.of(Arrays.asList(
+                card(1, 100, 10.0), card(2, 200, 20.0), card(3, 300, 30.0)));
+        CarCard untouched = s.card(s.rowById.get(1L));
+
+        CatalogStore.Snapshot next = s.apply(new long[]{2}, Collections.singletonList(card(2, 200, 25.0)));
+
+        assertSame(s.rowById, next.rowById);
+        assertEquals(25.0, next.prices[next.rowById.get(2L)], 0.0);
+        assertSame(untouched, next.card(next.rowById.get(1L)));
+        assertEquals(20.0, s.prices[s.rowById.get(2L)], 0.0);
+    }
+
+    @Test
+    public void applyMergesInsertsAndDeletesInOrder() {
+        CatalogStore.Snapshot s = CatalogStore.Snapshot.of(Arrays.asList(
+                card(1, 100, 10.0), card(2, 200, 20.0), card(3, 300, 30.0)));
+
+        CatalogStore.Snapshot next = s.apply(new long[]{2, 4, 1},
+                Arrays.asList(card(4, 250, 40.0), card(1, 400, 15.0)));
+
+        assertEquals(3, next.size);
+        assertEquals(Arrays.asList(1L, 3L, 4L), idsOf(next));
+        assertNull(next.rowById.get(2L));
+        for (int row = 0; row < next.size; row++) {
+            assertEquals(row, (int) next.rowById.get(next.ids[row]));
+        }
+        assertEquals(15.0, next.card(0).dailyPrice, 0.0);
+    }
+
+    private void editPrice(long carId, double price) {
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE cars SET dailyPrice = ? WHERE id = ?", new Object[]{price, carId});
+        db.getInvalidationTracker().refreshVersionsSync();
+    }
+
+    /** Wait for tasks queued on the writer, such as the store's prune. */
+    private void drainWriter() throws InterruptedException {
+        CountDownLatch drained = new CountDownLatch(1);
+        AppDatabase.IO.write(drained::countDown);
+        assertTrue(drained.await(10, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueries(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (store.stats().dbQueries < count) {
+            assertTrue("store never refreshed", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private long queryLong(String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+
+    private static double priceOf(List<CarCard> cars, long carId) {
+        if (cars == null) return -1;
+        for (CarCard c : cars) {
+            if (c.id == carId) return c.dailyPrice;
+        }
+        return -1;
+    }
+
+    private static List<Long> idsOf(CatalogStore.Snapshot s) {
+        List<Long> ids = new ArrayList<>(s.size);
+        for (int row = 0; row < s.size; row++) ids.add(s.ids[row]);
+        return ids;
+    }
+
+    private static CarCard card(long id, long createdAt, double price) {
+        CarCard c = new CarCard();
+        c.id = id;
+        c.createdAt = createdAt;
+        c.dailyPrice = price;
+        c.name = "Car " + id;
+        c.model = "Model " + id;
+        return c;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+/**
+ * Test access to the package-private {@link CarFilterCompiler}, so DAO tests in
+ * other packages can run the raw queries CarRepository builds.
+ */
+public final class CompiledFilters {
+
+    private static final CarFilterCompiler COMPILER = new CarFilterCompiler();
+
+    private CompiledFilters() {}
+
+    @NonNull
+    public static SupportSQLiteQuery list(@NonNull CarFilter filter) {
+        return COMPILER.compile(filter).list();
+    }
+
+    /** First keyset page; filter must use the NEWEST order. */
+    @NonNull
+    public static SupportSQLiteQuery firstPage(@NonNull CarFilter filter, int limit) {
+        return COMPILER.compile(filter).page(Long.MAX_VALUE, Long.MAX_VALUE, limit);
+    }
+
+    @NonNull
+    public static String listSql(@NonNull CarFilter filter) {
+        return COMPILER.compile(filter).listSql();
+    }
+
+    @Nullable
+    public static String ftsMatch(@Nullable String searchQuery) {
+        return CarRepository.toFtsMatchQuery(searchQuery);
+    }
+}
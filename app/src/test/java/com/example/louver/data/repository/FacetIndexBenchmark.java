@@ -0,0 +1,43 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertTrue;
+
+import com.example.louver.data.converter.TransmissionType;
+import com.example.louver.testing.Benchmark;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * FacetIndex build and query time for a 100k-car catalog. A query is what the
+ * search screen runs on every filter change or slider move.
+ */
+public class FacetIndexBenchmark {
+
+    private static final int CARS = 100_000;
+
+    /** "Under a few milliseconds" per query for the full fleet. */
+    private static final double QUERY_BUDGET_MS = 5.0;
+
+    @Test
+    public void hundredThousandCars() {
+        FacetIndexTest.Columns columns = new FacetIndexTest.Columns(CARS, 42L);
+        Benchmark.run("FacetIndex.build(100k)", 3, 20, () -> columns.index().size());
+
+        FacetIndex index = columns.index();
+        Random random = new Random(1L);
+        Benchmark.Result none = Benchmark.run("FacetIndex.query(100k, no filter)", 50, 500,
+                () -> index.query(CarFilter.all(), 0, 400, 20).matching);
+        Benchmark.Result mixed = Benchmark.run("FacetIndex.query(100k, mixed filters)", 50, 500, () -> {
+            CarFilter filter = new CarFilter(null, (long) (1 + random.nextInt(24)),
+                    50.0 + random.nextInt(100), 250.0, null,
+                    TransmissionType.values()[random.nextInt(TransmissionType.values().length)].name(),
+                    null, Boolean.TRUE, null, null);
+            return index.query(filter, 0, 400, 20).matching;
+        });
+
+        assertTrue(none.toString(), none.p50Ms < QUERY_BUDGET_MS);
+        assertTrue(mixed.toString(), mixed.p50Ms < QUERY_BUDGET_MS);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * FacetIndex counts against a brute-force pass over the same columns.
+ */
+public class FacetIndexTest {
+
+    private static final int[] SEATS = {2, 4, 5, 7};
+
+    /** Random catalog columns, the shape CatalogStore builds the index from. */
+    static final class Columns {
+        final long[] categoryIds;
+        final byte[] transmissions;
+        final byte[] fuelTypes;
+        final int[] seats;
+        final int[] years;
+        final double[] prices;
+        final boolean[] available;
+
+        Columns(int size, long seed) {
+            Random random = new Random(seed);
+            categoryIds = new long[size];
+            transmissions = new byte[size];
+            fuelTypes = new byte[size];
+            seats = new int[size];
+            years = new int[size];
+            prices = new double[size];
+            available = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                categoryIds[i] = 1 + random.nextInt(24);
+                transmissions[i] = (byte) random.nextInt(TransmissionType.values().length);
+                fuelTypes[i] = (byte) random.nextInt(FuelType.values().length);
+                seats[i] = SEATS[random.nextInt(SEATS.length)];
+                years[i] = 2010 + random.nextInt(16);
+                prices[i] = 20 + random.nextInt(381) + random.nextInt(4) * 0.25;
+                available[i] = random.nextInt(20) != 0;
+            }
+        }
+
+        FacetIndex index() {
+            return FacetIndex.build(categoryIds, transmissions, fuelTypes, seats, years, prices, available);
+        }
+    }
+
+    private static final Columns COLUMNS = new Columns(5_000, 3L);
+    private static final FacetIndex INDEX = COLUMNS.index();
+
+    @Test
+    public void noFilterCountsEverything() {
+        FacetIndex.Counts counts = INDEX.query(CarFilter.all(), 0, 400, 8);
+        assertEquals(COLUMNS.categoryIds.length, counts.matching);
+        assertEquals(COLUMNS.categoryIds.length, counts.available + counts.unavailable);
+        int histogramTotal = 0;
+        for (int n : counts.priceHistogram) histogramTotal += n;
+        assertEquals(COLUMNS.categoryIds.length, histogramTotal);
+    }
+
+    @Test
+    public void countsMatchBruteForce() {
+        Random random = new Random(9L);
+        for (int i = 0; i < 200; i++) {
+            CarFilter filter = randomFilter(random);
+            assertCounts(filter, INDEX.query(filter, 0, 400, 10));
+        }
+    }
+
+    @Test
+    public void unknownValuesMatchNothing() {
+        CarFilter filter = new CarFilter(null, 999L, null, null, null, "HOVER", null, null, null, null);
+        assertEquals(0, INDEX.query(filter, 0, 400, 4).matching);
+    }
+
+    private static CarFilter randomFilter(Random random) {
+        Long category = random.nextBoolean() ? (long) (1 + random.nextInt(24)) : null;
+        Double min = random.nextInt(3) == 0 ? (double) (20 + random.nextInt(200)) : null;
+        Double max = random.nextInt(3) == 0 ? (double) (150 + random.nextInt(250)) : null;
+        Integer year = random.nextInt(4) == 0 ? 2010 + random.nextInt(16) : null;
+        String transmission = random.nextInt(3) == 0
+                ? TransmissionType.values()[random.nextInt(TransmissionType.values().length)].name() : null;
+        Integer seats = random.nextInt(3) == 0 ? SEATS[random.nextInt(SEATS.length)] : null;
+        Boolean availableOnly = random.nextInt(3) == 0 ? random.nextBoolean() : null;
+        return new CarFilter(null, category, min, max, year, transmission, seats, availableOnly, null, null);
+    }
+
+    /** Recount every facet the slow way: skip the facet's own filter, apply the rest. */
+    private static void assertCounts(CarFilter filter, FacetIndex.Counts counts) {
+        int size = COLUMNS.categoryIds.length;
+        int matching = 0;
+        int available = 0;
+        int unavailable = 0;
+        int[] histogram = new int[10];
+        for (int row = 0; row < size; row++) {
+            if (matches(filter, row, -1)) matching++;
+            if (matches(filter, row, AVAILABILITY)) {
+                if (COLUMNS.available[row]) available++; else unavailable++;
+            }
+            if (matches(filter, row, PRICE)) {
+                int b = (int) (COLUMNS.prices[row] / 40.0);
+                histogram[Math.max(0, Math.min(9, b))]++;
+            }
+        }
+        assertEquals(filter.toString(), matching, counts.matching);
+        assertEquals(available, counts.available);
+        assertEquals(unavailable, counts.unavailable);
+        assertArrayEquals(histogram, counts.priceHistogram);
+
+        for (long category : counts.categories.keySet()) {
+            int n = 0;
+            for (int row = 0; row < size; row++) {
+                if (COLUMNS.categoryIds[row] == category && matches(filter, row, CATEGORY)) n++;
+            }
+            assertEquals(n, counts.categoryCount(category));
+        }
+        for (TransmissionType t : TransmissionType.values()) {
+            int n = 0;
+            for (int row = 0; row < size; row++) {
+                if (COLUMNS.transmissions[row] == t.ordinal() && matches(filter, row, TRANSMISSION)) n++;
+            }
+            assertEquals(n, counts.transmissionCount(t));
+        }
+        for (FuelType f : FuelType.values()) {
+            int n = 0;
+            for (int row = 0; row < size; row++) {
+                if (COLUMNS.fuelTypes[row] == f.ordinal() && matches(filter, row, -1)) n++;
+            }
+            assertEquals(n, (int) counts.fuelTypes.get(f));
+        }
+    }
+
+    private static final int CATEGORY = 0;
+    private static final int PRICE = 1;
+    private static final int TRANSMISSION = 3;
+    private static final int AVAILABILITY = 5;
+
+    private static boolean matches(CarFilter f, int row, int skip) {
+        if (skip != CATEGORY && f.categoryId != null && COLUMNS.categoryIds[row] != f.categoryId) return false;
+        if (skip != PRICE && f.minPrice != null && COLUMNS.prices[row] < f.minPrice) return false;
+        if (skip != PRICE && f.maxPrice != null && COLUMNS.prices[row] > f.maxPrice) return false;
+        if (f.year != null && COLUMNS.years[row] != f.year) return false;
+        if (skip != TRANSMISSION && f.transmission != null
+                && !TransmissionType.values()[COLUMNS.transmissions[row]].name().equals(f.transmission)) return false;
+        if (f.seats != null && COLUMNS.seats[row] != f.seats) return false;
+        if (skip != AVAILABILITY && f.availableOnly != null && COLUMNS.available[row] != f.availableOnly) return false;
+        return true;
+    }
+}
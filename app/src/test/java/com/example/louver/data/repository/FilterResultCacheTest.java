@@ -0,0 +1,185 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.data.seed.SeedData;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(RobolectricTestRunner.class)
+public class FilterResultCacheTest {
+
+    private static final String[] CARS = {"cars"};
+    private static final String[] CARS_AND_STATUS = {"cars", "car_status"};
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private AppDatabase db;
+    private FilterResultCache cache;
+
+    @Before
+    public void setUp() {
+        db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        SeedData.seed(db);
+        cache = new FilterResultCache(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void revisitShowsCachedListAtOnce() {
+        CarFilter filter = CarFilter.forCategory(1L).normalized();
+        List<CarCard> cars = cards(3);
+        visit(filter, CARS, cars);
+
+        LiveData<List<CarCard>> again = cache.wrap(filter, CARS, new MutableLiveData<>());
+        assertSame(cars, again.getValue());
+        assertEquals(1, cache.stats().hits);
+    }
+
+    @Test
+    public void equivalentSearchTextSharesEntry() {
+        CarFilter typed = new CarFilter("  Toyota  CAMRY", null, null, null, null, null, null, null, null, null);
+        CarFilter other = new CarFilter("toyota camry", null, null, null, null, null, null, null, null, null);
+        List<CarCard> cars = cards(2);
+        visit(typed.normalized(), CARS, cars);
+
+        assertSame(cars, cache.wrap(other.normalized(), CARS, new MutableLiveData<>()).getValue());
+    }
+
+    @Test
+    public void writeToReadTableInvalidates() {
+        CarFilter filter = CarFilter.forCategory(1L).normalized();
+        visit(filter, CARS, cards(3));
+
+        write("UPDATE cars SET name = name WHERE id = (SELECT MIN(id) FROM cars)");
+
+        assertNull(cache.wrap(filter, CARS, new MutableLiveData<>()).getValue());
+        FilterResultCache.Stats stats = cache.stats();
+        assertEquals(1, stats.invalidated);
+        assertEquals(0, stats.hits);
+    }
+
+    @Test
+    public void writeToOtherTableKeepsEntry() {
+        CarFilter all = CarFilter.all();
+        CarFilter available = new CarFilter(null, null, null, null, null, null, null, true, null, null);
+        List<CarCard> allCars = cards(5);
+        visit(all, CARS, allCars);
+        visit(available, CARS_AND_STATUS, cards(4));
+
+        write("UPDATE car_status SET updatedAt = updatedAt + 1");
+
+        assertSame(allCars, cache.wrap(all, CARS, new MutableLiveData<>()).getValue());
+        assertNull(cache.wrap(available, CARS_AND_STATUS, new MutableLiveData<>()).getValue());
+    }
+
+    @Test
+    public void pagedPlaceholderIsNotStored() {
+        CarFilter filter = new CarFilter("camry", null, null, null, null, null, null, null, null, null).normalized();
+        List<CarCard> page = new ArrayList<>(cards(3));
+        page.add(null);
+        visit(filter, CARS, page);
+
+        List<CarCard> cached = cache.wrap(filter, CARS, new MutableLiveData<>()).getValue();
+        assertEquals(3, cached.size());
+        assertFalse(cached.contains(null));
+        assertEquals(3, cache.stats().rows);
+    }
+
+    @Test
+    public void boundedByEntryCount() {
+        for (long category = 1; category <= FilterResultCache.MAX_ENTRIES + 5; category++) {
+            visit(CarFilter.forCategory(category).normalized(), CARS, cards(1));
+        }
+        FilterResultCache.Stats stats = cache.stats();
+        assertEquals(FilterResultCache.MAX_ENTRIES, stats.entries);
+        assertEquals(5, stats.evictions);
+        // The oldest entry went first
+        assertNull(cache.wrap(CarFilter.forCategory(1L).normalized(), CARS, new MutableLiveData<>()).getValue());
+    }
+
+    @Test
+    public void boundedByRows() {
+        int perEntry = FilterResultCache.MAX_ROWS / 3 + 1;
+        for (long category = 1; category <= 3; category++) {
+            visit(CarFilter.forCategory(category).normalized(), CARS, cards(perEntry));
+        }
+        FilterResultCache.Stats stats = cache.stats();
+        assertTrue(stats.toString(), stats.rows <= FilterResultCache.MAX_ROWS);
+        assertEquals(1, stats.evictions);
+    }
+
+    /** Tab switching between a few screens, with an occasional catalog write. */
+    @Test
+    public void tabSwitchingHitRate() {
+        CarFilter[] screens = {
+                CarFilter.all(),
+                CarFilter.forCategory(1L).normalized(),
+                CarFilter.forCategory(2L).normalized(),
+                new CarFilter("suv", null, null, 100.0, null, null, null, null, null, null).normalized(),
+                new CarFilter(null, null, null, null, null, "AUTOMATIC", 5, null, null, null),
+        };
+        Random random = new Random(5L);
+        for (int visit = 0; visit < 200; visit++) {
+            if (visit % 100 == 99) write("UPDATE cars SET name = name WHERE id = (SELECT MIN(id) FROM cars)");
+            visit(screens[random.nextInt(screens.length)], CARS, cards(10));
+        }
+        FilterResultCache.Stats stats = cache.stats();
+        System.out.println(stats);
+        assertTrue(stats.toString(), stats.hitRate() >= 0.9);
+    }
+
+    /** Open a screen: observe the cached list, let the query emit, then leave. */
+    private void visit(CarFilter filter, String[] tables, List<CarCard> result) {
+        MutableLiveData<List<CarCard>> query = new MutableLiveData<>();
+        LiveData<List<CarCard>> list = cache.wrap(filter, tables, query);
+        Observer<List<CarCard>> screen = cars -> { };
+        list.observeForever(screen);
+        query.setValue(result);
+        list.removeObserver(screen);
+    }
+
+    private void write(String sql) {
+        db.getOpenHelper().getWritableDatabase().execSQL(sql);
+        db.getInvalidationTracker().refreshVersionsSync();
+    }
+
+    private static List<CarCard> cards(int n) {
+        List<CarCard> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            CarCard card = new CarCard();
+            card.id = i + 1;
+            card.name = "Car " + i;
+            out.add(card);
+        }
+        return Collections.unmodifiableList(out);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.louver.data.repository;
+
+import static com.example.louver.testing.LiveDataTestUtil.awaitMatching;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+import com.example.louver.data.dao.BookingDao;
+import com.example.louver.data.dao.CarDao;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.relation.CarCard;
+import com.example.louver.testing.Benchmark;
+import com.example.louver.testing.FleetDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * What the list projections and the catalog store cost: query time and
+ * allocation per 1,000 BookingListRows, retained heap of CarCard lists against
+ * the full CarEntity rows they replaced, and in-memory filtering against the
+ * SQL it replaced.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ProjectionBenchmark {
+
+    private static final String BOOKING_PAGE_SQL =
+            "SELECT " + BookingDao.LIST_ROW_COLUMNS + BookingDao.LIST_ROW_FROM +
+            " WHERE 1 = 1 AND (b.createdAt < ? OR (b.createdAt = ? AND b.id < ?))" +
+            " ORDER BY b.createdAt DESC, b.id DESC LIMIT ?";
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private FleetDatabase fleet;
+
+    /** Keeps measured objects reachable until their heap has been read. */
+    private final List<Object> held = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        fleet = FleetDatabase.open(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() {
+        fleet.close();
+    }
+
+    @Test
+    public void bookingListRowsPerThousand() {
+        Benchmark.Result result = Benchmark.run("BookingListRow x1000", 5, 50, () ->
+                fleet.db.bookingDao().getBookingListRowsPage(new SimpleSQLiteQuery(BOOKING_PAGE_SQL,
+                        new Object[]{Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 1000})).size());
+        System.out.printf(Locale.US, "BookingListRow: %d bytes allocated per 1000 rows%n",
+                result.allocatedBytesPerOp);
+    }
+
+    @Test
+    public void cardsRetainLessThanEntities() {
+        int total = fleet.ids.carIds.length;
+        for (int size : new int[]{1_000, 10_000, total}) {
+            if (size > total) continue;
+            String limit = " ORDER BY createdAt DESC, id DESC LIMIT " + size;
+            long cards = retained(() -> fleet.db.carDao().loadCarCards(
+                    new SimpleSQLiteQuery("SELECT " + CarDao.CARD_COLUMNS + " FROM cars" + limit)));
+            long entities = retained(() -> loadEntities("SELECT * FROM cars" + limit));
+            long snapshot = retained(() -> CatalogStore.Snapshot.of(fleet.db.carDao().loadCarCards(
+                    new SimpleSQLiteQuery("SELECT " + CarDao.CARD_COLUMNS + " FROM cars" + limit))));
+            System.out.printf(Locale.US,
+                    "%7d cars: CarCard %6d B/row, CarEntity %6d B/row, Snapshot %6d B/row%n",
+                    size, cards / size, entities / size, snapshot / size);
+            assertTrue("CarCard lists should retain less than CarEntity lists", cards < entities);
+        }
+    }
+
+    @Test
+    public void catalogStoreFiltersWithoutQueries() {
+        CatalogStore store = new CatalogStore(fleet.db);
+        // One permanently observed view keeps the snapshot loaded, as an open screen would
+        LiveData<List<CarCard>> anchor = store.view(CarFilter.all());
+        Observer<List<CarCard>> ignore = cars -> { };
+        anchor.observeForever(ignore);
+        try {
+            awaitMatching(anchor, cars -> cars != null && !cars.isEmpty());
+            long queriesBefore = store.stats().dbQueries;
+
+            Benchmark.Result memory = Benchmark.run("CatalogStore.view(category)", 20, 300, () ->
+                    awaitMatching(store.view(CarFilter.forCategory(fleet.randomCategoryId())),
+                            cars -> cars != null).size());
+            Benchmark.Result sql = Benchmark.run("SQL loadCarCards(category)", 20, 300, () ->
+                    fleet.db.carDao().loadCarCards(
+                            CompiledFilters.list(CarFilter.forCategory(fleet.randomCategoryId()))).size());
+
+            System.out.println(store.stats());
+            System.out.printf(Locale.US, "catalog filter p50 %.3fms vs SQL %.3fms%n", memory.p50Ms, sql.p50Ms);
+            assertEquals("views must not query the database", queriesBefore, store.stats().dbQueries);
+        } finally {
+            anchor.removeObserver(ignore);
+            store.shutdown();
+        }
+    }
+
+    private long retained(Supplier<Object> load) {
+        held.clear();
+        long before = Benchmark.usedHeapAfterGc();
+        held.add(load.get());
+        long after = Benchmark.usedHeapAfterGc();
+        held.clear();
+        return Math.max(0, after - before);
+    }
+
+    /** Full rows hydrated the way the list DAOs did before the CarCard projection. */
+    private List<CarEntity> loadEntities(String sql) {
+        List<CarEntity> out = new ArrayList<>();
+        try (Cursor c = fleet.db.query(sql, null)) {
+            int id = c.getColumnIndexOrThrow("id");
+            int categoryId = c.getColumnIndexOrThrow("categoryId");
+            int name = c.getColumnIndexOrThrow("name");
+            int model = c.getColumnIndexOrThrow("model");
+            int year = c.getColumnIndexOrThrow("year");
+            int dailyPrice = c.getColumnIndexOrThrow("dailyPrice");
+            int transmission = c.getColumnIndexOrThrow("transmission");
+            int fuelType = c.getColumnIndexOrThrow("fuelType");
+            int seats = c.getColumnIndexOrThrow("seats");
+            int fuelConsumption = c.getColumnIndexOrThrow("fuelConsumption");
+            int description = c.getColumnIndexOrThrow("description");
+            int mainImageUrl = c.getColumnIndexOrThrow("mainImageUrl");
+            int createdAt = c.getColumnIndexOrThrow("createdAt");
+            while (c.moveToNext()) {
+                CarEntity car = new CarEntity();
+                car.id = c.getLong(id);
+                car.categoryId = c.getLong(categoryId);
+                car.name = c.getString(name);
+                car.model = c.getString(model);
+                car.year = c.getInt(year);
+                car.dailyPrice = c.getDouble(dailyPrice);
+                car.transmission = c.isNull(transmission) ? null : TransmissionType.valueOf(c.getString(transmission));
+                car.fuelType = c.isNull(fuelType) ? null : FuelType.valueOf(c.getString(fuelType));
+                car.seats = c.getInt(seats);
+                car.fuelConsumption = c.isNull(fuelConsumption) ? null : c.getDouble(fuelConsumption);
+                car.description = c.getString(description);
+                car.mainImageUrl = c.getString(mainImageUrl);
+                car.createdAt = c.getLong(createdAt);
+                out.add(car);
+            }
+        }
+        return out;
+    }
+}
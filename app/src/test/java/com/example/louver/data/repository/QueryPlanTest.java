@@ -0,0 +1,228 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.dao.BookingDao;
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.BookingRtreeIndex;
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * EXPLAIN QUERY PLAN for the statements CarFilterCompiler and the booking
+ * queries produce, on a small synthetic fleet with ANALYZE statistics.
+ *
+ * {@link FilterShapes} runs every filter shape the compiler emits and checks
+ * that neither its list nor its keyset page scans cars, car_status or bookings
+ * end to end, and that it reaches the expected index. {@link Statements} covers
+ * the plans that are not about a single shape.
+ */
+@RunWith(Enclosed.class)
+public class QueryPlanTest {
+
+    private static final SyntheticFleet.Config FLEET =
+            new SyntheticFleet.Config(11L, 8, 3_000, 300, 6_000, 2_000, 1_000);
+
+    /** A walk of a whole table, directly or along one of its indexes. */
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "^SCAN (TABLE )?(cars|car_status|bookings)( AS \\w+)?( USING (COVERING )?INDEX \\w+)?$");
+
+    private static final long WEEK = 7L * 24 * 60 * 60 * 1000;
+
+    @RunWith(ParameterizedRobolectricTestRunner.class)
+    public static class FilterShapes {
+
+        @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+        public static Collection<Object[]> shapes() {
+            return Arrays.asList(new Object[][]{
+                    {"category", CarFilter.forCategory(1L),
+                            "index_cars_categoryId_createdAt"},
+                    {"category+price", new CarFilter(null, 1L, 20.0, 90.0, null, null, null, null, null, null),
+                            "index_cars_categoryId_dailyPrice"},
+                    {"minPrice", new CarFilter(null, null, 350.0, null, null, null, null, null, null, null),
+                            "index_cars_dailyPrice"},
+                    {"maxPrice", new CarFilter(null, null, null, 60.0, null, null, null, null, null, null),
+                            "index_cars_dailyPrice"},
+                    {"minPrice+maxPrice", new CarFilter(null, null, 100.0, 150.0, null, null, null, null, null, null),
+                            "index_cars_dailyPrice"},
+                    {"year", new CarFilter(null, null, null, null, 2020, null, null, null, null, null),
+                            "index_cars_year_createdAt"},
+                    {"transmission+seats", new CarFilter(null, null, null, null, null, "AUTOMATIC", 5, null, null, null),
+                            "index_cars_transmission_seats"},
+                    {"availableOnly", new CarFilter(null, null, null, null, null, null, null, true, null, null),
+                            "index_car_status_isAvailable"},
+                    {"search", new CarFilter("fleet", null, null, null, null, null, null, null, null, null),
+                            "cars_fts VIRTUAL TABLE"},
+                    {"search+category+price", new CarFilter("toyota", 1L, 50.0, 200.0, null, null, null, null, null, null),
+                            "cars_fts VIRTUAL TABLE"},
+                    {"search+availableOnly", new CarFilter("toyota", null, null, null, null, null, null, true, null, null),
+                            "cars_fts VIRTUAL TABLE"},
+                    {"search+year+transmission", new CarFilter("camry", null, null, null, 2020, "AUTOMATIC", null, null, null, null),
+                            "cars_fts VIRTUAL TABLE"},
+            });
+        }
+
+        private final CarFilter filter;
+        private final String expectedIndex;
+        private AppDatabase db;
+
+        public FilterShapes(String name, CarFilter filter, String expectedIndex) {
+            this.filter = filter;
+            this.expectedIndex = expectedIndex;
+        }
+
+        @Before
+        public void setUp() {
+            db = openFleet();
+        }
+
+        @After
+        public void tearDown() {
+            db.close();
+        }
+
+        @Test
+        public void listReachesItsIndexWithoutFullScan() {
+            String plan = plan(db, CompiledFilters.list(filter));
+            assertUses(plan, expectedIndex);
+            assertNoFullScan(plan);
+        }
+
+        @Test
+        public void pageReachesItsIndexWithoutFullScan() {
+            String plan = plan(db, CompiledFilters.firstPage(filter, 21));
+            assertUses(plan, expectedIndex);
+            assertNoFullScan(plan);
+        }
+    }
+
+    @RunWith(RobolectricTestRunner.class)
+    public static class Statements {
+
+        private AppDatabase db;
+
+        @Before
+        public void setUp() {
+            db = openFleet();
+        }
+
+        @After
+        public void tearDown() {
+            db.close();
+        }
+
+        @Test
+        public void keysetPageReadsInIndexOrder() {
+            String plan = plan(db, CompiledFilters.firstPage(CarFilter.all(), 21));
+            assertUses(plan, "index_cars_createdAt_id");
+            assertFalse(plan, plan.contains("TEMP B-TREE"));
+        }
+
+        @Test
+        public void categoryListNeedsNoSort() {
+            String plan = plan(db, CompiledFilters.list(CarFilter.forCategory(1L)));
+            assertFalse(plan, plan.contains("TEMP B-TREE"));
+        }
+
+        @Test
+        public void ratingOrderWalksItsIndex() {
+            String plan = plan(db, CompiledFilters.list(CarFilter.all().withSort(CarSort.RATING)));
+            assertUses(plan, "index_car_rating_stats_avgRating_carCreatedAt_carId");
+            assertFalse(plan, plan.contains("TEMP B-TREE"));
+            assertNoFullScan(plan);
+        }
+
+        @Test
+        public void dateRangeProbesRtree() {
+            assertTrue(BookingRtreeIndex.isInstalled());
+            long from = SyntheticFleet.BASE_TIME;
+            CarFilter filter = new CarFilter(null, null, null, null, null, null, null, null, from, from + WEEK);
+            String plan = plan(db, CompiledFilters.list(filter));
+            assertTrue(plan, plan.contains(BookingRtreeIndex.TABLE + " VIRTUAL TABLE"));
+            assertFalse(plan, Pattern.compile("(?m)^SCAN (TABLE )?bookings").matcher(plan).find());
+        }
+
+        @Test
+        public void bookingQueriesUseTheirIndexes() {
+            assertUses(plan(db, new SimpleSQLiteQuery("SELECT " + BookingDao.LIST_ROW_COLUMNS + BookingDao.LIST_ROW_FROM +
+                            " WHERE 1 = 1 AND b.status = ?" +
+                            " AND (b.createdAt < ? OR (b.createdAt = ? AND b.id < ?))" +
+                            " ORDER BY b.createdAt DESC, b.id DESC LIMIT ?",
+                            new Object[]{"ACTIVE", Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 21})),
+                    "index_bookings_status_createdAt");
+            assertUses(plan(db, new SimpleSQLiteQuery(
+                            "SELECT * FROM bookings WHERE userId = ? ORDER BY createdAt DESC", new Object[]{1L})),
+                    "index_bookings_userId_createdAt");
+            assertUses(plan(db, new SimpleSQLiteQuery("SELECT 1 FROM bookings WHERE carId = ? " +
+                            "AND status IN ('ACTIVE', 'OVERDUE') AND pickupAt < ? AND returnAt > ?",
+                            new Object[]{1L, Long.MAX_VALUE, 0L})),
+                    "index_bookings_carId_pickupAt");
+        }
+    }
+
+    private static AppDatabase openFleet() {
+        AppDatabase db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        SyntheticFleet.populate(db, FLEET);
+        db.getOpenHelper().getWritableDatabase().execSQL("ANALYZE");
+        return db;
+    }
+
+    private static String plan(@NonNull AppDatabase db, @NonNull SupportSQLiteQuery query) {
+        SupportSQLiteQuery explain = new SupportSQLiteQuery() {
+            @NonNull
+            @Override
+            public String getSql() {
+                return "EXPLAIN QUERY PLAN " + query.getSql();
+            }
+
+            @Override
+            public void bindTo(@NonNull SupportSQLiteProgram statement) {
+                query.bindTo(statement);
+            }
+
+            @Override
+            public int getArgCount() {
+                return query.getArgCount();
+            }
+        };
+        StringBuilder out = new StringBuilder();
+        try (Cursor c = db.query(explain)) {
+            int detail = c.getColumnIndexOrThrow("detail");
+            while (c.moveToNext()) {
+                out.append(c.getString(detail)).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static void assertUses(String plan, String index) {
+        assertTrue("expected " + index + " in\n" + plan, plan.contains(index));
+    }
+
+    private static void assertNoFullScan(String plan) {
+        for (String line : plan.split("\n")) {
+            assertFalse("full scan in\n" + plan, FULL_SCAN.matcher(line.trim()).matches());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertTrue;
+
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Type-ahead over 100k entries. Models carry a unit number so every car adds
+ * its own term, the worst case for a prefix range scan. The 1 ms budget is for
+ * the p99 of every prefix length: a keystroke that is slow one time in a hundred
+ * is still felt.
+ */
+public class SuggestionIndexBenchmark {
+
+    private static final int CARS = 100_000;
+    private static final int CATEGORIES = 24;
+    private static final double SUGGEST_BUDGET_MS = 1.0;
+
+    @Test
+    public void hundredThousandEntries() {
+        SyntheticFleet.Names catalog = SyntheticFleet.names(42L, CARS);
+        Random random = new Random(7L);
+        Map<Long, Long> bookings = new HashMap<>();
+        for (long carId = 1; carId <= CARS; carId++) {
+            bookings.put(carId, (long) random.nextInt(50));
+        }
+
+        SuggestionIndex index = new SuggestionIndex();
+        Benchmark.run("SuggestionIndex.build(100k)", 0, 1, () -> {
+            index.clear();
+            for (int c = 1; c <= CATEGORIES; c++) index.putCategory(c, "Fleet " + c);
+            for (int i = 0; i < CARS; i++) {
+                index.putCar(i + 1, catalog.names[i], catalog.models[i] + " " + i, 1 + i % CATEGORIES);
+            }
+            index.setBookingCounts(bookings);
+            return index.termCount();
+        });
+        assertTrue(index.termCount() >= CARS);
+
+        // Every prefix length gets its own timing and its own budget check: one and
+        // two letters read a ranked list; longer prefixes scan a narrow key range or
+        // filter the ranked list of their first two letters
+        String[][] byLength = {
+                {"c", "t", "m", "x", "a", "1"},
+                {"ca", "to", "fl", "mo", "xl", "ac"},
+                {"cam", "toy", "acc", "vol"},
+                {"model", "tesla", "fleet"},
+                {"tesla m", "accord x", "fleet 12"},
+        };
+        List<Benchmark.Result> suggest = new ArrayList<>();
+        for (String[] prefixes : byLength) {
+            suggest.add(Benchmark.run("SuggestionIndex.suggest(100k, " + prefixes[0].length() + " chars)", 200, 2_000,
+                    () -> index.suggest(prefixes[random.nextInt(prefixes.length)], 8).size()));
+        }
+        Benchmark.run("SuggestionIndex.putCar(100k)", 200, 2_000, () -> {
+            int i = random.nextInt(CARS);
+            index.putCar(i + 1, catalog.names[i], catalog.models[i] + " " + i, 1 + i % CATEGORIES);
+            return 1;
+        });
+
+        for (Benchmark.Result result : suggest) {
+            assertTrue(result.toString(), result.p99Ms < SUGGEST_BUDGET_MS);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.louver.data.repository;
+
+import com.example.louver.data.seed.SyntheticFleet;
+import com.example.louver.testing.Benchmark;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Typo fallback build and query time at fleet scale.
+ */
+public class TrigramIndexBenchmark {
+
+    private static final int CARS = 100_000;
+
+    @Test
+    public void hundredThousandCars() {
+        SyntheticFleet.Names catalog = SyntheticFleet.names(42L, CARS);
+        Benchmark.run("TrigramIndex.build(100k)", 1, 5,
+                () -> TrigramIndex.build(catalog.names, catalog.models).size());
+
+        TrigramIndex index = TrigramIndex.build(catalog.names, catalog.models);
+        String[] words = SyntheticFleet.modelVocabulary();
+        Random random = new Random(3L);
+        Benchmark.run("TrigramIndex.search(100k, typo)", 20, 200, () -> {
+            String word = words[random.nextInt(words.length)].toLowerCase(Locale.ROOT);
+            String query = word.length() > 3 ? TrigramIndexTest.typo(word, random) : word;
+            return index.search(query, 20, row -> true).size();
+        });
+        Benchmark.run("TrigramIndex.search(100k, filtered)", 20, 200, () ->
+                index.search("camery", 20, row -> (row & 7) == 0).size());
+    }
+}
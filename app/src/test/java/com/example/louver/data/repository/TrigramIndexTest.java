@@ -0,0 +1,94 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.louver.data.seed.SyntheticFleet;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Recall of the typo fallback on a synthetic catalog: one-edit misspellings of
+ * every model name should rank a car of that model first.
+ */
+public class TrigramIndexTest {
+
+    private static final SyntheticFleet.Names CATALOG = SyntheticFleet.names(5L, 5_000);
+    private static final TrigramIndex INDEX = TrigramIndex.build(CATALOG.names, CATALOG.models);
+
+    /** Shorter words have too few grams left after a typo to clear MIN_DICE reliably. */
+    private static final int MIN_WORD = 6;
+    private static final double MIN_RECALL = 0.85;
+
+    @Test
+    public void commonMisspellingsFindTheModel() {
+        assertTopModel("Camery", "camry");
+        assertTopModel("Acord", "accord");
+        assertTopModel("corola", "corolla");
+        assertTopModel("Tuscon", "tucson");
+    }
+
+    @Test
+    public void oneEditTyposHaveHighRecall() {
+        Random random = new Random(17L);
+        int queries = 0;
+        int hits = 0;
+        for (String model : SyntheticFleet.modelVocabulary()) {
+            String word = model.toLowerCase(Locale.ROOT);
+            if (word.length() < MIN_WORD || !word.chars().allMatch(Character::isLetter)) continue;
+            for (int i = 0; i < 20; i++) {
+                queries++;
+                List<TrigramIndex.Match> top = INDEX.search(typo(word, random), 1, row -> true);
+                if (!top.isEmpty() && hasWord(top.get(0).row, word)) hits++;
+            }
+        }
+        double recall = (double) hits / queries;
+        System.out.printf(Locale.US, "trigram recall@1: %.3f over %d queries%n", recall, queries);
+        assertTrue("recall " + recall, recall >= MIN_RECALL);
+    }
+
+    @Test
+    public void rowFilterIsApplied() {
+        List<TrigramIndex.Match> matches = INDEX.search("camery", 50, row -> row % 2 == 0);
+        assertFalse(matches.isEmpty());
+        for (TrigramIndex.Match m : matches) assertTrue(m.row % 2 == 0);
+    }
+
+    @Test
+    public void unrelatedTextFindsNothing() {
+        assertTrue(INDEX.search("zzzzqqq", 10, row -> true).isEmpty());
+    }
+
+    private static void assertTopModel(String query, String model) {
+        List<TrigramIndex.Match> top = INDEX.search(query, 1, row -> true);
+        assertFalse(query, top.isEmpty());
+        assertTrue(query + " -> " + CATALOG.names[top.get(0).row], hasWord(top.get(0).row, model));
+    }
+
+    private static boolean hasWord(int row, String word) {
+        for (String w : TrigramIndex.tokenize(CATALOG.names[row] + " " + CATALOG.models[row])) {
+            if (w.equals(word)) return true;
+        }
+        return false;
+    }
+
+    /** One deletion, insertion, substitution or adjacent swap, away from the first letter. */
+    static String typo(String word, Random random) {
+        int at = 1 + random.nextInt(word.length() - 2);
+        char c = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(4)) {
+            case 0:
+                return word.substring(0, at) + word.substring(at + 1);
+            case 1:
+                return word.substring(0, at) + c + word.substring(at);
+            case 2:
+                return word.substring(0, at) + c + word.substring(at + 1);
+            default:
+                return word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.louver.data.seed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.BookingRtreeIndex;
+import com.example.louver.data.db.CarStatusRows;
+import com.example.louver.data.db.CatalogChangeLog;
+import com.example.louver.data.db.RatingStatsTriggers;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the prepackaged seed database (AppDatabase.SEED_ASSET).
+ *
+ * Not a regular test: it only runs when the louver.seedAsset system property
+ * names the output file, which the app:generateSeedDatabase task sets. The
+ * database is built by the app's own Room classes and SeedData, so its schema
+ * and identity hash always match the version being packaged.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SeedDatabaseGenerator {
+
+    @Test
+    public void generate() throws Exception {
+        String output = System.getProperty("louver.seedAsset");
+        Assume.assumeTrue("Run through :app:generateSeedDatabase", output != null);
+
+        Context context = ApplicationProvider.getApplicationContext();
+        File work = context.getDatabasePath("louver_seed_build.db");
+        context.deleteDatabase(work.getName());
+
+        // No WAL: the asset must be one self-contained file
+        AppDatabase db = Room.databaseBuilder(context, AppDatabase.class, work.getName())
+                .setJournalMode(RoomDatabase.JournalMode.TRUNCATE)
+                .allowMainThreadQueries()
+                .build();
+        // Same extra tables and triggers the app installs in onOpen
+        BookingRtreeIndex.install(db.getOpenHelper().getWritableDatabase());
+        RatingStatsTriggers.install(db.getOpenHelper().getWritableDatabase());
+        CarStatusRows.install(db.getOpenHelper().getWritableDatabase());
+        CatalogChangeLog.install(db.getOpenHelper().getWritableDatabase());
+
+        SeedData.seed(db);
+
+        assertEquals(2, count(db, "SELECT COUNT(*) FROM users"));
+        assertEquals(10, count(db, "SELECT COUNT(*) FROM cars"));
+        assertEquals(10, count(db, "SELECT COUNT(*) FROM car_status"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM app_settings"));
+
+        // The seed's inserts are not changes any client has to catch up on
+        CatalogChangeLog.prune(db.getOpenHelper().getWritableDatabase(), Long.MAX_VALUE);
+        db.getOpenHelper().getWritableDatabase().execSQL("VACUUM");
+        db.close();
+
+        File target = new File(output);
+        File parent = target.getParentFile();
+        assertTrue("Cannot create " + parent, parent == null || parent.isDirectory() || parent.mkdirs());
+        Files.copy(work.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long count(AppDatabase db, String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.louver.data.seed;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import com.example.louver.data.converter.BookingStatus;
+import com.example.louver.data.converter.FuelType;
+import com.example.louver.data.converter.TransmissionType;
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.entity.BookingEntity;
+import com.example.louver.data.entity.CarEntity;
+import com.example.louver.data.entity.CarStatusEntity;
+import com.example.louver.data.entity.CategoryEntity;
+import com.example.louver.data.entity.FavoriteEntity;
+import com.example.louver.data.entity.ReviewEntity;
+import com.example.louver.data.entity.UserEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * SyntheticFleet: a deterministic, arbitrarily large data set on top of SeedData.
+ *
+ * {@link #populate} first runs SeedData (the demo users, six categories and ten
+ * cars), then adds the synthetic part. Every value in that part comes from one
+ * seeded Random, in a fixed order, so the same {@link Config} always produces
+ * the same rows and ids.
+ *
+ * Shape of the data:
+ * - Car names repeat across a few dozen brands and models, like a real fleet,
+ *   so full-text, trigram and suggestion lookups match many rows.
+ * - Each car's bookings follow each other in time without overlapping. Most are
+ *   COMPLETED or CANCELLED; about one car in twenty has a current ACTIVE booking
+ *   and is unavailable in car_status.
+ * - Reviews and favorites are distinct (user, car) pairs, skewed towards
+ *   popular cars.
+ *
+ * Rows are written in batched transactions through the DAOs, so the triggers
+ * (FTS, rating stats, R*Tree, change log) fill their tables as they would in the app.
+ */
+public final class SyntheticFleet {
+
+    /** 2025-01-01T00:00:00Z; synthetic timestamps count back from here. */
+    public static final long BASE_TIME = 1_735_689_600_000L;
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final int BATCH = 20_000;
+
+    /** Precomputed stand-in: synthetic users never log in, and PBKDF2 per row would dominate. */
+    private static final String PASSWORD_HASH = "pbkdf2_sha256$1$AAAAAAAAAAAAAAAAAAAAAA==$" +
+            "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+
+    private static final String[] BRANDS = {
+            "Toyota", "Honda", "Nissan", "Hyundai", "Kia", "Ford", "Chevrolet", "Volkswagen",
+            "BMW", "Mercedes-Benz", "Audi", "Tesla", "Mazda", "Subaru", "Peugeot", "Renault",
+            "Skoda", "Volvo", "Lexus", "Jeep"
+    };
+    private static final String[] MODELS = {
+            "Camry", "Accord", "Corolla", "Civic", "Altima", "Elantra", "Sportage", "Focus",
+            "Malibu", "Golf", "Passat", "Model 3", "Model Y", "CX-5", "Outback", "Clio",
+            "Octavia", "XC60", "RX", "Wrangler", "Tucson", "Rio", "Mustang", "Tiguan",
+            "Sentra", "Impreza", "Megane", "Fabia", "Prius", "Leaf"
+    };
+    private static final String[] TRIMS = {"LX", "EX", "SE", "XLE", "Sport", "Limited", "Comfort", "GT"};
+    private static final int[] SEATS = {2, 4, 5, 5, 5, 7, 8};
+
+    /** Row counts and random seed. */
+    public static final class Config {
+        public final long seed;
+        public final int categories;
+        public final int cars;
+        public final int users;
+        public final int bookings;
+        public final int reviews;
+        public final int favorites;
+
+        public Config(long seed, int categories, int cars, int users,
+                      int bookings, int reviews, int favorites) {
+            if ((long) users * cars < Math.max(reviews, favorites)) {
+                throw new IllegalArgumentException("Not enough (user, car) pairs for reviews/favorites");
+            }
+            this.seed = seed;
+            this.categories = categories;
+            this.cars = cars;
+            this.users = users;
+            this.bookings = bookings;
+            this.reviews = reviews;
+            this.favorites = favorites;
+        }
+
+        /** 100k cars, 1M bookings, 500k reviews and 500k favorites. */
+        @NonNull
+        public static Config full() {
+            return new Config(42L, 24, 100_000, 20_000, 1_000_000, 500_000, 500_000);
+        }
+
+        /** The same fleet with every row count (except categories) multiplied by factor. */
+        @NonNull
+        public Config scaled(double factor) {
+            return new Config(seed, categories, atLeast(cars * factor, 10), atLeast(users * factor, 10),
+                    atLeast(bookings * factor, 0), atLeast(reviews * factor, 0),
+                    atLeast(favorites * factor, 0));
+        }
+
+        private static int atLeast(double value, int min) {
+            return Math.max(min, (int) Math.round(value));
+        }
+
+        /** Stable name for files generated from this configuration. */
+        @NonNull
+        public String key() {
+            return String.format(Locale.US, "s%d-g%d-c%d-u%d-b%d-r%d-f%d",
+                    seed, categories, cars, users, bookings, reviews, favorites);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "fleet: %d categories, %d cars, %d users, %d bookings, %d reviews, %d favorites (seed %d)",
+                    categories, cars, users, bookings, reviews, favorites, seed);
+        }
+    }
+
+    /** Ids of the synthetic rows, for picking benchmark parameters. */
+    public static final class Ids {
+        public final long[] categoryIds;
+        public final long[] carIds;
+        public final long[] userIds;
+
+        Ids(long[] categoryIds, long[] carIds, long[] userIds) {
+            this.categoryIds = categoryIds;
+            this.carIds = carIds;
+            this.userIds = userIds;
+        }
+    }
+
+    /** Car names and models without a database, for the in-memory indexes. */
+    public static final class Names {
+        public final String[] names;
+        public final String[] models;
+
+        Names(String[] names, String[] models) {
+            this.names = names;
+            this.models = models;
+        }
+    }
+
+    private SyntheticFleet() {}
+
+    /**
+     * count car names ("Toyota Camry") and models ("Camry XLE") from the fleet's
+     * vocabulary. Not the same draws as {@link #populate}, but the same shape.
+     */
+    @NonNull
+    public static Names names(long seed, int count) {
+        Random random = new Random(seed);
+        String[] names = new String[count];
+        String[] models = new String[count];
+        for (int i = 0; i < count; i++) {
+            String model = MODELS[random.nextInt(MODELS.length)];
+            names[i] = BRANDS[random.nextInt(BRANDS.length)] + " " + model;
+            models[i] = model + " " + TRIMS[random.nextInt(TRIMS.length)];
+        }
+        return new Names(names, models);
+    }
+
+    /** Model names the fleet draws from. */
+    @NonNull
+    public static String[] modelVocabulary() {
+        return MODELS.clone();
+    }
+
+    /** Seed db, then add the synthetic fleet. db must be empty. */
+    @NonNull
+    public static Ids populate(@NonNull AppDatabase db, @NonNull Config config) {
+        SeedData.seed(db);
+        Random random = new Random(config.seed);
+
+        long[] categoryIds = new long[config.categories];
+        db.runInTransaction(() -> {
+            for (int i = 0; i < config.categories; i++) {
+                categoryIds[i] = db.categoryDao().insert(
+                        new CategoryEntity(String.format(Locale.US, "Fleet %02d", i + 1), null));
+            }
+        });
+
+        long[] userIds = new long[config.users];
+        for (int from = 0; from < config.users; from += BATCH) {
+            int to = Math.min(config.users, from + BATCH);
+            int start = from;
+            db.runInTransaction(() -> {
+                for (int i = start; i < to; i++) {
+                    UserEntity user = new UserEntity(
+                            "Fleet User " + i,
+                            "user" + i + "@fleet.test",
+                            PASSWORD_HASH,
+                            String.format(Locale.US, "05%08d", i),
+                            null,
+                            BASE_TIME - (long) i * 3_600_000L);
+                    user.role = "CUSTOMER";
+                    userIds[i] = db.userDao().insert(user);
+                }
+            });
+        }
+
+        long[] carIds = new long[config.cars];
+        double[] prices = new double[config.cars];
+        boolean[] booked = new boolean[config.cars];
+        TransmissionType[] transmissions = TransmissionType.values();
+        FuelType[] fuels = FuelType.values();
+        for (int from = 0; from < config.cars; from += BATCH) {
+            int to = Math.min(config.cars, from + BATCH);
+            int start = from;
+            db.runInTransaction(() -> {
+                for (int i = start; i < to; i++) {
+                    String brand = BRANDS[random.nextInt(BRANDS.length)];
+                    String model = MODELS[random.nextInt(MODELS.length)];
+                    String trim = TRIMS[random.nextInt(TRIMS.length)];
+                    prices[i] = 20 + random.nextInt(381) + (random.nextInt(4) * 0.25);
+                    booked[i] = random.nextInt(20) == 0;
+                    FuelType fuel = fuels[random.nextInt(fuels.length)];
+                    CarEntity car = new CarEntity(
+                            categoryIds[random.nextInt(categoryIds.length)],
+                            brand + " " + model,
+                            model + " " + trim,
+                            2010 + random.nextInt(16),
+                            prices[i],
+                            !booked[i],
+                            transmissions[random.nextInt(transmissions.length)],
+                            fuel,
+                            SEATS[random.nextInt(SEATS.length)],
+                            fuel == FuelType.ELECTRIC ? null : 4.5 + random.nextInt(80) / 10.0,
+                            "Synthetic " + brand + " " + model + " " + trim + ", unit " + i + ".",
+                            "",
+                            // Distinct and decreasing, like cars added one by one
+                            BASE_TIME - (long) i * 60_000L);
+                    carIds[i] = db.carDao().insert(car);
+                    db.carStatusDao().upsert(new CarStatusEntity(carIds[i], car.isAvailable, BASE_TIME));
+                }
+            });
+        }
+
+        insertBookings(db, config, random, carIds, prices, booked, userIds);
+        insertReviews(db, config, random, carIds, userIds);
+        insertFavorites(db, config, random, carIds, userIds);
+        return new Ids(categoryIds, carIds, userIds);
+    }
+
+    /**
+     * Bookings per car, back to back from the newest: car i gets bookings/cars of
+     * them, the first bookings % cars cars one more.
+     */
+    private static void insertBookings(AppDatabase db, Config config, Random random, long[] carIds,
+                                       double[] prices, boolean[] booked, long[] userIds) {
+        if (config.bookings == 0) return;
+        int perCar = config.bookings / config.cars;
+        int extra = config.bookings % config.cars;
+        List<BookingEntity> batch = new ArrayList<>(BATCH);
+        for (int car = 0; car < config.cars; car++) {
+            int count = perCar + (car < extra ? 1 : 0);
+            long end = BASE_TIME + (booked[car] ? 3 * DAY : -random.nextInt(30) * DAY);
+            for (int k = 0; k < count; k++) {
+                int days = 1 + random.nextInt(7);
+                long returnAt = end;
+                long pickupAt = returnAt - days * DAY;
+                BookingStatus status;
+                if (k == 0 && booked[car]) {
+                    status = BookingStatus.ACTIVE;
+                } else {
+                    int roll = random.nextInt(100);
+                    status = roll < 80 ? BookingStatus.COMPLETED
+                            : roll < 95 ? BookingStatus.CANCELLED
+                            : BookingStatus.REJECTED;
+                }
+                batch.add(new BookingEntity(
+                        userIds[random.nextInt(userIds.length)],
+                        carIds[car],
+                        pickupAt,
+                        returnAt,
+                        days,
+                        prices[car],
+                        prices[car] * days,
+                        status,
+                        pickupAt - (1 + random.nextInt(14)) * DAY,
+                        status == BookingStatus.ACTIVE ? null : returnAt));
+                // Gap of 0-3 days before the next (older) booking
+                end = pickupAt - random.nextInt(4) * DAY;
+                if (batch.size() == BATCH) flushBookings(db, batch);
+            }
+        }
+        flushBookings(db, batch);
+    }
+
+    private static void flushBookings(AppDatabase db, List<BookingEntity> batch) {
+        if (batch.isEmpty()) return;
+        db.runInTransaction(() -> {
+            for (BookingEntity b : batch) {
+                b.id = db.bookingDao().insert(b);
+                if (b.status == BookingStatus.ACTIVE) {
+                    db.carStatusDao().markBooked(b.carId, b.id, BASE_TIME);
+                }
+            }
+        });
+        batch.clear();
+    }
+
+    private static void insertReviews(AppDatabase db, Config config, Random random,
+                                      long[] carIds, long[] userIds) {
+        List<ReviewEntity> batch = new ArrayList<>(BATCH);
+        Set<Long> pairs = new HashSet<>();
+        while (pairs.size() < config.reviews) {
+            int car = popularCar(random, carIds.length);
+            int user = random.nextInt(userIds.length);
+            if (!pairs.add((long) user * carIds.length + car)) continue;
+            // Mostly 4 and 5 stars, like most rating data
+            int roll = random.nextInt(100);
+            int stars = roll < 45 ? 5 : roll < 80 ? 4 : roll < 90 ? 3 : roll < 95 ? 2 : 1;
+            batch.add(new ReviewEntity(userIds[user], carIds[car], stars,
+                    random.nextInt(3) == 0 ? null : "Review " + pairs.size(),
+                    BASE_TIME - random.nextInt(365) * DAY));
+            if (batch.size() == BATCH) {
+                insertAll(db, batch, r -> db.reviewDao().insert(r));
+            }
+        }
+        insertAll(db, batch, r -> db.reviewDao().insert(r));
+    }
+
+    private static void insertFavorites(AppDatabase db, Config config, Random random,
+                                        long[] carIds, long[] userIds) {
+        List<FavoriteEntity> batch = new ArrayList<>(BATCH);
+        Set<Long> pairs = new HashSet<>();
+        while (pairs.size() < config.favorites) {
+            int car = popularCar(random, carIds.length);
+            int user = random.nextInt(userIds.length);
+            if (!pairs.add((long) user * carIds.length + car)) continue;
+            batch.add(new FavoriteEntity(userIds[user], carIds[car],
+                    BASE_TIME - random.nextInt(365) * DAY));
+            if (batch.size() == BATCH) {
+                insertAll(db, batch, f -> db.favoriteDao().add(f));
+            }
+        }
+        insertAll(db, batch, f -> db.favoriteDao().add(f));
+    }
+
+    /** Index of a car, with the first (newest) cars picked more often. */
+    private static int popularCar(Random random, int cars) {
+        double u = random.nextDouble();
+        return Math.min(cars - 1, (int) (cars * u * u));
+    }
+
+    private interface Insert<T> {
+        void insert(T row);
+    }
+
+    private static <T> void insertAll(AppDatabase db, List<T> batch, Insert<T> insert) {
+        if (batch.isEmpty()) return;
+        db.runInTransaction(() -> {
+            for (T row : batch) insert.insert(row);
+        });
+        batch.clear();
+    }
+
+    /** Ids of the synthetic rows of a database filled by {@link #populate}. */
+    @NonNull
+    public static Ids readIds(@NonNull AppDatabase db) {
+        return new Ids(
+                longs(db, "SELECT id FROM categories WHERE name LIKE 'Fleet %' ORDER BY id"),
+                longs(db, "SELECT id FROM cars WHERE description LIKE 'Synthetic %' ORDER BY id"),
+                longs(db, "SELECT id FROM users WHERE email LIKE '%@fleet.test' ORDER BY id"));
+    }
+
+    private static long[] longs(AppDatabase db, String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            long[] out = new long[c.getCount()];
+            for (int i = 0; c.moveToNext(); i++) out[i] = c.getLong(0);
+            return out;
+        }
+    }
+
+    /**
+     * Content summary of the synthetic tables, independent of the wall-clock
+     * timestamps SeedData writes. Equal configs give equal fingerprints.
+     */
+    @NonNull
+    public static String fingerprint(@NonNull AppDatabase db) {
+        String[] queries = {
+                "SELECT COUNT(*), SUM(length(name)), SUM(dailyPrice * 4), SUM(year * seats) FROM cars",
+                "SELECT COUNT(*), SUM(carId), SUM(daysCount), SUM(totalPrice * 4), SUM(length(status)) FROM bookings",
+                "SELECT COUNT(*), SUM(userId * 7 + carId), SUM(stars) FROM reviews",
+                "SELECT COUNT(*), SUM(userId * 7 + carId) FROM favorites",
+                "SELECT COUNT(*), SUM(isAvailable) FROM car_status",
+                "SELECT COUNT(*), SUM(starsSum), SUM(reviewCount) FROM car_rating_stats"
+        };
+        StringBuilder out = new StringBuilder();
+        for (String sql : queries) {
+            try (Cursor c = db.query(sql, null)) {
+                c.moveToFirst();
+                for (int i = 0; i < c.getColumnCount(); i++) {
+                    out.append(c.isNull(i) ? "null" : c.getString(i)).append(i + 1 < c.getColumnCount() ? "," : "");
+                }
+            }
+            out.append(';');
+        }
+        return out.toString();
+    }
+}
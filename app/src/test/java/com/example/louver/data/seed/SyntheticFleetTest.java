@@ -0,0 +1,88 @@
+package com.example.louver.data.seed;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.testing.TestDatabases;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class SyntheticFleetTest {
+
+    private static final SyntheticFleet.Config SMALL =
+            new SyntheticFleet.Config(7L, 5, 200, 50, 1_500, 800, 600);
+
+    @Test
+    public void sameConfigGivesSameData() {
+        Context context = ApplicationProvider.getApplicationContext();
+        AppDatabase first = TestDatabases.inMemory(context);
+        AppDatabase second = TestDatabases.inMemory(context);
+        try {
+            SyntheticFleet.populate(first, SMALL);
+            SyntheticFleet.populate(second, SMALL);
+            assertEquals(SyntheticFleet.fingerprint(first), SyntheticFleet.fingerprint(second));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void rowCountsFollowConfig() {
+        AppDatabase db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        try {
+            SyntheticFleet.Ids ids = SyntheticFleet.populate(db, SMALL);
+
+            // SeedData adds 6 categories, 10 cars and 2 users of its own
+            assertEquals(SMALL.categories + 6, count(db, "SELECT COUNT(*) FROM categories"));
+            assertEquals(SMALL.cars + 10, count(db, "SELECT COUNT(*) FROM cars"));
+            assertEquals(SMALL.users + 2, count(db, "SELECT COUNT(*) FROM users"));
+            assertEquals(SMALL.bookings, count(db, "SELECT COUNT(*) FROM bookings"));
+            assertEquals(SMALL.reviews, count(db, "SELECT COUNT(*) FROM reviews"));
+            assertEquals(SMALL.favorites, count(db, "SELECT COUNT(*) FROM favorites"));
+
+            SyntheticFleet.Ids read = SyntheticFleet.readIds(db);
+            assertEquals(ids.carIds.length, read.carIds.length);
+            assertEquals(ids.userIds.length, read.userIds.length);
+            assertEquals(ids.categoryIds.length, read.categoryIds.length);
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    public void bookingsOfACarNeverOverlapAndMatchCarStatus() {
+        AppDatabase db = TestDatabases.inMemory(ApplicationProvider.getApplicationContext());
+        try {
+            SyntheticFleet.populate(db, SMALL);
+
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                    "ON a.carId = b.carId AND a.id < b.id " +
+                    "AND a.pickupAt < b.returnAt AND b.pickupAt < a.returnAt"));
+            // Every ACTIVE booking holds its car (SeedData's own unavailable car holds none)
+            long active = count(db, "SELECT COUNT(*) FROM bookings WHERE status = 'ACTIVE'");
+            assertEquals(active, count(db, "SELECT COUNT(*) FROM bookings b " +
+                    "JOIN car_status s ON s.carId = b.carId AND s.currentBookingId = b.id " +
+                    "WHERE b.status = 'ACTIVE' AND s.isAvailable = 0"));
+            // Rating stats are kept by the review triggers
+            assertEquals(SMALL.reviews, count(db, "SELECT SUM(reviewCount) FROM car_rating_stats"));
+        } finally {
+            db.close();
+        }
+    }
+
+    private static long count(AppDatabase db, String sql) {
+        try (Cursor c = db.query(sql, null)) {
+            c.moveToFirst();
+            return c.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.louver.testing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Benchmark: times an operation on the JVM and checks it against a stored baseline.
+ *
+ * {@link #run} warms the operation up, times each iteration, and reports p50/p99
+ * latency, rows per second and bytes allocated per call. The result is then
+ * compared with the baseline file (louver.bench.baseline). A p50 more than
+ * {@code 1 + tolerance} times its baseline fails the benchmark. The default
+ * tolerance is 0.5; set louver.bench.tolerance to change it. A small absolute
+ * noise floor keeps sub-millisecond queries from failing on jitter. Baselines
+ * recorded at another fleet scale are ignored, and so is a result without a
+ * baseline entry, unless louver.bench.requireBaseline is true: then both fail,
+ * so a CI run cannot pass without being compared.
+ *
+ * Every result is also merged into results.properties in louver.bench.dir. With
+ * louver.bench.updateBaseline=true, results are written to the baseline file
+ * instead of being checked against it. With louver.bench.updateBaseline=missing,
+ * only results without an entry at the current scale are written there; the
+ * others are checked as usual, so new benchmarks can be added to the baseline
+ * without re-recording the existing entries.
+ *
+ * The :app:benchmark Gradle task sets these properties. When a benchmark class
+ * is run directly, it uses a small fleet and has no baseline.
+ */
+public final class Benchmark {
+
+    /** Operation under test; returns how many rows it read or wrote. */
+    public interface Op {
+        long run() throws Exception;
+    }
+
+    private static final double NOISE_FLOOR_MS = 0.25;
+
+    private static final String SCALE_KEY = "scale";
+
+    private Benchmark() {}
+
+    // ── Configuration ─────────────────────────────────────────────────────────
+
+    /** Fraction of the full synthetic fleet to benchmark against. */
+    public static double scale() {
+        return Double.parseDouble(System.getProperty("louver.bench.scale", "0.02"));
+    }
+
+    /** Directory for generated databases and results. */
+    @NonNull
+    public static File workDir() {
+        File dir = new File(System.getProperty("louver.bench.dir",
+                new File(System.getProperty("java.io.tmpdir"), "louver-benchmarks").getPath()));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + dir);
+        }
+        return dir;
+    }
+
+    private static double tolerance() {
+        return Double.parseDouble(System.getProperty("louver.bench.tolerance", "0.5"));
+    }
+
+    private static boolean requiringBaseline() {
+        return Boolean.parseBoolean(System.getProperty("louver.bench.requireBaseline", "false"));
+    }
+
+    private static boolean updatingBaseline() {
+        return Boolean.parseBoolean(System.getProperty("louver.bench.updateBaseline", "false"));
+    }
+
+    private static boolean addingMissingBaselines() {
+        return "missing".equals(System.getProperty("louver.bench.updateBaseline"));
+    }
+
+    @Nullable
+    private static File baselineFile() {
+        String path = System.getProperty("louver.bench.baseline");
+        return path != null ? new File(path) : null;
+    }
+
+    // ── Measuring ─────────────────────────────────────────────────────────────
+
+    public static final class Result {
+        @NonNull public final String name;
+        public final int samples;
+        public final double p50Ms;
+        public final double p99Ms;
+        public final double rowsPerSecond;
+        public final long allocatedBytesPerOp;
+
+        Result(@NonNull String name, int samples, double p50Ms, double p99Ms,
+               double rowsPerSecond, long allocatedBytesPerOp) {
+            this.name = name;
+            this.samples = samples;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.rowsPerSecond = rowsPerSecond;
+            this.allocatedBytesPerOp = allocatedBytesPerOp;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-56s p50=%9.3fms p99=%9.3fms %12.0f rows/s %10d B/op (n=%d)",
+                    name, p50Ms, p99Ms, rowsPerSecond, allocatedBytesPerOp, samples);
+        }
+    }
+
+    /**
+     * Time op, print and record the result, and fail if it regressed against the
+     * baseline. Returns the result for further assertions.
+     */
+    @NonNull
+    public static Result run(@NonNull String name, int warmup, int iterations, @NonNull Op op) {
+        Result result = measure(name, warmup, iterations, op);
+        System.out.println(result);
+        record(result);
+        String regression = regression(result);
+        if (regression != null) throw new AssertionError(regression);
+        return result;
+    }
+
+    /** Time op without recording or checking it. */
+    @NonNull
+    public static Result measure(@NonNull String name, int warmup, int iterations, @NonNull Op op) {
+        try {
+            for (int i = 0; i < warmup; i++) op.run();
+
+            long[] nanos = new long[iterations];
+            long rows = 0;
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                rows += op.run();
+                nanos[i] = System.nanoTime() - start;
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            long total = 0;
+            for (long n : nanos) total += n;
+            Arrays.sort(nanos);
+            return new Result(name, iterations,
+                    percentile(nanos, 0.50) / 1e6,
+                    percentile(nanos, 0.99) / 1e6,
+                    total > 0 ? rows / (total / 1e9) : 0.0,
+                    allocated >= 0 ? allocated / iterations : -1L);
+        } catch (Exception e) {
+            throw new AssertionError(name + " failed", e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /** Bytes allocated by this thread so far, or -1 if the JVM cannot tell. */
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1L;
+    }
+
+    /** Heap in use after a full collection; for rough retained-size comparisons. */
+    public static long usedHeapAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Repeat until a collection frees nothing more
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            long now = rt.totalMemory() - rt.freeMemory();
+            if (now >= used) break;
+            used = now;
+        }
+        return used;
+    }
+
+    // ── Baseline ──────────────────────────────────────────────────────────────
+
+    @Nullable
+    private static String regression(Result result) {
+        if (updatingBaseline()) return null;
+        File file = baselineFile();
+        if (file == null || !file.isFile()) {
+            return requiringBaseline() ? "No baseline file " + file : null;
+        }
+        String p50 = baselineP50(load(file), result.name);
+        if (p50 == null) {
+            return requiringBaseline()
+                    ? String.format(Locale.US, "%s has no baseline at scale %s in %s; record one with "
+                            + "./gradlew :app:benchmark -PbenchScale=%s -PupdateBaseline=missing",
+                    result.name, scale(), file, scale())
+                    : null;
+        }
+        double limit = Double.parseDouble(p50) * (1 + tolerance()) + NOISE_FLOOR_MS;
+        if (result.p50Ms > limit) {
+            return String.format(Locale.US, "%s regressed: p50 %.3fms > %.3fms (baseline %sms + %.0f%%)",
+                    result.name, result.p50Ms, limit, p50, tolerance() * 100);
+        }
+        return null;
+    }
+
+    /** The baseline p50 of name, or null if it has none at the current scale. */
+    @Nullable
+    private static String baselineP50(Properties baseline, String name) {
+        String recordedScale = baseline.getProperty(SCALE_KEY);
+        if (recordedScale == null || Double.parseDouble(recordedScale) != scale()) return null;
+        return baseline.getProperty(name + ".p50Ms");
+    }
+
+    private static synchronized void record(Result result) {
+        File baseline = baselineFile();
+        boolean toBaseline = baseline != null && (updatingBaseline() || addingMissingBaselines()
+                && (!baseline.isFile() || baselineP50(load(baseline), result.name) == null));
+        File target = toBaseline ? baseline : new File(workDir(), "results.properties");
+        Properties props = target.isFile() ? load(target) : new Properties();
+        String scale = String.valueOf(scale());
+        if (!scale.equals(props.getProperty(SCALE_KEY))) {
+            // Results at another scale are not comparable; start over
+            props.clear();
+            props.setProperty(SCALE_KEY, scale);
+        }
+        props.setProperty(result.name + ".p50Ms", String.format(Locale.US, "%.3f", result.p50Ms));
+        props.setProperty(result.name + ".p99Ms", String.format(Locale.US, "%.3f", result.p99Ms));
+        props.setProperty(result.name + ".rowsPerSecond", String.format(Locale.US, "%.0f", result.rowsPerSecond));
+        store(props, target);
+    }
+
+    private static Properties load(File file) {
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + file, e);
+        }
+        return props;
+    }
+
+    private static void store(Properties props, File file) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + parent);
+        }
+        // Sorted, so baseline diffs stay readable; the file's own header comment is kept
+        StringBuilder out = new StringBuilder(header(file));
+        for (Map.Entry<Object, Object> e : new TreeMap<>(props).entrySet()) {
+            out.append(escapeKey(e.getKey().toString())).append('=').append(e.getValue()).append('\n');
+        }
+        try (OutputStream os = new FileOutputStream(file)) {
+            os.write(out.toString().getBytes(StandardCharsets.ISO_8859_1));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write " + file, e);
+        }
+    }
+
+    private static String header(File file) {
+        StringBuilder header = new StringBuilder();
+        if (file.isFile()) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(file), StandardCharsets.ISO_8859_1))) {
+                for (String line = in.readLine(); line != null && line.startsWith("#"); line = in.readLine()) {
+                    header.append(line).append('\n');
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + file, e);
+            }
+        }
+        return header.length() > 0
+                ? header.toString()
+                : "# Benchmark results (see com.example.louver.testing.Benchmark)\n";
+    }
+
+    /** Result names contain spaces and colons, which end a key in a properties file unescaped. */
+    private static String escapeKey(String key) {
+        StringBuilder out = new StringBuilder(key.length() + 8);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == ' ' || c == ':' || c == '=' || c == '#' || c == '!' || c == '\\') out.append('\\');
+            out.append(c);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.louver.testing;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.seed.SyntheticFleet;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The synthetic fleet (by default at {@link Benchmark#scale()}) as a database file in
+ * {@link Benchmark#workDir()}.
+ *
+ * Generating the full fleet takes minutes, so the file is built once and reused
+ * by every benchmark class and later runs. It is named after the fleet config,
+ * and a marker file is written only after generation completes. When the
+ * schema has changed, Room refuses the old file and it is generated again.
+ *
+ * Open one per test and close it afterwards: Robolectric resets SQLite
+ * connections between tests.
+ */
+public final class FleetDatabase implements AutoCloseable {
+
+    @NonNull public final AppDatabase db;
+    @NonNull public final SyntheticFleet.Config config;
+    @NonNull public final SyntheticFleet.Ids ids;
+    /** Deterministic source for query parameters. */
+    @NonNull public final Random random;
+
+    private static SyntheticFleet.Ids cachedIds;
+    private static String cachedKey;
+
+    private FleetDatabase(AppDatabase db, SyntheticFleet.Config config, SyntheticFleet.Ids ids) {
+        this.db = db;
+        this.config = config;
+        this.ids = ids;
+        this.random = new Random(config.seed + 1);
+    }
+
+    @NonNull
+    public static FleetDatabase open(@NonNull Context context) {
+        return open(context, SyntheticFleet.Config.full().scaled(Benchmark.scale()));
+    }
+
+    /** A fleet of a fixed shape, for benchmarks that need a particular size. */
+    @NonNull
+    public static synchronized FleetDatabase open(@NonNull Context context,
+                                                  @NonNull SyntheticFleet.Config config) {
+        String key = config.key();
+        File file = new File(Benchmark.workDir(), "fleet-" + key + ".db");
+        File done = new File(file.getPath() + ".done");
+
+        AppDatabase db = null;
+        if (done.isFile()) {
+            try {
+                db = TestDatabases.onDisk(context, file);
+                db.getOpenHelper().getWritableDatabase();
+            } catch (RuntimeException e) {
+                // Built by an older schema
+                System.out.println("Regenerating " + file.getName() + ": " + e.getMessage());
+                if (db != null) db.close();
+                db = null;
+                cachedIds = null;
+            }
+        }
+        if (db == null) {
+            delete(file, done);
+            db = TestDatabases.onDisk(context, file);
+            long start = System.nanoTime();
+            cachedIds = SyntheticFleet.populate(db, config);
+            cachedKey = key;
+            System.out.printf("Generated %s in %.1fs%n", config, (System.nanoTime() - start) / 1e9);
+            try {
+                if (!done.createNewFile() && !done.isFile()) throw new IOException("Cannot create " + done);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (cachedIds == null || !key.equals(cachedKey)) {
+            cachedIds = SyntheticFleet.readIds(db);
+            cachedKey = key;
+        }
+        return new FleetDatabase(db, config, cachedIds);
+    }
+
+    private static void delete(File file, File done) {
+        for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            File f = new File(file.getPath() + suffix);
+            if (f.exists() && !f.delete()) throw new IllegalStateException("Cannot delete " + f);
+        }
+        if (done.exists() && !done.delete()) throw new IllegalStateException("Cannot delete " + done);
+    }
+
+    public long randomCarId() {
+        return ids.carIds[random.nextInt(ids.carIds.length)];
+    }
+
+    public long randomUserId() {
+        return ids.userIds[random.nextInt(ids.userIds.length)];
+    }
+
+    public long randomCategoryId() {
+        return ids.categoryIds[random.nextInt(ids.categoryIds.length)];
+    }
+
+    /** Run op in a transaction that is rolled back, so writes leave the fleet unchanged. */
+    @SuppressWarnings("deprecation")
+    public long rolledBack(@NonNull Benchmark.Op op) throws Exception {
+        db.beginTransaction();
+        try {
+            return op.run();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.louver.testing;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Reads LiveData values in tests. Use with InstantTaskExecutorRule, so values
+ * posted from a background thread are delivered without a main looper.
+ */
+public final class LiveDataTestUtil {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private LiveDataTestUtil() {}
+
+    /** The first value live emits once observed (possibly null), then stop observing. */
+    public static <T> T await(@NonNull LiveData<T> live) {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = v -> {
+            if (latch.getCount() == 0) return;
+            value.set(v);
+            latch.countDown();
+        };
+        live.observeForever(observer);
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new AssertionError(new TimeoutException("LiveData never emitted"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        } finally {
+            live.removeObserver(observer);
+        }
+        return value.get();
+    }
+
+    /**
+     * Observe live until a value satisfies condition, and return it. Keeps
+     * observing across emissions, for LiveData computed on a worker thread.
+     */
+    public static <T> T awaitMatching(@NonNull LiveData<T> live,
+                                      @NonNull Predicate<T> condition) {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = v -> {
+            if (latch.getCount() == 0 || !condition.test(v)) return;
+            value.set(v);
+            latch.countDown();
+        };
+        live.observeForever(observer);
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new AssertionError(new TimeoutException("No matching value; last was " + live.getValue()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        } finally {
+            live.removeObserver(observer);
+        }
+        return value.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.louver.testing;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.louver.data.db.AppDatabase;
+import com.example.louver.data.db.BookingRtreeIndex;
+import com.example.louver.data.db.CarStatusRows;
+import com.example.louver.data.db.CatalogChangeLog;
+import com.example.louver.data.db.RatingStatsTriggers;
+
+import java.io.File;
+
+/**
+ * Room databases for JVM tests: the app's schema plus the tables and triggers
+ * AppDatabase installs in onOpen. Queries run on the calling thread, so DAO
+ * calls and LiveData loads need no executor juggling.
+ */
+public final class TestDatabases {
+
+    private TestDatabases() {}
+
+    @NonNull
+    public static AppDatabase inMemory(@NonNull Context context) {
+        return configure(Room.inMemoryDatabaseBuilder(context, AppDatabase.class));
+    }
+
+    /** A database file at an absolute path, in WAL mode like the app's. */
+    @NonNull
+    public static AppDatabase onDisk(@NonNull Context context, @NonNull File file) {
+        return configure(Room.databaseBuilder(context, AppDatabase.class, file.getAbsolutePath())
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING));
+    }
+
+    private static AppDatabase configure(RoomDatabase.Builder<AppDatabase> builder) {
+        return builder
+                .allowMainThreadQueries()
+                .setQueryExecutor(Runnable::run)
+                .setTransactionExecutor(Runnable::run)
+                .addCallback(new RoomDatabase.Callback() {
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        BookingRtreeIndex.install(db);
+                        RatingStatsTriggers.install(db);
+                        CarStatusRows.install(db);
+                        CatalogChangeLog.install(db);
+                    }
+                })
+                .build();
+    }
+}
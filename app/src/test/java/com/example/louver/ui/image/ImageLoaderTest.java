@@ -0,0 +1,249 @@
+package com.example.louver.ui.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.louver.data.image.ImageFiles;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.imageio.ImageIO;
+
+/**
+ * ImageLoader against a local HTTP server: coalescing, memory and disk hits,
+ * cancellation and failures, checked through {@link ImageLoader#stats()}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ImageLoaderTest {
+
+    private static final int PLACEHOLDER = android.R.drawable.ic_menu_gallery;
+    private static final long TIMEOUT_MS = 10_000;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger imageRequests = new AtomicInteger();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private Context context;
+    private ImageLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        byte[] png = png(800, 600);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/img/", exchange -> {
+            imageRequests.incrementAndGet();
+            send(exchange, 200, png);
+        });
+        server.createContext("/slow/", exchange -> {
+            try {
+                releaseSlow.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, png);
+        });
+        server.createContext("/missing/", exchange -> send(exchange, 404, new byte[0]));
+        // Handlers block (see /slow/), so each request gets its own thread
+        server.setExecutor(serverThreads);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        // The singleton outlives Robolectric's per-test application; start from a fresh one
+        Field instance = ImageLoader.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+        context = ApplicationProvider.getApplicationContext();
+        loader = ImageLoader.get(context);
+    }
+
+    @After
+    public void tearDown() {
+        releaseSlow.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void identicalRequestsShareOneDownload() {
+        ImageView first = view(100, 100);
+        ImageView second = view(100, 100);
+        String url = baseUrl + "/img/a.png";
+
+        loader.load(url, first, PLACEHOLDER);
+        Drawable firstPlaceholder = first.getDrawable();
+        loader.load(url, second, PLACEHOLDER);
+        Drawable secondPlaceholder = second.getDrawable();
+        awaitMain(() -> first.getDrawable() != firstPlaceholder && second.getDrawable() != secondPlaceholder);
+
+        assertSame(bitmapOf(first), bitmapOf(second));
+        ImageLoader.Stats stats = loader.stats();
+        assertEquals(2, stats.requests);
+        assertEquals(1, stats.coalesced);
+        assertEquals(1, stats.downloads);
+        assertEquals(1, stats.decodes);
+        assertEquals(1, imageRequests.get());
+    }
+
+    @Test
+    public void sameSizeAgainIsMemoryHit() {
+        String url = baseUrl + "/img/b.png";
+        ImageView first = view(100, 100);
+        loadAndWait(url, first);
+
+        ImageView second = view(100, 100);
+        loader.load(url, second, PLACEHOLDER);
+
+        // Shown synchronously, without a placeholder
+        assertSame(bitmapOf(first), bitmapOf(second));
+        assertEquals(1, loader.stats().memoryHits);
+        assertEquals(1, imageRequests.get());
+    }
+
+    @Test
+    public void otherSizeIsDiskHit() {
+        String url = baseUrl + "/img/c.png";
+        loadAndWait(url, view(100, 100));
+        loadAndWait(url, view(300, 200));
+
+        ImageLoader.Stats stats = loader.stats();
+        assertEquals(1, stats.downloads);
+        assertEquals(1, stats.diskHits);
+        assertEquals(2, stats.decodes);
+        assertEquals(1, imageRequests.get());
+    }
+
+    @Test
+    public void cancelledRequestKeepsPlaceholder() {
+        ImageView view = view(100, 100);
+        loader.load(baseUrl + "/slow/d.png", view, PLACEHOLDER);
+        Drawable placeholder = view.getDrawable();
+
+        loader.cancel(view);
+        releaseSlow.countDown();
+        idleFor(500);
+
+        assertSame(placeholder, view.getDrawable());
+        assertEquals(1, loader.stats().cancelled);
+    }
+
+    @Test
+    public void recycledViewShowsOnlyItsNewImage() {
+        ImageView row = view(100, 100);
+        loader.load(baseUrl + "/slow/e.png", row, PLACEHOLDER);
+        String url = baseUrl + "/img/f.png";
+        loadAndWait(url, row);
+        Drawable shown = row.getDrawable();
+
+        releaseSlow.countDown();
+        idleFor(500);
+
+        assertSame(shown, row.getDrawable());
+        assertEquals(1, loader.stats().cancelled);
+    }
+
+    @Test
+    public void notFoundIsCountedAsFailure() {
+        ImageView view = view(100, 100);
+        loader.load(baseUrl + "/missing/g.png", view, PLACEHOLDER);
+        Drawable placeholder = view.getDrawable();
+        awaitMain(() -> loader.stats().failures == 1);
+        idleFor(100);
+
+        assertSame(placeholder, view.getDrawable());
+        assertEquals(0, loader.stats().decodes);
+    }
+
+    @Test
+    public void downsamplesToViewSize() {
+        assertEquals(1, ImageFiles.sampleSize(800, 600, 800, 600));
+        assertEquals(4, ImageFiles.sampleSize(800, 600, 200, 150));
+        assertEquals(2, ImageFiles.sampleSize(800, 600, 300, 200));
+        assertEquals(16, ImageFiles.sampleSize(4000, 3000, 96, 96));
+    }
+
+    private void loadAndWait(String url, ImageView view) {
+        loader.load(url, view, PLACEHOLDER);
+        Drawable placeholder = view.getDrawable();
+        awaitMain(() -> view.getDrawable() != placeholder);
+    }
+
+    private static Object bitmapOf(ImageView view) {
+        return ((BitmapDrawable) view.getDrawable()).getBitmap();
+    }
+
+    private ImageView view(int width, int height) {
+        ImageView view = new ImageView(context);
+        view.setLayoutParams(new ViewGroup.LayoutParams(width, height));
+        return view;
+    }
+
+    /** Run posted deliveries until condition holds; decodes happen on the loader's pool. */
+    private static void awaitMain(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (condition.getAsBoolean()) return;
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static void idleFor(long ms) {
+        long end = System.currentTimeMillis() + ms;
+        awaitMain(() -> System.currentTimeMillis() >= end);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) image.setRGB(x, y, (x * 31) ^ (y * 17));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, int code, byte[] bytes) throws IOException {
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.louver.ui.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SearchPipelineTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTasks = new InstantTaskExecutorRule();
+
+    private SearchPipeline.ManualScheduler scheduler;
+    /** One source per issued query, in issue order; results are set by hand. */
+    private Map<String, MutableLiveData<String>> issued;
+    private SearchPipeline<String, String> pipeline;
+    private final List<String> rendered = new ArrayList<>();
+    private final Observer<String> observer = rendered::add;
+
+    @Before
+    public void setUp() {
+        scheduler = new SearchPipeline.ManualScheduler();
+        issued = new LinkedHashMap<>();
+        pipeline = new SearchPipeline<>(scheduler, query -> {
+            MutableLiveData<String> live = new MutableLiveData<>();
+            issued.put(query, live);
+            return live;
+        });
+        pipeline.observeForever(observer);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.removeObserver(observer);
+    }
+
+    @Test
+    public void typingIsDebouncedToOneQuery() {
+        for (String prefix : new String[]{"c", "ca", "cam", "camr", "camry"}) {
+            pipeline.submit(prefix, SearchPipeline.TYPING_DEBOUNCE_MS);
+            scheduler.advanceBy(100);
+        }
+        assertEquals(0, issued.size());
+
+        scheduler.advanceBy(SearchPipeline.TYPING_DEBOUNCE_MS);
+        assertEquals(Collections.singletonList("camry"), new ArrayList<>(issued.keySet()));
+
+        SearchPipeline.Metrics metrics = pipeline.metrics();
+        assertEquals(5, metrics.submitted);
+        assertEquals(1, metrics.issued);
+    }
+
+    @Test
+    public void sameFrameChangesAreCoalesced() {
+        pipeline.submit("category", 0);
+        pipeline.submit("category+price", 0);
+        pipeline.submit("category+price+seats", 0);
+        assertEquals(1, scheduler.pendingTasks());
+
+        scheduler.runPending();
+        assertEquals(Collections.singletonList("category+price+seats"), new ArrayList<>(issued.keySet()));
+    }
+
+    @Test
+    public void staleResultIsDropped() {
+        pipeline.submit("first", 0);
+        scheduler.runPending();
+        pipeline.submit("second", 0);
+        scheduler.runPending();
+
+        issued.get("first").setValue("first result");
+        assertEquals(0, rendered.size());
+
+        issued.get("second").setValue("second result");
+        assertEquals(Collections.singletonList("second result"), rendered);
+        assertEquals(1, pipeline.metrics().cancelled);
+    }
+
+    @Test
+    public void repeatedQueryIsNotReissued() {
+        pipeline.submit("suv", 0);
+        scheduler.runPending();
+        issued.get("suv").setValue("3 cars");
+
+        pipeline.submit("suv", 0);
+        scheduler.runPending();
+
+        assertEquals(1, pipeline.metrics().issued);
+        assertEquals(Collections.singletonList("3 cars"), rendered);
+    }
+
+    @Test
+    public void flushIssuesPendingQueryNow() {
+        pipeline.submit("camry", SearchPipeline.TYPING_DEBOUNCE_MS);
+        pipeline.flush();
+
+        assertEquals(Collections.singletonList("camry"), new ArrayList<>(issued.keySet()));
+        assertEquals(0, scheduler.pendingTasks());
+        assertEquals("camry", pipeline.currentQuery());
+    }
+
+    @Test
+    public void latencyRunsFromFirstSubmitToFirstResult() {
+        pipeline.submit("c", SearchPipeline.TYPING_DEBOUNCE_MS);
+        scheduler.advanceBy(100);
+        pipeline.submit("ca", SearchPipeline.TYPING_DEBOUNCE_MS);
+        scheduler.advanceBy(SearchPipeline.TYPING_DEBOUNCE_MS);
+        scheduler.advanceBy(40);
+        issued.get("ca").setValue("result");
+
+        SearchPipeline.Metrics metrics = pipeline.metrics();
+        assertEquals(100 + SearchPipeline.TYPING_DEBOUNCE_MS + 40, metrics.maxLatencyMs);
+        assertEquals(1, metrics.rendered);
+    }
+
+    @Test
+    public void nothingIssuedBeforeTheDelay() {
+        pipeline.submit("camry", SearchPipeline.TYPING_DEBOUNCE_MS);
+        scheduler.advanceBy(SearchPipeline.TYPING_DEBOUNCE_MS - 1);
+
+        assertFalse(issued.containsKey("camry"));
+        assertNull(pipeline.getValue());
+        assertEquals("camry", pipeline.currentQuery());
+    }
+}
@@ -0,0 +1,32 @@
+// JMH micro-benchmarks for :core. Runs on any JVM, with or without an Android SDK:
+//   ./gradlew :benchmarks:jmh
+// (Without an SDK, -PjvmOnly is only needed when other tasks are requested too.)
+// Pick benchmarks with -PjmhIncludes=<regex>, e.g. -PjmhIncludes=PasswordHasher.
+// Results land in build/results/jmh/results.txt.
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+}
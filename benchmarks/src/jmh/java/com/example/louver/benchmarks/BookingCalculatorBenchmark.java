@@ -0,0 +1,67 @@
+package com.example.louver.benchmarks;
+
+import com.example.louver.data.calculator.BookingCalculationResult;
+import com.example.louver.data.calculator.BookingCalculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingCalculator: one validateAndCalculate call, and a quote for the same
+ * rental across a whole fleet of daily prices (what a "price for your dates"
+ * column over the catalog costs).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingCalculatorBenchmark {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Param({"100", "10000"})
+    public int cars;
+
+    private double[] dailyPrices;
+    private long pickupAt;
+    private long returnAt;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dailyPrices = new double[cars];
+        for (int i = 0; i < cars; i++) {
+            dailyPrices[i] = 20 + random.nextInt(480) + random.nextInt(100) / 100.0;
+        }
+        // Far enough ahead that the "pickup in the future" check always passes
+        pickupAt = System.currentTimeMillis() + 30 * DAY;
+        returnAt = pickupAt + 3 * DAY + 5 * 60 * 60 * 1000L;
+    }
+
+    @Benchmark
+    public BookingCalculationResult validateAndCalculate() {
+        return BookingCalculator.validateAndCalculate(pickupAt, returnAt, dailyPrices[0]);
+    }
+
+    @Benchmark
+    public BookingCalculationResult rejectInvalidRange() {
+        return BookingCalculator.validateAndCalculate(returnAt, pickupAt, dailyPrices[0]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void quoteFleet(Blackhole bh) {
+        for (double dailyPrice : dailyPrices) {
+            bh.consume(BookingCalculator.validateAndCalculate(pickupAt, returnAt, dailyPrice).totalPrice);
+        }
+    }
+}
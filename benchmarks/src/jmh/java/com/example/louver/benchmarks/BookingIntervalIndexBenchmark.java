@@ -0,0 +1,92 @@
+package com.example.louver.benchmarks;
+
+import com.example.louver.data.repository.BookingIntervalIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingIntervalIndex: overlap checks and free-window searches against cars
+ * with a given number of blocking bookings, plus loading a car's schedule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingIntervalIndexBenchmark {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final int CARS = 1000;
+    private static final int PROBES = 1024;
+
+    @Param({"4", "64"})
+    public int bookingsPerCar;
+
+    private BookingIntervalIndex index;
+    private long[][] bookingIds;
+    private long[][] pickupAts;
+    private long[][] returnAts;
+    private long[] probeCars;
+    private long[] probeStarts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bookingIds = new long[CARS][bookingsPerCar];
+        pickupAts = new long[CARS][bookingsPerCar];
+        returnAts = new long[CARS][bookingsPerCar];
+        long bookingId = 1;
+        for (int car = 0; car < CARS; car++) {
+            // Back-to-back rentals of 1-72 hours with gaps of 0-48 hours
+            long at = 0;
+            for (int b = 0; b < bookingsPerCar; b++) {
+                at += random.nextInt(49) * HOUR;
+                bookingIds[car][b] = bookingId++;
+                pickupAts[car][b] = at;
+                at += (1 + random.nextInt(72)) * HOUR;
+                returnAts[car][b] = at;
+            }
+        }
+        index = new BookingIntervalIndex();
+        for (int car = 0; car < CARS; car++) {
+            index.load(car, bookingIds[car], pickupAts[car], returnAts[car]);
+        }
+
+        long horizon = bookingsPerCar * 84 * HOUR;
+        probeCars = new long[PROBES];
+        probeStarts = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeCars[i] = random.nextInt(CARS);
+            probeStarts[i] = (long) (random.nextDouble() * horizon);
+        }
+    }
+
+    @Benchmark
+    public boolean overlaps() {
+        int i = next++ & (PROBES - 1);
+        return index.overlaps(probeCars[i], probeStarts[i], probeStarts[i] + 24 * HOUR);
+    }
+
+    @Benchmark
+    public BookingIntervalIndex.FreeWindow findNextFreeWindow() {
+        int i = next++ & (PROBES - 1);
+        return index.findNextFreeWindow(probeCars[i], probeStarts[i], 48 * HOUR);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BookingIntervalIndex loadCar() {
+        int car = (next++ & Integer.MAX_VALUE) % CARS;
+        index.load(car, bookingIds[car], pickupAts[car], returnAts[car]);
+        return index;
+    }
+}
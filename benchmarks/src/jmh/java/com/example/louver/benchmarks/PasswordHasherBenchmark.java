@@ -0,0 +1,44 @@
+package com.example.louver.benchmarks;
+
+import com.example.louver.data.auth.PasswordHasher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordHasher: a login (verify) at the production iteration count. This is
+ * deliberately slow; the number to watch is that it does not get slower, or
+ * faster without the iteration count changing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        stored = PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        // verifyPassword wipes the array it is given
+        return PasswordHasher.verifyPassword(PASSWORD.toCharArray(), stored);
+    }
+
+    @Benchmark
+    public boolean rejectWrongPassword() {
+        return PasswordHasher.verifyPassword("correct horse battery!".toCharArray(), stored);
+    }
+}
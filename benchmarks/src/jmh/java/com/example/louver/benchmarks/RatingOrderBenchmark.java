@@ -0,0 +1,51 @@
+package com.example.louver.benchmarks;
+
+import com.example.louver.data.repository.RatingOrder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RatingOrder: sorting a catalog by rating, with a third of the cars unrated
+ * as in the seeded data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RatingOrderBenchmark {
+
+    @Param({"100", "10000"})
+    public int cars;
+
+    private List<RatingOrder.Entry> entries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        entries = new ArrayList<>(cars);
+        for (int id = 1; id <= cars; id++) {
+            int reviews = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(40);
+            long stars = 0;
+            for (int r = 0; r < reviews; r++) stars += 1 + random.nextInt(5);
+            entries.add(new RatingOrder.Entry(id, random.nextInt(1_000_000), stars, reviews));
+        }
+    }
+
+    @Benchmark
+    public List<RatingOrder.Entry> sort() {
+        List<RatingOrder.Entry> copy = new ArrayList<>(entries);
+        RatingOrder.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,20 @@
+// Booking, pricing and validation rules as plain Java: no Android SDK, so they
+// can be unit-tested and benchmarked (see :benchmarks) on any JVM.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    api(libs.androidx.annotation)
+
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,93 @@
+package com.example.louver.data.auth;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Base64Codec: standard RFC 4648 Base64 with padding and no line breaks, the
+ * same text android.util.Base64 produces with NO_WRAP.
+ *
+ * java.util.Base64 would do, but Android only has it from API 26 and the app
+ * still runs on 24, so PasswordHasher carries this small codec instead.
+ */
+final class Base64Codec {
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base64Codec() {}
+
+    @NonNull
+    static String encode(@NonNull byte[] data) {
+        StringBuilder out = new StringBuilder((data.length + 2) / 3 * 4);
+        int i = 0;
+        for (; i + 2 < data.length; i += 3) {
+            int chunk = (data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8 | (data[i + 2] & 0xff);
+            out.append(ALPHABET[chunk >>> 18])
+                    .append(ALPHABET[(chunk >>> 12) & 0x3f])
+                    .append(ALPHABET[(chunk >>> 6) & 0x3f])
+                    .append(ALPHABET[chunk & 0x3f]);
+        }
+        int rest = data.length - i;
+        if (rest == 1) {
+            int chunk = (data[i] & 0xff) << 16;
+            out.append(ALPHABET[chunk >>> 18])
+                    .append(ALPHABET[(chunk >>> 12) & 0x3f])
+                    .append("==");
+        } else if (rest == 2) {
+            int chunk = (data[i] & 0xff) << 16 | (data[i + 1] & 0xff) << 8;
+            out.append(ALPHABET[chunk >>> 18])
+                    .append(ALPHABET[(chunk >>> 12) & 0x3f])
+                    .append(ALPHABET[(chunk >>> 6) & 0x3f])
+                    .append('=');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decode padded Base64.
+     *
+     * @return the bytes, or null if text is not valid padded Base64
+     */
+    @Nullable
+    static byte[] decode(@NonNull String text) {
+        int length = text.length();
+        if (length % 4 != 0) return null;
+        int padding = 0;
+        if (length > 0 && text.charAt(length - 1) == '=') padding++;
+        if (length > 1 && text.charAt(length - 2) == '=') padding++;
+
+        byte[] out = new byte[length / 4 * 3 - padding];
+        int o = 0;
+        for (int i = 0; i < length; i += 4) {
+            int chunk = 0;
+            for (int j = 0; j < 4; j++) {
+                char c = text.charAt(i + j);
+                int value;
+                if (c == '=' && i + j >= length - padding) {
+                    value = 0;
+                } else if (c < 128 && VALUES[c] >= 0) {
+                    value = VALUES[c];
+                } else {
+                    return null;
+                }
+                chunk = chunk << 6 | value;
+            }
+            if (o < out.length) out[o++] = (byte) (chunk >>> 16);
+            if (o < out.length) out[o++] = (byte) (chunk >>> 8);
+            if (o < out.length) out[o++] = (byte) chunk;
+        }
+        return out;
+    }
+}
@@ -1,11 +1,7 @@
 package com.example.louver.data.auth;
 
-import android.util.Base64;
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 
-import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
@@ -15,6 +11,13 @@ import java.util.Locale;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+/**
+ * PasswordHasher: PBKDF2 password hashes stored as
+ * pbkdf2_sha256$iterations$saltBase64$hashBase64.
+ *
+ * Pure Java (see {@link Base64Codec}), so it runs and can be benchmarked on a
+ * plain JVM. Both methods wipe the password array they are given.
+ */
 public final class PasswordHasher {
 
     private static final SecureRandom RNG = new SecureRandom();
@@ -52,8 +55,8 @@ public final class PasswordHasher {
 
         try {
             derived = pbkdf2(password, salt, iterations, KEY_LENGTH_BITS, ALGORITHM);
-            String saltB64 = Base64.encodeToString(salt, Base64.NO_WRAP);
-            String hashB64 = Base64.encodeToString(derived, Base64.NO_WRAP);
+            String saltB64 = Base64Codec.encode(salt);
+            String hashB64 = Base64Codec.encode(derived);
             return HASH_PREFIX + "$" + iterations + "$" + saltB64 + "$" + hashB64;
         } finally {
             wipe(password);
@@ -67,17 +70,11 @@ public final class PasswordHasher {
         byte[] expected = null;
         byte[] actual = null;
 
-        // Log exact password being verified
-        Log.d("VERIFY_DEBUG", "Password length: " + password.length);
-        Log.d("VERIFY_DEBUG", "Password chars: [" + new String(password) + "]");
-
         try {
             String[] parts = stored.split("\\$");
-            Log.d("VERIFY_DEBUG", "Parts count: " + parts.length);
             if (parts.length != 4) return false;
 
             String prefix = parts[0].toLowerCase(Locale.US);
-            Log.d("VERIFY_DEBUG", "Algo prefix: " + prefix);
             if (!prefix.startsWith("pbkdf2_")) return false;
 
             // Derive exact JCE algorithm name from stored prefix
@@ -89,30 +86,23 @@ public final class PasswordHasher {
             } else if (prefix.equals("pbkdf2_sha1")) {
                 jceAlgo = "PBKDF2WithHmacSHA1";
             } else {
-                Log.d("VERIFY_DEBUG", "Unknown prefix: " + prefix);
                 return false;
             }
-            Log.d("VERIFY_DEBUG", "JCE algo: " + jceAlgo);
 
             int iterations;
             try {
                 iterations = Integer.parseInt(parts[1]);
             } catch (NumberFormatException e) {
-                Log.d("VERIFY_DEBUG", "Bad iterations: " + parts[1]);
                 return false;
             }
-            Log.d("VERIFY_DEBUG", "Iterations: " + iterations);
+            if (iterations <= 0) return false;
 
-            salt     = Base64.decode(parts[2], Base64.NO_WRAP);
-            expected = Base64.decode(parts[3], Base64.NO_WRAP);
-            Log.d("VERIFY_DEBUG", "Salt len: " + salt.length + " Expected len: " + expected.length);
+            salt     = Base64Codec.decode(parts[2]);
+            expected = Base64Codec.decode(parts[3]);
+            if (salt == null || salt.length == 0 || expected == null || expected.length == 0) return false;
 
             actual = pbkdf2(password, salt, iterations, expected.length * 8, jceAlgo);
-            Log.d("VERIFY_DEBUG", "Actual len: " + (actual != null ? actual.length : -1));
-
-            boolean match = MessageDigest.isEqual(expected, actual);
-            Log.d("VERIFY_DEBUG", "isEqual: " + match);
-            return match;
+            return MessageDigest.isEqual(expected, actual);
         } finally {
             wipe(password);
             if (salt != null) wipe(salt);
@@ -0,0 +1,172 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BookingIntervalIndex: In-memory per-car index of the time ranges that block a car
+ * (bookings with status ACTIVE or OVERDUE).
+ *
+ * Each car keeps its blocking bookings plus a sorted map of merged, disjoint busy
+ * ranges [start, end). Because the ranges are disjoint and sorted, an overlap check
+ * only needs the last range starting before the requested end: O(log n).
+ *
+ * Cars are loaded lazily from Room on first use (see {@link #load}); writes made
+ * through BookingRepository keep loaded cars in sync via {@link #put} / {@link #remove}.
+ * Pure Java: no Context, no Room access.
+ */
+public final class BookingIntervalIndex {
+
+    /**
+     * A free time range [startAt, endAt) for a car.
+     */
+    public static final class FreeWindow {
+        public final long startAt;
+        public final long endAt;
+
+        FreeWindow(long startAt, long endAt) {
+            this.startAt = startAt;
+            this.endAt = endAt;
+        }
+    }
+
+    private final Map<Long, CarSchedule> schedulesByCar = new HashMap<>();
+    private final Map<Long, Long> carIdByBooking = new HashMap<>();
+
+    public synchronized boolean isLoaded(long carId) {
+        return schedulesByCar.containsKey(carId);
+    }
+
+    /**
+     * Start tracking a car. Any previous state for it is replaced.
+     *
+     * @param bookingIds  ids of the car's blocking bookings
+     * @param pickupAts   pickup time of each booking (same order as bookingIds)
+     * @param returnAts   return time of each booking (same order as bookingIds)
+     */
+    public synchronized void load(long carId, long[] bookingIds, long[] pickupAts, long[] returnAts) {
+        CarSchedule old = schedulesByCar.remove(carId);
+        if (old != null) {
+            for (Long bookingId : old.rangesByBooking.keySet()) {
+                carIdByBooking.remove(bookingId);
+            }
+        }
+        CarSchedule schedule = new CarSchedule();
+        for (int i = 0; i < bookingIds.length; i++) {
+            schedule.add(bookingIds[i], pickupAts[i], returnAts[i]);
+            carIdByBooking.put(bookingIds[i], carId);
+        }
+        schedulesByCar.put(carId, schedule);
+    }
+
+    /**
+     * Add or move a blocking booking. Ignored for cars that are not loaded yet,
+     * since their first load will read the booking from the database.
+     */
+    public synchronized void put(long bookingId, long carId, long pickupAt, long returnAt) {
+        remove(bookingId);
+        CarSchedule schedule = schedulesByCar.get(carId);
+        if (schedule == null) return;
+        schedule.add(bookingId, pickupAt, returnAt);
+        carIdByBooking.put(bookingId, carId);
+    }
+
+    /**
+     * Stop treating a booking as blocking (cancelled, completed, or any non-blocking status).
+     */
+    public synchronized void remove(long bookingId) {
+        Long carId = carIdByBooking.remove(bookingId);
+        if (carId == null) return;
+        CarSchedule schedule = schedulesByCar.get(carId);
+        if (schedule != null) schedule.remove(bookingId);
+    }
+
+    /**
+     * True if [pickupAt, returnAt) intersects any blocking booking of a loaded car.
+     * Touching ranges (one ends exactly when the other starts) do not overlap.
+     */
+    public synchronized boolean overlaps(long carId, long pickupAt, long returnAt) {
+        CarSchedule schedule = schedulesByCar.get(carId);
+        return schedule != null && schedule.overlaps(pickupAt, returnAt);
+    }
+
+    /**
+     * Earliest free window of the given length starting at or after fromMillis.
+     * Always succeeds for a loaded car (after the last booking the car is free).
+     *
+     * @return the window, or null if the car is not loaded or durationMillis is not positive
+     */
+    @Nullable
+    public synchronized FreeWindow findNextFreeWindow(long carId, long fromMillis, long durationMillis) {
+        CarSchedule schedule = schedulesByCar.get(carId);
+        if (schedule == null || durationMillis <= 0) return null;
+        return schedule.nextFree(fromMillis, durationMillis);
+    }
+
+    public synchronized void clear() {
+        schedulesByCar.clear();
+        carIdByBooking.clear();
+    }
+
+    private static final class CarSchedule {
+
+        // bookingId -> {pickupAt, returnAt}
+        final Map<Long, long[]> rangesByBooking = new HashMap<>();
+
+        // Merged, disjoint busy ranges: start -> end
+        final TreeMap<Long, Long> busy = new TreeMap<>();
+
+        void add(long bookingId, long start, long end) {
+            if (end <= start) return;
+            rangesByBooking.put(bookingId, new long[]{start, end});
+            merge(start, end);
+        }
+
+        void remove(long bookingId) {
+            if (rangesByBooking.remove(bookingId) == null) return;
+            // Merged ranges cannot be split safely, so rebuild from the remaining bookings.
+            // A car only has a handful of blocking bookings at a time.
+            busy.clear();
+            for (long[] range : rangesByBooking.values()) {
+                merge(range[0], range[1]);
+            }
+        }
+
+        boolean overlaps(long start, long end) {
+            Map.Entry<Long, Long> last = busy.lowerEntry(end);
+            return last != null && last.getValue() > start;
+        }
+
+        FreeWindow nextFree(long from, long length) {
+            long candidate = from;
+            Map.Entry<Long, Long> covering = busy.floorEntry(candidate);
+            if (covering != null && covering.getValue() > candidate) {
+                candidate = covering.getValue();
+            }
+            for (Map.Entry<Long, Long> next : busy.tailMap(candidate, true).entrySet()) {
+                if (next.getKey() - candidate >= length) break;
+                candidate = Math.max(candidate, next.getValue());
+            }
+            return new FreeWindow(candidate, candidate + length);
+        }
+
+        private void merge(long start, long end) {
+            Map.Entry<Long, Long> prev = busy.floorEntry(start);
+            if (prev != null && prev.getValue() >= start) {
+                start = prev.getKey();
+                end = Math.max(end, prev.getValue());
+                busy.remove(prev.getKey());
+            }
+            Map.Entry<Long, Long> next = busy.ceilingEntry(start);
+            while (next != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                busy.remove(next.getKey());
+                next = busy.ceilingEntry(start);
+            }
+            busy.put(start, end);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.louver.data.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * RatingOrder: the "top rated" car order as plain Java.
+ *
+ * The catalog sorts by rating in SQL (CarFilterCompiler, CarSort.RATING). This is
+ * the same order for code that already holds the rating totals:
+ *   1. cars with reviews before cars without,
+ *   2. higher average stars first,
+ *   3. newer cars first (createdAt), then higher id.
+ */
+public final class RatingOrder {
+
+    /** One car's sort key: the totals car_rating_stats keeps per car. */
+    public static final class Entry {
+        public final long carId;
+        public final long createdAt;
+        public final long starsSum;
+        public final int reviewCount;
+
+        public Entry(long carId, long createdAt, long starsSum, int reviewCount) {
+            this.carId = carId;
+            this.createdAt = createdAt;
+            this.starsSum = starsSum;
+            this.reviewCount = reviewCount;
+        }
+
+        public boolean isRated() {
+            return reviewCount > 0;
+        }
+
+        /** Average stars, or 0 for a car without reviews. */
+        public double averageRating() {
+            return reviewCount > 0 ? (double) starsSum / reviewCount : 0.0;
+        }
+    }
+
+    public static final Comparator<Entry> COMPARATOR = (a, b) -> {
+        if (a.isRated() != b.isRated()) return a.isRated() ? -1 : 1;
+        if (a.isRated()) {
+            // Compare averages without dividing: sumA / countA vs sumB / countB
+            int byRating = Long.compare(b.starsSum * a.reviewCount, a.starsSum * b.reviewCount);
+            if (byRating != 0) return byRating;
+        }
+        int byAge = Long.compare(b.createdAt, a.createdAt);
+        return byAge != 0 ? byAge : Long.compare(b.carId, a.carId);
+    };
+
+    private RatingOrder() {}
+
+    /** Sort entries in place, best rated first. */
+    public static void sort(@NonNull List<Entry> entries) {
+        Collections.sort(entries, COMPARATOR);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.louver.data.auth;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PasswordHasherTest {
+
+    // Written by the Android build (android.util.Base64, NO_WRAP): salt 00..0f,
+    // 1000 iterations, password "correct horse"
+    private static final String STORED_BY_ANDROID =
+            "pbkdf2_sha256$1000$AAECAwQFBgcICQoLDA0ODw==$yRTMTwbMbo9G0VfjobWqerzuuxe7BETNTErBbKKumGQ=";
+
+    @Test
+    public void verifiesHashesFromTheAndroidBuild() {
+        assertTrue(PasswordHasher.verifyPassword("correct horse".toCharArray(), STORED_BY_ANDROID));
+        assertFalse(PasswordHasher.verifyPassword("correct horsf".toCharArray(), STORED_BY_ANDROID));
+    }
+
+    @Test
+    public void hashThenVerify() {
+        String stored = PasswordHasher.hashPassword("s3cret!");
+        assertTrue(stored.startsWith("pbkdf2_sha256$120000$"));
+        assertTrue(PasswordHasher.verifyPassword("s3cret!".toCharArray(), stored));
+        assertFalse(PasswordHasher.verifyPassword("s3cret".toCharArray(), stored));
+    }
+
+    @Test
+    public void verifyWipesThePassword() {
+        char[] password = "correct horse".toCharArray();
+        PasswordHasher.verifyPassword(password, STORED_BY_ANDROID);
+        assertArrayEquals(new char[password.length], password);
+    }
+
+    @Test
+    public void rejectsMalformedHashes() {
+        String[] malformed = {
+                "",
+                "pbkdf2_sha256$1000$AAECAwQFBgcICQoLDA0ODw==",
+                "bcrypt$1000$AAECAwQFBgcICQoLDA0ODw==$yRTMTwbMbo9G0VfjobWqerzuuxe7BETNTErBbKKumGQ=",
+                "pbkdf2_sha256$many$AAECAwQFBgcICQoLDA0ODw==$yRTMTwbMbo9G0VfjobWqerzuuxe7BETNTErBbKKumGQ=",
+                "pbkdf2_sha256$0$AAECAwQFBgcICQoLDA0ODw==$yRTMTwbMbo9G0VfjobWqerzuuxe7BETNTErBbKKumGQ=",
+                "pbkdf2_sha256$1000$not*base64$yRTMTwbMbo9G0VfjobWqerzuuxe7BETNTErBbKKumGQ=",
+                "pbkdf2_sha256$1000$AAECAwQFBgcICQoLDA0ODw==$",
+        };
+        for (String stored : malformed) {
+            assertFalse(stored, PasswordHasher.verifyPassword("correct horse".toCharArray(), stored));
+        }
+    }
+
+    @Test
+    public void base64MatchesTheJdkCodec() {
+        Random random = new Random(7);
+        for (int length = 0; length < 70; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String expected = java.util.Base64.getEncoder().encodeToString(data);
+            assertEquals(expected, Base64Codec.encode(data));
+            assertArrayEquals(data, Base64Codec.decode(expected));
+        }
+        assertNull(Base64Codec.decode("AAE"));
+        assertNull(Base64Codec.decode("AA=A"));
+        assertNull(Base64Codec.decode("AAÉA"));
+    }
+}
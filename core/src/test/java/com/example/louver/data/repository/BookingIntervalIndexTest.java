@@ -0,0 +1,46 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BookingIntervalIndexTest {
+
+    @Test
+    public void touchingRangesDoNotOverlap() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.load(1, new long[]{10, 11}, new long[]{100, 300}, new long[]{200, 400});
+
+        assertFalse(index.overlaps(1, 200, 300));
+        assertFalse(index.overlaps(1, 0, 100));
+        assertTrue(index.overlaps(1, 199, 201));
+        assertTrue(index.overlaps(1, 50, 500));
+        assertFalse(index.overlaps(2, 0, 1000));
+    }
+
+    @Test
+    public void removeReopensTheRange() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.load(1, new long[]{10, 11}, new long[]{100, 150}, new long[]{200, 250});
+
+        index.remove(10);
+
+        assertFalse(index.overlaps(1, 100, 150));
+        assertTrue(index.overlaps(1, 200, 210));
+    }
+
+    @Test
+    public void nextFreeWindowSkipsGapsThatAreTooShort() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.load(1, new long[]{10, 11}, new long[]{100, 250}, new long[]{200, 400});
+
+        BookingIntervalIndex.FreeWindow window = index.findNextFreeWindow(1, 120, 100);
+        assertEquals(400, window.startAt);
+        assertEquals(500, window.endAt);
+        assertEquals(200, index.findNextFreeWindow(1, 120, 50).startAt);
+        assertNull(index.findNextFreeWindow(2, 0, 10));
+    }
+}
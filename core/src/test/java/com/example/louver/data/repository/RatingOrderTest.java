@@ -0,0 +1,35 @@
+package com.example.louver.data.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RatingOrderTest {
+
+    @Test
+    public void ratedCarsFirstThenByAverageThenNewest() {
+        List<RatingOrder.Entry> cars = new ArrayList<>(Arrays.asList(
+                new RatingOrder.Entry(1, 100, 0, 0),    // unrated, older
+                new RatingOrder.Entry(2, 100, 9, 3),    // 3.0
+                new RatingOrder.Entry(3, 200, 0, 0),    // unrated, newer
+                new RatingOrder.Entry(4, 100, 14, 3),   // 4.67
+                new RatingOrder.Entry(5, 300, 6, 2),    // 3.0, newer than 2
+                new RatingOrder.Entry(6, 300, 3, 1)));  // 3.0, same age as 5, higher id
+
+        RatingOrder.sort(cars);
+
+        long[] ids = new long[cars.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = cars.get(i).carId;
+        assertEquals("[4, 6, 5, 2, 3, 1]", Arrays.toString(ids));
+    }
+
+    @Test
+    public void averageOfUnratedCarIsZero() {
+        assertEquals(0.0, new RatingOrder.Entry(1, 0, 0, 0).averageRating(), 0.0);
+        assertEquals(4.5, new RatingOrder.Entry(1, 0, 9, 2).averageRating(), 0.0);
+    }
+}
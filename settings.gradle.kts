@@ -20,5 +20,39 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "Louver"
-include(":app")
- 
\ No newline at end of file
+include(":core")
+include(":benchmarks")
+
+// :app needs an Android SDK. Without one, a build that only asks for tasks of the
+// JVM modules (e.g. ./gradlew :benchmarks:jmh) leaves :app out on its own; anything
+// else must pass -PjvmOnly, so :app is never dropped by accident.
+val jvmModules = listOf(":core", ":benchmarks")
+val invokedIn = startParameter.currentDir.relativeTo(settingsDir).invariantSeparatorsPath
+fun isJvmModuleTask(task: String): Boolean {
+    val path = when {
+        task.startsWith(":") -> task
+        invokedIn.isEmpty() || invokedIn.startsWith("..") -> return false
+        else -> ":" + invokedIn.replace('/', ':') + ":" + task
+    }
+    return jvmModules.any { path == it || path.startsWith("$it:") }
+}
+val requestedTasks = startParameter.taskNames
+val jvmTasksOnly = requestedTasks.isNotEmpty() && requestedTasks.all(::isJvmModuleTask)
+
+val jvmOnly = providers.gradleProperty("jvmOnly").isPresent
+val localProperties = file("local.properties")
+val hasAndroidSdk = System.getenv("ANDROID_HOME") != null ||
+        System.getenv("ANDROID_SDK_ROOT") != null ||
+        (localProperties.isFile && localProperties.readText().contains("sdk.dir"))
+if (jvmOnly) {
+    logger.lifecycle("-PjvmOnly: building :core and :benchmarks only")
+} else if (hasAndroidSdk) {
+    include(":app")
+} else if (jvmTasksOnly) {
+    logger.lifecycle("No Android SDK found: building :core and :benchmarks only")
+} else {
+    throw GradleException(
+        "No Android SDK found: set ANDROID_HOME or sdk.dir in local.properties, " +
+                "or pass -PjvmOnly to build :core and :benchmarks only"
+    )
+}